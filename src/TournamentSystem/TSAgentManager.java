@@ -29,7 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
 
 /**
  * This is the core of the GBG Tournament System.
@@ -41,16 +41,18 @@ public class TSAgentManager {
     private final String TAG = "[TSAgentManager] ";
     public TSResultStorage results;
     public JTextField gameNumJTF, numOfMovesJTF;
-    public JCheckBox nRandomJCB, autoSaveAfterTSJCB;
+    public JCheckBox nRandomJCB, autoSaveAfterTSJCB, parallelTSJCB;
     public JRadioButton singleRR, doubleRR;
     private Glicko2RatingCalculator glicko2RatingSystem;
     private Glicko2RatingPeriodResults glicko2Results;
     private int episodesPlayed;
     private boolean autoSaveAfterTS;
+    private boolean parallelTS;
     private final int numPlayers;
     private StateObservation[] randomStartStates;
     private boolean playDoubleRoundRobin = true;
     private int userGameNumLimitDRR;
+    private Random rand = new Random();
 
     public static final float factorWin = 1.0f;
     public static final float factorTie = 0.5f;
@@ -65,6 +67,7 @@ public class TSAgentManager {
 
         episodesPlayed = 0;
         autoSaveAfterTS = false;
+        parallelTS = false;
         numPlayers = gameNumberOfPlayers;
     }
 
@@ -111,6 +114,24 @@ public class TSAgentManager {
         return autoSaveAfterTS;
     }
 
+    /**
+     * en/disable playing the matches concurrently on {@link TSParallelEngine} (only if all agents are HDD agents,
+     * see {@link TSParallelEngine#isApplicable(TSAgentManager)}). Since the matches then compete for the CPU,
+     * the time measurements in {@link TSTimeStorage} are not comparable to those of a sequential tournament.
+     * @param b true:enable, false:disable (standard:disabled)
+     */
+    public void setParallelTS(boolean b) {
+        parallelTS = b;
+    }
+
+    /**
+     * did the user enable playing the matches concurrently
+     * @return boolean if parallel tournament is enabled
+     */
+    public boolean getParallelTS() {
+        return parallelTS;
+    }
+
     /**
      * set number of episodes (rounds) to be played per match. 
      * A match is a pair of agents in the gamePlan 
@@ -128,6 +149,16 @@ public class TSAgentManager {
         results.numberOfRandomStartMoves = num;
     }
 
+    /**
+     * set the seed for the random choices of the tournament: the random start states and the matches of a
+     * double round robin with custom number of matches. Together with {@link TSParallelEngine} (which plays
+     * each match on fresh copies of its agents) the same seed reproduces the same tournament results.
+     * @param seed random seed
+     */
+    public void setSeed(long seed) {
+        rand = new Random(seed);
+    }
+
     /**
      * add a new agent to the tournament
      * @param name agent name
@@ -169,6 +200,7 @@ public class TSAgentManager {
         numOfMovesJTF.setEnabled(state);
         nRandomJCB.setEnabled(state);
         autoSaveAfterTSJCB.setEnabled(state);
+        parallelTSJCB.setEnabled(state);
 
         if (numPlayers>1) {
             singleRR.setEnabled(state);
@@ -427,7 +459,7 @@ public class TSAgentManager {
      * @return random Integers fitting the given parameters
      */
     private int getRandomInt(int low, int high) {
-        return ThreadLocalRandom.current().nextInt(low, high + 1);
+        return rand.nextInt(high - low + 1) + low;
     }
 
     /**
@@ -1397,6 +1429,14 @@ public class TSAgentManager {
         return ((data - dataLow) / (dataHigh - dataLow)) * (normalizedHigh - normalizedLow) + normalizedLow;
     }
 
+    /**
+     * @param episode number of the episode in a match
+     * @return the start state of this episode (the same for all matches)
+     */
+    public StateObservation getStartState(int episode) {
+        return randomStartStates[episode];
+    }
+
     public StateObservation getNextStartState() {
         int gameNumNow;
         if (numPlayers==1) {
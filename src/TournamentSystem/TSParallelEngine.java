@@ -0,0 +1,276 @@
+package TournamentSystem;
+
+import agentIO.ParallelAgentLoader;
+import controllers.AgentBase;
+import controllers.PlayAgent;
+import controllers.PlayAgtVector;
+import games.Arena;
+import games.GBGBatch;
+import games.StateObservation;
+import games.XArenaFuncs;
+import tools.ScoreTuple;
+import tools.Types;
+
+import javax.swing.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays the matches of a 2-player round robin tournament (the gamePlan of {@link TSAgentManager}) on a pool of
+ * worker threads, without GUI.
+ * <p>
+ * The agents are in general not thread-safe, and they carry state from one move to the next (random generators,
+ * search trees, ...). Therefore each match is played on fresh copies of its two agents, re-instantiated from a
+ * serialized snapshot taken at tournament start. All episodes of a match are played one after the other by one
+ * worker. So the outcome of a match does not depend on which matches were played before or concurrently, and the
+ * results are entered in the order of the gamePlan via {@link TSAgentManager#enterGameResultWinner(int)} (which
+ * updates the Elo and Glicko2 ratings sequentially). With the same seed ({@link TSAgentManager#setSeed(long)}) a
+ * run with one thread and a run with many threads give identical results (if the agents draw their random numbers
+ * only from their own {@link java.util.Random} objects).
+ * <p>
+ * Each worker writes the time measurements only to the {@link TSTimeStorage}s of its current match.
+ * <p>
+ * Only agents loaded from disk (HDD agents) can be played here, see {@link #isApplicable(TSAgentManager)}.
+ * <p>
+ * Usage without GUI:
+ * <pre>
+ *    TSParallelEngine gameName episodes agentFile1 agentFile2 ... [ --threads=T ] [ --seed=S ] [ --single ]
+ *                     [ --randomStartMoves=R ]</pre>
+ * Agent files which are not found as given are looked up in the agent directory of the game. Option
+ * {@code --single} plays a single round robin (default: double round robin).
+ */
+public class TSParallelEngine {
+    /**
+     * the default number of worker threads
+     */
+    public static int NUM_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private final String TAG = "[TSParallelEngine] ";
+    private final TSAgentManager manager;
+    private final XArenaFuncs xfun;
+    private final Arena arena;
+    private final int nThreads;
+
+    /**
+     * @param manager the tournament, already locked by {@link TSAgentManager#lockToCompete(games.GameBoard)}
+     * @param arena   needed to wrap the agents (see {@link XArenaFuncs#wrapAgents(PlayAgent[], StateObservation, games.XArenaButtons)})
+     * @param nThreads number of worker threads, 1 plays the matches one after the other in the calling thread
+     */
+    public TSParallelEngine(TSAgentManager manager, Arena arena, int nThreads) {
+        this.manager = manager;
+        this.arena = arena;
+        this.xfun = arena.m_xfun;
+        this.nThreads = Math.max(1, nThreads);
+    }
+
+    /**
+     * @return true, if the tournament is a 2-player tournament of HDD agents only
+     */
+    public static boolean isApplicable(TSAgentManager manager) {
+        if (manager.getNumPlayers() != 2)
+            return false;
+        for (int id : manager.getIDAgentsSelected()) {
+            TSAgent a = manager.results.mAgents.get(id);
+            if (!a.isHddAgent() || a.getPlayAgent() == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Play all remaining matches of the gamePlan and enter their results.
+     *
+     * @param onResult if not null, called in the calling thread after each episode result is entered (e.g.
+     *                 to update a progress bar with {@link TSAgentManager#getTSProgress()})
+     * @return true, if all matches were played, false if a match failed (the tournament is then incomplete)
+     */
+    public boolean run(Runnable onResult) {
+        TSResultStorage results = manager.results;
+        if (!results.lockedToCompete)
+            throw new RuntimeException("TSAgentManager is not locked, run lockToCompete() first");
+        if (!isApplicable(manager))
+            throw new RuntimeException("TSParallelEngine needs a 2-player tournament of HDD agents only");
+
+        // serialize each agent once, each match gets its own copies:
+        HashMap<Integer, byte[]> snapshots = new HashMap<>();
+        try {
+            for (int[] match : results.gamePlan)
+                for (int id : match)
+                    if (!snapshots.containsKey(id))
+                        snapshots.put(id, serialize(results.mAgents.get(id).getPlayAgent()));
+        } catch (IOException e) {
+            System.out.println(TAG + "ERROR :: could not copy agents: " + e.getMessage());
+            return false;
+        }
+        StateObservation[] startStates = new StateObservation[results.numberOfEpisodes];
+        for (int k = 0; k < startStates.length; k++)
+            startStates[k] = manager.getStartState(k);
+
+        ExecutorService executor = (nThreads > 1) ? Executors.newFixedThreadPool(nThreads, r -> {
+            Thread t = new Thread(r, "TSParallelEngine");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        ArrayList<Future<int[]>> futures = new ArrayList<>();
+        int first = results.nextGame;
+        for (int m = first; executor != null && m < results.gamePlan.length; m++) {
+            final byte[] snapX = snapshots.get(results.gamePlan[m][0]);
+            final byte[] snapO = snapshots.get(results.gamePlan[m][1]);
+            final StateObservation[] matchStates = new StateObservation[startStates.length];
+            for (int k = 0; k < startStates.length; k++)
+                matchStates[k] = startStates[k].copy();     // each worker gets its own start states
+            final TSTimeStorage[] times = results.timeStorage[m];
+            futures.add(executor.submit(() -> playMatch(snapX, snapO, matchStates, times)));
+        }
+
+        try {
+            for (int m = first; m < results.gamePlan.length; m++) {
+                int[] winners;
+                if (executor != null) {
+                    winners = futures.get(m - first).get();
+                } else {
+                    winners = playMatch(snapshots.get(results.gamePlan[m][0]), snapshots.get(results.gamePlan[m][1]),
+                            startStates, results.timeStorage[m]);
+                }
+                for (int w : winners) {
+                    manager.enterGameResultWinner(w); // 0=winAgent1 | 1=tie | 2=winAgent2
+                    if (onResult != null)
+                        onResult.run();
+                }
+            }
+        } catch (ExecutionException | IOException | RuntimeException e) {
+            Throwable cause = (e instanceof ExecutionException) ? e.getCause() : e;
+            System.out.println(TAG + "ERROR :: match " + results.nextGame + " failed: " + cause);
+            cause.printStackTrace();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (executor != null)
+                executor.shutdownNow();
+        }
+        manager.hasNextGame();      // sets results.tournamentDone
+        return true;
+    }
+
+    /**
+     * Play all episodes of one match on fresh copies of the agents.
+     *
+     * @return for each episode: 0, 1, 2 if agent X wins, tie, agent O wins
+     */
+    private int[] playMatch(byte[] snapX, byte[] snapO, StateObservation[] startStates, TSTimeStorage[] times)
+            throws IOException {
+        PlayAgent[] paVector = {deserialize(snapX), deserialize(snapO)};
+        AgentBase.validTrainedAgents(paVector, 2);  // may throw RuntimeException
+        PlayAgent[] qaVector = xfun.wrapAgents(paVector, startStates[0], arena.m_xab);
+        PlayAgtVector pav = new PlayAgtVector(qaVector);
+
+        int[] winners = new int[startStates.length];
+        for (int k = 0; k < startStates.length; k++) {
+            ScoreTuple sc = XArenaFuncs.competeNPlayer(pav, startStates[k], 1, 0, times);
+            times[0].roundFinished();
+            times[1].roundFinished();
+            winners[k] = (sc.scTup[0] > sc.scTup[1]) ? 0 : (sc.scTup[0] == sc.scTup[1]) ? 1 : 2;
+        }
+        return winners;
+    }
+
+    private static byte[] serialize(PlayAgent pa) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(pa);
+        }
+        return bos.toByteArray();
+    }
+
+    private static PlayAgent deserialize(byte[] snap) throws IOException {
+        PlayAgent pa;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(snap))) {
+            pa = (PlayAgent) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Class not found: " + e.getMessage(), e);
+        }
+        pa.instantiateAfterLoading();
+        if (pa.getParOther() == null)
+            ((AgentBase) pa).setDefaultParOther();
+        return pa;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int nThreads = NUM_THREADS;
+        long seed = 42L;
+        boolean single = false;
+        int randomStartMoves = 0;
+        ArrayList<String> posArgs = new ArrayList<>();
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("--threads=")) {
+                    nThreads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--randomStartMoves=")) {
+                    randomStartMoves = Integer.parseInt(arg.substring("--randomStartMoves=".length()));
+                } else if (arg.equals("--single")) {
+                    single = true;
+                } else {
+                    posArgs.add(arg);
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("[TSParallelEngine.main]: option '" + arg + "' has no valid number!");
+                System.exit(1);
+            }
+        }
+        if (posArgs.size() < 4) {
+            System.err.println("Usage: TSParallelEngine gameName episodes agentFile1 agentFile2 ... "
+                    + "[ --threads=T ] [ --seed=S ] [ --single ] [ --randomStartMoves=R ]");
+            System.exit(1);
+        }
+
+        String selectedGame = posArgs.get(0);
+        Arena arena = GBGBatch.setupSelectedGame(selectedGame, GBGBatch.setDefaultScaPars(selectedGame));
+        String strDir = Types.GUI_DEFAULT_DIR_AGENT + "/" + selectedGame;
+        String subDir = arena.getGameBoard().getSubDir();
+        if (subDir != null)
+            strDir += "/" + subDir;
+        File[] files = new File[posArgs.size() - 2];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new File(posArgs.get(i + 2));
+            if (!files[i].exists())
+                files[i] = new File(strDir, posArgs.get(i + 2));
+        }
+
+        TSAgentManager manager = new TSAgentManager(arena.getGameBoard().getStateObs().getNumPlayers());
+        manager.setSeed(seed);
+        manager.setNumberOfEpisodes(Integer.parseInt(posArgs.get(1)));
+        manager.setNumberOfRandomStartMoves(randomStartMoves);
+        manager.setTournamentMode(single ? 0 : 1, 0);
+        ParallelAgentLoader loader = new ParallelAgentLoader(files);
+        for (int i = 0; i < files.length; i++) {
+            PlayAgent pa = loader.get(i);
+            String type = pa.getClass().getName();
+            manager.addAgent(loader.getFileName(i), type.substring(type.lastIndexOf('.') + 1),
+                    new JCheckBox(loader.getFileName(i), true), true, pa);
+        }
+
+        long start = System.currentTimeMillis();
+        manager.lockToCompete(arena.getGameBoard());
+        boolean done = new TSParallelEngine(manager, arena, nThreads).run(null);
+        manager.results.durationTSMS = System.currentTimeMillis() - start;
+        manager.printGameResults();
+        System.out.println("[TSParallelEngine.main] " + (done ? "finished" : "aborted") + " after "
+                + manager.results.durationTSMS / 1000.0 + " sec with " + nThreads + " threads");
+        manager.unlockAfterComp();
+        System.exit(done ? 0 : 1);
+    }
+}
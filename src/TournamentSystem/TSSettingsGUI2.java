@@ -1,6 +1,6 @@
 package TournamentSystem;
 
-import TournamentSystem.tools.TSDiskAgentDataTransfer;
+import agentIO.ParallelAgentLoader;
 import controllers.*;
 import games.Arena;
 import games.ArenaTrain;
@@ -48,6 +48,7 @@ public class TSSettingsGUI2 extends JFrame {
     private JButton unselectAllHDDAgentsButton;
     private JButton deleteSelectedHDDAgentsButton;
     private JCheckBox autoSaveAfterTSFinishedCheckBox;
+    private JCheckBox parallelTSCheckBox;
     private JRadioButton singleRoundRobinRadioButton;
     private JRadioButton doubleRoundRobinRadioButton;
     private JRadioButton variableDoubleRoundRobinRadioButton;
@@ -186,6 +187,7 @@ public class TSSettingsGUI2 extends JFrame {
         mTSAgentManager.numOfMovesJTF = numOfMovesTextField;
         mTSAgentManager.nRandomJCB = addNRandomMovesCheckBox;
         mTSAgentManager.autoSaveAfterTSJCB = autoSaveAfterTSFinishedCheckBox;
+        mTSAgentManager.parallelTSJCB = parallelTSCheckBox;
         mTSAgentManager.singleRR = singleRoundRobinRadioButton;
         mTSAgentManager.doubleRR = doubleRoundRobinRadioButton;
 
@@ -333,7 +335,9 @@ public class TSSettingsGUI2 extends JFrame {
     }
 
     /**
-     * loads previously saved agents from disk into the tournament system
+     * loads previously saved agents from disk into the tournament system. The agents are loaded concurrently
+     * (see {@link ParallelAgentLoader}) and added to the GUI one by one as soon as they are ready, so a
+     * tournament may already be started with the first agents.
      */
     private void loadAgentsFromDisk() {
         if (mArena.taskState != ArenaTrain.Task.IDLE) {
@@ -341,51 +345,73 @@ public class TSSettingsGUI2 extends JFrame {
             return;
         }
 
-        TSDiskAgentDataTransfer agentsAndFileNames;
-
-        try {
-            //playAgent = mArena.tdAgentIO.loadGBGAgent(null); // opens file dialog to locate single agent
-            agentsAndFileNames = mArena.tdAgentIO.loadMultipleGBGAgent(); // opens file dialog to locate multiple agents
-        } catch (IOException e) {
-            System.out.println(TAG + "ERROR :: No agent loaded from disk");
-            //e.printStackTrace();
+        //playAgent = mArena.tdAgentIO.loadGBGAgent(null); // opens file dialog to locate single agent
+        final ParallelAgentLoader loader = mArena.tdAgentIO.loadMultipleGBGAgentParallel(); // opens file dialog to locate multiple agents
+        if (loader == null) // avoids crash when file dialog is closed with no file chosen
             return;
-        } catch (Exception e) {
-            System.out.println(TAG + "ERROR :: No agent loaded from disk");
-            //e.printStackTrace();
+
+        Thread t = new Thread(() -> {
+            try {
+                for (int i = loader.take(); i >= 0; i = loader.take()) {
+                    final int k = i;
+                    final int percent = Math.min(100, (int) (loader.getProgess().get() * 100));
+                    SwingUtilities.invokeLater(() -> {
+                        addDiskAgent(loader, k);
+                        mArena.setStatusMessage("Loading agents ... " + percent + "%");
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            SwingUtilities.invokeLater(() -> {
+                mArena.setStatusMessage("Done.");
+                System.out.println(TAG + "Number of disk agents loaded into TS: " + mTSAgentManager.getNumDiskAgents());
+            });
+        }, "TSLoadAgents");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * adds agent {@code k} of {@code loader} (which has finished loading) to the GUI and to the tournament
+     */
+    private void addDiskAgent(ParallelAgentLoader loader, int k) {
+        PlayAgent playAgent = mArena.tdAgentIO.getLoadedAgent(loader, k);
+        if (playAgent == null) {
+            System.out.println(TAG + "ERROR :: No agent loaded from disk: " + loader.getFile(k).getPath());
             return;
         }
-
-        if (agentsAndFileNames == null) // avoids crash when file dialog is closed with no file chosen
+        String agentName = loader.getFileName(k);
+        String agentType = playAgent.getClass().getName();
+        agentType = agentType.substring(agentType.lastIndexOf('.') + 1);
+        if (mTSAgentManager.isLockedToCompete()) {
+            System.out.println(TAG + "ERROR :: tournament is running, agent " + agentName + " not added");
             return;
+        }
 
-        for (int i = 0; i < agentsAndFileNames.getSize(); i++) {
-            PlayAgent playAgent = agentsAndFileNames.getPlayAgent(i);
-            String agentName = agentsAndFileNames.getFileName(i);
-            String agentType = agentsAndFileNames.getPlayAgentType(i);
-
-            System.out.println(TAG + "INFO :: loading from Disk successful for agent: " + agentName + " with AgentState: " + playAgent.getAgentState() + " and type: " + agentType);
+        System.out.println(TAG + "INFO :: loading from Disk successful for agent: " + agentName + " with AgentState: " + playAgent.getAgentState() + " and type: " + agentType);
 
-            // add agent to gui
-            String hddPrefix = "";  // was before: "HDD ", but we do not need this anymore, because we have no other agents than HDD
-            JCheckBox newAgent = new JCheckBox(hddPrefix + agentName);
-            newAgent.setSelected(true); // set checkbox of new agent to selected
-            newAgent.addChangeListener(new ChangeListener() {
-                @Override
-                public void stateChanged(ChangeEvent e) {
-                    if (mTSAgentManager.getNumAgentsSelected() > 1 && variableDoubleRoundRobinRadioButton.isSelected()) {
-                        updateSliderAndLabel();
-                    }
+        // add agent to gui
+        String hddPrefix = "";  // was before: "HDD ", but we do not need this anymore, because we have no other agents than HDD
+        JCheckBox newAgent = new JCheckBox(hddPrefix + agentName);
+        newAgent.setSelected(true); // set checkbox of new agent to selected
+        newAgent.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                if (mTSAgentManager.getNumAgentsSelected() > 1 && variableDoubleRoundRobinRadioButton.isSelected()) {
+                    updateSliderAndLabel();
                 }
-            });
-            checkBoxJPanel.add(newAgent);
-            //checkBoxScrollPane.add(newAgent);
+            }
+        });
+        checkBoxJPanel.add(newAgent);
+        //checkBoxScrollPane.add(newAgent);
 
-            // add to mTSAgentManager
-            mTSAgentManager.addAgent(hddPrefix + agentName, hddPrefix + agentType, newAgent, true, playAgent);
-        } // for
+        // add to mTSAgentManager
+        mTSAgentManager.addAgent(hddPrefix + agentName, hddPrefix + agentType, newAgent, true, playAgent);
 
-        System.out.println(TAG + "Number of disk agents loaded into TS: " + mTSAgentManager.getNumDiskAgents());
+        if (mTSAgentManager.getNumAgentsSelected() > 1 && variableDoubleRoundRobinRadioButton.isSelected()) {
+            updateSliderAndLabel();
+        }
         checkBoxJPanel.revalidate();
         mJPanel.revalidate();
         mJPanel.repaint();
@@ -450,6 +476,8 @@ public class TSSettingsGUI2 extends JFrame {
 
         // set auto save of TS result aber finish
         mTSAgentManager.setAutoSaveAfterTS(autoSaveAfterTSFinishedCheckBox.isSelected());
+        // set if the matches are played concurrently
+        mTSAgentManager.setParallelTS(parallelTSCheckBox.isSelected());
         // save date and time for the result window
         mTSAgentManager.setResultsStartDate();
 
@@ -806,13 +834,15 @@ public class TSSettingsGUI2 extends JFrame {
         gbc.gridy = 37;
         gbc.anchor = GridBagConstraints.WEST;
         mJPanel.add(autoSaveAfterTSFinishedCheckBox, gbc);
-        final JPanel spacer15 = new JPanel();
+        parallelTSCheckBox = new JCheckBox();
+        parallelTSCheckBox.setText("Play matches in parallel");
+        parallelTSCheckBox.setToolTipText("Only for HDD agents. Time measurements are not comparable to a sequential tournament!");
         gbc = new GridBagConstraints();
         gbc.gridx = 1;
         gbc.gridy = 38;
-        gbc.fill = GridBagConstraints.VERTICAL;
+        gbc.anchor = GridBagConstraints.WEST;
         gbc.insets = new Insets(0, 0, 20, 0);
-        mJPanel.add(spacer15, gbc);
+        mJPanel.add(parallelTSCheckBox, gbc);
         final JLabel label6 = new JLabel();
         label6.setText("Tournament Style:");
         gbc = new GridBagConstraints();
@@ -0,0 +1,103 @@
+package agentIO;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import controllers.PlayAgent;
+
+/**
+ * Convert agent files between the Java-serialized format {@code .agt.zip} and the binary agent format
+ * {@code .agt.bin} (see {@link BinaryAgentFormat}). The direction is given by the file suffixes.
+ * <p>
+ * The agent is converted as it is stored, i.e. without {@link PlayAgent#instantiateAfterLoading()}.
+ * <p>
+ * Usage:
+ * <pre>
+ *    AgentFormatConverter inFile outFile [ -float ] </pre>
+ * with option {@code -float} to store the weights as 32-bit floats in {@code .agt.bin}.
+ */
+public class AgentFormatConverter {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length<2) {
+			System.out.println("Usage: AgentFormatConverter inFile outFile [ -float ]");
+			System.exit(1);
+		}
+		boolean floatWeights = (args.length>2 && args[2].equals("-float"));
+		convert(args[0], args[1], floatWeights);
+		System.out.println("[AgentFormatConverter] "+args[0]+" --> "+args[1]);
+	}
+
+	/**
+	 * Convert agent file {@code inPath} to {@code outPath}. Each of both is either a {@code .agt.zip} or
+	 * a {@code .agt.bin} file.
+	 *
+	 * @param floatWeights	if true and {@code outPath} is a {@code .agt.bin} file: store the weights as floats
+	 * @throws IOException
+	 */
+	public static void convert(String inPath, String outPath, boolean floatWeights) throws IOException {
+		PlayAgent pa = BinaryAgentFormat.isBinaryAgentFile(inPath) ? readBinary(inPath) : readZip(inPath);
+		if (BinaryAgentFormat.isBinaryAgentFile(outPath)) {
+			BinaryAgentFormat.save(pa, outPath, floatWeights);
+		} else {
+			writeZip(pa, outPath);
+		}
+	}
+
+	private static PlayAgent readBinary(String filePath) throws IOException {
+		try (ObjectInputStream ois = BinaryAgentFormat.openAgentStream(new File(filePath))) {
+			return toPlayAgent(ois.readObject(), filePath);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Class not found: "+e.getMessage(), e);
+		}
+	}
+
+	private static PlayAgent readZip(String filePath) throws IOException {
+		try (ObjectInputStream ois = openZipAgentStream(new FileInputStream(filePath))) {
+			return toPlayAgent(ois.readObject(), filePath);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Class not found: "+e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Open the object stream of a {@code .agt.zip} file. As in {@link LoadSaveGBG}, the object stream is nested 
+	 * in a second object stream ({@link ProgressTrackingObjectInputStream}, see 
+	 * {@link ProgressTrackingOutputStream} for writing).
+	 *
+	 * @param is	the (compressed) contents of the file
+	 */
+	static ObjectInputStream openZipAgentStream(InputStream is) throws IOException {
+		return new ObjectInputStream(new ProgressTrackingObjectInputStream(
+				new BufferedInputStream(new GZIPInputStream(is, 1 << 16), 1 << 16), new IOProgress(1)));
+	}
+
+	private static PlayAgent toPlayAgent(Object obj, String filePath) throws IOException {
+		if (!(obj instanceof PlayAgent))
+			throw new IOException("Agent class "+obj.getClass().getName()+" loaded from "+filePath+" not processable");
+		return (PlayAgent) obj;
+	}
+
+	/**
+	 * Write {@code pa} in the same way as {@link LoadSaveGBG#saveGBGAgent(PlayAgent, String)}
+	 */
+	private static void writeZip(PlayAgent pa, String filePath) throws IOException {
+		GZIPOutputStream gz = new GZIPOutputStream(new FileOutputStream(filePath)) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		};
+		try (ObjectOutputStream oos = new ObjectOutputStream(new ProgressTrackingOutputStream(gz, new IOProgress(0)))) {
+			oos.writeObject(pa);
+		}
+	}
+}
@@ -0,0 +1,401 @@
+package agentIO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import controllers.AgentBase;
+import controllers.PlayAgent;
+
+/**
+ * Binary agent format {@code .agt.bin}, an alternative to the Java-serialized and gzipped {@code .agt.zip}
+ * for agents with large weight arrays (e.g. the n-tuple LUTs of {@link controllers.TD.ntuple2.TDNTuple3Agt}).
+ * <p>
+ * The agent is split into a small <b>skeleton</b> and the <b>weight blocks</b>: every {@code double[]} or
+ * {@code float[]} reachable from the agent with at least {@link #MIN_BLOCK_LENGTH} elements is a weight block.
+ * The skeleton is the agent serialized with Java serialization where each weight block is replaced by a
+ * reference to its block number (so it holds all parameters, the n-tuple layout and everything else,
+ * but no weights). The weight blocks follow as raw little-endian arrays. Arrays shared by several
+ * objects (like the packed weight store of {@link controllers.TD.ntuple2.NTuple2ValueFunc}) are
+ * written once and shared again after loading.
+ * <p>
+ * File layout (all numbers little-endian):
+ * <pre>
+ *    int     MAGIC ("GBGA")
+ *    int     VERSION
+ *    int     number of blocks B
+ *    int     (reserved, 0)
+ *    long    length of the skeleton in bytes
+ *    B x { int array type (0: double[], 1: float[]), int bytes per stored element (8 or 4),
+ *          long number of elements, long file offset of the block }
+ *    skeleton
+ *    B blocks, each starting at an offset that is a multiple of 8 </pre>
+ * The file is written with a {@link FileChannel}. On loading, the blocks are read either from a
+ * memory-mapped view of the file ({@link #USE_MMAP}) or in chunks through a direct buffer. Either way
+ * the weights go straight from the file into their final arrays, without GZIP and object stream buffers
+ * and without intermediate copies of the whole file.
+ * <p>
+ * Saving with {@code floatWeights=true} stores {@code double[]} blocks as 32-bit floats (half the size,
+ * but the weights are rounded to float precision).
+ *
+ * @see LoadSaveGBG
+ * @see AgentFormatConverter
+ */
+public class BinaryAgentFormat {
+	public static final int MAGIC = 0x41474247;		// "GBGA" in little-endian byte order
+	public static final int VERSION = 1;
+	public static final String EXTENSION = ".agt.bin";
+
+	/**
+	 * double or float arrays with at least this many elements are stored as raw weight blocks
+	 */
+	public static final int MIN_BLOCK_LENGTH = 1024;
+
+	/**
+	 * If true, read the weight blocks from a memory-mapped view of the file, otherwise through a
+	 * direct buffer. Both give the same result.
+	 */
+	public static boolean USE_MMAP = true;
+
+	private static final int TYPE_DOUBLE = 0;
+	private static final int TYPE_FLOAT = 1;
+	private static final int FIXED_HEADER = 24;
+	private static final int BLOCK_ENTRY = 24;
+	private static final int CHUNK = 1 << 20;		// bytes per chunk of the direct buffer
+	private static final int MAP_CHUNK = 1 << 30;	// bytes per mapped region
+
+	/**
+	 * Placeholder for a weight block in the skeleton
+	 */
+	private static class BlockRef implements Serializable {
+		private static final long serialVersionUID = 1L;
+		final int index;
+
+		BlockRef(int index) {
+			this.index = index;
+		}
+	}
+
+	public static boolean isBinaryAgentFile(String filePath) {
+		return filePath.toLowerCase().endsWith(EXTENSION);
+	}
+
+	/**
+	 * Save {@code pa} in binary agent format with double precision weights
+	 */
+	public static void save(PlayAgent pa, String filePath) throws IOException {
+		save(pa, filePath, false);
+	}
+
+	/**
+	 * Save {@code pa} in binary agent format.
+	 *
+	 * @param pa			the agent
+	 * @param filePath		the file to write (should have suffix {@link #EXTENSION})
+	 * @param floatWeights	if true, store {@code double[]} weight blocks as 32-bit floats
+	 * @throws IOException
+	 */
+	public static void save(PlayAgent pa, String filePath, boolean floatWeights) throws IOException {
+		snapshot(pa, false).write(filePath, floatWeights);
+	}
+
+	/**
+	 * Split {@code obj} into skeleton and weight blocks, to be written later with 
+	 * {@link Snapshot#write(String, boolean)}. 
+	 * 
+	 * @param obj			the (serializable) object to save, usually a {@link PlayAgent}
+	 * @param copyBlocks	if true, the snapshot holds copies of the weight blocks. Then {@code obj} may 
+	 * 						change (e.g. continue training) while the snapshot is written in another thread.
+	 * @return the snapshot
+	 * @throws IOException if {@code obj} is not serializable
+	 */
+	public static Snapshot snapshot(Object obj, boolean copyBlocks) throws IOException {
+		ArrayList<Object> blocks = new ArrayList<>();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (SkeletonOutputStream oos = new SkeletonOutputStream(bos, blocks)) {
+			oos.writeObject(obj);
+		}
+		if (copyBlocks) {
+			for (int b=0; b<blocks.size(); b++) {
+				Object arr = blocks.get(b);
+				blocks.set(b, (arr instanceof double[]) ? ((double[]) arr).clone() : ((float[]) arr).clone());
+			}
+		}
+		return new Snapshot(bos.toByteArray(), blocks);
+	}
+
+	/**
+	 * The skeleton and the weight blocks of an object, see {@link #snapshot(Object, boolean)}
+	 */
+	public static class Snapshot {
+		private final byte[] skeleton;
+		private final ArrayList<Object> blocks;
+
+		private Snapshot(byte[] skeleton, ArrayList<Object> blocks) {
+			this.skeleton = skeleton;
+			this.blocks = blocks;
+		}
+
+		/**
+		 * @return the total size of the weight blocks in bytes (as held in memory)
+		 */
+		public long getBlockBytes() {
+			long bytes = 0;
+			for (Object arr : blocks)
+				bytes += (arr instanceof double[]) ? 8L*((double[]) arr).length : 4L*((float[]) arr).length;
+			return bytes;
+		}
+
+		/**
+		 * Write the snapshot in binary agent format.
+		 *
+		 * @param filePath		the file to write
+		 * @param floatWeights	if true, store {@code double[]} weight blocks as 32-bit floats
+		 * @throws IOException
+		 */
+		public void write(String filePath, boolean floatWeights) throws IOException {
+			int nb = blocks.size();
+			ByteBuffer head = ByteBuffer.allocate(FIXED_HEADER+nb*BLOCK_ENTRY).order(ByteOrder.LITTLE_ENDIAN);
+			head.putInt(MAGIC).putInt(VERSION).putInt(nb).putInt(0).putLong(skeleton.length);
+			long[] offset = new long[nb];
+			long pos = align8(head.capacity()+(long)skeleton.length);
+			for (int b=0; b<nb; b++) {
+				Object arr = blocks.get(b);
+				boolean isDouble = (arr instanceof double[]);
+				int len = isDouble ? ((double[]) arr).length : ((float[]) arr).length;
+				int elemBytes = (isDouble && !floatWeights) ? 8 : 4;
+				offset[b] = pos;
+				head.putInt(isDouble ? TYPE_DOUBLE : TYPE_FLOAT).putInt(elemBytes).putLong(len).putLong(pos);
+				pos = align8(pos+(long)len*elemBytes);
+			}
+			head.flip();
+
+			try (FileChannel ch = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				writeFully(ch, head);
+				writeFully(ch, ByteBuffer.wrap(skeleton));
+				ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+				for (int b=0; b<nb; b++) {
+					ch.position(offset[b]);
+					writeBlock(ch, blocks.get(b), floatWeights, buf);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Load an agent from a file in binary agent format and instantiate it (same post-processing as
+	 * {@link LoadSaveGBG#transformObjectToPlayAgent(ObjectInputStream, java.io.FileInputStream, String)}).
+	 *
+	 * @param filePath	the file with suffix {@link #EXTENSION}
+	 * @return the agent
+	 * @throws IOException if the file is not in binary agent format or does not contain a {@link PlayAgent}
+	 */
+	public static PlayAgent load(String filePath) throws IOException {
+		Object obj;
+		try (ObjectInputStream ois = openAgentStream(new File(filePath))) {
+			obj = ois.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Class not found: "+e.getMessage(), e);
+		}
+		if (!(obj instanceof PlayAgent))
+			throw new IOException("Agent class "+obj.getClass().getName()+" loaded from "+filePath+" not processable");
+		PlayAgent pa = (PlayAgent) obj;
+		pa.instantiateAfterLoading();
+		if (pa.getParOther() == null) ((AgentBase) pa).setDefaultParOther();
+		return pa;
+	}
+
+	/**
+	 * Read all weight blocks of {@code file} and return a stream for the skeleton. {@code readObject()} on
+	 * this stream returns the agent with its weight blocks in place (but not yet instantiated, see
+	 * {@link PlayAgent#instantiateAfterLoading()}).
+	 *
+	 * @param file	the file in binary agent format
+	 * @return the object stream to read the agent from
+	 * @throws IOException if the file is not in binary agent format
+	 */
+	public static ObjectInputStream openAgentStream(File file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer fixed = readFully(ch, 0, FIXED_HEADER);
+			if (fixed.getInt()!=MAGIC)
+				throw new IOException(file.getPath()+" is not in binary agent format");
+			int version = fixed.getInt();
+			if (version>VERSION)
+				throw new IOException(file.getPath()+" has format version "+version+", only up to "+VERSION+" is known");
+			int nb = fixed.getInt();
+			fixed.getInt();
+			long skelLength = fixed.getLong();
+			if (nb<0 || skelLength<0 || skelLength>Integer.MAX_VALUE)
+				throw new IOException(file.getPath()+": corrupt header");
+			ByteBuffer table = readFully(ch, FIXED_HEADER, nb*BLOCK_ENTRY);
+			byte[] skeleton = new byte[(int) skelLength];
+			readFully(ch, FIXED_HEADER+nb*BLOCK_ENTRY, skeleton.length).get(skeleton);
+
+			Object[] blocks = new Object[nb];
+			ByteBuffer direct = USE_MMAP ? null : ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+			for (int b=0; b<nb; b++) {
+				int type = table.getInt();
+				int elemBytes = table.getInt();
+				long len = table.getLong();
+				long off = table.getLong();
+				if ((type!=TYPE_DOUBLE && type!=TYPE_FLOAT) || (elemBytes!=8 && elemBytes!=4)
+						|| len<0 || len>Integer.MAX_VALUE-8 || off+len*elemBytes>ch.size())
+					throw new IOException(file.getPath()+": corrupt entry for block "+b);
+				blocks[b] = readBlock(ch, type, elemBytes, (int) len, off, direct);
+			}
+			return new SkeletonInputStream(new ByteArrayInputStream(skeleton), blocks);
+		}
+	}
+
+	private static long align8(long pos) {
+		return (pos+7) & ~7L;
+	}
+
+	private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+		while (buf.hasRemaining()) ch.write(buf);
+	}
+
+	private static ByteBuffer readFully(FileChannel ch, long pos, int len) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+		while (buf.hasRemaining()) {
+			if (ch.read(buf, pos+buf.position())<0) throw new EOFException("unexpected end of file");
+		}
+		buf.flip();
+		return buf;
+	}
+
+	private static void writeBlock(FileChannel ch, Object arr, boolean floatWeights, ByteBuffer buf) throws IOException {
+		if (arr instanceof double[] && !floatWeights) {
+			double[] a = (double[]) arr;
+			for (int i=0; i<a.length; ) {
+				int n = Math.min(a.length-i, CHUNK/8);
+				buf.clear();
+				buf.asDoubleBuffer().put(a, i, n);
+				buf.limit(n*8);
+				writeFully(ch, buf);
+				i += n;
+			}
+		} else if (arr instanceof double[]) {
+			double[] a = (double[]) arr;
+			for (int i=0; i<a.length; ) {
+				int n = Math.min(a.length-i, CHUNK/4);
+				buf.clear();
+				for (int j=0; j<n; j++) buf.putFloat((float) a[i+j]);
+				buf.flip();
+				writeFully(ch, buf);
+				i += n;
+			}
+		} else {
+			float[] a = (float[]) arr;
+			for (int i=0; i<a.length; ) {
+				int n = Math.min(a.length-i, CHUNK/4);
+				buf.clear();
+				buf.asFloatBuffer().put(a, i, n);
+				buf.limit(n*4);
+				writeFully(ch, buf);
+				i += n;
+			}
+		}
+	}
+
+	/**
+	 * @param direct	the buffer to read through or null, if the block is read from mapped regions of the file
+	 */
+	private static Object readBlock(FileChannel ch, int type, int elemBytes, int len, long off, ByteBuffer direct)
+			throws IOException {
+		Object arr = (type==TYPE_DOUBLE) ? new double[len] : new float[len];
+		int perChunk = ((direct==null) ? MAP_CHUNK : CHUNK)/elemBytes;
+		for (int i=0; i<len; i+=perChunk) {
+			int n = Math.min(len-i, perChunk);
+			long pos = off+(long)i*elemBytes;
+			ByteBuffer buf;
+			if (direct==null) {
+				MappedByteBuffer mbb = ch.map(FileChannel.MapMode.READ_ONLY, pos, (long)n*elemBytes);
+				buf = mbb.order(ByteOrder.LITTLE_ENDIAN);
+			} else {
+				direct.clear();
+				direct.limit(n*elemBytes);
+				while (direct.hasRemaining()) {
+					if (ch.read(direct, pos+direct.position())<0) throw new EOFException("unexpected end of file");
+				}
+				direct.flip();
+				buf = direct;
+			}
+			if (type==TYPE_DOUBLE && elemBytes==8) {
+				buf.asDoubleBuffer().get((double[]) arr, i, n);
+			} else if (type==TYPE_DOUBLE) {
+				double[] a = (double[]) arr;
+				for (int j=0; j<n; j++) a[i+j] = buf.getFloat(4*j);
+			} else {
+				buf.asFloatBuffer().get((float[]) arr, i, n);
+			}
+		}
+		return arr;
+	}
+
+	/**
+	 * Replaces each weight block by a {@link BlockRef} and collects the blocks in {@code blocks}
+	 */
+	private static class SkeletonOutputStream extends ObjectOutputStream {
+		private final ArrayList<Object> blocks;
+		private final IdentityHashMap<Object, BlockRef> refs = new IdentityHashMap<>();
+
+		SkeletonOutputStream(OutputStream out, ArrayList<Object> blocks) throws IOException {
+			super(out);
+			this.blocks = blocks;
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) {
+			boolean isBlock = (obj instanceof double[] && ((double[]) obj).length>=MIN_BLOCK_LENGTH)
+						   || (obj instanceof float[] && ((float[]) obj).length>=MIN_BLOCK_LENGTH);
+			if (!isBlock) return obj;
+			BlockRef ref = refs.get(obj);
+			if (ref==null) {
+				ref = new BlockRef(blocks.size());
+				blocks.add(obj);
+				refs.put(obj, ref);
+			}
+			return ref;
+		}
+	}
+
+	/**
+	 * Replaces each {@link BlockRef} by its weight block
+	 */
+	private static class SkeletonInputStream extends ObjectInputStream {
+		private final Object[] blocks;
+
+		SkeletonInputStream(InputStream in, Object[] blocks) throws IOException {
+			super(in);
+			this.blocks = blocks;
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof BlockRef) {
+				int b = ((BlockRef) obj).index;
+				if (b<0 || b>=blocks.length) throw new IOException("skeleton refers to missing block "+b);
+				return blocks[b];
+			}
+			return obj;
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package agentIO;
 
 /**
- * Member {@link #get()} returns the fraction of 'actual/estimated'
+ * Member {@link #get()} returns the fraction of 'actual/estimated'.
+ * <p>
+ * {@link #update(long)} is thread-safe, so several streams (e.g. those of {@link ParallelAgentLoader}) may
+ * report to the same {@link IOProgress}.
  */
 public class IOProgress {
     private final long estimated;
@@ -20,7 +23,7 @@ public class IOProgress {
         return actual;
     }
 
-    public void update(long step) {
+    public synchronized void update(long step) {
         this.actual += step;
     }
 
@@ -16,10 +16,9 @@ import javax.swing.filechooser.FileFilter;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -27,6 +26,7 @@ import java.util.zip.GZIPOutputStream;
 public class LoadSaveGBG {
 	private JFileChooserApprove fc = null;
 	private final FileFilter tdAgentExt = new ExtensionFilter("agt.zip", "TD-Agents");
+	private final FileFilter binAgentExt = new ExtensionFilter("agt.bin", "Agents in binary format (.agt.bin)");
 	private final FileFilter tdTSRExt = new ExtensionFilter("tsr.zip", "Tournament-Result");
 	private final FileFilter txtExt = new ExtensionFilter(".txt.zip", "Compressed Text-Files (.txt.zip)");
 	private final Arena arenaGame;
@@ -102,7 +102,8 @@ public class LoadSaveGBG {
 	 * Save agent to disk without file chooser dialog
 	 * 
 	 * @param pa	the agent
-	 * @param filePath the location on disk
+	 * @param filePath the location on disk. If it has suffix {@code .agt.bin}, the agent is saved in 
+	 * 				binary agent format (see {@link BinaryAgentFormat}), otherwise as gzipped Java object.
 	 * @throws IOException
 	 */
 	public void saveGBGAgent(PlayAgent pa, String filePath) throws IOException {
@@ -112,6 +113,11 @@ public class LoadSaveGBG {
 			throw new IOException("ERROR: pa=null, there is no agent to save to disk");
 		}
 		
+		if (BinaryAgentFormat.isBinaryAgentFile(filePath)) {
+			saveBinaryAgent(pa, filePath);
+			return;
+		}
+		
 		try {
 			fos = new FileOutputStream(filePath);
 		} catch (FileNotFoundException e2) {
@@ -182,6 +188,20 @@ public class LoadSaveGBG {
 		arenaGame.setStatusMessage("Done.");
 	}
 
+	private void saveBinaryAgent(PlayAgent pa, String filePath) throws IOException {
+		try {
+			BinaryAgentFormat.save(pa, filePath);
+		} catch (IOException e) {
+			if (e instanceof NotSerializableException) {
+				arenaGame.showMessage("ERROR: Object pa of class "+pa.getClass().getName()
+					+" is not serializable", "LoadSaveGBG", JOptionPane.ERROR_MESSAGE);
+			}
+			arenaGame.setStatusMessage("[ERROR: Could not write to file " + filePath + " !]");
+			throw new IOException("ERROR: Could not write agent to file! ["+e.getClass().getName()+"]");
+		}
+		arenaGame.setStatusMessage("Done.");
+	}
+
 	// 
 	// several methods to save to disk with file chooser dialog
 	//
@@ -230,8 +250,11 @@ public class LoadSaveGBG {
 		if (fc==null) throw new IOException("No JFileChooser present!");
 
 		fc.removeChoosableFileFilter(txtExt);
-		if (pa != null)
+		fc.removeChoosableFileFilter(binAgentExt);
+		if (pa != null) {
+			fc.addChoosableFileFilter(binAgentExt);
 			fc.setFileFilter(tdAgentExt);
+		}
 		if (tsr != null)
 			fc.setFileFilter(tdTSRExt);
 		fc.setCurrentDirectory(new File(strDir));
@@ -257,9 +280,16 @@ public class LoadSaveGBG {
 				path = fc.getSelectedFile().getPath();
 
 			if (pa != null) {
-				if (!path.toLowerCase().endsWith(".agt.zip")) {
+				if (fc.getFileFilter()==binAgentExt && !BinaryAgentFormat.isBinaryAgentFile(path)) {
+					path += BinaryAgentFormat.EXTENSION;
+				} else if (!path.toLowerCase().endsWith(".agt.zip") && !BinaryAgentFormat.isBinaryAgentFile(path)) {
 					path += ".agt.zip";
 				}
+				if (BinaryAgentFormat.isBinaryAgentFile(path)) {
+					saveBinaryAgent(pa, path);
+					fc.rescanCurrentDirectory();
+					return;
+				}
 			}
 			if (tsr != null) {
 				if (!path.toLowerCase().endsWith(".tsr.zip")) {
@@ -401,7 +431,8 @@ public class LoadSaveGBG {
 	 * not yet have certain elements, which are then filled in from defaults)
 	 * 
 	 * @param filePath		if null, open a file choose dialog. If not null, open this fully 
-	 * 						qualified file with suffix .agt.zip.
+	 * 						qualified file with suffix .agt.zip or .agt.bin (binary agent format, 
+	 * 						see {@link BinaryAgentFormat}).
 	 * @return				the agent loaded
 	 * @throws IOException
 	 */
@@ -422,6 +453,7 @@ public class LoadSaveGBG {
 			if (fc==null) throw new IOException("No JFileChooser present!");
 			
 			fc.removeChoosableFileFilter(txtExt);
+			fc.addChoosableFileFilter(binAgentExt);
 			fc.setFileFilter(tdAgentExt);
 			fc.setCurrentDirectory(new File(strDir));
 			fc.setAcceptAllFileFilterUsed(false);
@@ -452,7 +484,10 @@ public class LoadSaveGBG {
 			}
 		}
 		
-		if (fis != null) {
+		if (fis != null && BinaryAgentFormat.isBinaryAgentFile(filePath)) {
+			fis.close();
+			pa = loadBinaryAgent(file, filePath);
+		} else if (fis != null) {
 			GZIPInputStream gs;
 			try {
 				gs = new GZIPInputStream(fis);
@@ -483,6 +518,17 @@ public class LoadSaveGBG {
 		return pa;
 	}
 
+	private PlayAgent loadBinaryAgent(File file, String filePath) throws IOException {
+		ObjectInputStream ois;
+		try {
+			ois = BinaryAgentFormat.openAgentStream(file);
+		} catch (IOException e) {
+			arenaGame.setStatusMessage("[ERROR: Could not read binary agent file " + filePath + " !]");
+			throw e;
+		}
+		return transformObjectToPlayAgent(ois, null, filePath);
+	}
+
 	/**
 	 * load saved tournament results from disk to reopen visualization
 	 * @param filePath		if null, open a file choose dialog. If not null, open this fully
@@ -609,17 +655,43 @@ public class LoadSaveGBG {
 
 	/**
 	 * Load multiple GBG agents from disk and update them, if necessary (older agents on disk might 
-	 * not yet have certain elements, which are then filled in from defaults)
+	 * not yet have certain elements, which are then filled in from defaults). The agents are loaded 
+	 * concurrently (see {@link ParallelAgentLoader}), this method returns when all are loaded. Agents 
+	 * that could not be loaded are reported and left out.
 	 * 
-	 * @return object to transfer the loaded agents and their filenames
+	 * @return object to transfer the loaded agents and their filenames, null if no file was chosen
 	 * @throws IOException
+	 * @see #loadMultipleGBGAgentParallel()
 	 */
 	public TSDiskAgentDataTransfer loadMultipleGBGAgent() throws IOException {
-		TSDiskAgentDataTransfer output = null;
-		String filePath = null;
-		ObjectInputStream ois;
-		FileInputStream fis;
+		ParallelAgentLoader loader = loadMultipleGBGAgentParallel();
+		if (loader == null)
+			return null;
+
+		ArrayList<Integer> loaded = new ArrayList<>();
+		PlayAgent[] agents = new PlayAgent[loader.size()];
+		for (int i = 0; i < loader.size(); i++) {
+			agents[i] = getLoadedAgent(loader, i);
+			if (agents[i] != null)
+				loaded.add(i);
+		}
+		TSDiskAgentDataTransfer output = new TSDiskAgentDataTransfer(loaded.size());
+		for (int i : loaded)
+			output.addAgent(loader.getFileName(i), agents[i]);
+		arenaGame.setStatusMessage("Done.");
+		return output;
+	}
 
+	/**
+	 * Open a file chooser for multiple GBG agents and start loading them concurrently. The caller 
+	 * may fetch the agents with {@link #getLoadedAgent(ParallelAgentLoader, int)} in the order in 
+	 * which they become ready ({@link ParallelAgentLoader#take()}) and use the first agents while 
+	 * the others are still loading. {@link ParallelAgentLoader#getProgess()} reports the progress 
+	 * of all files together.
+	 * 
+	 * @return the loader, null if no file was chosen
+	 */
+	public ParallelAgentLoader loadMultipleGBGAgentParallel() {
 		String strDir = Types.GUI_DEFAULT_DIR_AGENT+"/"+this.arenaGame.getGameName();
 		String subDir = arenaGame.getGameBoard().getSubDir();
 		if (subDir != null){
@@ -635,68 +707,41 @@ public class LoadSaveGBG {
 		JFileChooser fileChooser = new JFileChooser();
 		fileChooser.setMultiSelectionEnabled(true);
 		fileChooser.removeChoosableFileFilter(txtExt);
+		fileChooser.addChoosableFileFilter(binAgentExt);
 		fileChooser.setFileFilter(tdAgentExt);
 		fileChooser.setCurrentDirectory(new File(strDir));
 		fileChooser.setAcceptAllFileFilterUsed(false);
 
 		int returnVal = fileChooser.showOpenDialog(arenaFrame);
 
-		if (returnVal == JFileChooser.APPROVE_OPTION)
-		{
-			File[] files = fileChooser.getSelectedFiles();
-			output = new TSDiskAgentDataTransfer(files.length);
-
-			for(int i = 0; i<files.length; i++)
-			{
-				System.out.println("Selected file: " + files[i].getAbsolutePath());
-				PlayAgent pa;
-				File file = files[i];
-
-				try {
-					filePath = file.getPath();
-					fis = new FileInputStream(filePath);
-				} catch (IOException e) {
-					arenaGame.setStatusMessage("[ERROR: Could not open file " + filePath + " !]");
-					throw e;
-				}
-
-				GZIPInputStream gs;
-				try {
-					gs = new GZIPInputStream(fis);
-				} catch (IOException e1) {
-					arenaGame.setStatusMessage("[ERROR: Could not create ZIP-InputStream for" + filePath + " !]");
-					throw e1;
-				}
-
-				long fileLength = estimateGZIPLength(file);
-				final ProgressTrackingObjectInputStream ptis = new ProgressTrackingObjectInputStream(
-						gs, new agentIO.IOProgress(fileLength));
-				try {
-					ois = new ObjectInputStream(ptis);
-				} catch (IOException e1) {
-					ptis.close();
-					arenaGame.setStatusMessage("[ERROR: Could not create ObjectInputStream for" + filePath + " !]");
-					throw e1;
-				}
-
-				//final JDialog dlg = createProgressDialog(ptis, "Loading...");
-
-				pa = transformObjectToPlayAgent(ois, fis, filePath);
-				
-				//output[i][0] = pa;
-				Path p = Paths.get(filePath);
-				String fileNameSource = p.getFileName().toString();
-				//System.out.println(TAG+" "+fileNameSource); // minimax.agt.zip
-				//System.out.println(TAG+" "+fileNameSource.substring(0,fileNameSource.length()-8)); // minimax.agt.zip
-				String filename = fileNameSource.substring(0,fileNameSource.length()-8);
-				output.addAgent(filename,pa);
-			} // for(int i = 0; i<files.length; i++)
-		} // if (returnVal == JFileChooser.APPROVE_OPTION)
-		else {
+		if (returnVal != JFileChooser.APPROVE_OPTION) {
 			arenaGame.setStatusMessage("[ERROR: File choose dialog not approved.]");
+			return null;
 		}
+		File[] files = fileChooser.getSelectedFiles();
+		for (File file : files)
+			System.out.println("Selected file: " + file.getAbsolutePath());
+		arenaGame.setStatusMessage("Loading " + files.length + " agents ...");
+		return new ParallelAgentLoader(files);
+	}
 
-		return output;
+	/**
+	 * Wait for agent {@code i} of {@code loader}. If it could not be loaded, show the error (as 
+	 * {@link #transformObjectToPlayAgent(ObjectInputStream, FileInputStream, String)} does) and 
+	 * return null.
+	 */
+	public PlayAgent getLoadedAgent(ParallelAgentLoader loader, int i) {
+		String filePath = loader.getFile(i).getPath();
+		try {
+			return loader.get(i);
+		} catch (IOException e) {
+			arenaGame.showMessage("ERROR: " + e.getMessage(),
+					e.getClass().getName(), JOptionPane.ERROR_MESSAGE);
+			arenaGame.setStatusMessage("[ERROR: Could not load agent from " + filePath + " !]");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
 	}
 
 	/**
@@ -0,0 +1,168 @@
+package agentIO;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import controllers.AgentBase;
+import controllers.PlayAgent;
+
+/**
+ * Load several agent files ({@code .agt.zip} or {@code .agt.bin}) concurrently: each file is decompressed,
+ * deserialized and instantiated (see {@link PlayAgent#instantiateAfterLoading()}) in its own task on a
+ * bounded pool of at most {@link #MAX_THREADS} threads. Loading starts in the constructor.
+ * <p>
+ * The agents can be fetched in file order ({@link #get(int)}) or in the order in which they become ready
+ * ({@link #take()}), so that a caller (e.g. the Tournament System) may use the first agents while the others
+ * are still loading.
+ * <p>
+ * {@link #getProgess()} reports the progress of all files together. It counts the bytes read from disk
+ * against the sum of the file lengths, so there is no extra pass over each file to estimate its
+ * uncompressed length (as {@link LoadSaveGBG#estimateGZIPLength(File)} does).
+ * <p>
+ * This class has no GUI: errors are not shown, but thrown by {@link #get(int)}.
+ */
+public class ParallelAgentLoader implements IGetProgress {
+	/**
+	 * the maximum number of agents loaded at the same time
+	 */
+	public static int MAX_THREADS = Runtime.getRuntime().availableProcessors();
+
+	private final File[] files;
+	private final ArrayList<Future<PlayAgent>> futures;
+	private final BlockingQueue<Integer> ready;		// indices of the agents done, in order of completion
+	private final IOProgress progress;
+	private int numTaken = 0;
+
+	public ParallelAgentLoader(File[] files) {
+		this.files = files.clone();
+		long totalLength = 0;
+		for (File f : files) totalLength += f.length();
+		this.progress = new IOProgress(Math.max(totalLength, 1));
+		this.futures = new ArrayList<>(files.length);
+		this.ready = new LinkedBlockingQueue<>();
+
+		int nThreads = Math.max(1, Math.min(files.length, MAX_THREADS));
+		ExecutorService executor = Executors.newFixedThreadPool(nThreads, r -> {
+			Thread t = new Thread(r, "ParallelAgentLoader");
+			t.setDaemon(true);
+			return t;
+		});
+		for (int i = 0; i < files.length; i++) {
+			final int k = i;
+			FutureTask<PlayAgent> task = new FutureTask<PlayAgent>(() -> loadAgent(this.files[k], progress)) {
+				@Override
+				protected void done() {
+					ready.add(k);
+				}
+			};
+			futures.add(task);
+			executor.execute(task);
+		}
+		executor.shutdown();	// the submitted tasks run to completion, then the threads terminate
+	}
+
+	public int size() {
+		return files.length;
+	}
+
+	public File getFile(int i) {
+		return files[i];
+	}
+
+	/**
+	 * @return the file name of agent {@code i} without suffix {@code .agt.zip} or {@code .agt.bin}
+	 */
+	public String getFileName(int i) {
+		String fileName = Paths.get(files[i].getPath()).getFileName().toString();
+		return fileName.substring(0, fileName.length() - 8);
+	}
+
+	public IOProgress getProgess() {
+		return progress;
+	}
+
+	/**
+	 * @return true, if loading of agent {@code i} has finished (successfully or not)
+	 */
+	public boolean isDone(int i) {
+		return futures.get(i).isDone();
+	}
+
+	/**
+	 * Wait until the next agent has finished loading (successfully or not). Each index is returned once.
+	 *
+	 * @return the index of the agent (to be passed to {@link #get(int)}), or -1 if all indices were
+	 * 		already returned
+	 * @throws InterruptedException
+	 */
+	public int take() throws InterruptedException {
+		if (numTaken == files.length) return -1;
+		int i = ready.take();
+		numTaken++;
+		return i;
+	}
+
+	/**
+	 * Wait until agent {@code i} has finished loading.
+	 *
+	 * @return the agent
+	 * @throws IOException if agent {@code i} could not be loaded
+	 * @throws InterruptedException
+	 */
+	public PlayAgent get(int i) throws IOException, InterruptedException {
+		try {
+			return futures.get(i).get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) throw (IOException) cause;
+			throw new IOException(cause.getClass().getName() + ": " + cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Load the agent from {@code file} and instantiate it, with the same steps as
+	 * {@link LoadSaveGBG#transformObjectToPlayAgent(ObjectInputStream, FileInputStream, String)}, but without
+	 * messages to the GUI.
+	 *
+	 * @param file		a {@code .agt.zip} or {@code .agt.bin} file
+	 * @param progress	is updated with the bytes read from {@code file}
+	 */
+	static PlayAgent loadAgent(File file, IOProgress progress) throws IOException {
+		String filePath = file.getPath();
+		Object obj;
+		if (BinaryAgentFormat.isBinaryAgentFile(filePath)) {
+			try (ObjectInputStream ois = BinaryAgentFormat.openAgentStream(file)) {
+				obj = ois.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Class not found: " + e.getMessage(), e);
+			}
+			progress.update(file.length());		// the weight blocks are mapped, not streamed
+		} else {
+			try (InputStream is = new ProgressTrackingInputStream(new FileInputStream(file), progress);
+				 ObjectInputStream ois = AgentFormatConverter.openZipAgentStream(is)) {
+				obj = ois.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Class not found: " + e.getMessage(), e);
+			}
+		}
+		if (!(obj instanceof PlayAgent))
+			throw new IOException("Agent class " + obj.getClass().getName() + " loaded from "
+					+ filePath + " not processable");
+		PlayAgent pa = (PlayAgent) obj;
+		pa.instantiateAfterLoading();
+		if (pa.getParOther() == null) ((AgentBase) pa).setDefaultParOther();
+		return pa;
+	}
+}
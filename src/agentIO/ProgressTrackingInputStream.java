@@ -20,7 +20,24 @@ public class ProgressTrackingInputStream extends InputStream implements IGetProg
 	@Override
 	public int read() throws IOException {
 		int x = in.read();
-		progess.update(1);
+		if (x >= 0) progess.update(1);
 		return x;
 	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = in.read(b, off, len);
+		if (n > 0) progess.update(n);
+		return n;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return in.available();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
 }
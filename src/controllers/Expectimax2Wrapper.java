@@ -28,6 +28,8 @@ public class Expectimax2Wrapper extends AgentBase implements PlayAgent, Serializ
 	private Random rand;
 	protected int m_depth=10;
 	private PlayAgent wrapped_pa;
+	protected boolean m_useHashMap=false;
+	private transient volatile ExpectimaxCache cache;		// created on first use
 
 	/**
 	 * change the version ID for serialization only if a newer version is no longer
@@ -43,6 +45,17 @@ public class Expectimax2Wrapper extends AgentBase implements PlayAgent, Serializ
 		this.wrapped_pa = pa;
 	}
 
+	/**
+	 * @param pa			the wrapped agent
+	 * @param nply			number of plies look-ahead
+	 * @param useHashMap	if true, store the scores of decision and chance nodes in a transposition table
+	 * 						(see {@link ExpectimaxCache})
+	 */
+	public Expectimax2Wrapper(PlayAgent pa, int nply, boolean useHashMap) {
+		this(pa, nply);
+		this.m_useHashMap = useHashMap;
+	}
+
 	public Expectimax2Wrapper(String name)
 	{
 		super(name);
@@ -97,6 +110,7 @@ public class Expectimax2Wrapper extends AgentBase implements PlayAgent, Serializ
 		if (!(so instanceof StateObsNondeterministic)) 
 			throw new RuntimeException("Error, Expectimax-N only usable for nondeterministic games");
 		StateObsNondeterministic soND = (StateObsNondeterministic) so;
+		if (m_useHashMap) getCache().clear(so);
 		
 		ACTIONS_ST act_best = getBestAction(soND, so,  random,  VTable,  silent, 1);
 		
@@ -227,21 +241,42 @@ public class Expectimax2Wrapper extends AgentBase implements PlayAgent, Serializ
 
 	private ScoreTuple getAllScores(StateObsNondeterministic sob, StateObservation refer, boolean silent, int depth) {
         ACTIONS_ST act_st = null;
+		boolean rgs = m_oPar.getRewardIsGameScore();
 		if (sob.isGameOver())
 		{
-			boolean rgs = m_oPar.getRewardIsGameScore();
 			return sob.getRewardTuple(rgs);
 		}
 				
+		// the leaf values are the scores of the wrapped agent, so the cache puts the rewards into the key:
+		ExpectimaxCache cache = (m_useHashMap) ? getCache() : null;
+		long key = 0;
+		int draft = m_depth-depth;
+		if (cache!=null) {
+			key = cache.key(sob, rgs);
+			ScoreTuple sc = cache.probe(key, sob, draft, rgs);
+			if (sc!=null) return sc;
+		}
+				
 		int n=sob.getNumAvailableActions();
 		double[] vtable	= new double[n+1];
 		
 		// here is the recursion: getBestAction calls getAllScores(...,depth+1):
 		act_st = getBestAction(sob, refer, false,  vtable,  silent, depth);  // sets vtable[n]=iMaxScore
 		
+		if (cache!=null) 
+			cache.store(key, sob, draft, sob.isNextActionDeterministic() ? act_st.toInt() : -1, act_st.m_st, rgs);
 		return act_st.m_st;		// return ScoreTuple for best action
 	}
 
+	private ExpectimaxCache getCache() {
+		if (cache==null) {
+			synchronized (this) {
+				if (cache==null) cache = new ExpectimaxCache(false, ExpectimaxNAgent.TT_LOG2_SIZE);
+			}
+		}
+		return cache;
+	}
+
 	/**
 	 * Return the agent's score for that after state.
 	 * @param sob			the current game state;
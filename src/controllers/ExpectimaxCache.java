@@ -0,0 +1,95 @@
+package controllers;
+
+import games.StateObsNondeterministic;
+import games.StateObservation;
+import tools.ScoreTuple;
+import tools.TranspositionTable;
+import tools.Zobrist;
+
+/**
+ * The transposition cache of the Expectimax agents {@link ExpectimaxNAgent}, {@link ExpectimaxWrapper} and
+ * {@link Expectimax2Wrapper}: stores the score tuples of decision and chance nodes in a {@link TranspositionTable}
+ * (primitive arrays, open addressing with buckets of a depth-preferred and an always-replace entry, so the most
+ * recently stored entries survive). The key is {@link StateObservation#hashKey()} (for 2048 a mix of
+ * {@code getBoardNum()}), chance nodes are distinguished from decision nodes by {@link #CHANCE_NODE_KEY},
+ * and the remaining depth is the draft of the entry.
+ * <p>
+ * Each thread has its own table, because the same wrapper agent may be used by parallel evaluation threads
+ * (see {@code Evaluator2048}).
+ * <p>
+ * The same state may be reached with different accumulated rewards (e.g. in 2048 with different scores).
+ * If the leaf values are cumulative rewards (as in {@link ExpectimaxNAgent}), the score tuples are stored
+ * <b>relative</b> to the reward of the stored state. Otherwise (e.g. leaf values from a wrapped agent) the
+ * rewards are part of the key.
+ */
+class ExpectimaxCache {
+	static final long CHANCE_NODE_KEY = Zobrist.mix(0xC4A7CE);	// distinguishes chance nodes from decision nodes
+
+	private final boolean relative;
+	private final int log2Size;
+	private final ThreadLocal<TranspositionTable> tables = new ThreadLocal<>();
+
+	/**
+	 * @param relative	if true, store score tuples relative to the reward, else put the rewards into the key
+	 * @param log2Size	each table has {@code 2^log2Size} entries
+	 */
+	ExpectimaxCache(boolean relative, int log2Size) {
+		this.relative = relative;
+		this.log2Size = log2Size;
+	}
+
+	/**
+	 * @return the table of the calling thread (a new one, if there is none or if the number of players differs)
+	 */
+	TranspositionTable getTable(StateObservation so) {
+		TranspositionTable tt = tables.get();
+		if (tt==null || tt.getNumPlayers()!=so.getNumPlayers()) {
+			tt = new TranspositionTable(log2Size, so.getNumPlayers());
+			tables.set(tt);
+		}
+		return tt;
+	}
+
+	/**
+	 * Start a new search of the calling thread: remove all entries from its table
+	 */
+	void clear(StateObservation so) {
+		getTable(so).clear();
+	}
+
+	long key(StateObsNondeterministic sob, boolean rgs) {
+		long key = sob.isNextActionDeterministic() ? sob.hashKey() : sob.hashKey() ^ CHANCE_NODE_KEY;
+		if (!relative)
+			for (int i=0; i<sob.getNumPlayers(); i++)
+				key ^= Zobrist.mix(Double.doubleToLongBits(sob.getReward(i, rgs)) + i);
+		return key;
+	}
+
+	/**
+	 * @return the stored score tuple for {@code key} with a draft of at least {@code draft} or null
+	 */
+	ScoreTuple probe(long key, StateObservation sob, int draft, boolean rgs) {
+		TranspositionTable tt = getTable(sob);
+		int entry = tt.probe(key, draft);
+		if (entry<0) return null;
+		ScoreTuple sc = tt.getScoreTuple(entry);
+		if (relative) addReward(sc, sob, rgs, +1);
+		return sc;
+	}
+
+	void store(long key, StateObservation sob, int draft, int bestMove, ScoreTuple sc, boolean rgs) {
+		if (relative) {
+			sc = new ScoreTuple(sc);
+			addReward(sc, sob, rgs, -1);
+		}
+		getTable(sob).store(key, draft, TranspositionTable.EXACT, bestMove, sc);
+	}
+
+	/**
+	 * Add {@code sign} times the reward tuple of {@code sob} to {@code sc}
+	 */
+	private static void addReward(ScoreTuple sc, StateObservation sob, boolean rgs, int sign) {
+		for (int i=0; i<sc.scTup.length; i++)
+			sc.scTup[i] += sign*sob.getReward(i, rgs);
+	}
+}
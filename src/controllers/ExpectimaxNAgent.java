@@ -9,6 +9,7 @@ import params.MaxNParams;
 import params.ParMaxN;
 import params.ParOther;
 import tools.ScoreTuple;
+import tools.TranspositionTable;
 import tools.Types;
 import tools.Types.ACTIONS;
 import tools.Types.ACTIONS_ST;
@@ -16,7 +17,6 @@ import tools.Types.ACTIONS_VT;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 
@@ -26,6 +26,16 @@ import java.util.Random;
  * {@link ScoreTuple}, an N-tuple of game scores. It traverses the game tree up to a prescribed 
  * depth (default: 10, see {@link ParMaxN}).   
  * <p>
+ * If the hash map option of {@link ParMaxN} is set, the scores of the visited decision and chance nodes 
+ * are stored during each search in a {@link TranspositionTable} (one per thread, cleared with each call of 
+ * {@link #getNextAction2(StateObservation, boolean, boolean)}, see {@link ExpectimaxCache}). The table stores 
+ * the score tuples <b>relative</b> to the reward of the stored state, because in games like 2048 the same 
+ * board may be reached with different accumulated scores.
+ * <p>
+ * If {@link #PROB_CUTOFF} is greater than 0, the search below a chance node stops early if the probability 
+ * of the random events leading to it is smaller than {@link #PROB_CUTOFF}. This makes deeper searches in 
+ * 2048 affordable, because most of the tile sequences are very improbable.
+ * <p>
  * {@link ExpectimaxNAgent} is for <b>non-deterministic</b> games. For deterministic games see 
  * {@link MaxNAgent}.
  * 
@@ -40,8 +50,19 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
 	private Random rand;
 	protected int m_depth=10;
 //	protected boolean m_rgs=true;  // use now AgentBase::m_oPar.getRewardIsGameScore()
-	//private boolean m_useHashMap=true;		// don't use HashMap in ExpectimaxNAgent!
-	//private HashMap<String,ScoreTuple> hm;
+	protected boolean m_useHashMap=false;
+	private transient volatile ExpectimaxCache cache;		// created on first use
+	/**
+	 * size of the transposition table: 2^TT_LOG2_SIZE entries
+	 */
+	public static int TT_LOG2_SIZE = 18;
+	/**
+	 * if a chance node is reached with a probability smaller than PROB_CUTOFF (the product of the 
+	 * probabilities of all random events on the path from the root), it is not expanded, but evaluated with
+	 * {@link #estimateGameValueTuple(StateObservation, ScoreTuple)}. 0: no cut-off. 
+	 * (With a cut-off the scores, also those in the transposition table, are approximations.)
+	 */
+	public static double PROB_CUTOFF = 0.0;
 	
 	/**
 	 * change the version ID for serialization only if a newer version is no longer 
@@ -56,7 +77,6 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
 		super.setMaxGameNum(1000);		
 		super.setGameNum(0);
         rand = new Random(System.currentTimeMillis());
-		//hm = new HashMap<String, ScoreTuple>();
 		setAgentState(AgentState.TRAINED);
 	}
 	
@@ -64,6 +84,7 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
 	{
 		this(name);
 		m_depth = mpar.getMaxNDepth();
+		m_useHashMap = mpar.getMaxNUseHashmap();
 		m_oPar = opar;		// AgentBase::m_oPar
 	}
 	
@@ -110,8 +131,9 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
 			throw new RuntimeException(" Error in "
 					+"ExpectimaxNAgent.getNextAction2(so,...): param so has to implement StateObsNondeterministic");
 		StateObsNondeterministic soND = (StateObsNondeterministic) so;
+		if (m_useHashMap) getCache().clear(so);
 		
-		ACTIONS_ST act_best = getBestAction(soND, so,  random,  VTable,  silent, 1);
+		ACTIONS_ST act_best = getBestAction(soND, so,  random,  VTable,  silent, 1, 1.0);
 		
         return new ACTIONS_VT(act_best.toInt(), act_best.isRandomAction(), VTable);
 	}
@@ -126,10 +148,11 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
 	 * @param VTable	size soND.getAvailableActions()+1
 	 * @param silent
 	 * @param depth		tree depth
+	 * @param prob		the probability of the random events on the path from the root to {@code soND}
 	 * @return		best action + score tuple
 	 */
 	private ACTIONS_ST getBestAction(StateObsNondeterministic soND, StateObservation refer, boolean random, 
-			double[] VTable, boolean silent, int depth) 
+			double[] VTable, boolean silent, int depth, double prob) 
 	{
 		int i,j;
 		ScoreTuple currScoreTuple=null;
@@ -155,9 +178,9 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
             	NewSO = soND.copy();
             	NewSO.advanceDeterministic(actions[i]);
             	
-            	if (depth<this.m_depth) {
+            	if (depth<this.m_depth && (prob>=PROB_CUTOFF || NewSO.isGameOver())) {
     				// here is the recursion: getAllScores may call getBestAction back:
-    				currScoreTuple = getAllScores(NewSO,refer,silent,depth+1);						
+    				currScoreTuple = getAllScores(NewSO,refer,silent,depth+1,prob);						
     			} else {
     				// this terminates the recursion:
     				// (after finishing the for-loop for every element of acts)
@@ -207,11 +230,11 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
             	actions[i] = rans.get(i);
             	NewSO = soND.copy();
             	NewSO.advanceNondeterministic(actions[i]);
+				currProbab = soND.getProbability(actions[i]);
             	
 				// here is the recursion: getAllScores may call getBestAction back:
-				currScoreTuple = getAllScores(NewSO,refer,silent,depth+1);		
+				currScoreTuple = getAllScores(NewSO,refer,silent,depth+1,prob*currProbab);		
 				
-				currProbab = soND.getProbability(actions[i]);
             	if (!silent) printNondet(NewSO,currScoreTuple,currProbab,depth);
 				sumProbab += currProbab;
 				// if cOP==AVG, expecScoreTuple will contain the average ScoreTuple
@@ -232,26 +255,56 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
         return act_st;         
 	}
 
-	private ScoreTuple getAllScores(StateObsNondeterministic sob, StateObservation refer, boolean silent, int depth) {
+	private ScoreTuple getAllScores(StateObsNondeterministic sob, StateObservation refer, boolean silent, int depth, 
+			double prob) {
         ACTIONS_ST act_st = null;
+		boolean rgs = m_oPar.getRewardIsGameScore();
 		if (sob.isGameOver())
 		{
-			boolean rgs = m_oPar.getRewardIsGameScore();
 			return sob.getRewardTuple(rgs);
 //			double[] res = new double[sob.getNumPlayers()];
 //			for (int i=0; i<sob.getNumPlayers(); i++) res[i] = sob.getReward(i, rgs);
 //			return new ScoreTuple(res); 	
 		}
 				
+		ExpectimaxCache cache = (m_useHashMap) ? getCache() : null;
+		long key = 0;
+		int draft = m_depth-depth;
+		if (cache!=null) {
+			key = cache.key(sob, rgs);
+			ScoreTuple sc = cache.probe(key, sob, draft, rgs);
+			if (sc!=null) return sc;
+		}
+				
 		int n=sob.getNumAvailableActions();
 		double[] vtable	= new double[n+1];
 		
 		// here is the recursion: getBestAction calls getAllScores(...,depth+1):
-		act_st = getBestAction(sob, refer, false,  vtable,  silent, depth);  // sets vtable[n]=iMaxScore
+		act_st = getBestAction(sob, refer, false,  vtable,  silent, depth, prob);  // sets vtable[n]=iMaxScore
 		
+		if (cache!=null) 
+			cache.store(key, sob, draft, sob.isNextActionDeterministic() ? act_st.toInt() : -1, act_st.m_st, rgs);
 		return act_st.m_st;		// return ScoreTuple for best action
 	}
 
+	/**
+	 * @return true, if the leaf values of {@link #estimateGameValueTuple(StateObservation, ScoreTuple)} are the 
+	 * 		cumulative rewards. Then the scores of a subtree change with the reward of its root state only by this 
+	 * 		reward, and the transposition table may store them relative to the reward.
+	 */
+	protected boolean isLeafValueReward() {
+		return true;
+	}
+
+	private ExpectimaxCache getCache() {
+		if (cache==null) {
+			synchronized (this) {
+				if (cache==null) cache = new ExpectimaxCache(isLeafValueReward(), TT_LOG2_SIZE);
+			}
+		}
+		return cache;
+	}
+
 	/**
 	 * Return the agent's score for that after state.
 	 * @param sob			the current game state;
@@ -265,14 +318,14 @@ public class ExpectimaxNAgent extends AgentBase implements PlayAgent, Serializab
 		assert sob instanceof StateObsNondeterministic : "Error, sob must be of class StateObservationNondet";
 		StateObsNondeterministic soND = (StateObsNondeterministic) sob;
 		
-		return getAllScores(soND,sob,true,0).scTup[sob.getPlayer()];
+		return getAllScores(soND,sob,true,0,1.0).scTup[sob.getPlayer()];
 	}
 	@Override
 	public ScoreTuple getScoreTuple(StateObservation sob, ScoreTuple prevTuple) {
 		assert sob instanceof StateObsNondeterministic : "Error, sob must be of class StateObservationNondet";
 		StateObsNondeterministic soND = (StateObsNondeterministic) sob;
 		
-		return getAllScores(soND,sob,true,0);
+		return getAllScores(soND,sob,true,0,1.0);
 	}
 	
 //	/**
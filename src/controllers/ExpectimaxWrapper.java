@@ -25,6 +25,17 @@ public class ExpectimaxWrapper extends ExpectimaxNAgent implements Serializable
 		this.wrapped_pa = pa;
 	}
 	
+	/**
+	 * @param pa			the wrapped agent
+	 * @param nply			number of plies look-ahead
+	 * @param useHashMap	if true, store the scores of decision and chance nodes in a transposition table
+	 * 						(see {@link ExpectimaxNAgent})
+	 */
+	public ExpectimaxWrapper(PlayAgent pa, int nply, boolean useHashMap) {
+		this(pa, nply);
+		this.m_useHashMap = useHashMap;
+	}
+	
 //	/**
 //	 * When the recursion tree has reached its maximal depth m_depth, then return
 //	 * an estimate of the game score.
@@ -54,6 +65,15 @@ public class ExpectimaxWrapper extends ExpectimaxNAgent implements Serializable
 		return wrapped_pa.getScoreTuple(sob, prevTuple);
 	}
 	
+	/**
+	 * @return false, since the leaf values are the scores of the wrapped agent (the transposition table 
+	 * 		puts the rewards into the key)
+	 */
+	@Override
+	protected boolean isLeafValueReward() {
+		return false;
+	}
+	
 	public PlayAgent getWrappedPlayAgent() {
 		return wrapped_pa;
 	}
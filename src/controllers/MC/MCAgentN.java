@@ -10,6 +10,7 @@ import games.StateObservation;
 import games.XArenaMenu;
 import params.ParMC;
 import params.ParOther;
+import tools.ComputePool;
 import tools.ScoreTuple;
 import tools.Types;
 
@@ -17,8 +18,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Monte Carlo (MC) agent for N-player games.
@@ -32,7 +31,6 @@ import java.util.concurrent.Executors;
  */
 public class MCAgentN extends AgentBase implements PlayAgent {
     private Random random = new Random();
-    private transient ExecutorService executorService = Executors.newWorkStealingPool();
 
     private int totalRolloutDepth = 0;  // saves the average rollout depth for the mc Agent
     private int nRolloutFinished = 0; 	// counts the number of rollouts ending with isGameOver==true
@@ -174,7 +172,7 @@ public class MCAgentN extends AgentBase implements PlayAgent {
             //The callables, that is, the functions which are later executed on
             //multiple cores in parallel, are built. The callables are only
             //built here, they will be executed only later with 
-            //invokeAll(callables) on executorService :
+            //ComputePool.invokeAll(callables) :
             callables.add(() -> {
             	long rolloutDepth=0;
             	int nRolloutFinished=0;
@@ -206,25 +204,10 @@ public class MCAgentN extends AgentBase implements PlayAgent {
             });
         } // for (i)
 
-        try {
-        	//executerService is called and it distributes all callables on all cores
-        	//of the CPU. The callables perform the simulations and the results of these
-        	//simulations are written to a stream:
-            if (executorService==null)
-                executorService = Executors.newWorkStealingPool();
-            executorService.invokeAll(callables).stream().map(future -> {
-                try {
-                    return future.get();
-                }
-                catch (Exception e) {
-                    throw new IllegalStateException(e);
-                }
-
-            //each result written to the stream is added to list resultContainers:    
-            }).forEach(resultContainers::add);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        //the shared ComputePool distributes all callables on all cores of the CPU (if we are 
+        //already in a parallel task, e.g. an evaluation game, they are forked into the same pool). 
+        //The callables perform the simulations and each result is added to list resultContainers:
+        ComputePool.invokeAll(callables).forEach(resultContainers::add);
 
         //for each resultContainer in list resultContainers: add its game score
         //to the appropriate action in vtable:
@@ -327,7 +310,7 @@ public class MCAgentN extends AgentBase implements PlayAgent {
                 //The callables, that is, the functions which are later executed on
                 //multiple cores in parallel, are built. The callables are only
                 //built here, they will be executed only later with 
-                //invokeAll(callables) on executorService :
+                //ComputePool.invokeAll(callables) :
                 callables.add(() -> {
 
                 	//fetch the first action and execute it on the game state:
@@ -344,25 +327,10 @@ public class MCAgentN extends AgentBase implements PlayAgent {
             }
         }
 
-        try {
-        	//executerService is called and it distributes all callables on all cores
-        	//of the CPU. The callables perform the simulations and the results of these
-        	//simulations are written to a stream:
-            if (executorService==null)
-                executorService = Executors.newWorkStealingPool();
-            executorService.invokeAll(callables).stream().map(future -> {
-                try {
-                    return future.get();
-                }
-                catch (Exception e) {
-                    throw new IllegalStateException(e);
-                }
-
-            //each result written to the stream is added to list resultContainers:    
-            }).forEach(resultContainers::add);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        //the shared ComputePool distributes all callables on all cores of the CPU (if we are 
+        //already in a parallel task, e.g. an evaluation game, they are forked into the same pool). 
+        //The callables perform the simulations and each result is added to list resultContainers:
+        ComputePool.invokeAll(callables).forEach(resultContainers::add);
 
         //for each resultContainer in list resultContainers: add its game score
         //to the appropriate action in vtable:
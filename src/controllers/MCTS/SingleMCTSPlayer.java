@@ -8,7 +8,14 @@ import tools.Types;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is adapted from Diego Perez MCTS reference implementation<br>
@@ -61,6 +68,16 @@ public class SingleMCTSPlayer implements Serializable
 	 */
 	private static final long  serialVersionUID = 13L;
 
+	/**
+	 * the worker threads for parallel search (see {@link ParMCTS#getNumThreads()}), shared by all players. 
+	 * Idle threads terminate after a minute, so a discarded player does not leave threads behind.
+	 */
+	private static final ExecutorService WORKER_POOL = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "MCTS-worker");
+		t.setDaemon(true);		// do not prevent the JVM from exiting
+		return t;
+	});
+
 
 	/**
 	 * Default constructor for SingleMCTSPlayer, needed for loading a serialized version
@@ -128,6 +145,17 @@ public class SingleMCTSPlayer implements Serializable
 
     /**
      * Runs MCTS to decide the action to take. It does not reset the tree.
+     * <p>
+     * If {@link ParMCTS#getNumThreads()} {@code > 1}, the iterations are distributed on several threads,
+     * depending on {@link ParMCTS#getParMode()}: 
+     * <ul>
+     * <li> {@link ParMCTS#PAR_ROOT}: each thread builds its own tree with its own random number generator
+     * 		(seeded from {@code m_rnd}). At the end, visits and values of the root children are summed up in 
+     * 		{@code m_root}, so that {@link SingleTreeNode#bestAction()} and {@link SingleTreeNode#mostVisitedAction()} 
+     * 		act on the merged statistics.
+     * <li> {@link ParMCTS#PAR_TREE}: all threads grow the tree in {@code m_root} (see 
+     * 		{@link SingleTreeNode#iterateShared()}).
+     * </ul>
      * @param elapsedTimer Timer when the action returned is due.
 	 * @param vtable		the score for each available action (corresponding
 	 * 						to sob.getAvailableActions())
@@ -138,7 +166,15 @@ public class SingleMCTSPlayer implements Serializable
     	this.nRolloutFinished=0;
     	
         //Do the search within the available time.
-        m_root.mctsSearch(elapsedTimer, vtable);
+    	int numThreads = m_parMCTS.getNumThreads();
+    	if (numThreads > 1) {
+    		if (m_parMCTS.getParMode() == ParMCTS.PAR_TREE)
+    			runTreeParallel(numThreads, vtable);
+    		else
+    			runRootParallel(numThreads, elapsedTimer, vtable);
+    	} else {
+    		m_root.mctsSearch(elapsedTimer, vtable);
+    	}
 
         //Determine the best action to take and return it.
         //(Choose one of the following two lines)
@@ -148,6 +184,62 @@ public class SingleMCTSPlayer implements Serializable
         return action;
     }
 
+    private void runRootParallel(int numThreads, ElapsedCpuTimer elapsedTimer, double[] vtable) {
+    	int numIters = getNUM_ITERS();
+    	List<Callable<Void>> tasks = new ArrayList<>();
+    	SingleTreeNode[] roots = new SingleTreeNode[numThreads];
+    	for (int w=0; w<numThreads; w++) {
+    		final SingleTreeNode root = new SingleTreeNode(m_root.m_state,null,null,new Random(m_rnd.nextLong()),this);
+    		final int iters = numIters/numThreads + ((w < numIters%numThreads) ? 1 : 0);
+    		roots[w] = root;
+    		tasks.add(() -> {
+    			root.mctsSearch(elapsedTimer, new double[vtable.length], iters);
+    			return null;
+    		});
+    	}
+    	runTasks(tasks);
+    	
+    	for (SingleTreeNode root : roots)
+    		m_root.addRootStatistics(root);
+    	m_root.fillVTable(vtable);
+    }
+
+    private void runTreeParallel(int numThreads, double[] vtable) {
+    	int numIters = getNUM_ITERS();
+    	AtomicInteger nextIter = new AtomicInteger(0);
+    	final SingleTreeNode root = new SingleTreeNode(m_root.m_state,null,null,null,this);	// shared tree
+    	List<Callable<Void>> tasks = new ArrayList<>();
+    	for (int w=0; w<numThreads; w++) {
+    		tasks.add(() -> {
+    			while (nextIter.getAndIncrement() < numIters)
+    				root.iterateShared();
+    			return null;
+    		});
+    	}
+    	long startTime = System.currentTimeMillis();
+    	runTasks(tasks);
+    	
+    	root.m_rnd = m_rnd;		// from now on only used by this thread
+    	m_root = root;
+    	m_root.finishSearch(vtable, numIters, (double)(System.currentTimeMillis()-startTime)/numIters);
+    }
+
+    private void runTasks(List<Callable<Void>> tasks) {
+    	try {
+    		for (Future<Void> f : WORKER_POOL.invokeAll(tasks))
+    			f.get();
+    	} catch (InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    		throw new RuntimeException("[SingleMCTSPlayer.run] interrupted", e);
+    	} catch (ExecutionException e) {
+    		throw new RuntimeException("[SingleMCTSPlayer.run] a search thread failed: "+e.getCause(), e.getCause());
+    	}
+    }
+
+    synchronized void incrRolloutFinished() {
+    	nRolloutFinished++;
+    }
+
     public int getNUM_ACTIONS() {
 		return NUM_ACTIONS;
 	}
@@ -8,6 +8,8 @@ import tools.Types;
 import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 //import controllers.MCTS0.SingleTreeNode0;
 
@@ -31,9 +33,13 @@ public class SingleTreeNode implements Serializable
 	/**
 	 * the total value of {@code this} as a child for the parent of {@code this}
 	 */
-	public double totValue;
-	private int nVisits=0;
-	public static Random m_rnd = null;
+	public volatile double totValue;
+	private volatile int nVisits=0;
+	/**
+	 * the random number generator of the tree. It is {@code null} in a tree shared by several threads
+	 * (tree parallelization), then each thread uses its {@link ThreadLocalRandom}.
+	 */
+	public Random m_rnd = null;
 	private int m_depth;
 //	private static double[] lastBounds = new double[] { 0, 1 };
 //	private static double[] curBounds = new double[] { 0, 1 };
@@ -49,6 +55,9 @@ public class SingleTreeNode implements Serializable
 	 */
 	private static final long serialVersionUID = 12L;
 
+	private static final AtomicIntegerFieldUpdater<SingleTreeNode> VISITS =
+			AtomicIntegerFieldUpdater.newUpdater(SingleTreeNode.class, "nVisits");
+
 	// --- probably never needed ---
 	// public SingleTreeNode() {
 	//
@@ -74,7 +83,8 @@ public class SingleTreeNode implements Serializable
 	 * @param parent
 	 *            the parent node ({@code null} for root node)
 	 * @param rnd
-	 *            a random number generator
+	 *            a random number generator ({@code null}: use {@link ThreadLocalRandom}, 
+	 *            for trees shared by several threads)
 	 * @param mplay
 	 *            a reference to the one MCTS agent where {@code this} is part
 	 *            of (needed to access several parameters of the MCTS agent)
@@ -137,6 +147,14 @@ public class SingleTreeNode implements Serializable
 	 * @see SingleMCTSPlayer#run(ElapsedCpuTimer, double[])
 	 */
 	public void mctsSearch(ElapsedCpuTimer elapsedTimer, double[] VTable) {
+		mctsSearch(elapsedTimer, VTable, m_player.getNUM_ITERS());
+	}
+
+	/**
+	 * Same as {@link #mctsSearch(ElapsedCpuTimer, double[])}, but with {@code numIterations} iterations
+	 * instead of {@code m_player.NUM_ITERS} (used for the trees of root parallelization).
+	 */
+	public void mctsSearch(ElapsedCpuTimer elapsedTimer, double[] VTable, int numIterations) {
 
 //		lastBounds[0] = curBounds[0];
 //		lastBounds[1] = curBounds[1];
@@ -147,7 +165,7 @@ public class SingleTreeNode implements Serializable
 		int numIters = 0;
 
 		int remainingLimit = 5;
-		while (numIters < m_player.getNUM_ITERS()) { // /WK/ fixed number of
+		while (numIters < numIterations) { 			// /WK/ fixed number of
 														// iterations while
 														// debugging
 			// while(remaining > 2*avgTimeTaken && remaining > remainingLimit){
@@ -188,28 +206,19 @@ public class SingleTreeNode implements Serializable
 			// " + acumTimeTaken + " (" + remaining + ")");
 		}
 
-		// fill VTable
-		double bestValue = -Double.MAX_VALUE;
-		double v;
-		double deltaGS = (m_state.getMaxGameScore()-m_state.getMinGameScore());
-		double minGS = m_state.getMinGameScore();
-		int K = m_state.getNumAvailableActions();
-		for (int k = 0; k < K; k++) {
-			for (int i = 0; i < children.length; i++) {
-				if (children[i]!=null) {	// needed for safety (RubiksCube & default start state)
-					if (children[i].m_act == m_state.getAction(k)) {
-						v = children[i].totValue / children[i].nVisits;
-						if (m_player.getNormalize()) {
-							VTable[k] = v*deltaGS + minGS;		// map back to interval [minGS,maxGS]
-						} else {
-							VTable[k] = v;
-						}
-						if (VTable[k] > bestValue) bestValue = VTable[k];
-					}
-				}
-			}
-		}
-		VTable[K] = bestValue;
+		finishSearch(VTable, numIters, avgTimeTaken);
+	}
+
+	/**
+	 * Fill {@code VTable} after the search (see {@link #mctsSearch(ElapsedCpuTimer, double[])}), check  
+	 * the visit counts and print diagnostic information (if verbosity &gt; 0).
+	 * 
+	 * @param VTable		see {@link #mctsSearch(ElapsedCpuTimer, double[])}
+	 * @param numIters		number of iterations done
+	 * @param avgTimeTaken	average time per iteration [ms]
+	 */
+	void finishSearch(double[] VTable, int numIters, double avgTimeTaken) {
+		fillVTable(VTable);
 
 		// /WK/ here follow some diagnostic checks (not required for normal operation)
 		
@@ -246,6 +255,34 @@ public class SingleTreeNode implements Serializable
 		}
 	}
 
+	/**
+	 * Fill {@code VTable} with {@code U(i)} for all available actions of the root state and the maximum
+	 * of all {@code U(i)} in {@code VTable[K]} (see {@link #mctsSearch(ElapsedCpuTimer, double[])}).
+	 */
+	void fillVTable(double[] VTable) {
+		double bestValue = -Double.MAX_VALUE;
+		double v;
+		double deltaGS = (m_state.getMaxGameScore()-m_state.getMinGameScore());
+		double minGS = m_state.getMinGameScore();
+		int K = m_state.getNumAvailableActions();
+		for (int k = 0; k < K; k++) {
+			for (int i = 0; i < children.length; i++) {
+				if (children[i]!=null) {	// needed for safety (RubiksCube & default start state)
+					if (children[i].m_act == m_state.getAction(k)) {
+						v = children[i].totValue / children[i].nVisits;
+						if (m_player.getNormalize()) {
+							VTable[k] = v*deltaGS + minGS;		// map back to interval [minGS,maxGS]
+						} else {
+							VTable[k] = v;
+						}
+						if (VTable[k] > bestValue) bestValue = VTable[k];
+					}
+				}
+			}
+		}
+		VTable[K] = bestValue;
+	}
+
 	
 	
 	public void printChildInfo(int nIndention, boolean isRootNode) {
@@ -320,25 +357,118 @@ public class SingleTreeNode implements Serializable
 				return cur.expand();
 
 			} else {
-				switch(m_player.getParMCTS().getSelectMode()) {
-				case 0: 
-					cur = cur.uct();
-					break;
-				case 1: 
-					cur = cur.egreedy();
-					break; 
-				case 2: 
-					cur = cur.rouletteWheel();
-					break; 
-				default: 
-					throw new RuntimeException("this selectMode ("+m_player.getParMCTS().getSelectMode()+")is not implemented");
-				}
+				cur = cur.select();
 			}
 		}
 		
 		return cur;
 	}
 
+	/**
+	 * Select a child of the fully expanded node {@code this} according to the select mode (UCT, eps-greedy 
+	 * or roulette wheel)
+	 */
+	private SingleTreeNode select() {
+		switch(m_player.getParMCTS().getSelectMode()) {
+		case 0: 
+			return uct();
+		case 1: 
+			return egreedy();
+		case 2: 
+			return rouletteWheel();
+		default: 
+			throw new RuntimeException("this selectMode ("+m_player.getParMCTS().getSelectMode()+")is not implemented");
+		}
+	}
+
+	/**
+	 * One MCTS iteration (tree policy, rollout, backup) on a tree which is grown by several threads 
+	 * at the same time (tree parallelization). {@code this} is the root node.
+	 * <p>
+	 * Each node on the selected path gets its visit already during selection, before the rollout result
+	 * is known, together with a <b>virtual loss</b>: the lowest possible reward (0 if 'Normalize' is checked, 
+	 * else the minimum game score) is added to its {@code totValue}. Until the result is backed up, the 
+	 * node's value {@code totValue/nVisits} is thus lowered, so that concurrent threads tend to select other 
+	 * paths. The backup replaces the virtual loss by the rollout result. Expansion and selection of a node's 
+	 * children are synchronized on the node, {@code totValue} is updated under the node's lock. After all 
+	 * iterations, {@code nVisits} and {@code totValue} are the same (up to rounding) as if the iterations 
+	 * had been done sequentially with {@link #treePolicy()} and {@link #backUp(SingleTreeNode, double[])}.
+	 */
+	void iterateShared() {
+		double vLoss = (m_player.getNormalize()) ? 0.0 : m_state.getMinGameScore();
+		SingleTreeNode selected = treePolicyShared(vLoss);
+		double [] delta = selected.rollOut();
+		backUpShared(selected,delta,vLoss);
+	}
+
+	private SingleTreeNode treePolicyShared(double vLoss) {
+		SingleTreeNode cur = this, next;
+		VISITS.incrementAndGet(cur);
+		while (!cur.m_state.isGameOver() && cur.m_depth < m_player.getTREE_DEPTH()) 
+		{
+			boolean expanded;
+			synchronized (cur) {
+				expanded = cur.notFullyExpanded();
+				next = (expanded) ? cur.expand() : cur.select();
+				synchronized (next) {			// virtual loss
+					VISITS.incrementAndGet(next);
+					next.totValue += vLoss;
+				}
+			}
+			cur = next;
+			if (expanded) break;
+		}
+		return cur;
+	}
+
+	/**
+	 * Same as {@link #backUp(SingleTreeNode, double[])}, but for {@link #iterateShared()}, where {@code nVisits}
+	 * was already incremented and the virtual loss {@code vLoss} added to {@code totValue} during selection.
+	 */
+	private void backUpShared(SingleTreeNode selected, double [] delta, double vLoss) {
+		for (SingleTreeNode n = selected; n.parent != null; n = n.parent) {
+			int pPlayer = n.parent.m_state.getPlayer();	// pPlayer: the player preceding n's player
+			synchronized (n) {
+				n.totValue += delta[pPlayer] - vLoss;
+			}
+		}
+	}
+
+	/**
+	 * Add the visits and values of the root children of {@code root} to the children of {@code this}
+	 * (root parallelization). Both nodes have to be root nodes for the same state object.
+	 * 
+	 * @param root	the root node of another tree 
+	 */
+	void addRootStatistics(SingleTreeNode root) {
+		assert root.m_state == m_state : "root nodes for different states";
+		this.nVisits += root.nVisits;
+		for (int i = 0; i < children.length; i++) {
+			SingleTreeNode c = root.children[i];
+			if (c != null) {
+				if (children[i] == null)
+					children[i] = new SingleTreeNode(c.m_state, c.m_act, this, this.m_rnd, this.m_player);
+				children[i].nVisits += c.nVisits;
+				children[i].totValue += c.totValue;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of visits of this node
+	 */
+	int getNVisits() {
+		return nVisits;
+	}
+
+	/**
+	 * @return the random number generator of the tree or, in a tree shared by several threads, 
+	 * 			the one of the current thread
+	 */
+	private Random rnd() {
+		return (m_rnd == null) ? ThreadLocalRandom.current() : m_rnd;
+	}
+
 	/**
 	 * Expand the current node {@code this}, i. e. select randomly one of those
 	 * children {@code children[i]} being yet {@code null}. Then advance the
@@ -355,7 +485,7 @@ public class SingleTreeNode implements Serializable
 		//System.out.println("expand() for m_state.actions.length = "+m_state.getNumAvailableActions());
 
         for (int i = 0; i < children.length; i++) {
-            double x = m_rnd.nextDouble();
+            double x = rnd().nextDouble();
             if (x > bestValue && children[i] == null) {
                 bestAction = i;
                 bestValue = x;
@@ -397,7 +527,7 @@ public class SingleTreeNode implements Serializable
 					
 				double uctValue = childValue
 						+ m_player.getK() * Math.sqrt(Math.log(this.nVisits + 1) / (child.nVisits + this.epsilon))
-						+ this.m_rnd.nextDouble() * this.epsilon;
+						+ rnd().nextDouble() * this.epsilon;
 						// small random numbers: break ties in unexpanded nodes
 
 				if (uctValue > bestValue) {
@@ -427,9 +557,9 @@ public class SingleTreeNode implements Serializable
 		SingleTreeNode selected = null;
 		double epsGreedy = m_player.getParMCTS().getEpsGreedy();
 
-		if (m_rnd.nextDouble() < epsGreedy) {
+		if (rnd().nextDouble() < epsGreedy) {
 			// Choose randomly
-			int selectedIdx = m_rnd.nextInt(children.length);
+			int selectedIdx = rnd().nextInt(children.length);
 			selected = this.children[selectedIdx];
 
 		} else {
@@ -438,7 +568,7 @@ public class SingleTreeNode implements Serializable
 			for (SingleTreeNode child : this.children) {
 				if (child != null) {
 					double eVal = child.totValue / (child.nVisits + this.epsilon)
-							+ this.m_rnd.nextDouble() * this.epsilon;
+							+ rnd().nextDouble() * this.epsilon;
 							// small sampleRandom numbers: break ties in unexpanded nodes
 				
 					if (eVal > bestValue) {
@@ -476,7 +606,7 @@ public class SingleTreeNode implements Serializable
      */
     public SingleTreeNode rouletteWheel() {
     	// TODO: implement one-move wins and one-move losses acc. to [Swiechowski15]
-        double rnd = m_rnd.nextDouble();
+        double rnd = rnd().nextDouble();
         double vTotal = 0.0;
         double vMin = 0.0;
         double cumProb = 0.0;		// cumulative probability of all children up to current child
@@ -539,12 +669,12 @@ public class SingleTreeNode implements Serializable
 			if (rollerState.getNumAvailableActions()==0) {
 				throw new RuntimeException("Oops, there are no available actions for current player!");
 			}
-			int action = m_rnd.nextInt(rollerState.getNumAvailableActions());
+			int action = rnd().nextInt(rollerState.getNumAvailableActions());
 			rollerState.advance(rollerState.getAction(action));
 			thisDepth++;
 		}
 		if (rollerState.isGameOver())
-			m_player.nRolloutFinished++;
+			m_player.incrRolloutFinished();
 		double[] delta = value(rollerState);
 		// // /WK/ not really clear what the following normalizations are for.
 		// // Is it part of MCTS or part of the special GVGP implementation?
@@ -866,7 +996,7 @@ public class SingleTreeNode implements Serializable
 					allEqual = false;
 				}
 
-				tieBreaker = m_rnd.nextDouble() * epsilon;
+				tieBreaker = rnd().nextDouble() * epsilon;
 				dVisit = children[i].nVisits + tieBreaker;
 				if (dVisit > bestValue) {
 					bestValue = dVisit;
@@ -901,7 +1031,7 @@ public class SingleTreeNode implements Serializable
 
 		for (int i = 0; i < children.length; i++) {
 			if (children[i] != null) {
-				tieBreaker = m_rnd.nextDouble() * epsilon;
+				tieBreaker = rnd().nextDouble() * epsilon;
 				dTotVal = children[i].totValue / children[i].nVisits + tieBreaker;
 				// /WK/: bug fix: '/children[i].nVisits' added (!)
 				if (children[i] != null && dTotVal > bestValue) {
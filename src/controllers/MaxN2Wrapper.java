@@ -8,6 +8,7 @@ import controllers.TD.ntuple2.TDNTuple3Agt;
 import games.StateObservation;
 import params.ParOther;
 import tools.ScoreTuple;
+import tools.TranspositionTable;
 import tools.Types.ACTIONS;
 import tools.Types.ACTIONS_VT;
 
@@ -16,6 +17,11 @@ import tools.Types.ACTIONS_VT;
  * (but applies the same MaxN principles).   <br>
  * [The former, now deprecated, {@code class MaxNWrapper extends MaxNAgent} was found to be error-prone and too complicated  
  * to maintain as good and simple software.]
+ * <p>
+ * If {@link #USE_TT} is set, the score tuples of states already searched are stored in a {@link TranspositionTable}
+ * (only within one search: it is cleared with each call of {@link #getNextAction2(StateObservation, boolean, boolean)},
+ * because the wrapped agent may change between calls). This saves the repeated search of transpositions for 
+ * {@code nPly >= 2}.
  * 
  * @author Wolfgang Konen, TH Koeln, 2020
  */
@@ -24,6 +30,15 @@ public class MaxN2Wrapper extends AgentBase implements PlayAgent, Serializable {
 	
 	private final Random rand;
 	protected int m_depth;
+	private transient TranspositionTable tt;		// created on first use
+	/**
+	 * whether to use a transposition table for {@code nPly >= 2}
+	 */
+	public static boolean USE_TT = true;
+	/**
+	 * size of the transposition table: 2^TT_LOG2_SIZE entries
+	 */
+	public static int TT_LOG2_SIZE = 16;
 
 //	private final boolean OLDVERSION = false;  // normally false, true just for debug
 	
@@ -75,6 +90,7 @@ public class MaxN2Wrapper extends AgentBase implements PlayAgent, Serializable {
 		StateObservation so = so_in.copy(); // just for safety
 
         assert so.isLegalState() : "Not a legal state";
+        if (useTable(random)) getTable(so).clear();
         
         // this starts the recursion:
 		ACTIONS_VT act_best = getBestAction(so/*.clearedCopy()*/, random,  silent, 0, null);
@@ -117,6 +133,7 @@ public class MaxN2Wrapper extends AgentBase implements PlayAgent, Serializable {
 		ArrayList<ACTIONS> acts = so.getAvailableActions();
         double[] VTable =  new double[acts.size()+1];
         int P = so.getPlayer();
+        TranspositionTable table = (useTable(random)) ? getTable(so) : null;
 
         for(i = 0; i < acts.size(); ++i)
         {
@@ -134,9 +151,18 @@ public class MaxN2Wrapper extends AgentBase implements PlayAgent, Serializable {
 				// for the player who created sob. Will be used by subsequent states as a surrogate for the
 				// then unknown value for that player.
 
-				// here is the recursion: call this method again with depth+1:
-				act_vt = getBestAction(NewSO/*.clearedCopy()*/, random, silent, depth+1, prevTuple);
-				currScoreTuple = act_vt.getScoreTuple();
+				// the score tuple of NewSO is the result of a search with m_depth-depth-1 more levels: 
+				int draft = this.m_depth-depth-1;
+				int entry = (table==null) ? -1 : table.probe(NewSO.hashKey(), draft);
+				if (entry<0) {
+					// here is the recursion: call this method again with depth+1:
+					act_vt = getBestAction(NewSO/*.clearedCopy()*/, random, silent, depth+1, prevTuple);
+					currScoreTuple = act_vt.getScoreTuple();
+					if (table!=null) 
+						table.store(NewSO.hashKey(), draft, TranspositionTable.EXACT, act_vt.toInt(), currScoreTuple);
+				} else {
+					currScoreTuple = table.getScoreTuple(entry);
+				}
 
 				currScoreTuple.combine(NewSO.getStepRewardTuple(), ScoreTuple.CombineOP.SUM,0,0);
 				// NewSO.getStepRewardTuple returns 0.0, except for Rubik's Cube, where it returns CubeConfig.stepReward.
@@ -182,6 +208,21 @@ public class MaxN2Wrapper extends AgentBase implements PlayAgent, Serializable {
         return act_vt;         
 	} // getBestAction
 
+	/**
+	 * @param random	whether the wrapped agent may select random actions
+	 * @return true, if the transposition table is used (only for {@code nPly >= 2} and no random actions: 
+	 * 		otherwise there are no transpositions or their score tuples are not reproducible)
+	 */
+	private boolean useTable(boolean random) {
+		return USE_TT && m_depth>=2 && !random;
+	}
+
+	private TranspositionTable getTable(StateObservation so) {
+		if (tt==null || tt.getNumPlayers()!=so.getNumPlayers())
+			tt = new TranspositionTable(TT_LOG2_SIZE, so.getNumPlayers());
+		return tt;
+	}
+
 	// This older version is plain wrong, because it had the misconception that we should use the wrapped agent's method
 	// estimateGameValueTuple. But this does not work for DAVI3Agent and RubiksCube (and it also slightly wrong in
 	// general for all games since it returns for nPly=1 just what the wrapped agent would do). The right thing is to
@@ -318,10 +359,12 @@ public class MaxN2Wrapper extends AgentBase implements PlayAgent, Serializable {
 	 */
 	@Override
 	public double getScore(StateObservation sob) {
+		if (useTable(false)) getTable(sob).clear();
 		return getBestAction(sob, false, true, 0, null).getScoreTuple().scTup[sob.getPlayer()];
 	}
 	@Override
 	public ScoreTuple getScoreTuple(StateObservation sob, ScoreTuple prevTuple) {
+		if (useTable(false)) getTable(sob).clear();
 		return getBestAction(sob, false, true, 0, null).getScoreTuple();
 	}
 	
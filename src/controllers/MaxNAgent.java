@@ -11,6 +11,7 @@ import params.MaxNParams;
 import params.ParMaxN;
 import params.ParOther;
 import tools.ScoreTuple;
+import tools.TranspositionTable;
 import tools.Types;
 import tools.Types.ACTIONS;
 import tools.Types.ACTIONS_ST;
@@ -18,7 +19,6 @@ import tools.Types.ACTIONS_VT;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 
@@ -29,7 +29,8 @@ import javax.swing.JOptionPane;
  * Max-N is the generalization of the well-known Minimax agent to N players. It works on {@link ScoreTuple}, 
  * an N-tuple of game scores. It traverses the game tree up to a prescribed 
  * depth (default: 10, see {@link ParMaxN}). To speed up calculations, already 
- * visited states are stored in a HashMap.  
+ * visited states are stored in a {@link TranspositionTable} (keyed on {@link StateObservation#hashKey()}, 
+ * fixed size {@code 2^}{@link #TT_LOG2_SIZE} entries, kept across calls).  
  * <p>
  * {@link MaxNAgent} is for <b>deterministic</b> games. For non-deterministic games see 
  * {@link ExpectimaxNAgent}.
@@ -49,7 +50,12 @@ public class MaxNAgent extends AgentBase implements PlayAgent, Serializable
 	private Random rand;
 	protected int m_depth=10;
 	protected boolean m_useHashMap=false; //true;
-	private HashMap<String,ScoreTuple> hm;
+	private transient TranspositionTable tt;		// created on first use
+	private transient long numCutoffs;				// how often the recursion was cut off by m_depth
+	/**
+	 * size of the transposition table: 2^TT_LOG2_SIZE entries
+	 */
+	public static int TT_LOG2_SIZE = 20;
 	
 	/**
 	 * change the version ID for serialization only if a newer version is no longer 
@@ -64,7 +70,6 @@ public class MaxNAgent extends AgentBase implements PlayAgent, Serializable
 		super.setMaxGameNum(1000);		
 		super.setGameNum(0);
         rand = new Random(System.currentTimeMillis());
-		hm = new HashMap<String, ScoreTuple>();
 		super.setAgentState(AgentState.TRAINED);
 	}
 	
@@ -87,7 +92,6 @@ public class MaxNAgent extends AgentBase implements PlayAgent, Serializable
 		super.setMaxGameNum(1000);		
 		super.setGameNum(0);
         rand = new Random(System.currentTimeMillis());
-		hm = new HashMap<String, ScoreTuple>();
 		super.setAgentState(AgentState.TRAINED);
 		m_depth = mPar.getMaxNDepth();
 		m_useHashMap = mPar.getMaxNUseHashmap();
@@ -165,13 +169,12 @@ public class MaxNAgent extends AgentBase implements PlayAgent, Serializable
 	{
 		int i,j;
 		ScoreTuple currScoreTuple=null;
-        ScoreTuple sc;
 		StateObservation NewSO;
 		ScoreTuple scBest = null;
         ACTIONS actBest = null;
         ACTIONS_VT act_vt = null;
         ArrayList<ACTIONS> bestActions = new ArrayList<>();
-        String stringRep ="";
+        TranspositionTable table = (m_useHashMap) ? getTable(so) : null;
 
         assert so.isLegalState() : "Not a legal state"; 
         
@@ -197,24 +200,28 @@ public class MaxNAgent extends AgentBase implements PlayAgent, Serializable
     			currScoreTuple = NewSO.getRewardTuple(rgs);
     		} else {
     			if (depth<this.m_depth) {
-    				stringRep = NewSO.stringDescr();
-    	        	sc = retrieveFromHashMap(m_useHashMap,stringRep);
-    				if (sc==null) {
-    					// here is the recursion: getAllScores may call getBestAction back:
-    					currScoreTuple = getAllScores(NewSO,refer,depth+1, currScoreTuple);	
+    				// the score tuple of NewSO is the result of a search with m_depth-depth-1 more levels: 
+    				int draft = this.m_depth-depth-1;
+    				int entry = (table==null) ? -1 : table.probe(NewSO.hashKey(), draft);
+    				if (entry<0) {
+    					long cutoffs = numCutoffs;
+    					// here is the recursion: getBestAction calls back getBestAction(...,depth+1):
+    					act_vt = getBestAction(NewSO, refer, false, true, depth+1, currScoreTuple);
+    					currScoreTuple = act_vt.getScoreTuple();
     					
-    					if (m_useHashMap) {
-    						hm.put(stringRep, currScoreTuple);
-    		    			//System.out.println(stringRep+":"+currScoreTuple);
-    					}
+    					// if the search below NewSO reached only game-over states, its result is valid for any depth:
+    					if (table!=null) 
+    						table.store(NewSO.hashKey(), (numCutoffs==cutoffs) ? TranspositionTable.MAX_DRAFT : draft, 
+    								TranspositionTable.EXACT, act_vt.toInt(), currScoreTuple);
     				} else {
-    					currScoreTuple = sc;
-//    					found=true;
+    					currScoreTuple = table.getScoreTuple(entry);
+    					if (table.getDraft(entry)<TranspositionTable.MAX_DRAFT) numCutoffs++;
     				}
     			} else {
     				// this terminates the recursion:
     				// (after finishing the for-loop for every element of acts)
     				currScoreTuple = estimateGameValueTuple(NewSO, currScoreTuple);
+    				numCutoffs++;
     				// For derived class MaxNWrapper, estimateGameValueTuple returns
     				// the score tuple of the wrapped agent. 
     			}    			
@@ -264,16 +271,15 @@ public class MaxNAgent extends AgentBase implements PlayAgent, Serializable
         return act_vt;         
 	}
 
-	private ScoreTuple retrieveFromHashMap(boolean m_useHashMap, String stringRep) {
-		ScoreTuple sc = null;
-    	if (m_useHashMap) {
-			// speed up MaxNAgent for repeated calls by storing/retrieving the 
-			// scores of visited states in HashMap hm:
-			sc = hm.get(stringRep); 		// returns null if not in hm
-			//System.out.println(stringRep+":"+sc);
-    	} 
-    	
-    	return sc;
+	/**
+	 * Speed up MaxNAgent for repeated calls by storing/retrieving the scores of visited states in 
+	 * the transposition table. It is kept across calls, since the scores depend only on the state and 
+	 * the remaining depth.
+	 */
+	private TranspositionTable getTable(StateObservation so) {
+		if (tt==null || tt.getNumPlayers()!=so.getNumPlayers())
+			tt = new TranspositionTable(TT_LOG2_SIZE, so.getNumPlayers());
+		return tt;
 	}
 	
 	/**
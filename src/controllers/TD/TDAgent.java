@@ -246,15 +246,17 @@ public class TDAgent extends AgentBase implements PlayAgent,Serializable {
 		}
 	
         ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
-        Types.ACTIONS[] actions = new Types.ACTIONS[acts.size()];
+        Types.ACTIONS[] actions = acts.toArray(new Types.ACTIONS[0]);
         VTable = new double[acts.size()];  
         
         assert actions.length>0 : "Oops, no available action";
+        // if not random and silent: evaluate all afterstates with one batched call of the net
+        boolean batched = (!randomSelect && silent);
+        if (batched) 
+        	g3_EvaluateAll(so,actions,refer,VTable);
         for(i = 0; i < actions.length; ++i)
         {
-            actions[i] = acts.get(i);		
-	        
-            CurrentScore = g3_Evaluate(so,actions[i],refer,silent);
+            CurrentScore = batched ? VTable[i] : g3_Evaluate(so,actions[i],refer,silent);
 				
 			// just a debug check:
 			if (Double.isInfinite(CurrentScore)) {
@@ -422,6 +424,51 @@ public class TDAgent extends AgentBase implements PlayAgent,Serializable {
 
 		return CurrentScore;
 	}
+	/**
+	 * Same as {@link #g3_Evaluate(StateObservation, Types.ACTIONS, StateObservation, boolean)} (with 
+	 * {@code silent=true}, no random selection) for all {@code actions}, but the afterstates which need
+	 * the estimate of the net are collected and evaluated with one call of 
+	 * {@link TD_func#getScores(double[][], int, double[])}.
+	 * 
+	 * @param VTable	on output: {@code VTable[i]} is the score of {@code actions[i]}
+	 */
+	private void g3_EvaluateAll(StateObservation so, Types.ACTIONS[] actions, StateObservation refer, 
+			double[] VTable) 
+	{
+		int player = Types.PLAYER_PM[refer.getPlayer()]; 	 
+		StateObservation NewSO;
+		double[][] inputs = new double[actions.length][];	// feature vectors of the afterstates for the net
+		int[] index = new int[actions.length];				// inputs[b] is the afterstate of actions[index[b]]
+		int num = 0;
+
+		for (int i = 0; i < actions.length; ++i) 
+		{
+			NewSO = so.copy();
+			NewSO.advance(actions[i]);
+
+			// the recursive part for multi-moves, see g3_Evaluate:
+			if (so.isDeterministicGame() && so.getNumPlayers()>1 && !NewSO.isGameOver()
+					&& Types.PLAYER_PM[NewSO.getPlayer()]==player) 
+			{
+				VTable[i] = getNextAction3(NewSO, refer, false, true).getVBest();
+			} 
+			else if (NewSO.isGameOver()) 
+			{
+				VTable[i] = NewSO.getGameScore(so);
+			} 
+			else 
+			{
+				inputs[num] = m_feature.prepareFeatVector(NewSO);
+				index[num++] = i;
+			}
+		}
+
+		double[] scores = new double[num];
+		m_Net.getScores(inputs, num, scores);
+		for (int b = 0; b < num; ++b) 
+			VTable[index[b]] = getGamma()*player * scores[b];
+	}
+	
     // calculate CurrentScore: 
 	// (g3_Evaluate is helper function for getNextAction3)
     private double g4_Evaluate(	StateObservation so, Types.ACTIONS act, 
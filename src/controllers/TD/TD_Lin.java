@@ -425,6 +425,15 @@ public class TD_Lin implements TD_func, Serializable {
     	return(y[0]);
     }/* end getScore */
 
+    /**
+     * Calculate the net output for a batch of inputs: {@code scores[b] = getScore(inputs[b])} for 
+     * b=0,...,num-1.
+     */
+    public void getScores(double[][] inputs, int num, double[] scores) {
+    	for (int b=0;b<num;b++)
+    		scores[b]=getScore(inputs[b]);
+    }
+
     // initialize weights with random numbers from [-EPS,EPS]; 
     // initialize bias unit with BIAS
     private void initWeights() {
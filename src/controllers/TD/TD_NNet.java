@@ -44,6 +44,11 @@ are the biases or threshold weights. The first layer bias is provided by
 a dummy nth input unit, and the second layer bias is provided by a dummy
 (num-hidden)th hidden unit. The activities of both of these dummy units
 are held at a constant value (BIAS), see {@link getScore}.
+<p>
+The forward pass reads the weights from {@code flatWeights}, a copy of v and w in one flat array
+(hidden unit by hidden unit, see {@link #syncFlatWeights()}), which is kept up to date whenever the 
+weights change. {@link #getScores(double[][], int, double[])} evaluates a whole batch of input vectors 
+(e.g. the feature vectors of all afterstates) in one pass over the weights.
 
 */
 public class TD_NNet implements TD_func, Serializable {
@@ -96,7 +101,16 @@ public class TD_NNet implements TD_func, Serializable {
     protected transient LineChartSuccess lChart=null;
     protected transient XYSeries series;
     protected long 	   numLearnActions=0L;
+    /**
+     * v and w as flat array: {@code flatWeights[j*(n+1)+i] = v[i][j]} and 
+     * {@code flatWeights[(num_hidden+1)*(n+1)+j*m+k] = w[j][k]}
+     */
 	protected double[] flatWeights;
+	/**
+	 * whether {@link #flatWeights} holds the current weights (false after loading from disk)
+	 */
+	private transient boolean flatValid = false;
+	private transient double[] batchSum;		// scratch array of getScores
 
 	/**
 	 * change the version ID for serialization only if a newer version is no longer 
@@ -128,6 +142,7 @@ public class TD_NNet implements TD_func, Serializable {
 //    	rp.setRPROPType(mRPROP);
     	gradients = new double[flatD];
     	flatWeights = new double[flatD];
+    	syncFlatWeights();
     }
     
 /*   
@@ -164,7 +179,9 @@ public class TD_NNet implements TD_func, Serializable {
 	
 	private void TDchangeWeights() {
 		int i,j,k;
+		int wOffset = (num_hidden+1)*(n+1);
 
+		ensureFlatWeights();
 		for (k=0;k<m;k++)
 		{
 			for (j=0;j<=num_hidden;j++)
@@ -172,8 +189,10 @@ public class TD_NNet implements TD_func, Serializable {
 				// gradSum contains the sum over all epoch iterations of 
 				// - gradient of loss function 0.5 error^2 
 				w[j][k]+=BETA*gradSumW[j][k];
+				flatWeights[wOffset+j*m+k] = w[j][k];
 				for (i=0;i<=n;i++) {
 					v[i][j]+=ALPHA*gradSumV[i][j][k];
+					flatWeights[j*(n+1)+i] = v[i][j];
 					gradSumV[i][j][k]=0;		// reset gradient sum (for next epoch)
 				}
 				gradSumW[j][k]=0;				// reset gradient sum (for next epoch)
@@ -181,6 +200,26 @@ public class TD_NNet implements TD_func, Serializable {
 		}
 	}/* end TDchangeWeights */
 	
+	/**
+	 * Copy the weights v and w to {@link #flatWeights}.
+	 */
+	private void syncFlatWeights() {
+		int wOffset = (num_hidden+1)*(n+1);
+		if (flatWeights==null || flatWeights.length!=wOffset+(num_hidden+1)*m)	// (older .agt.zip)
+			flatWeights = new double[wOffset+(num_hidden+1)*m];
+		for (int j=0;j<=num_hidden;j++) {
+			for (int i=0;i<=n;i++) 
+				flatWeights[j*(n+1)+i] = v[i][j];
+			for (int k=0;k<m;k++)
+				flatWeights[wOffset+j*m+k] = w[j][k];
+		}
+		flatValid = true;
+	}
+	
+	private void ensureFlatWeights() {
+		if (!flatValid) syncFlatWeights();
+	}
+	
     public void resetElig() {
 		int i,j,k;
 		for (k=0;k<m;k++)
@@ -198,7 +237,8 @@ public class TD_NNet implements TD_func, Serializable {
      * Update weights based on current state {reward, Input} and based on the output 
      * {@code old_y} of the previous step.<br>
      * Side effect: In the end call {@link calcScoresAndElig} to prepare {@code old_y} for the 
-     * next pass and to update the eligibility traces.
+     * next pass and to update the eligibility traces. (If {@code wghtChange==false}, the weights 
+     * are unchanged and only {@link updateElig} is called.)
      * @param reward	reward of the current board position
      * @param Input		feature vector derived from Table, the current board position
      * @param finished	is the current board position an end state?
@@ -224,10 +264,16 @@ public class TD_NNet implements TD_func, Serializable {
         						+target+"   "+reward + (finished ? "*" : ""));
         }
 
-        calcScoresAndElig(Input);
-    	// forward pass must be done twice to form TD errors: calculate scores with new weights,
-    	// copy current scores to old_y[k] & update eligibilities
-    	// (for use in next cycle's TD errors) 
+        if (wghtChange || DEBG) {
+        	calcScoresAndElig(Input);
+        	// forward pass must be done twice to form TD errors: calculate scores with new weights,
+        	// copy current scores to old_y[k] & update eligibilities
+        	// (for use in next cycle's TD errors) 
+        } else {
+        	updateElig(Input);
+        	// weights unchanged (mini batch, see TDAgent#trainAgent): x, h and y of the forward pass 
+        	// above are still valid, so the second forward pass is not needed
+        }
         
         numLearnActions++;
 
@@ -321,41 +367,91 @@ public class TD_NNet implements TD_func, Serializable {
      */
     public double getScore(double[] Input) {
     	int i,j,k;
+    	int wOffset = (num_hidden+1)*(n+1);
     	
         // initialize input layer & bias neurons:	
     	if (Input.length != n) throw new RuntimeException("Wrong length");
     	System.arraycopy(Input, 0, x, 0, Input.length);
     	x[n] = BIAS;
     	h[num_hidden]=BIAS;
+    	ensureFlatWeights();
 
     	for (j=0;j<num_hidden;j++)
     	{
-    		h[j]=0.0;
+    		int base = j*(n+1);			// flatWeights[base+i] = v[i][j]
+    		double sum=0.0;
     		for (i=0;i<=n;i++)
     		{
-    			h[j]+=x[i]*v[i][j];
+    			sum+=x[i]*flatWeights[base+i];
     		}
-    		h[j]=1.0/(1.0+Math.exp(-h[j])); /* asymmetric sigmoid */
+    		h[j]=1.0/(1.0+Math.exp(-sum)); /* asymmetric sigmoid */
     	}
     	for (k=0;k<m;k++)
     	{
     		y[k]=0.0;
     		for (j=0;j<=num_hidden;j++)
     		{
-    			y[k]+=h[j]*w[j][k];
+    			y[k]+=h[j]*flatWeights[wOffset+j*m+k];
     		}
-    		if (withSigmoid)
-    			if (FERMI_FCT) {
-        			y[k]=1.0/(1.0+Math.exp(-y[k])); /* asymmetric sigmoid (Fermi fct) \in [0,1] */
-//        			y[k]=2.0*y[k]-1.0;				
-        			/* uncomment the line above to map to symmetric sigmoid \in [-1,1]. This
-        			 * needs a factor 2 in the withSigmoid-branch of updateElig() */     				
-    			} else {
-    				y[k] = Math.tanh(y[k]);
-    			}
+    		y[k]=outputFct(y[k]);
     	}
     	return(y[0]);
     }/* end getScore */
+    
+    /**
+     * Calculate the net output for a batch of inputs in one pass: for each hidden unit, its weights are 
+     * applied to all inputs of the batch before the next hidden unit is processed. The result is the same 
+     * as {@link #getScore(double[])} for each input, but the activities x, h and y are not changed.
+     * 
+     * @param inputs	the feature vectors, {@code inputs[0..num-1]} are evaluated
+     * @param num		the number of feature vectors
+     * @param scores	on output: {@code scores[b]} is the output of the first output neuron for 
+     * 					{@code inputs[b]}
+     */
+    public void getScores(double[][] inputs, int num, double[] scores) {
+    	int i,j,b;
+    	int wOffset = (num_hidden+1)*(n+1);
+    	
+    	ensureFlatWeights();
+    	if (batchSum==null || batchSum.length<num) batchSum = new double[num];
+    	for (b=0;b<num;b++) {
+    		if (inputs[b].length != n) throw new RuntimeException("Wrong length");
+    		batchSum[b]=0.0;
+    	}
+    	
+    	for (j=0;j<num_hidden;j++)
+    	{
+    		int base = j*(n+1);			// flatWeights[base+i] = v[i][j]
+    		double wj = flatWeights[wOffset+j*m];
+    		for (b=0;b<num;b++) 
+    		{
+    			double[] in = inputs[b];
+    			double sum=0.0;
+    			for (i=0;i<n;i++)
+    			{
+    				sum+=in[i]*flatWeights[base+i];
+    			}
+    			sum+=BIAS*flatWeights[base+n];
+    			batchSum[b]+=(1.0/(1.0+Math.exp(-sum)))*wj;	// = h[j]*w[j][0]
+    		}
+    	}
+    	double wBias = flatWeights[wOffset+num_hidden*m];
+    	for (b=0;b<num;b++)
+    		scores[b]=outputFct(batchSum[b]+BIAS*wBias);
+    }/* end getScores */
+    
+    private double outputFct(double y) {
+		if (withSigmoid)
+			if (FERMI_FCT) {
+    			y=1.0/(1.0+Math.exp(-y)); /* asymmetric sigmoid (Fermi fct) \in [0,1] */
+//    			y=2.0*y-1.0;				
+    			/* uncomment the line above to map to symmetric sigmoid \in [-1,1]. This
+    			 * needs a factor 2 in the withSigmoid-branch of updateElig() */     				
+			} else {
+				y = Math.tanh(y);
+			}
+		return y;
+    }
 
     // initialize weights & bias units
     private void initWeights() {
@@ -378,6 +474,7 @@ public class TD_NNet implements TD_func, Serializable {
     		    	ev[i][j][k]=0.0;
     		}
     	}
+    	flatValid = false;
 
     } /* end initWeights */
     
@@ -418,6 +515,7 @@ public class TD_NNet implements TD_func, Serializable {
     	}
     
     	assert kv==sz-1 : "count error kv";
+    	syncFlatWeights();
 
     } /* end setWeights */
     
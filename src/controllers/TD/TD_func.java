@@ -29,6 +29,7 @@ public interface TD_func {
 	public long getNumLearnActions();
 	public void resetNumLearnActions(); 
 	public double getScore(double[] Input);
+	public void getScores(double[][] inputs, int num, double[] scores);	// batch of getScore
 	public void updateElig(double[] Input);
 	public void setAlphaChangeRatio(double newAlphaChangeRatio);
 	public void setAlpha(double newStartAlpha);
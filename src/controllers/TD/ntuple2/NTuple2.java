@@ -56,7 +56,12 @@ public class NTuple2 implements Serializable {
 
 	private int[] nTuple;
 	private int posVals; // # of possible values for a field of the board
+	// The LUT weights of this n-tuple are lut[lutOff],...,lut[lutOff+lutLength-1]. If the n-tuple is part
+	// of a packed weight store (see NTuple2ValueFunc#packLuts), lut is the contiguous block shared by 
+	// all n-tuples of the same output unit and player. Otherwise lutOff==0 and lut is the own LUT.
 	private double lut[];
+	private int lutOff = 0;
+	private int lutLength;		// 0 for agents saved before the packed weight store (use then lut.length)
 	private transient double tcN[] = null;
 	private transient double tcA[] = null;
 	private transient double tcFactorArray[] = null;
@@ -119,6 +124,7 @@ public class NTuple2 implements Serializable {
 		this.nTuple = nTuple.clone();
 		this.posVals = posVals;
 		lut = new double[(int) Math.pow(posVals, nTuple.length)];
+		lutLength = lut.length;
 		if (TC) {
 			tcN = new double[lut.length]; // matrix N in TC
 			tcA = new double[lut.length]; // matrix A in TC
@@ -145,17 +151,49 @@ public class NTuple2 implements Serializable {
 //			trainCounter = new int[lut.length];
 	}
 
+	/**
+	 * Worker copy for parallel training (see {@link TDNTuple3Agt#trainAgentParallel(StateObservation[], int)}):
+	 * the copy <b>shares</b> the LUT and the TC arrays with {@code other}, but has its own {@code indexList}.
+	 *
+	 * @param other the n-tuple whose weights are shared
+	 */
+	NTuple2(NTuple2 other) {
+		this.INIT = other.INIT;
+		this.TC = other.TC;
+		this.tcImm = other.tcImm;
+		this.tcAccRW = other.tcAccRW;
+		this.tcEXP = other.tcEXP;
+		this.tcBeta = other.tcBeta;
+		this.EPS = other.EPS;
+		this.rand = other.rand;
+		this.nTuple = other.nTuple;
+		this.posVals = other.posVals;
+		this.lut = other.lut;
+		this.lutOff = other.lutOff;
+		this.lutLength = other.getLutLength();
+		this.tcN = other.tcN;
+		this.tcA = other.tcA;
+		this.tcFactorArray = other.tcFactorArray;
+		this.dWArray = other.dWArray;
+		this.dWOld = other.dWOld;
+		this.countP = other.countP;
+		this.countM = other.countM;
+		this.DW_DBG = other.DW_DBG;
+		this.muDampen = other.muDampen;
+	}
+
 	public boolean instantiateAfterLoading() {
 		indexList = new LinkedList();
+		if (lutLength==0) lutLength = lut.length;	// agent saved before packed weight store
 		if (TC) {
-			tcN = new double[lut.length]; // matrix N in TC
-			tcA = new double[lut.length]; // matrix A in TC
-			tcFactorArray = new double[lut.length]; // tcFactor=|N|/A
-			//tcDampArray = new double[lut.length]; // /WK/ for NEW_WK
-			//dWArray = new double[lut.length];	// for accumulating TC (tcImm==false)
+			tcN = new double[lutLength]; // matrix N in TC
+			tcA = new double[lutLength]; // matrix A in TC
+			tcFactorArray = new double[lutLength]; // tcFactor=|N|/A
+			//tcDampArray = new double[lutLength]; // /WK/ for NEW_WK
+			//dWArray = new double[lutLength];	// for accumulating TC (tcImm==false)
 			
 			// initializing N and A matrices and tcFactor=|N|/A
-			for (int i = 0; i < lut.length; i++) {
+			for (int i = 0; i < lutLength; i++) {
 				tcN[i] = INIT;
 				tcA[i] = INIT;
 				tcFactorArray[i] = 1.0;
@@ -183,6 +221,38 @@ public class NTuple2 implements Serializable {
 		return index;
 	}
 
+	/**
+	 * Move the weights of this n-tuple into the packed block {@code block}, starting at 
+	 * {@code block[off]}. From now on {@code block} is the LUT of this n-tuple. 
+	 * If this n-tuple already lives at {@code block[off]}, nothing is copied.
+	 * 
+	 * @param block the contiguous weight block shared by several n-tuples
+	 * @param off	offset of this n-tuple's weights in {@code block}
+	 * 
+	 * @see NTuple2ValueFunc#packLuts()
+	 */
+	void attachLut(double[] block, int off) {
+		if (block==lut && off==lutOff) return;
+		System.arraycopy(lut, lutOff, block, off, getLutLength());
+		lut = block;
+		lutOff = off;
+	}
+	
+	/**
+	 * @return the array currently holding the weights of this n-tuple (possibly a packed block
+	 * 		shared with other n-tuples, see {@link #getLutOffset()})
+	 */
+	double[] getLutBlock() {
+		return lut;
+	}
+	
+	/**
+	 * @return the offset of this n-tuple's weights in {@link #getLutBlock()}
+	 */
+	int getLutOffset() {
+		return lutOff;
+	}
+
 //	/**
 //	 * Get the game board corresponding to this LUT index for this NTuple.<br>
 //	 * (--- currently not used inside GBG [still specific to TTT] ---)
@@ -241,7 +311,7 @@ public class NTuple2 implements Serializable {
 	 *            If {@code false}, all weights are set to 0.0.
 	 */
 	public void initWeights(boolean random) {
-		for (int i = 0; i < lut.length; i++)
+		for (int i = lutOff; i < lutOff+getLutLength(); i++)
 			lut[i] = (random ? EPS * (rand.nextDouble() * 2 - 1) : 0.0);
 	}
 
@@ -258,7 +328,7 @@ public class NTuple2 implements Serializable {
 	 */
 	public double getScore(int[] board) {
 		int Index = getIndex(board);
-		double score = lut[Index];
+		double score = lut[lutOff+Index];
 		
 //		final double MAXSCORE = 3932156; 
 //		System.out.println(Index + " ["+score*MAXSCORE+"]");  //debug
@@ -357,7 +427,7 @@ public class NTuple2 implements Serializable {
 //		if (useIndexList) {		// useIndexList==true is the recommended choice
 			if (!TC || (TC && tcImm)) {
 				if (!indexList.contains(indexI)) 
-					lut[index] += dW;				
+					lut[lutOff+index] += dW;				
 			}		
 			indexList.add(indexI);
 //		} 
@@ -395,7 +465,7 @@ public class NTuple2 implements Serializable {
 	// currently not used
 	@Deprecated
 	public void weightDecay(double factor) {
-		for (int k=0; k<lut.length; k++)
+		for (int k=lutOff; k<lutOff+getLutLength(); k++)
 			lut[k] *= factor;
 	}
 	
@@ -405,8 +475,8 @@ public class NTuple2 implements Serializable {
 	 * @return the kth weight for this NTuple
 	 */
 	public double getWeight(int k) {
-		assert (k >= 0 && k < lut.length) : " k is not a valid LUT index";
-		return lut[k];
+		assert (k >= 0 && k < getLutLength()) : " k is not a valid LUT index";
+		return lut[lutOff+k];
 	}
 
 //	/**
@@ -430,8 +500,13 @@ public class NTuple2 implements Serializable {
 //		return tcA[k];
 //	}
 
+	/**
+	 * @return the weights of this n-tuple. If this n-tuple is part of a packed weight store, 
+	 * 		the returned array is a copy.
+	 */
 	public double[] getWeights() {
-		return lut;
+		if (lutOff==0 && lut.length==getLutLength()) return lut;
+		return Arrays.copyOfRange(lut, lutOff, lutOff+getLutLength());
 	}
 	
 	public double[] getTcFactorArray() {
@@ -462,13 +537,13 @@ public class NTuple2 implements Serializable {
 
 	public int getCountP(int k) {
 		if (!DW_DBG) return 0;
-		assert (k >= 0 && k < lut.length) : " k is not a valid LUT index";
+		assert (k >= 0 && k < getLutLength()) : " k is not a valid LUT index";
 		return countP[k];
 	}
 
 	public int getCountM(int k) {
 		if (!DW_DBG) return 0;
-		assert (k >= 0 && k < lut.length) : " k is not a valid LUT index";
+		assert (k >= 0 && k < getLutLength()) : " k is not a valid LUT index";
 		return countM[k];
 	}
 
@@ -488,7 +563,7 @@ public class NTuple2 implements Serializable {
 	 * @return the length of the LUT for this NTuple
 	 */
 	public int getLutLength() {
-		return lut.length;
+		return (lutLength==0) ? lut.length : lutLength;
 	}
 
 	public int getPosVals() {
@@ -508,9 +583,9 @@ public class NTuple2 implements Serializable {
 			//for (int i = 0; i < lut.length; i++)
 			//	tcFactorArray[i] = (double) Math.abs(tcN[i]) / tcA[i];
 
-			for (int i = 0; i < lut.length; i++) {
+			for (int i = 0; i < getLutLength(); i++) {
 				tcFactorArray[i] = (double) Math.abs(tcN[i]) / tcA[i];
-				lut[i] += tcFactorArray[i]* dWArray[i];				// ??correct to update lut here?? TODO
+				lut[lutOff+i] += tcFactorArray[i]* dWArray[i];				// ??correct to update lut here?? TODO
 				dWArray[i]=0.0;
 			}
 		}
@@ -562,17 +637,17 @@ public class NTuple2 implements Serializable {
 
 	public int lutHashSum() {
 		int hs=0; 
-		for (int i=0; i<lut.length; i++) if (lut[i]>0) hs += i;
+		for (int i=0; i<getLutLength(); i++) if (lut[lutOff+i]>0) hs += i;
 		return (hs%100);
 	}
 	public double lutSum() {
 		double ls=0; 
-		for (int i=0; i<lut.length; i++) ls += lut[i];
+		for (int i=lutOff; i<lutOff+getLutLength(); i++) ls += lut[i];
 		return ls;
 	}
 	public double lutSumAbs() {
 		double ls=0; 
-		for (int i=0; i<lut.length; i++) ls += Math.abs(lut[i]);
+		for (int i=lutOff; i<lutOff+getLutLength(); i++) ls += Math.abs(lut[i]);
 		return ls;
 	}
 }
@@ -0,0 +1,179 @@
+package controllers.TD.ntuple2;
+
+import games.XNTupleFuncs;
+
+/**
+ * Precomputed LUT index tables for the n-tuples of a {@link NTuple2ValueFunc} in the packed weight store.
+ * <p>
+ * For each pair (n-tuple {@code i}, symmetry {@code s}) - a <b>slot</b> {@code k = i*numEquiv+s} - the table
+ * holds the permuted cells {@code perm[s][nTuple_i[m]]} and the offset of n-tuple {@code i} in the packed
+ * block. Together with the positional multipliers {@code posVals^m}, the LUT index of a slot is
+ * <pre>
+ *     index[k] = lutOffset[i] + sum_m  posVals^m * bvec[perm[s][nTuple_i[m]]]  </pre>
+ * and is computed without building any symmetric board.
+ * <p>
+ * Additionally, the table knows for each board cell which slots it enters and with which multiplier.
+ * If a move changes only a few cells, {@link #updateIndices(int[], int[], int[])} updates the slot indices
+ * incrementally in O(changed cells * affected slots) instead of O(numTuples * numEquiv * tupleLength).
+ * <p>
+ * The table is immutable and may be shared between threads.
+ *
+ * @see NTuple2ValueFunc
+ * @see XNTupleFuncs#symmetryPermutations()
+ */
+public class NTuple2IndexTable {
+	private final int numEquiv;
+	private final int numCells;
+	private final int[] slotOff;		// [numSlots] offset of the slot's n-tuple in the packed block
+	private final int[] cellStart;		// [numSlots+1] slot k has cells slotCells[cellStart[k] .. cellStart[k+1]-1]
+	private final int[] slotCells;		// the permuted cells of all slots, concatenated
+	private final int[] posMult;		// posMult[m] = posVals^m
+	private final int[] refStart;		// [numCells+1] cell c enters refSlot/refMult[refStart[c] .. refStart[c+1]-1]
+	private final int[] refSlot;
+	private final int[] refMult;
+
+	/**
+	 * @param tuplePos	the cells of each n-tuple, {@code tuplePos[numTuples][]}
+	 * @param lutOffset	start of n-tuple {@code i} in the packed weight block
+	 * @param posVals	number of position values per cell
+	 * @param perm		the symmetry permutations {@code perm[s][c]} (see {@link XNTupleFuncs#symmetryPermutations()})
+	 * @param numEquiv	how many of the permutations in {@code perm} to use (1: board itself only)
+	 * @param numCells	number of board cells
+	 */
+	public NTuple2IndexTable(int[][] tuplePos, int[] lutOffset, int posVals, int[][] perm, int numEquiv, int numCells) {
+		int i, s, m, k, c;
+		int numTuples = tuplePos.length;
+		this.numEquiv = numEquiv;
+		this.numCells = numCells;
+		int numSlots = numTuples*numEquiv;
+
+		int maxLen = 0;
+		for (i=0; i<numTuples; i++) maxLen = Math.max(maxLen, tuplePos[i].length);
+		posMult = new int[maxLen];
+		for (m=0, k=1; m<maxLen; m++, k*=posVals) posMult[m] = k;
+
+		slotOff = new int[numSlots];
+		cellStart = new int[numSlots+1];
+		for (i=0, k=0; i<numTuples; i++) {
+			for (s=0; s<numEquiv; s++, k++) {
+				slotOff[k] = lutOffset[i];
+				cellStart[k+1] = cellStart[k] + tuplePos[i].length;
+			}
+		}
+		slotCells = new int[cellStart[numSlots]];
+		int[] refCount = new int[numCells];
+		for (i=0, k=0; i<numTuples; i++) {
+			for (s=0; s<numEquiv; s++, k++) {
+				for (m=0; m<tuplePos[i].length; m++) {
+					c = perm[s][tuplePos[i][m]];
+					slotCells[cellStart[k]+m] = c;
+					refCount[c]++;
+				}
+			}
+		}
+
+		// the reverse map: cell -> (slot, multiplier)
+		refStart = new int[numCells+1];
+		for (c=0; c<numCells; c++) refStart[c+1] = refStart[c] + refCount[c];
+		refSlot = new int[refStart[numCells]];
+		refMult = new int[refStart[numCells]];
+		int[] fill = new int[numCells];
+		for (k=0; k<numSlots; k++) {
+			for (int j=cellStart[k], mm=0; j<cellStart[k+1]; j++, mm++) {
+				c = slotCells[j];
+				int r = refStart[c] + fill[c]++;
+				refSlot[r] = k;
+				refMult[r] = posMult[mm];
+			}
+		}
+	}
+
+	public int getNumEquiv() {
+		return numEquiv;
+	}
+
+	/**
+	 * @return the number of slots (n-tuple, symmetry) = numTuples*numEquiv, i.e. the length of the index
+	 * 		vectors in {@link #computeIndices(int[], int[])}
+	 */
+	public int getNumSlots() {
+		return slotOff.length;
+	}
+
+	/**
+	 * @param lut	a packed weight block
+	 * @param bvec	the board vector
+	 * @return the sum of all weights in {@code lut} activated by {@code bvec} and its equivalent boards
+	 * 		(summed in the order n-tuple, then symmetry)
+	 */
+	public double score(double[] lut, int[] bvec) {
+		double score = 0.0;
+		int[] cells = slotCells;
+		for (int k=0, j=0; k<slotOff.length; k++) {
+			int index = slotOff[k];
+			for (int m=0, end=cellStart[k+1]; j<end; j++, m++)
+				index += posMult[m] * bvec[cells[j]];
+			score += lut[index];
+		}
+		return score;
+	}
+
+	/**
+	 * @param k		the slot (n-tuple {@code i}, symmetry {@code s}), {@code k=i*numEquiv+s}
+	 * @param bvec	the board vector
+	 * @return the index into the packed weight block for slot {@code k}
+	 */
+	public int index(int k, int[] bvec) {
+		int index = slotOff[k];
+		for (int j=cellStart[k], m=0, end=cellStart[k+1]; j<end; j++, m++)
+			index += posMult[m] * bvec[slotCells[j]];
+		return index;
+	}
+
+	/**
+	 * Compute all slot indices for board vector {@code bvec} from scratch.
+	 *
+	 * @param bvec		the board vector
+	 * @param indices	on output: {@code indices[k]} is the index into the packed weight block for slot {@code k}.
+	 * 					Has to have length {@link #getNumSlots()}.
+	 */
+	public void computeIndices(int[] bvec, int[] indices) {
+		for (int k=0; k<slotOff.length; k++)
+			indices[k] = index(k, bvec);
+	}
+
+	/**
+	 * Update the slot indices incrementally when the board changes from {@code oldBvec} to {@code newBvec}.
+	 * Only the changed cells are visited, and for each of them only the slots containing it.
+	 *
+	 * @param oldBvec	the board vector for which {@code indices} are valid
+	 * @param newBvec	the new board vector
+	 * @param indices	on input the indices for {@code oldBvec}, on output the indices for {@code newBvec}
+	 */
+	public void updateIndices(int[] oldBvec, int[] newBvec, int[] indices) {
+		for (int c=0; c<numCells; c++) {
+			int d = newBvec[c] - oldBvec[c];
+			if (d!=0) updateCell(c, d, indices);
+		}
+	}
+
+	/**
+	 * Update the slot indices incrementally when cell {@code cell} changes its value by {@code d}.
+	 */
+	public void updateCell(int cell, int d, int[] indices) {
+		for (int r=refStart[cell]; r<refStart[cell+1]; r++)
+			indices[refSlot[r]] += refMult[r]*d;
+	}
+
+	/**
+	 * @param lut		a packed weight block
+	 * @param indices	the slot indices, e.g. from {@link #computeIndices(int[], int[])}
+	 * @return the sum of the weights {@code lut[indices[k]]} (summed in slot order)
+	 */
+	public double scoreFromIndices(double[] lut, int[] indices) {
+		double score = 0.0;
+		for (int k=0; k<indices.length; k++)
+			score += lut[indices[k]];
+		return score;
+	}
+}
@@ -9,6 +9,7 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
 
@@ -32,6 +33,18 @@ import tools.Types;
  *         from {@link #hasSigmoid()}. The learning rate alpha decreases exponentially 
  *         from a start value at the beginning of the training to an end value after a 
  *         certain amount of games.
+ * <p>
+ *         The weights are held in a packed weight store: for each output unit {@code o} and player {@code k}
+ *         the LUTs of all n-tuples {@code nTuples[o][k][*]} form one contiguous block 
+ *         {@code lutBlock[o*numPlayers+k]}, n-tuple {@code i} starting at {@code lutOffset[i]}. 
+ *         {@link #getScoreI(StateObsWithBoardVector, int)}, {@link #getQFunc(StateObsWithBoardVector, int, Types.ACTIONS)}
+ *         and {@link #update(StateObsWithBoardVector, int, int, double, double, boolean, boolean)} index 
+ *         directly into these blocks. The {@link NTuple2} objects share the blocks and are kept for TC 
+ *         and for load-compatibility with older agents (see {@link #packLuts()}).
+ * <p>
+ *         The values of all afterstates of a state (or the Q-values of all its actions) are evaluated in one 
+ *         batch with {@link #scoreAfterstates(StateObservation, List, double[])} (or 
+ *         {@link #scoreActions(StateObsWithBoardVector, int, List, double[])}).
  * 
  * @see TDNTuple2Agt
  * @see TDNTuple3Agt
@@ -78,6 +91,22 @@ public class NTuple2ValueFunc implements Serializable {
 	// The generated n-tuples [numOutputs][numPlayers][numTuples]
 	private NTuple2 nTuples[][][];
 	
+	// the packed weight store, see packLuts():
+	private transient double[][] lutBlock;		// [numOutputs*numPlayers][sum of all LUT lengths]
+	private transient int[] lutOffset;			// [numTuples+1], start of n-tuple i in each block
+	private transient int[][] tuplePos;			// [numTuples][], the cells of n-tuple i
+	private transient int posVals;
+	private transient int[] updIndices;			// LUT indices already updated (see update)
+	private transient NTuple2IndexTable idxTable;	// see getIndexTable
+	
+	/**
+	 * If true, read the equivalent boards of games whose symmetries are pure cell permutations through
+	 * the tables {@link XNTupleFuncs#symmetryPermutations()} (no board copies, no allocation). If false, 
+	 * build them with {@link XNTupleFuncs#symmetryVectors(StateObsWithBoardVector, int)} (the former 
+	 * behavior, kept for benchmarking). Both ways give identical results.
+	 */
+	public static boolean USE_SYM_PERMUTATIONS = true;
+	
 	public XNTupleFuncs xnf;
 	
 	// elements needed for TD(lambda)-update with finite horizon, 
@@ -141,6 +170,43 @@ public class NTuple2ValueFunc implements Serializable {
 		}
 	}
 
+	/**
+	 * Worker copy for lock-free parallel training (Hogwild! style, see
+	 * {@link TDNTuple3Agt#trainAgentParallel(StateObservation[], int)}): The copy <b>shares</b> the packed
+	 * weight blocks (and the TC arrays) with {@code other}, so that all its updates go directly to the
+	 * weights of {@code other}. Everything that is only valid during one update or one episode
+	 * (eligibility lists {@code eList}, {@code updIndices}, the {@code indexList}'s of the n-tuples,
+	 * learning rate, counter of learn actions) is private to the copy.
+	 *
+	 * @param other		the value function whose weights are shared
+	 * @param parent	the worker agent where the copy is part of
+	 */
+	NTuple2ValueFunc(NTuple2ValueFunc other, NTupleAgt parent) {
+		this.xnf = other.xnf;
+		this.numPlayers = other.numPlayers;
+		this.numOutputs = other.numOutputs;
+		this.numTuples = other.numTuples;
+		this.tdAgt = parent;
+		this.ALPHA = other.ALPHA;
+		this.m_AlphaChangeRatio = other.m_AlphaChangeRatio;
+		this.epochMax = other.epochMax;
+		this.rpropLrn = other.rpropLrn;
+		this.horizon = other.horizon;
+		this.eList = new LinkedList[this.numPlayers];
+		for (int ie=0; ie<eList.length; ie++) eList[ie] = new LinkedList<EligStates>();
+
+		this.nTuples = new NTuple2[numOutputs][numPlayers][numTuples];
+		for (int o=0; o<numOutputs; o++)
+			for (int k=0; k<numPlayers; k++)
+				for (int i = 0; i < numTuples; i++)
+					this.nTuples[o][k][i] = new NTuple2(other.nTuples[o][k][i]);
+		this.lutBlock = other.lutBlock;
+		this.lutOffset = other.lutOffset;
+		this.tuplePos = other.tuplePos;
+		this.posVals = other.posVals;
+		this.idxTable = other.idxTable;			// immutable, may be shared
+	}
+
 	void initNTuples(int[][] nTuplesI, int posVals, boolean randInitWeights,
 			ParNT ntPar, int numCells) {
 		if (numOutputs==0) 
@@ -161,6 +227,7 @@ public class NTuple2ValueFunc implements Serializable {
 				}				
 			}
 		}
+		packLuts();
 	}
 
 	public boolean instantiateAfterLoading() {
@@ -173,9 +240,222 @@ public class NTuple2ValueFunc implements Serializable {
 				}				
 			}
 		}
+		packLuts();		// converts agents saved with one LUT per n-tuple to the packed weight store
 		return true;
 	}
 	
+	/**
+	 * Build the packed weight store: for each output unit {@code o} and player {@code k} the LUTs 
+	 * of all n-tuples {@code nTuples[o][k][*]} are moved into one contiguous block 
+	 * {@code lutBlock[o*numPlayers+k]}. The {@link NTuple2} objects keep a reference to their block,
+	 * so that a saved agent contains each block exactly once. 
+	 * <p>
+	 * If the n-tuples already share a block (agent was constructed or saved with the packed store),
+	 * this block is re-used. Otherwise (older agents with one LUT per n-tuple) a new block is 
+	 * allocated and the weights are copied into it.
+	 */
+	void packLuts() {
+		NTuple2 nt;
+		lutOffset = new int[numTuples+1];
+		tuplePos = new int[numTuples][];
+		for (int i = 0; i < numTuples; i++) {
+			nt = nTuples[0][0][i];
+			tuplePos[i] = new int[nt.getLength()];
+			for (int j=0; j<tuplePos[i].length; j++) tuplePos[i][j] = nt.getPosition(j);
+			lutOffset[i+1] = lutOffset[i] + nt.getLutLength();
+		}
+		posVals = nTuples[0][0][0].getPosVals();
+		idxTable = null;
+		int total = lutOffset[numTuples];
+		
+		lutBlock = new double[numOutputs*numPlayers][];
+		for (int o=0; o<numOutputs; o++) {
+			for (int k=0; k<numPlayers; k++) {
+				double[] block = nTuples[o][k][0].getLutBlock();
+				if (block.length!=total || nTuples[o][k][0].getLutOffset()!=0) 
+					block = new double[total];
+				for (int i = 0; i < numTuples; i++) 
+					nTuples[o][k][i].attachLut(block, lutOffset[i]);
+				lutBlock[o*numPlayers+k] = block;
+			}
+		}
+	}
+	
+	/**
+	 * @param i		n-tuple number
+	 * @param board	board vector
+	 * @return the index of {@code board} for n-tuple {@code i} into the packed weight block
+	 */
+	private int lutIndex(int i, int[] board) {
+		int[] pos = tuplePos[i];
+		int index = lutOffset[i];
+		int P=1; 		// P = (posVals)^m in m-loop below
+		for (int m = 0; m < pos.length; m++) {
+			index += P * board[pos[m]];
+			P = P*posVals;
+		}
+		return index;
+	}
+	
+	/**
+	 * @param perm		the symmetry permutations {@link XNTupleFuncs#symmetryPermutations()}
+	 * @param nEquiv	number of equivalent boards to use
+	 * @return the index table with the permuted n-tuple cells for each (n-tuple, symmetry) slot. It is 
+	 * 		built once and re-built only if {@code nEquiv} changes.
+	 */
+	private NTuple2IndexTable getIndexTable(int[][] perm, int nEquiv) {
+		NTuple2IndexTable table = idxTable;
+		if (table==null || table.getNumEquiv()!=nEquiv) {
+			table = new NTuple2IndexTable(tuplePos, lutOffset, posVals, perm, nEquiv, xnf.getNumCells());
+			idxTable = table;
+		}
+		return table;
+	}
+	
+	/**
+	 * Games with permutation symmetries (see {@link XNTupleFuncs#symmetryPermutations()}) can evaluate 
+	 * states incrementally: compute the slot indices of a state once with 
+	 * {@link NTuple2IndexTable#computeIndices(int[], int[])}, update them for a successor state with
+	 * {@link NTuple2IndexTable#updateIndices(int[], int[], int[])} (only the changed cells are visited)
+	 * and get the value with {@link #getScoreFromIndices(int[], int)}. 
+	 * 
+	 * @return the index table for the current symmetry settings or null, if the game has no permutation 
+	 * 		symmetries
+	 */
+	public NTuple2IndexTable getIndexTable() {
+		int[][] perm = getSymPerms();
+		return (perm==null) ? null : getIndexTable(perm, getNumEquiv(perm));
+	}
+	
+	/**
+	 * Same as {@link #getScoreI(StateObsWithBoardVector, int)}, but with the slot indices precomputed.
+	 * 
+	 * @param indices	the slot indices of the state, see {@link #getIndexTable()}
+	 * @param player	the player who has to move in the state (0,...,N-1)
+	 * @return the value of the state
+	 */
+	public double getScoreFromIndices(int[] indices, int player) {
+		double score = idxTable.scoreFromIndices(lutBlock[player], indices);
+		return (hasSigmoid() ? Math.tanh(score) : score);
+	}
+	
+	/**
+	 * Batched afterstate evaluation: for each action {@code acts.get(i)} the value V(s'|p_so) of the afterstate 
+	 * s' which {@code so} reaches with the deterministic part of this action (see 
+	 * {@link StateObservation#advanceDeterministic(Types.ACTIONS)}), from the perspective of the player 
+	 * to move in {@code so}. This is the same as 
+	 * <pre>
+	 *     out[i] = getScoreI(new StateObsWithBoardVector(s',xnf), so.getPlayer())  </pre>
+	 * but all afterstates are evaluated in one pass: the board vector and the slot indices of {@code so} 
+	 * are computed once, and for each afterstate only the cells changed by the move are updated 
+	 * (see {@link NTuple2IndexTable#updateIndices(int[], int[], int[])}). The afterstate board vector comes 
+	 * from {@link XNTupleFuncs#afterstateBoardVector(StateObservation, int[], Types.ACTIONS, int[])}, if the 
+	 * game provides it, else from a copy of {@code so}.
+	 * <p>
+	 * Game-over afterstates are evaluated like all others. (Callers which need the value 0 for them, as 
+	 * {@link TDNTuple3Agt#getScore(StateObservation, StateObservation)}, have to check for game-over.)
+	 * 
+	 * @param so	the state
+	 * @param acts	the actions to evaluate, e.g. {@code so.getAvailableActions()}
+	 * @param out	on output: {@code out[i]} is the value of the afterstate for {@code acts.get(i)}.
+	 * 				Has to have at least length {@code acts.size()}.
+	 */
+	public void scoreAfterstates(StateObservation so, List<Types.ACTIONS> acts, double[] out) {
+		scoreAfterstates(so, acts, null, out);
+	}
+	
+	/**
+	 * Same as {@link #scoreAfterstates(StateObservation, List, double[])}, but for callers which have built
+	 * the afterstates already (e.g. because they need their rewards).
+	 * 
+	 * @param so	the state
+	 * @param acts	the actions to evaluate
+	 * @param next	the afterstates, {@code next[i]} is {@code so} advanced deterministically by {@code acts.get(i)}. 
+	 * 				Only the actions with {@code next[i]!=null} are evaluated, the other elements of {@code out}
+	 * 				are left unchanged. If {@code next} is null, all actions are evaluated.
+	 * @param out	on output: {@code out[i]} is the value of the afterstate for {@code acts.get(i)}
+	 */
+	public void scoreAfterstates(StateObservation so, List<Types.ACTIONS> acts, StateObservation[] next, double[] out) {
+		int player = so.getPlayer();
+		int[][] perm = getSymPerms();
+		
+		if (perm==null) {
+			// the symmetric boards have to be built for each afterstate
+			for (int i=0; i<acts.size(); i++) {
+				if (next!=null && next[i]==null) continue;
+				StateObsWithBoardVector sowb = new StateObsWithBoardVector(afterstate(so, acts, next, i), xnf);
+				out[i] = getScoreI(sowb, player);
+			}
+			return;
+		}
+
+		NTuple2IndexTable table = getIndexTable(perm, getNumEquiv(perm));
+		double[] lut = lutBlock[player];		// output unit 0
+		int[] bvec = xnf.getBoardVector(so).bvec;
+		int[] child = new int[bvec.length];
+		int[] indices = new int[table.getNumSlots()];
+		int[] childIndices = new int[indices.length];
+		table.computeIndices(bvec, indices);
+		for (int i=0; i<acts.size(); i++) {
+			if (next!=null && next[i]==null) continue;
+			int[] cvec = child;
+			if (!xnf.afterstateBoardVector(so, bvec, acts.get(i), child))
+				cvec = xnf.getBoardVector(afterstate(so, acts, next, i)).bvec;
+			System.arraycopy(indices, 0, childIndices, 0, indices.length);
+			table.updateIndices(bvec, cvec, childIndices);
+			double score = table.scoreFromIndices(lut, childIndices);
+			out[i] = (hasSigmoid() ? Math.tanh(score) : score);
+		}
+	}
+	
+	private static StateObservation afterstate(StateObservation so, List<Types.ACTIONS> acts, StateObservation[] next, int i) {
+		if (next!=null) return next[i];
+		StateObservation afterSO = so.copy();
+		afterSO.advanceDeterministic(acts.get(i));
+		return afterSO;
+	}
+	
+	/**
+	 * Batched Q-value evaluation: the same as
+	 * <pre>
+	 *     out[i] = getQFunc(curSOWB, player, acts.get(i))  </pre>
+	 * for all actions, but the equivalent boards (or the slot indices) of {@code curSOWB} are computed only once.
+	 * 
+	 * @param curSOWB	the state
+	 * @param player	the player who has to move in the state (0,...,N-1)
+	 * @param acts		the actions to evaluate, e.g. {@code so.getAvailableActions()}
+	 * @param out		on output: {@code out[i]} is the Q-value for {@code acts.get(i)}. 
+	 * 					Has to have at least length {@code acts.size()}.
+	 */
+	public void scoreActions(StateObsWithBoardVector curSOWB, int player, List<Types.ACTIONS> acts, double[] out) {
+		BoardVector[] equiv = null;
+		int[] indices = null;
+		int[][] perm = getSymPerms();
+		int nEquiv;
+
+		if (perm==null) {
+			equiv = getSymBoards2(curSOWB, getUSESYMMETRY(), getNSym());
+			nEquiv = equiv.length;
+		} else {
+			nEquiv = getNumEquiv(perm);
+			NTuple2IndexTable table = getIndexTable(perm, nEquiv);
+			indices = new int[table.getNumSlots()];
+			table.computeIndices(curSOWB.getBoardVector().bvec, indices);
+		}
+
+		for (int a=0; a<acts.size(); a++) {
+			int[] equivAction = xnf.symmetryActions(acts.get(a).toInt());
+			double score = 0.0;
+			for (int i = 0; i < numTuples; i++) {
+				for (int j = 0; j < nEquiv; j++) {
+					int index = (perm==null) ? lutIndex(i,equiv[j].bvec) : indices[i*nEquiv+j];
+					score += lutBlock[equivAction[j]*numPlayers+player][index];
+				}
+			}
+			out[a] = (hasSigmoid() ? Math.tanh(score) : score);
+		}
+	}
+	
 	/**
 	 * @return The list of n-Tuples
 	 */
@@ -208,11 +488,18 @@ public class NTuple2ValueFunc implements Serializable {
 	public double getQFunc(StateObsWithBoardVector curSOWB, int player, Types.ACTIONS act) {
 		int i, j;
 		double score = 0.0;
-		BoardVector[] equiv;
+		BoardVector[] equiv = null;
 		int[] equivAction;
+		int[][] perm = getSymPerms();
+		int nEquiv;
 
 		// Get equivalent boards (including self)
-		equiv = getSymBoards2(curSOWB, getUSESYMMETRY(), getNSym());
+		if (perm==null) {
+			equiv = getSymBoards2(curSOWB, getUSESYMMETRY(), getNSym());
+			nEquiv = equiv.length;
+		} else {
+			nEquiv = getNumEquiv(perm);
+		}
 		equivAction = xnf.symmetryActions(act.toInt());
 
 		for (i=0; i<equivAction.length; i++) {
@@ -223,9 +510,19 @@ public class NTuple2ValueFunc implements Serializable {
 			}
 		}
 		
-		for (i = 0; i < numTuples; i++) {
-			for (j = 0; j < equiv.length; j++) {
-				score += nTuples[equivAction[j]][player][i].getScore(equiv[j].bvec);
+		if (perm==null) {
+			for (i = 0; i < numTuples; i++) {
+				for (j = 0; j < nEquiv; j++) {
+					score += lutBlock[equivAction[j]*numPlayers+player][lutIndex(i,equiv[j].bvec)];
+				}
+			}
+		} else {
+			int[] bvec = curSOWB.getBoardVector().bvec;
+			NTuple2IndexTable table = getIndexTable(perm, nEquiv);
+			for (i = 0; i < numTuples; i++) {
+				for (j = 0; j < nEquiv; j++) {
+					score += lutBlock[equivAction[j]*numPlayers+player][table.index(i*nEquiv+j,bvec)];
+				}
 			}
 		}
 
@@ -245,7 +542,15 @@ public class NTuple2ValueFunc implements Serializable {
 		int i, j;
 		double score = 0.0; 
 		BoardVector[] equiv;
+		double[] lut = lutBlock[player];		// output unit 0
+		int[][] perm = getSymPerms();
 
+		if (perm!=null) {
+			// read the equivalent boards through the permutations (allocation-free)
+			score = getIndexTable(perm, getNumEquiv(perm)).score(lut, curSOWB.getBoardVector().bvec);
+			return (hasSigmoid() ? Math.tanh(score) : score);
+		}
+		
 		// Get equivalent boards (including self)
 		equiv = getSymBoards2(curSOWB, getUSESYMMETRY(), getNSym());
 		//equiv = getSymBoards2(board, false);    // DON'T, at least for TTT clearly inferior
@@ -253,7 +558,7 @@ public class NTuple2ValueFunc implements Serializable {
 		for (i = 0; i < numTuples; i++) {
 			for (j = 0; j < equiv.length; j++) {
 				//System.out.println("g(i,j)=("+i+","+j+"):  ");		//debug
-				score += nTuples[0][player][i].getScore(equiv[j].bvec);
+				score += lut[lutIndex(i,equiv[j].bvec)];
 			}
 		}
 		//if (getUSESYMMETRY()) score /= equiv.length; // DON'T, at least for TTT clearly inferior
@@ -299,6 +604,30 @@ public class NTuple2ValueFunc implements Serializable {
 		
 		return equiv;
 	}
+	
+	/**
+	 * @return the permutation tables {@link XNTupleFuncs#symmetryPermutations()} or null, if the 
+	 * 		equivalent boards have to be built with {@link #getSymBoards2(StateObsWithBoardVector, boolean, int)}
+	 */
+	private int[][] getSymPerms() {
+		return USE_SYM_PERMUTATIONS ? xnf.symmetryPermutations() : null;
+	}
+	
+	/**
+	 * @param perm the permutation tables {@link XNTupleFuncs#symmetryPermutations()}
+	 * @return the number of equivalent boards (including self) that 
+	 * 		{@link #getSymBoards2(StateObsWithBoardVector, boolean, int)} would return
+	 */
+	private int getNumEquiv(int[][] perm) {
+		if (!getUSESYMMETRY()) return 1;
+		int nSym = getNSym();
+		assert nSym >= 0 : "Ooops, nSym="+nSym+" is negative!";
+		if (tdAgt instanceof SarsaAgt && nSym > 0 && nSym < xnf.getNumSymmetries())
+			// see getSymBoards2
+			throw new RuntimeException("[NTuple2ValueFunc] Sorry, cannot handle case SarsaAgt and 0 < nSym < s (symmetryActions not yet adapted).");
+		// games with permutation symmetries return always all symmetric boards in symmetryVectors:
+		return perm.length;
+	}
 
 	private int[] getSymActions(int output, boolean useSymmetry) {
 		int[] equivActions;
@@ -543,25 +872,38 @@ public class NTuple2ValueFunc implements Serializable {
 	 * @param ELIST_PP (eList-per-player, whether to keep separate eligibility lists per player):<br>   
 	 * 			  {@code true}, if called from 'new' TD-learning {@link SarsaAgt} or {@link TDNTuple3Agt};<br> 
 	 * 			  {@code false}, if called from 'old' TD-learning (via {@link TDNTuple2Agt})	
+	 * <p>
+	 * In the common case ({@code !QMODE} and no TC) the weights are updated directly in the packed 
+	 * weight block. Otherwise the update is delegated to {@link NTuple2#updateNew(int[], double, double, double)}.
 	 */
 	protected void update(StateObsWithBoardVector curSOWB, int player, int output, double delta, double e,
 						boolean QMODE, boolean ELIST_PP) {
-		int i, j, out;
+		int i, j, out, nEquiv;
 		double alphaM, lamFactor;
-
-		// Get equivalent boards (including self) and corresponding actions
-		BoardVector[] equiv = getSymBoards2(curSOWB, getUSESYMMETRY(), getNSym());
+		BoardVector[] equiv = null;
+		EligStates elem;
+
+		// Get equivalent boards (including self) and corresponding actions. If possible (fast path 
+		// and game with permutation symmetries), remember only the board and the permutations:
+		int[][] perm = (QMODE || getTc()) ? null : getSymPerms();
+		if (perm==null) {
+			equiv = getSymBoards2(curSOWB, getUSESYMMETRY(), getNSym());
+			nEquiv = equiv.length;
+		} else {
+			nEquiv = getNumEquiv(perm);
+		}
 		int[] equivAction = (QMODE ? getSymActions(output, getUSESYMMETRY()) : null); 
 		// equivAction only needed for QMODE==true
 
-		alphaM = ALPHA / (numTuples*equiv.length); 
+		alphaM = ALPHA / (numTuples*nEquiv); 
 
 		// construct new EligStates object, add it at head of LinkedList eList[ie] and remove 
 		// from the list the element 'beyond horizon' t_0 = t-horizon (if any).
 		// The LinkedList to use is either always the same one (ie=0, if ELIST_PP==false) or 
 		// the list kept for each specific player 'player' (if ELIST_PP==true):
 		int ie = (ELIST_PP ? player : 0);
-		EligStates elem = new EligStates(equiv,equivAction,e);
+		elem = (perm==null) ? new EligStates(equiv,equivAction,e) 
+							: new EligStates(curSOWB.getBoardVector().bvec,perm,nEquiv,e);
 		eList[ie].addFirst(elem);
 		assert (horizon>0) : "[NTuple2ValueFunc.update] Error: horizon is 0 !";
 		if (eList[ie].size()>horizon) eList[ie].pollLast();
@@ -578,22 +920,51 @@ public class NTuple2ValueFunc implements Serializable {
 			assert (lamFactor >= tdAgt.getParTD().getHorizonCut()) 
 					: "Error: lamFactor < ParTD.getHorizonCut";
 			e = lamFactor*elem.sigDeriv;
-			for (i = 0; i < numTuples; i++) {
-				nTuples[output][player][i].clearIndices();
-				for (j = 0; j < equiv.length; j++) {
-					// this assertion is only valid for TicTacToe, where each action should be 
-					// on an empty field which is coded as '1' here:
-					//assert (equiv[j][equivAction[j]]==1) : "Oops, action TicTacToe not viable";
-					
-					out = (QMODE ? equivAction[j] : output);
-//					System.out.print("(i,j)=("+i+","+j+"):  ");		//debug
-					nTuples[out][player][i].updateNew(equiv[j].bvec, alphaM, delta, e);
-				}
+			if (QMODE || getTc()) {
+				for (i = 0; i < numTuples; i++) {
+					nTuples[output][player][i].clearIndices();
+					for (j = 0; j < equiv.length; j++) {
+						// this assertion is only valid for TicTacToe, where each action should be 
+						// on an empty field which is coded as '1' here:
+						//assert (equiv[j][equivAction[j]]==1) : "Oops, action TicTacToe not viable";
+						
+						out = (QMODE ? equivAction[j] : output);
+//						System.out.print("(i,j)=("+i+","+j+"):  ");		//debug
+						nTuples[out][player][i].updateNew(equiv[j].bvec, alphaM, delta, e);
+					}
+				}				
+			} else {
+				updateBlock(lutBlock[output*numPlayers+player], elem, alphaM * (delta * e));
 			}
 			lamFactor *= getLambda(); 
 		}
 		numLearnActions++;
 	}
+	
+	/**
+	 * Add {@code dW} to all weights in {@code lut} that are activated by the equivalent boards of 
+	 * {@code elem}. As in {@link NTuple2#updateNew(int[], double, double, double)}, a LUT index 
+	 * occurring more than once for the same n-tuple is changed only once.
+	 */
+	private void updateBlock(double[] lut, EligStates elem, double dW) {
+		int i, j, m, n, index;
+		int nEquiv = elem.numEquiv;
+		NTuple2IndexTable table = (elem.equiv==null) ? getIndexTable(elem.perm, nEquiv) : null;
+		if (updIndices==null || updIndices.length<nEquiv) 
+			updIndices = new int[nEquiv];
+		for (i = 0; i < numTuples; i++) {
+			for (j = 0, n = 0; j < nEquiv; j++) {
+				index = (table!=null) ? table.index(i*nEquiv+j,elem.bvec) 
+									  : lutIndex(i,elem.equiv[j].bvec);
+				for (m = 0; m < n; m++) 
+					if (updIndices[m]==index) break;
+				if (m==n) {
+					lut[index] += dW;
+					updIndices[n++] = index;
+				}
+			}
+		}
+	}
 
 
 	/**
@@ -696,6 +1067,11 @@ public class NTuple2ValueFunc implements Serializable {
 		this.numLearnActions = 0L;
 	}
 
+	// collect the learn actions of a worker copy after parallel training
+	void addNumLearnActions(long num) {
+		this.numLearnActions += num;
+	}
+
 
 	public void clearEligList() {
 		for (int ie=0; ie<eList.length; ie++)
@@ -716,15 +1092,26 @@ public class NTuple2ValueFunc implements Serializable {
 	
 	// class EligStates is needed in update(int[],int,int,double,double,boolean)
 	private class EligStates implements Serializable {
-		BoardVector[] equiv;
+		BoardVector[] equiv;	// either the equivalent boards ...
+		int[] bvec;				// ... or the board and
+		int[][] perm;			// the permutations leading to the equivalent boards
+		int numEquiv;
 		int[] equivAction;
 		double sigDeriv;
 		
 		EligStates(BoardVector[] equiv, int[] equivAction, double sigDeriv) {
 			this.equiv=equiv.clone();
+			this.numEquiv=equiv.length;
 			this.equivAction=(equivAction==null ? null : equivAction.clone());
 			this.sigDeriv=sigDeriv;
 		}
+		
+		EligStates(int[] bvec, int[][] perm, int numEquiv, double sigDeriv) {
+			this.bvec=bvec;
+			this.perm=perm;
+			this.numEquiv=numEquiv;
+			this.sigDeriv=sigDeriv;
+		}
 	}
 
 	//
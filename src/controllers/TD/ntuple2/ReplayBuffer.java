@@ -0,0 +1,216 @@
+package controllers.TD.ntuple2;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import games.BoardVector;
+
+/**
+ * A fixed-capacity experience-replay memory for n-tuple agents (e.g. {@code DAVI3Agent}; usable as well by
+ * {@link TDNTuple3Agt} or {@code DaviNimAgent}).
+ * <p>
+ * Each item is a training sample (board vector, player, target, game number). The board vectors are stored as
+ * plain ints in one flat array (the {@code bvec} and - if present - the {@code aux} part of {@link BoardVector}),
+ * there are no per-item objects and no copies of {@code StateObservation}s. Agents which need the state itself
+ * for training may store instead an int vector encoding the state, see {@link #add(int[], int, double, int)}.
+ * The buffer is a ring: when it is full, a new item overwrites the oldest one.
+ * <p>
+ * Items are addressed by their <b>slot</b> {@code 0,...,size()-1}. Sampling:
+ * <ul>
+ *     <li> {@link #sampleUniform(Random)}: each item with the same probability, O(1)
+ *     <li> {@link #samplePrioritized(Random)}: item k with a probability proportional to {@code priority_k^alpha}
+ *     		(prioritized experience replay [Schaul2016]), O(log capacity) with a sum tree. New items get the largest
+ *     		priority seen so far; callers update the priority with {@link #setPriority(int, double)}, usually to
+ *     		the absolute TD error of the last update.
+ * </ul>
+ * All board vectors in one buffer have the same length. The buffer is not thread-safe.
+ */
+public class ReplayBuffer {
+	private final int capacity;
+	private final double alpha;
+	private int bvecLen = -1;		// length of bvec, set with the first item
+	private int auxLen = -1;		// length of aux (0: no aux), set with the first item
+	private int[] boards;			// [capacity*(bvecLen+auxLen)]
+	private final int[] player;
+	private final int[] gameNum;
+	private final double[] target;
+	private final double[] sumTree;	// sumTree[leaves+k] = priority_k^alpha, inner nodes hold the sum of their children
+	private final int leaves;		// number of leaves of the sum tree (power of 2 >= capacity)
+	private double maxPriority = 1.0;
+	private int next = 0;			// the slot for the next item
+	private int size = 0;
+
+	/**
+	 * @param capacity	the maximum number of items
+	 */
+	public ReplayBuffer(int capacity) {
+		this(capacity, 0.6);
+	}
+
+	/**
+	 * @param capacity	the maximum number of items
+	 * @param alpha		the priority exponent for {@link #samplePrioritized(Random)} (0: uniform)
+	 */
+	public ReplayBuffer(int capacity, double alpha) {
+		if (capacity<1) throw new RuntimeException("[ReplayBuffer] capacity="+capacity+" has to be positive");
+		this.capacity = capacity;
+		this.alpha = alpha;
+		this.player = new int[capacity];
+		this.gameNum = new int[capacity];
+		this.target = new double[capacity];
+		int n = 1;
+		while (n<capacity) n <<= 1;
+		this.leaves = n;
+		this.sumTree = new double[2*n];
+	}
+
+	/**
+	 * Add an item. If the buffer is full, it replaces the oldest item.
+	 *
+	 * @param bv		the board vector (copied)
+	 * @param p			the player to move
+	 * @param tgt		the target value
+	 * @param game		the game (episode) number
+	 * @return the slot of the new item
+	 */
+	public int add(BoardVector bv, int p, double tgt, int game) {
+		return add(bv.bvec, bv.aux, p, tgt, game);
+	}
+
+	/**
+	 * Add an item whose board is given as a plain int vector (e.g. an encoding of the state). If the buffer is
+	 * full, it replaces the oldest item. Retrieve the vector with {@link #getVector(int)}.
+	 *
+	 * @param vec		the int vector (copied)
+	 * @param p			the player to move
+	 * @param tgt		the target value
+	 * @param game		the game (episode) number
+	 * @return the slot of the new item
+	 */
+	public int add(int[] vec, int p, double tgt, int game) {
+		return add(vec, null, p, tgt, game);
+	}
+
+	private int add(int[] bvec, int[] aux, int p, double tgt, int game) {
+		int aLen = (aux==null) ? 0 : aux.length;
+		if (bvecLen<0) {
+			bvecLen = bvec.length;
+			auxLen = aLen;
+			boards = new int[capacity*(bvecLen+auxLen)];
+		}
+		if (bvec.length!=bvecLen || aLen!=auxLen)
+			throw new RuntimeException("[ReplayBuffer] board vector length "+bvec.length+"+"+aLen
+					+" differs from "+bvecLen+"+"+auxLen);
+		int slot = next;
+		int off = slot*(bvecLen+auxLen);
+		System.arraycopy(bvec, 0, boards, off, bvecLen);
+		if (auxLen>0) System.arraycopy(aux, 0, boards, off+bvecLen, auxLen);
+		player[slot] = p;
+		target[slot] = tgt;
+		gameNum[slot] = game;
+		updateTree(slot, Math.pow(maxPriority, alpha));
+		next = (next+1) % capacity;
+		if (size<capacity) size++;
+		return slot;
+	}
+
+	/**
+	 * @return a random slot, uniformly distributed over all items
+	 */
+	public int sampleUniform(Random rand) {
+		assert size>0 : "[ReplayBuffer] empty";
+		return rand.nextInt(size);
+	}
+
+	/**
+	 * @return a random slot, item k with probability {@code priority_k^alpha / sum_j priority_j^alpha}
+	 */
+	public int samplePrioritized(Random rand) {
+		assert size>0 : "[ReplayBuffer] empty";
+		double r = rand.nextDouble()*sumTree[1];
+		int node = 1;
+		while (node<leaves) {
+			node <<= 1;						// left child
+			if (r>=sumTree[node] && sumTree[node+1]>0) {
+				r -= sumTree[node];
+				node++;						// right child
+			}
+		}
+		return Math.min(node-leaves, size-1);	// (guards against round-off at the right end)
+	}
+
+	/**
+	 * @return the probability with which {@link #samplePrioritized(Random)} returns {@code slot} (for
+	 * 		importance-sampling weights)
+	 */
+	public double getSamplingProbability(int slot) {
+		return sumTree[leaves+slot]/sumTree[1];
+	}
+
+	/**
+	 * Set the priority of the item in {@code slot} (e.g. the absolute TD error plus a small constant)
+	 */
+	public void setPriority(int slot, double priority) {
+		assert priority>0 : "[ReplayBuffer] priority has to be positive";
+		maxPriority = Math.max(maxPriority, priority);
+		updateTree(slot, Math.pow(priority, alpha));
+	}
+
+	private void updateTree(int slot, double value) {
+		int node = leaves+slot;
+		double delta = value - sumTree[node];
+		for (; node>=1; node >>= 1) sumTree[node] += delta;
+	}
+
+	/**
+	 * @return a new {@link BoardVector} with the board vector of the item in {@code slot}
+	 */
+	public BoardVector getBoardVector(int slot) {
+		int off = slot*(bvecLen+auxLen);
+		BoardVector bv = new BoardVector(null);
+		bv.bvec = Arrays.copyOfRange(boards, off, off+bvecLen);
+		if (auxLen>0) bv.aux = Arrays.copyOfRange(boards, off+bvecLen, off+bvecLen+auxLen);
+		return bv;
+	}
+
+	/**
+	 * @return a copy of the int vector of the item in {@code slot} (for items added with 
+	 * 		{@link #add(int[], int, double, int)})
+	 */
+	public int[] getVector(int slot) {
+		int off = slot*(bvecLen+auxLen);
+		return Arrays.copyOfRange(boards, off, off+bvecLen+auxLen);
+	}
+
+	public int getPlayer(int slot) {
+		return player[slot];
+	}
+
+	public double getTarget(int slot) {
+		return target[slot];
+	}
+
+	public int getGameNum(int slot) {
+		return gameNum[slot];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Remove all items (the board vector length may change afterwards)
+	 */
+	public void clear() {
+		Arrays.fill(sumTree, 0.0);
+		maxPriority = 1.0;
+		next = 0;
+		size = 0;
+		bvecLen = auxLen = -1;
+		boards = null;
+	}
+}
@@ -264,6 +264,14 @@ public class SarsaAgt extends NTupleBase implements PlayAgent,NTupleAgt,Serializ
         VTable = new double[acts.size()];  
         
         assert acts.size()>0 : "Oops, no available action";
+        
+        // the Q-values of all actions in one batch (the equivalent boards of so are built only once):
+        double[] qValues = new double[acts.size()];
+        if (!randomSelect) {
+    		StateObsWithBoardVector curSOWB = new StateObsWithBoardVector(so, m_Net.xnf);
+    		m_Net.scoreActions(curSOWB, so.getPlayer(), acts, qValues);
+        }
+        
         for(i = 0; i < acts.size(); ++i)
         {
     		if (randomSelect) {
@@ -273,8 +281,7 @@ public class SarsaAgt extends NTupleBase implements PlayAgent,NTupleAgt,Serializ
     			// TODO: currently we cannot mirror in Q-learning the afterstate logic 
     			// that we have optionally in TDNTuple2Agt
     			
-        		StateObsWithBoardVector curSOWB = new StateObsWithBoardVector(so, m_Net.xnf);
-            	qValue = m_Net.getQFunc(curSOWB,so.getPlayer(),acts.get(i));
+            	qValue = qValues[i];		// = m_Net.getQFunc(curSOWB,so.getPlayer(),acts.get(i))
             	
             	// It is a bit funny, that the decision is made based only on qValue, not 
             	// on the reward we might receive for action a=acts.get(i). So an action leading to 
@@ -5,6 +5,12 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import agentIO.LoadSaveGBG;
 import controllers.TD.ntuple4.TDNTuple4Agt;
@@ -141,6 +147,32 @@ public class TDNTuple3Agt extends NTupleBase implements PlayAgent,NTupleAgt,Seri
 		initNet(ntPar,tdPar,oPar, nTuples, xnf, maxGameNum);			
 	}
 
+	/**
+	 * Worker agent for {@link #trainAgentParallel(StateObservation[], int)}: It has the same parameters as
+	 * {@code master} and a value function sharing {@code master}'s weights (see
+	 * {@link NTuple2ValueFunc#NTuple2ValueFunc(NTuple2ValueFunc, NTupleAgt)}), but its own episode state
+	 * ({@code sLast}, {@code randLast}, ...), eligibility lists and random number generator.
+	 *
+	 * @param master	the agent to train
+	 * @param seed		seed for the worker's random number generator
+	 */
+	private TDNTuple3Agt(TDNTuple3Agt master, long seed) {
+		super(master.getName());
+		this.numPlayers = master.numPlayers;
+		this.sLast = new StateObservation[numPlayers];
+		this.randLast = new boolean[numPlayers];
+		this.m_tdPar = master.m_tdPar;
+		this.m_ntPar = master.m_ntPar;
+		this.m_oPar = master.m_oPar;
+		this.m_elig = master.m_elig;
+		this.TERNARY = master.TERNARY;
+		this.m_EpsilonChangeDelta = master.m_EpsilonChangeDelta;
+		this.rand = new Random(seed);
+		this.m_Net = new NTuple2ValueFunc(master.m_Net, this);
+		this.setMaxGameNum(master.getMaxGameNum());
+		this.setAgentState(master.getAgentState());
+	}
+
 	/**
 	 * 
 	 * @param tdPar			temporal difference parameters
@@ -244,6 +276,22 @@ public class TDNTuple3Agt extends NTupleBase implements PlayAgent,NTupleAgt,Seri
         VTable = new double[acts.size()];  
         
         assert acts.size()>0 : "Oops, no available action";
+        
+        // If the afterstates are deterministic (afterstate logic or deterministic game), build them first 
+        // and evaluate all of them in one batch with m_Net.scoreAfterstates:
+        StateObservation[] afterSO = null;
+        double[] afterValue = null;
+        if (!randomSelect && (this.getAFTERSTATE() || so.isDeterministicGame())) {
+        	afterSO = new StateObservation[acts.size()];
+        	afterValue = new double[acts.size()];
+        	for (i = 0; i < acts.size(); ++i) {
+        		if (acts.get(i).isEqualToInverseOfLastAction(so)) continue;
+        		afterSO[i] = so.copy();
+        		afterSO[i].advanceDeterministic(acts.get(i)); 	// generate the afterstate
+        	}
+        	m_Net.scoreAfterstates(so, acts, afterSO, afterValue);
+        }
+        
         for(i = 0; i < acts.size(); ++i)
         {
 			thisAct = acts.get(i);
@@ -259,20 +307,21 @@ public class TDNTuple3Agt extends NTupleBase implements PlayAgent,NTupleAgt,Seri
 			if (thisAct.isEqualToInverseOfLastAction(so))
 				continue;	// with next for-pass
 
-        	NewSO = so.copy();
-
     		if (randomSelect) {
     			value = rand.nextDouble();
     		} else {
-    	        if (this.getAFTERSTATE()) {
-    	        	// if parameter "AFTERSTATE" is checked in ParNT, i.e. we use afterstate logic:
+    	        if (afterSO!=null) {
+    	        	// if parameter "AFTERSTATE" is checked in ParNT, i.e. we use afterstate logic (or if the 
+    	        	// game is deterministic, where afterstate and next state are the same):
     	        	//
-    	        	NewSO.advanceDeterministic(thisAct); 	// generate the afterstate
-    	        	value = this.getScore(NewSO,so); // this is V(s') from so-perspective
+    	        	NewSO = afterSO[i];
+    	        	value = NewSO.isGameOver() ? 0.0 : afterValue[i]; // this is V(s') from so-perspective, 
+    	        											// the same as this.getScore(NewSO,so)
     	            NewSO.advanceNondeterministic(); 
     	        } else { 
     	        	// the non-afterstate logic for the case of single moves:
     	        	//System.out.println("NewSO: "+NewSO.stringDescr()+", act: "+act.toInt()); // DEBUG
+    	        	NewSO = so.copy();
     	            NewSO.advance(acts.get(i));
     	            value = this.getScore(NewSO,so); // this is V(s'') from the perspective of so
     	        }
@@ -796,6 +845,86 @@ public class TDNTuple3Agt extends NTupleBase implements PlayAgent,NTupleAgt,Seri
 		
 	} // trainAgent
 
+	/**
+	 * Train the agent for {@code startSO.length} episodes with {@code numWorkers} threads in parallel
+	 * (lock-free, in the style of Hogwild! [Recht11]).
+	 * <p>
+	 * Each thread is a worker agent which plays self-play episodes with {@link #trainAgent(StateObservation)}.
+	 * All workers update the weights of this agent's value function directly and without locks. Eligibility
+	 * lists, {@code indexList}'s and the episode state are private to each worker. Since each update touches
+	 * only a few weights out of a large LUT, colliding updates are rare and do not harm the learning.
+	 * <p>
+	 * The workers fetch the episodes in the order of {@code startSO}. Episode {@code k} is trained with the
+	 * learning rate ALPHA and the random move rate epsilon that the sequential training would have at game
+	 * {@code getGameNum()+k}. After return, gameNum, ALPHA, epsilon and the counters of learn actions and
+	 * train moves are the same as after {@code startSO.length} sequential calls to
+	 * {@link #trainAgent(StateObservation)}. (The weights are not: the order of updates is not deterministic.)
+	 * With {@code numWorkers<=1} the episodes are trained sequentially with {@link #trainAgent(StateObservation)}
+	 * in the calling thread.
+	 *
+	 * @param startSO		the start states of the episodes (usually from {@link GameBoard#chooseStartState(PlayAgent)})
+	 * @param numWorkers	number of worker threads
+	 */
+	public void trainAgentParallel(StateObservation[] startSO, int numWorkers) {
+		if (numWorkers<=1) {
+			for (StateObservation so : startSO)
+				trainAgent(so);
+			return;
+		}
+		final int numGames = startSO.length;
+		final int gameNum0 = getGameNum();
+		// ALPHA and epsilon at the start of each episode k, stepped as in finishUpdateWeights:
+		final double[] alphaK = new double[numGames+1];
+		final double[] epsilonK = new double[numGames+1];
+		alphaK[0] = m_Net.getAlpha();
+		epsilonK[0] = m_epsilon;
+		for (int k=0; k<numGames; k++) {
+			alphaK[k+1] = alphaK[k]*m_Net.getAlphaChangeRatio();
+			epsilonK[k+1] = epsilonK[k] - m_EpsilonChangeDelta;
+		}
+		final AtomicInteger nextGame = new AtomicInteger(0);
+		TDNTuple3Agt[] workers = new TDNTuple3Agt[numWorkers];
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int w=0; w<numWorkers; w++) {
+			final TDNTuple3Agt worker = new TDNTuple3Agt(this, rand.nextLong());
+			workers[w] = worker;
+			tasks.add(() -> {
+				int k;
+				while ((k = nextGame.getAndIncrement()) < numGames) {
+					worker.setGameNum(gameNum0+k);
+					worker.m_Net.setAlpha(alphaK[k]);
+					worker.m_epsilon = epsilonK[k];
+					worker.trainAgent(startSO[k]);
+				}
+				return null;
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(numWorkers);
+		try {
+			for (Future<Void> f : executor.invokeAll(tasks))
+				f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("[TDNTuple3Agt.trainAgentParallel] interrupted", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("[TDNTuple3Agt.trainAgentParallel] a worker failed: "+e.getCause(), e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		for (TDNTuple3Agt worker : workers) {
+			m_numTrnMoves += worker.m_numTrnMoves;
+			m_Net.addNumLearnActions(worker.m_Net.getNumLearnActions());
+			tieCounter += worker.tieCounter;
+			winXCounter += worker.winXCounter;
+			winOCounter += worker.winOCounter;
+		}
+		m_Net.setAlpha(alphaK[numGames]);
+		m_epsilon = epsilonK[numGames];
+		setGameNum(gameNum0+numGames);
+	} // trainAgentParallel
+
 
 	@Override
 	public String stringDescr() {
@@ -235,6 +235,14 @@ abstract public class NTuple4Base extends AgentBase implements NTuple4Agt, Seria
 	public double getEpsilon() {
 		return m_epsilon;
 	}
+
+	/**
+	 * Set the current epsilon (e.g. when resuming training from a checkpoint). Unlike 
+	 * {@link #setTDParams(ParTD, int)}, this does not restart the epsilon schedule.
+	 */
+	public void setEpsilon(double epsilon) {
+		m_epsilon = epsilon;
+	}
 	
 	public double getGamma() {
 		return m_tdPar.getGamma();
@@ -251,6 +259,14 @@ abstract public class NTuple4Base extends AgentBase implements NTuple4Agt, Seria
 	public void resetNumLearnActions() {
 		m_Net.resetNumLearnActions();
 	}
+
+	/**
+	 * Set the number of learn actions (e.g. when resuming training from a checkpoint), see {@link #getNumLrnActions()}
+	 */
+	public void setNumLrnActions(long num) {
+		m_Net.resetNumLearnActions();
+		m_Net.addNumLearnActions(num);
+	}
 	
 	@Override
 	public int getMoveCounter() {
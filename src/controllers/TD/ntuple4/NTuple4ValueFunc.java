@@ -9,6 +9,7 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
 
@@ -231,6 +232,34 @@ public class NTuple4ValueFunc implements Serializable {
 		return (hasSigmoid() ? Math.tanh(score) : score);
 	}
 	
+	/**
+	 * Batched afterstate evaluation with the same contract as 
+	 * {@link controllers.TD.ntuple2.NTuple2ValueFunc#scoreAfterstates(StateObservation, List, double[])}:
+	 * {@code out[i]} is the value V(s'|p_so) of the afterstate s' for {@code acts.get(i)}, from the perspective 
+	 * of the player to move in {@code so}. (Here each afterstate is evaluated with 
+	 * {@link #getScoreI(StateObsWithBoardVector, int)}.)
+	 * 
+	 * @param so	the state
+	 * @param acts	the actions to evaluate
+	 * @param next	the afterstates, if already built by the caller, else null. Only the actions with 
+	 * 				{@code next[i]!=null} are evaluated.
+	 * @param out	on output: {@code out[i]} is the value of the afterstate for {@code acts.get(i)}
+	 */
+	public void scoreAfterstates(StateObservation so, List<Types.ACTIONS> acts, StateObservation[] next, double[] out) {
+		int player = so.getPlayer();
+		for (int i=0; i<acts.size(); i++) {
+			StateObservation afterSO;
+			if (next!=null) {
+				if (next[i]==null) continue;
+				afterSO = next[i];
+			} else {
+				afterSO = so.copy();
+				afterSO.advanceDeterministic(acts.get(i));
+			}
+			out[i] = getScoreI(new StateObsWithBoardVector(afterSO, xnf), player);
+		}
+	}
+	
 	/**
 	 * Get the value for this state in int[]-representation
 	 * 
@@ -695,6 +724,10 @@ public class NTuple4ValueFunc implements Serializable {
 		this.numLearnActions = 0L;
 	}
 
+	void addNumLearnActions(long num) {
+		this.numLearnActions += num;
+	}
+
 
 	public void clearEligList() {
 		for (int ie=0; ie<eList.length; ie++)
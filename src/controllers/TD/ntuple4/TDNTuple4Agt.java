@@ -217,6 +217,22 @@ public class TDNTuple4Agt extends NTuple4Base implements PlayAgent, NTuple4Agt,S
         VTable = new double[acts.size()];  
         
         assert acts.size()>0 : "Oops, no available action";
+        
+        // If the afterstates are deterministic (afterstate logic or deterministic game), build them first 
+        // and evaluate all of them in one batch with m_Net.scoreAfterstates:
+        StateObservation[] afterSO = null;
+        double[] afterValue = null;
+        if (!randomSelect && (this.getAFTERSTATE() || so.isDeterministicGame())) {
+        	afterSO = new StateObservation[acts.size()];
+        	afterValue = new double[acts.size()];
+        	for (i = 0; i < acts.size(); ++i) {
+        		if (acts.get(i).isEqualToInverseOfLastAction(so)) continue;
+        		afterSO[i] = so.copy();
+        		afterSO[i].advanceDeterministic(acts.get(i)); 	// generate the afterstate
+        	}
+        	m_Net.scoreAfterstates(so, acts, afterSO, afterValue);
+        }
+        
         for(i = 0; i < acts.size(); ++i)
         {
 			thisAct = acts.get(i);
@@ -232,20 +248,21 @@ public class TDNTuple4Agt extends NTuple4Base implements PlayAgent, NTuple4Agt,S
 			if (thisAct.isEqualToInverseOfLastAction(so))
 				continue;	// with next for-pass
 
-        	NewSO = so.copy();
-
     		if (randomSelect) {
     			value = rand.nextDouble();
     		} else {
-    	        if (this.getAFTERSTATE()) {
-    	        	// if parameter "AFTERSTATE" is checked in ParNT, i.e. we use afterstate logic:
+    	        if (afterSO!=null) {
+    	        	// if parameter "AFTERSTATE" is checked in ParNT, i.e. we use afterstate logic (or if the 
+    	        	// game is deterministic, where afterstate and next state are the same):
     	        	//
-    	        	NewSO.advanceDeterministic(thisAct); 	// generate the afterstate
-    	        	value = this.getScore(NewSO,so); // this is V(s') from so-perspective
+    	        	NewSO = afterSO[i];
+    	        	value = NewSO.isGameOver() ? 0.0 : afterValue[i]; // this is V(s') from so-perspective, 
+    	        											// the same as this.getScore(NewSO,so)
     	            NewSO.advanceNondeterministic(); 
     	        } else { 
     	        	// the non-afterstate logic for the case of single moves:
     	        	//System.out.println("NewSO: "+NewSO.stringDescr()+", act: "+act.toInt()); // DEBUG
+    	        	NewSO = so.copy();
     	            NewSO.advance(acts.get(i));
     	            value = this.getScore(NewSO,so); // this is V(s'') from the perspective of so
     	        }
@@ -17,6 +17,7 @@ import tools.Types;
 import TournamentSystem.TSAgent;
 import TournamentSystem.TSAgentManager;
 import TournamentSystem.TSTimeStorage;
+import TournamentSystem.TSParallelEngine;
 import TournamentSystem.tools.TSGameDataTransfer;
 
 import java.io.IOException;
@@ -826,6 +827,46 @@ abstract public class Arena implements Runnable {
 
 		long start = System.currentTimeMillis();
 
+		playTournament(() -> tsProgressBar.setValue(tournamentAgentManager.getTSProgress()[0]));
+
+		long end = System.currentTimeMillis();
+		tournamentAgentManager.results.durationTSMS = end - start;
+
+		progressBarJF.dispatchEvent(new WindowEvent(progressBarJF, WindowEvent.WINDOW_CLOSING)); // close progressbar window
+		//tournamentAgentManager.printGameResults(); // print some stats to the console
+
+		tournamentAgentManager.makeStats(); // calc data and create result stats window
+		tournamentAgentManager.printGameResults(); // print some stats to the console
+
+		if (tournamentAgentManager.getAutoSaveAfterTS()) {
+			try {
+				tdAgentIO.saveTSResult(tournamentAgentManager.results, true);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}		
+	} // RunTournament()
+
+	/**
+	 * Play all games of {@link #tournamentAgentManager}. The matches are played concurrently on 
+	 * {@link TSParallelEngine}, if the user enabled this (see {@link TSAgentManager#setParallelTS(boolean)}) and 
+	 * if all agents are HDD agents. Otherwise the games are played one after the other.
+	 * 
+	 * @param onProgress if not null, called after each entered game result (e.g. to update a progress bar)
+	 */
+	void playTournament(Runnable onProgress) {
+		boolean parallel = tournamentAgentManager.getParallelTS();
+		if (parallel && !TSParallelEngine.isApplicable(tournamentAgentManager)) {
+			System.out.println(TAG+"parallel matches are only available for HDD agents in 2-player games --> sequential");
+			parallel = false;
+		}
+		if (parallel) {
+			// play the matches on TSParallelEngine.NUM_THREADS workers
+			TSParallelEngine engine = new TSParallelEngine(tournamentAgentManager, this, TSParallelEngine.NUM_THREADS);
+			if (!engine.run(onProgress))
+				showMessage("Tournament aborted, see console output", "Error", JOptionPane.ERROR_MESSAGE);
+			return;
+		}
 		while (tournamentAgentManager.hasNextGame()) {
 			TSAgent[] nextTeam = tournamentAgentManager.getNextCompetitionTeam(); // get next Agents
 			//System.out.println("DEBUG: "+nextTeam[0].getAgentType() + " vs. "+nextTeam[1].getAgentType());
@@ -853,28 +894,11 @@ abstract public class Arena implements Runnable {
 
 				// iprogress bar
 				int[] iprogress = tournamentAgentManager.getTSProgress();
-				tsProgressBar.setValue(iprogress[0]);
+				if (onProgress != null) onProgress.run();
 				System.out.println(TAG+"TS Progress "+ Arrays.toString(iprogress));
 			}
 		}
-
-		long end = System.currentTimeMillis();
-		tournamentAgentManager.results.durationTSMS = end - start;
-
-		progressBarJF.dispatchEvent(new WindowEvent(progressBarJF, WindowEvent.WINDOW_CLOSING)); // close progressbar window
-		//tournamentAgentManager.printGameResults(); // print some stats to the console
-
-		tournamentAgentManager.makeStats(); // calc data and create result stats window
-		tournamentAgentManager.printGameResults(); // print some stats to the console
-
-		if (tournamentAgentManager.getAutoSaveAfterTS()) {
-			try {
-				tdAgentIO.saveTSResult(tournamentAgentManager.results, true);
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		}		
-	} // RunTournament()
+	}
 
 	/**
 	 * For debugging 2048 during {@link #PlayGame()}: This function is only
@@ -1147,6 +1171,22 @@ abstract public class Arena implements Runnable {
 	 */
 	abstract public GameBoard makeGameBoard();
 
+	/**
+	 * Make an additional game board, e.g. for a training run in parallel multi-training, which needs
+	 * its own board for start state selection and evaluators. Unlike {@link #makeGameBoard()}, the arena 
+	 * keeps its current game board.
+	 * <p>
+	 * Should be called only without GUI (otherwise the new board would create its own game window).
+	 *
+	 * @return the new game board
+	 */
+	public GameBoard makeExtraGameBoard() {
+		GameBoard arenaGb = gb;
+		GameBoard extraGb = makeGameBoard();
+		gb = arenaGb;
+		return extraGb;
+	}
+
 	/**
 	 * Factory pattern method: make a new Evaluator
 	 *
@@ -5,7 +5,13 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JDialog;
 
@@ -36,7 +42,8 @@ import tools.Types.ACTIONS_VT;
  * 2019-07-13: /WK/ Because {@link C4Base} now extends {@link AgentBase}, this class has 
  * now all methods and members that {@link AgentBase} has.<br>
  * 2020-02-01: /WK/ In order to get an AlphaBetaAgent searching for distant losses, construct it with 
- * {@link #AlphaBetaAgent(BookSum, int) <b>AlphaBetaAgent(books,1000)</b>}.
+ * {@link #AlphaBetaAgent(BookSum, int) <b>AlphaBetaAgent(books,1000)</b>}.<br>
+ * Optionally, the search runs with Lazy-SMP helper threads, see {@link #setNumHelpers(int)}.
  * 
  * @author Markus Thill
  * 
@@ -84,6 +91,50 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 	// Binary Semaphore, to prevent multiple access (e.g. by parallel threads)
 	private Semaphore mutex; // = new Semaphore(1);
 
+	/**
+	 * the number of Lazy-SMP helper threads for newly constructed agents, see {@link #setNumHelpers(int)}. 
+	 * The default 0 is the single-threaded, reproducible search.
+	 */
+	public static int DEFAULT_NUM_HELPERS = 0;
+
+	// Lazy SMP: helper agents which search the same root in parallel threads and share the 
+	// transposition tables with this agent (see rootNodeSMP)
+	private int numHelpers = DEFAULT_NUM_HELPERS;
+	private transient AlphaBetaAgent[] helpers = null;
+	private transient Future<?>[] helperFutures = null;
+	// the helper threads of all agents. At most one thread per core runs helpers, however many agents 
+	// search concurrently (e.g. in parallel multiTrain runs); further helpers wait in the queue (and 
+	// return at once if the search is stopped before they start). Idle threads terminate after a minute, 
+	// so an agent which is discarded (or gets fewer helpers) does not leave threads behind.
+	private static final ExecutorService HELPER_POOL = newHelperPool();
+
+	private static ExecutorService newHelperPool() {
+		int n = Runtime.getRuntime().availableProcessors();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(n, n, 60L, TimeUnit.SECONDS, 
+				new LinkedBlockingQueue<>(), r -> {
+			Thread t = new Thread(r, "AlphaBeta-helper");
+			t.setDaemon(true);		// do not prevent the JVM from exiting
+			return t;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	// only for helpers: abort the search, and rotate the root moves by rootShift
+	private transient volatile boolean stopped = false;
+	private transient int rootShift = 0;
+
+	/**
+	 * Thrown in a helper's search when the main search is finished
+	 */
+	private static final class SearchStopped extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		static final SearchStopped INSTANCE = new SearchStopped();
+		private SearchStopped() {
+			super("search stopped", null, false, false);
+		}
+	}
+
 	// Transposition Table Constants
 	private static final int[] TRANSPOSSIZE = { 262144, 524288, 1048576,
 			2097152, 4194304, 8388608, 16777216, 33554432 };
@@ -159,15 +210,18 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 	private boolean useDeepBook = false;
 	private boolean useDeepBookDist = true;
 
-	// Transposition Table for higher Search-Depths
-	private long key[] = new long[transPosSize];
-	private short value[] = new short[transPosSize];
-	private byte flag[] = new byte[transPosSize];
+	// Transposition Table for higher Search-Depths. The entry for zobr holds value and flag in 
+	// value[i] and flag[i] and zobr^ttData(flag[i],value[i]) in key[i]: an entry is valid for zobr only if 
+	// key[i]^ttData(flag[i],value[i])==zobr. So an entry which is half-written by another thread (Lazy SMP 
+	// helpers) is just not found, and the table needs no locks.
+	private long key[];
+	private short value[];
+	private byte flag[];
 
-	// Transposition Table for lower Search-Depths
-	private long lKey[] = new long[lTransPosSize];
-	private short lValue[] = new short[lTransPosSize];
-	private byte lFlag[] = new byte[lTransPosSize];
+	// Transposition Table for lower Search-Depths (same scheme)
+	private long lKey[];
+	private short lValue[];
+	private byte lFlag[];
 
 	// If is already searching for a far loose: Don't Change!!!
 	private boolean seekFarLoose = true; //false;
@@ -181,6 +235,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		super();
 		this.books = books; 	// see comment on 'books' in instantiateAfterLoading()
 		mutex = new Semaphore(1);
+		allocTranspositionTable();
 		setAgentState(AgentState.TRAINED);
 	}
 
@@ -195,9 +250,18 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		this.books = books; 	// see comment on 'books' in instantiateAfterLoading()
 		this.sigfac = sigfac;
 		mutex = new Semaphore(1);
+		allocTranspositionTable();
 		setAgentState(AgentState.TRAINED);
 	}
 
+	/**
+	 * Constructs a Lazy-SMP helper of an agent. It gets the settings and the transposition tables of 
+	 * its main agent in {@link #startHelpers(boolean)}.
+	 */
+	private AlphaBetaAgent() {
+		super();
+	}
+
 //	/**
 //	 * (currently never used in GBG)
 //	 * 
@@ -264,6 +328,41 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 	}
 	
 
+	private void store(int index, long zobr, byte f, short v) {
+		value[index] = v;
+		flag[index] = f;
+		key[index] = zobr ^ ttData(f, v);
+	}
+
+	private void storeL(int index, long zobr, byte f, short v) {
+		lValue[index] = v;
+		lFlag[index] = f;
+		lKey[index] = zobr ^ ttData(f, v);
+	}
+
+	/**
+	 * @return value and flag of entry {@code index}, packed with {@link #ttData(byte, short)}
+	 */
+	private long data(int index) {
+		return ttData(flag[index], value[index]);
+	}
+
+	private long lData(int index) {
+		return ttData(lFlag[index], lValue[index]);
+	}
+
+	private static long ttData(byte flag, short value) {
+		return ((long) value << 8) | (flag & 0xFF);
+	}
+
+	private static short ttValue(long data) {
+		return (short) (data >> 8);
+	}
+
+	private static byte ttFlag(long data) {
+		return (byte) data;
+	}
+
 	/**
 	 * The difficulty of {@link AlphaBetaAgent} is distinguished by the {@code searchDepth}
 	 * 
@@ -2715,6 +2814,10 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			moves[x] = -1;
 		}
 
+		// Lazy-SMP helpers start with different moves
+		if (rootShift > 0)
+			rotateMoves(moves, rootShift);
+
 		// Try all moves for the current player
 		for (x = 0; moves[x] > -1; x++) {
 			putPiece(player, moves[x]);
@@ -2779,6 +2882,115 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		return (player == 1 ? alpha : beta);
 	}
 
+	private static void rotateMoves(int[] moves, int shift) {
+		int n = 0;
+		while (moves[n] != -1)
+			n++;
+		if (n < 2 || shift % n == 0)
+			return;
+		int[] tmp = new int[n];
+		for (int x = 0; x < n; x++)
+			tmp[x] = moves[(x + shift) % n];
+		System.arraycopy(tmp, 0, moves, 0, n);
+	}
+
+	/**
+	 * Same as {@link #rootNode(boolean)}, but if {@code numHelpers > 0}, the Lazy-SMP helpers search the 
+	 * same board in parallel threads while this thread searches. They share the (lock-free) transposition 
+	 * tables, so that this thread finds many positions already searched by the helpers. The helpers start 
+	 * with different root moves and alternately with the same and a 2 plies deeper search horizon. 
+	 * They are stopped as soon as this thread has its result. 
+	 * <p>
+	 * The result is the result of this thread. But it may depend on the timing of the threads (if the 
+	 * search horizon is reached, or via the distance-dependent values), so it is not reproducible.
+	 */
+	private int rootNodeSMP(boolean retValue) {
+		if (numHelpers < 1)
+			return rootNode(retValue);
+		startHelpers(retValue);
+		try {
+			return rootNode(retValue);
+		} finally {
+			stopHelpers();
+		}
+	}
+
+	private void startHelpers(boolean retValue) {
+		if (helpers == null || helpers.length != numHelpers) {
+			helpers = new AlphaBetaAgent[numHelpers];
+			helperFutures = new Future<?>[numHelpers];
+			for (int k = 0; k < numHelpers; k++)
+				helpers[k] = new AlphaBetaAgent();
+		}
+		for (int k = 0; k < numHelpers; k++) {
+			final AlphaBetaAgent h = helpers[k];
+			h.books = books;
+			h.sigfac = sigfac;
+			h.transPosSize = transPosSize;
+			h.lTransPosSize = lTransPosSize;
+			h.key = key;
+			h.value = value;
+			h.flag = flag;
+			h.lKey = lKey;
+			h.lValue = lValue;
+			h.lFlag = lFlag;
+			h.useBook = useBook;
+			h.useDeepBook = useDeepBook;
+			h.useDeepBookDist = useDeepBookDist;
+			h.seekFarLoose = seekFarLoose;
+			h.looseIntervall = looseIntervall;
+			h.searchDepth = searchDepth + 2 * ((k + 1) % 2);	// staggered search horizons
+			h.rootShift = k + 1;
+			h.setBoard(fieldP1, fieldP2);
+			h.stopped = false;
+			helperFutures[k] = HELPER_POOL.submit(() -> {
+				try {
+					h.rootNode(retValue);
+				} catch (SearchStopped e) {
+					// the main search is finished
+				}
+			});
+		}
+	}
+
+	private void stopHelpers() {
+		for (AlphaBetaAgent h : helpers)
+			h.stopped = true;
+		boolean interrupted = false;
+		for (Future<?> f : helperFutures) {
+			while (true) {	// wait for the helpers, they must not search on when the next search starts
+				try {
+					f.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					throw new RuntimeException("[AlphaBetaAgent] a helper search failed: "+e.getCause(), e.getCause());
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Set the number of Lazy-SMP helper threads (see {@link #rootNodeSMP(boolean)}).
+	 * 
+	 * @param numHelpers 0: single-threaded search (default, reproducible), &gt; 0: number of 
+	 * 				helper threads searching in parallel to the calling thread 
+	 */
+	public void setNumHelpers(int numHelpers) {
+		this.numHelpers = Math.max(numHelpers, 0);
+		if (helpers != null && helpers.length != this.numHelpers) {
+			helpers = null;			// release the helpers and their references to the tables
+			helperFutures = null;
+		}
+	}
+
+	public int getNumHelpers() {
+		return numHelpers;
+	}
+
 	/**
 	 * @param depth
 	 *            current search depth
@@ -2792,6 +3004,9 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 	 */
 	private int alphaBetaStartP1(int depth, int alpha, int beta, long zobr,
 			boolean symPos) {
+		if (stopped)
+			throw SearchStopped.INSTANCE;
+
 		// distance to win / loss
 		int distance = depth;// (seekFarLoose ? countPieces() / looseIntervall :
 								// 0);
@@ -2870,9 +3085,10 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		// should be equal to above operation (time)
 
 		// Check for Entry in Transposition-Table
-		if (lKey[index] == zobr) {
-			short v = lValue[index];
-			switch (lFlag[index]) {
+		long d = lData(index);
+		if ((lKey[index] ^ d) == zobr) {
+			short v = ttValue(d);
+			switch (ttFlag(d)) {
 			case TRANSPOSEXACT:
 				return v;
 			case TRANSPOSLOWER:
@@ -2929,9 +3145,10 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 											// Auskommentiere schneller zu sein
 			long nZobr = toZobrist(f1, f2);
 			int transPositionN = ((int) nZobr & (lTransPosSize - 1));
-			if (lKey[transPositionN] == nZobr) {
-				short v = lValue[transPositionN];
-				switch (lFlag[transPositionN]) {
+			long dN = lData(transPositionN);
+			if ((lKey[transPositionN] ^ dN) == nZobr) {
+				short v = ttValue(dN);
+				switch (ttFlag(dN)) {
 				case TRANSPOSEXACT:
 					return v;
 				case TRANSPOSLOWER:
@@ -2969,9 +3186,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 					fieldP1 = t;
 					colHeight[moves[x]]--;
 
-					lKey[index] = zobr;
-					lFlag[index] = TRANSPOSEXACT;
-					lValue[index] = (short) (1020 - distance);
+					storeL(index, zobr, TRANSPOSEXACT, (short) (1020 - distance));
 					return 1020 - distance;
 				} else if (anz != 0) {
 					// Check if current player has two threats on top of
@@ -2981,9 +3196,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 						fieldP1 = t;
 						colHeight[moves[x]]--;
 
-						lKey[index] = zobr;
-						lFlag[index] = TRANSPOSEXACT;
-						lValue[index] = (short) (1020 - distance);
+						storeL(index, zobr, TRANSPOSEXACT, (short) (1020 - distance));
 						return 1020 - distance;
 					}
 					colHeight[drlt[0]]++;
@@ -3030,18 +3243,14 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			fieldP1 = t;
 			colHeight[y]--;
 			if (value >= beta) {
-				lKey[index] = zobr;
-				lFlag[index] = TRANSPOSLOWER;
-				lValue[index] = value;
+				storeL(index, zobr, TRANSPOSLOWER, value);
 				return value;
 			} else if (value > alpha) {
 				alpha = value;
 				isExactValue = true;
 			}
 			if (value >= 1000) {
-				lKey[index] = zobr;
-				lFlag[index] = (isExactValue ? TRANSPOSEXACT : TRANSPOSUPPER);
-				lValue[index] = value;
+				storeL(index, zobr, (isExactValue ? TRANSPOSEXACT : TRANSPOSUPPER), value);
 				return value;
 			}
 
@@ -3054,19 +3263,14 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[z]--;
 				if (value >= beta) {
-					lKey[index] = zobr;
-					lFlag[index] = TRANSPOSLOWER;
-					lValue[index] = value;
+					storeL(index, zobr, TRANSPOSLOWER, value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
 					isExactValue = true;
 				}
 				if (value >= 1000) {
-					lKey[index] = zobr;
-					lFlag[index] = (isExactValue ? TRANSPOSEXACT
-							: TRANSPOSUPPER);
-					lValue[index] = value;
+					storeL(index, zobr, (isExactValue ? TRANSPOSEXACT : TRANSPOSUPPER), value);
 					return value;
 				}
 			}
@@ -3086,19 +3290,14 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[q]--;
 				if (value >= beta) {
-					lKey[index] = zobr;
-					lFlag[index] = TRANSPOSLOWER;
-					lValue[index] = value;
+					storeL(index, zobr, TRANSPOSLOWER, value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
 					isExactValue = true;
 				}
 				if (value >= 1000) {
-					lKey[index] = zobr;
-					lFlag[index] = (isExactValue ? TRANSPOSEXACT
-							: TRANSPOSUPPER);
-					lValue[index] = value;
+					storeL(index, zobr, (isExactValue ? TRANSPOSEXACT : TRANSPOSUPPER), value);
 					return value;
 				}
 			}
@@ -3125,19 +3324,14 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[moves[x]]--;
 				if (value >= beta) {
-					lKey[index] = zobr;
-					lFlag[index] = TRANSPOSLOWER;
-					lValue[index] = value;
+					storeL(index, zobr, TRANSPOSLOWER, value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
 					isExactValue = true;
 				}
 				if (value >= 1000) {
-					lKey[index] = zobr;
-					lFlag[index] = (isExactValue ? TRANSPOSEXACT
-							: TRANSPOSUPPER);
-					lValue[index] = value;
+					storeL(index, zobr, (isExactValue ? TRANSPOSEXACT : TRANSPOSUPPER), value);
 					return value;
 				}
 			}
@@ -3153,22 +3347,15 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			fieldP1 = t;
 			colHeight[later]--;
 			if (value >= beta) {
-				lKey[index] = zobr;
-				lFlag[index] = TRANSPOSLOWER;
-				lValue[index] = value;
+				storeL(index, zobr, TRANSPOSLOWER, value);
 				return value;
 			} else if (value > alpha) {
 				alpha = value;
 				isExactValue = true;
 			}
 		}
-		if (isExactValue)
-			lFlag[index] = TRANSPOSEXACT;
-		else
-			// No move could be found, that was better than alpha
-			lFlag[index] = TRANSPOSUPPER;
-		lKey[index] = zobr;
-		lValue[index] = (short) alpha;
+		// if isExactValue is false, no move could be found, that was better than alpha
+		storeL(index, zobr, (isExactValue ? TRANSPOSEXACT : TRANSPOSUPPER), (short) alpha);
 		return alpha;
 	}
 
@@ -3206,7 +3393,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		// Enhanced Transposition Cutoff
 		for (x = 0; moves[x] != (-1); x++) {
 			t = zobr ^ rnd[1][moves[x] * 6 + colHeight[moves[x]]];
-			long k;
+			long k, d;
 			short v;
 			byte f;
 
@@ -3214,15 +3401,15 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			// Unterscheidung
 			if (depth > 13) {
 				transPosition = ((int) t & (transPosSize - 1));
-				k = key[transPosition];
-				v = value[transPosition];
-				f = flag[transPosition];
+				d = data(transPosition);
+				k = key[transPosition] ^ d;
 			} else {
 				transPosition = ((int) t & (lTransPosSize - 1));
-				k = lKey[transPosition];
-				v = lValue[transPosition];
-				f = lFlag[transPosition];
+				d = lData(transPosition);
+				k = lKey[transPosition] ^ d;
 			}
+			v = ttValue(d);
+			f = ttFlag(d);
 			if (k == t && f != TRANSPOSLOWER && v <= alpha)
 				return v;
 		}
@@ -3418,6 +3605,8 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 	 * @return Value
 	 */
 	private int alphaBetaP1(int depth, int alpha, int beta, long zobr) {
+		if (stopped)
+			throw SearchStopped.INSTANCE;
 
 		// Check for direct Win
 		if (hasWin(PLAYER1)) {
@@ -3494,9 +3683,10 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		int index = ((int) zobr & (transPosSize - 1));
 
 		// Check, if current board is in Transposition-Table
-		if (key[index] == zobr) {
-			short v = value[index];
-			switch (flag[index]) {
+		long d = data(index);
+		if ((key[index] ^ d) == zobr) {
+			short v = ttValue(d);
+			switch (ttFlag(d)) {
 			case TRANSPOSEXACT:
 				return v;
 			case TRANSPOSLOWER:
@@ -3530,9 +3720,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[x]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3556,9 +3744,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[3]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3579,9 +3765,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[4]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3602,9 +3786,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[2]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3625,9 +3807,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[5]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3648,9 +3828,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[1]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3671,9 +3849,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				fieldP1 = t;
 				colHeight[6]--;
 				if (value >= beta) {
-					key[index] = zobr;
-					this.value[index] = (short) value;
-					flag[index] = TRANSPOSLOWER;
+					store(index, zobr, TRANSPOSLOWER, (short) value);
 					return value;
 				} else if (value > alpha) {
 					alpha = value;
@@ -3690,9 +3866,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			fieldP1 = t;
 			colHeight[0]--;
 			if (value >= beta) {
-				key[index] = zobr;
-				this.value[index] = (short) value;
-				flag[index] = TRANSPOSLOWER;
+				store(index, zobr, TRANSPOSLOWER, (short) value);
 				return value;
 			} else if (value > alpha) {
 				alpha = value;
@@ -3710,9 +3884,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			fieldP1 = t;
 			colHeight[later]--;
 			if (value >= beta) {
-				key[index] = zobr;
-				this.value[index] = (short) value;
-				flag[index] = TRANSPOSLOWER;
+				store(index, zobr, TRANSPOSLOWER, (short) value);
 				return value;
 			} else if (value > alpha) {
 				alpha = value;
@@ -3720,9 +3892,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 			}
 		}
 
-		key[index] = zobr;
-		this.value[index] = (short) alpha;
-		flag[index] = (isValueExact ? TRANSPOSEXACT : TRANSPOSUPPER);
+		store(index, zobr, (isValueExact ? TRANSPOSEXACT : TRANSPOSUPPER), (short) alpha);
 		return alpha;
 	}
 
@@ -3751,9 +3921,10 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				if (colHeight[x] != 6) {
 					t = zobr ^ rnd[1][x * 6 + colHeight[x]];
 					int transPosition = ((int) t & (transPosSize - 1));
-					long k = key[transPosition];
-					short v = this.value[transPosition];
-					byte f = flag[transPosition];
+					long d = data(transPosition);
+					long k = key[transPosition] ^ d;
+					short v = ttValue(d);
+					byte f = ttFlag(d);
 
 					if (k == t && f != TRANSPOSLOWER && v <= alpha)
 						return v;
@@ -4113,6 +4284,12 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		transPosSize = TRANSPOSSIZE[index];
 		lTransPosSize = transPosSize / 8;
 
+		allocTranspositionTable();
+
+		System.gc();
+	}
+
+	private void allocTranspositionTable() {
 		// Transposition Table for higher Search-Depths
 		key = new long[transPosSize];
 		value = new short[transPosSize];
@@ -4122,8 +4299,6 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		lKey = new long[lTransPosSize];
 		lValue = new short[lTransPosSize];
 		lFlag = new byte[lTransPosSize];
-
-		System.gc();
 	}
 
 	/**
@@ -4176,7 +4351,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 		semOpDown();
 		setBoard(table);
 
-		int val = rootNode(false);
+		int val = rootNodeSMP(false);
 		semOpUp();
 		return val;
 	}
@@ -4234,7 +4409,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 				score = 988;
 			}
 		} else
-			score = rootNode(true);
+			score = rootNodeSMP(true);
 
 		semOpUp();
 
@@ -4308,7 +4483,7 @@ public class AlphaBetaAgent extends C4Base implements Serializable, PlayAgent {
 					score = books.getOpeningBookDeepDist().getValue(codedPos,
 							codedPosMirrored);
 				} else
-					score = rootNode(true);
+					score = rootNodeSMP(true);
 				values[x] = score;
 				if (useSigmoid)
 					values[x] = Math.tanh(values[x]/sigfac);
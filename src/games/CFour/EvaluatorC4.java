@@ -48,6 +48,13 @@ import javax.swing.JOptionPane;
  * The value of mode is set in the constructor. 
  */
 public class EvaluatorC4 extends Evaluator {
+    /**
+     * the number of Lazy-SMP helper threads of the Alpha-Beta agents (modes 3, 4 and 5), see 
+     * {@link AlphaBetaAgent#setNumHelpers(int)}. The default 0 is the single-threaded, reproducible 
+     * search. GBGBatch sets it with option {@code --abHelpers=H}.
+     */
+    public static int AB_NUM_HELPERS = AlphaBetaAgent.DEFAULT_NUM_HELPERS;
+
     private MaxNAgent maxnAgent = null; 
     private final String logDir = "logs/ConnectFour/train";
     protected int verbose = 0;
@@ -98,8 +105,10 @@ public class EvaluatorC4 extends Evaluator {
 		// (same as winOptionsGTB in MT's C4)
 		alphaBetaStd = new AlphaBetaAgent(new BookSum());		// no search for distant losses
 		alphaBetaStd.instantiateAfterLoading();				
+		alphaBetaStd.setNumHelpers(AB_NUM_HELPERS);
 		alphaBeta_DL = new AlphaBetaAgent(new BookSum(),1000);	// search for distant losses
 		alphaBeta_DL.instantiateAfterLoading();				
+		alphaBeta_DL.setNumHelpers(AB_NUM_HELPERS);
     }
 
     @Override
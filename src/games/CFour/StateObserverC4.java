@@ -8,6 +8,7 @@ import games.ObserverBase;
 import games.StateObservation;
 import tools.Types;
 import tools.Types.ACTIONS;
+import tools.Zobrist;
 
 /**
  * Class StateObserverC4 observes the current state of the game, it has utility functions for
@@ -35,6 +36,8 @@ public class StateObserverC4 extends ObserverBase implements StateObservation {
 
 	private LastCell lastCell = new LastCell();
 	private LastCell prevCell = new LastCell();
+	private long m_hash = 0;		// Zobrist key, 0: not yet computed (see hashKey())
+	private static final long[] ZOBRIST = Zobrist.table(C4Base.COLCOUNT*C4Base.ROWCOUNT, 2);	// [cell*2 + player]
     
 	/**
 	 * change the version ID for serialization only if a newer version is no longer 
@@ -72,6 +75,7 @@ public class StateObserverC4 extends ObserverBase implements StateObservation {
 		this.m_Player = other.m_Player;
 		this.gameOver = other.gameOver;
 		this.isWin = other.isWin;	// bug fix (!) 2020-08-25
+		this.m_hash = other.m_hash;
 		if (other.lastCell!=null) 			// this check is needed when loading older logs
 			lastCell = new LastCell(other.lastCell);
 		if (other.prevCell!=null) 			// this check is needed when loading older logs
@@ -228,10 +232,30 @@ public class StateObserverC4 extends ObserverBase implements StateObservation {
 		this.prevCell = this.lastCell;
 		int lastPlayer = (m_Player==0) ? 1 : 0; // player who acted in this advance()
 		this.lastCell = new LastCell(iAction, m_C4.getColHeight(iAction)-1, lastPlayer);
+		if (m_hash!=0) 
+			m_hash ^= ZOBRIST[2*(iAction*C4Base.ROWCOUNT+m_C4.getColHeight(iAction)-1)+lastPlayer] 
+					^ Zobrist.side(lastPlayer) ^ Zobrist.side(m_Player);
 
 //			System.out.println("player="+this.getPlayer()+", moveCounter="+this.getMoveCounter());
 	}
 
+	/**
+	 * @return the Zobrist key of this state, computed on first call and then updated incrementally in 
+	 * 		{@link #advance(ACTIONS)}
+	 */
+	@Override
+	public long hashKey() {
+		if (m_hash==0) {
+			long h = Zobrist.side(m_Player);
+			int[][] board = m_C4.getBoard();
+			for (int i=0; i<C4Base.COLCOUNT; i++)
+				for (int j=0; j<C4Base.ROWCOUNT; j++)
+					if (board[i][j]!=0) h ^= ZOBRIST[2*(i*C4Base.ROWCOUNT+j)+board[i][j]-1];
+			m_hash = h;
+		}
+		return m_hash;
+	}
+
     /**
      * Return the afterstate preceding {@code this}. 
      */
@@ -7,6 +7,7 @@ import games.BoardVector;
 import games.StateObservation;
 import games.XNTupleBase;
 import games.XNTupleFuncs;
+import tools.Types;
 
 public class XNTupleFuncsC4 extends XNTupleBase implements XNTupleFuncs, Serializable {
 
@@ -128,6 +129,35 @@ public class XNTupleFuncsC4 extends XNTupleBase implements XNTupleFuncs, Seriali
 
 		return equiv;
 	}
+
+	/**
+	 * The symmetries of ConnectFour are pure cell permutations.
+	 * 
+	 * @return {@code perm[s][c]}, see {@link XNTupleFuncs#symmetryPermutations()}
+	 */
+	@Override
+	public int[][] symmetryPermutations() {
+		return cellPermutations();
+	}
+
+	/**
+	 * A move in ConnectFour changes only the lowest free cell of column {@code act} (it gets the piece 
+	 * of the player to move) and - if {@link #getNumPositionValues()}==4 - the cell above, which 
+	 * becomes reachable-empty.
+	 * 
+	 * @return true
+	 * @see XNTupleFuncs#afterstateBoardVector(StateObservation, int[], Types.ACTIONS, int[])
+	 */
+	@Override
+	public boolean afterstateBoardVector(StateObservation so, int[] bvec, Types.ACTIONS act, int[] next) {
+		System.arraycopy(bvec, 0, next, 0, bvec.length);
+		int n = act.toInt()*C4Base.ROWCOUNT, end = n+C4Base.ROWCOUNT;
+		while (n<end && (bvec[n]==1 || bvec[n]==2)) n++;
+		assert n<end : "column "+act.toInt()+" is full!";
+		next[n] = so.getPlayer()+1;
+		if (this.getNumPositionValues()==4 && n+1<end) next[n+1] = 3;
+		return true;
+	}
 	
 	/**
 	 * Given a certain board array of symmetric (equivalent) states for state <b>{@code so}</b> 
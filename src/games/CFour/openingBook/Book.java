@@ -1,7 +1,19 @@
 package games.CFour.openingBook;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import tools.Types;
 
 /**
  * There are 3 different opning-books available: <br>
@@ -11,6 +23,16 @@ import java.io.InputStream;
  *         exact distance) <br>
  * 
  *         One of these books can be selected by setting the bookNr to 0,1 or 2.
+ *         <p>
+ *         A book is either read from the resource {@code BOOKPATH[bookNr]} into the heap
+ *         ({@link #openBook()}, {@link #readBook()}, {@link #closeBook()}) or memory-mapped from
+ *         a precompiled file in {@link #MAPPED_DIR} ({@link #mapBook(File)}). The mapped format has
+ *         fixed-width entries (a 16-byte header, then one 32-bit code per row, then - only for the
+ *         book with exact distance - one value byte per row), so {@link #getValue(int, int)} searches
+ *         directly on the mapped buffer. Use {@link BookConverter} to produce the mapped files.
+ *         <p>
+ *         {@link #load(int)} returns one shared, read-only instance per book and JVM: the mapped
+ *         file if it exists, otherwise the resource.
  *         
  * @author Markus Thill 
  */
@@ -29,6 +51,18 @@ public class Book {
 	public static final int DEEPBOOK = 1;
 	public static final int DISTDEEPBOOK = 2;
 
+	/**
+	 * the directory with the precompiled mapped books (see {@link BookConverter})
+	 */
+	public static String MAPPED_DIR = Types.GUI_DEFAULT_DIR_AGENT + "/ConnectFour/openingBook";
+	private static final String MAPPED_SUFFIX = ".map";
+	private static final int MAPPED_MAGIC = 0x4334424B;		// "C4BK"
+	private static final int MAPPED_VERSION = 1;
+	private static final int MAPPED_HEADER = 16;			// magic, version, bookNr, size
+
+	// the shared instances returned by load(bookNr)
+	private static final Book[] shared = new Book[BOOKPATH.length];
+
 	// Selected book-Nr
 	private int bookNr;
 
@@ -36,11 +70,11 @@ public class Book {
 	private InputStream file = null;
 
 	// All rows of the opening-book. Each row is coded in a special format
-	// (exact 24- or 32-Bit)
-	private int book[];
+	// (exact 24- or 32-Bit). Either a heap buffer or a view of the mapped file.
+	private IntBuffer book;
 
 	// Only for Deep-book with Exact Distance
-	byte vals[];
+	private ByteBuffer vals;
 
 	/**
 	 * @param bookNr
@@ -50,6 +84,44 @@ public class Book {
 		this.bookNr = bookNr;
 	}
 
+	/**
+	 * Get the shared instance of a book. On first call, the book is memory-mapped from
+	 * {@link #MAPPED_DIR}, if the mapped file exists there, else it is read from the resource.
+	 * 
+	 * @param bookNr
+	 *            Selected book
+	 * @return the book, shared by all callers in this JVM (read-only)
+	 * @throws IOException
+	 */
+	public static synchronized Book load(int bookNr) throws IOException {
+		if (shared[bookNr] == null) {
+			Book b = new Book(bookNr);
+			File f = getMappedFile(bookNr);
+			if (f.exists()) {
+				b.mapBook(f);
+			} else {
+				b.openBook();
+				try {
+					b.readBook();
+				} finally {
+					b.closeBook();
+				}
+			}
+			shared[bookNr] = b;
+		}
+		return shared[bookNr];
+	}
+
+	/**
+	 * @param bookNr
+	 *            Selected book
+	 * @return the mapped file for this book in {@link #MAPPED_DIR}
+	 */
+	public static File getMappedFile(int bookNr) {
+		String name = BOOKPATH[bookNr];
+		return new File(MAPPED_DIR, name.substring(0, name.lastIndexOf('.')) + MAPPED_SUFFIX);
+	}
+
 	/**
 	 * Open the selected book from the selected path
 	 * 
@@ -76,25 +148,80 @@ public class Book {
 	 * @throws IOException
 	 */
 	public void readBook() throws IOException {
-		book = new int[BOOKSIZE[bookNr]];
-
-		if (bookNr == DISTDEEPBOOK)
-			vals = new byte[BOOKSIZE[bookNr]];
-
-		int shiftNum, temp;
-		for (int i = 0; i < BOOKSIZE[bookNr]; i++) {
-			shiftNum = (bookNr == NORMALBOOK ? 16 : 24);
-			temp = 0;
-			for (; shiftNum >= 0; shiftNum -= 8) {
-				int b = file.read();
-				temp |= (b << shiftNum);
-			}
-			book[i] = temp;
+		int size = BOOKSIZE[bookNr];
+		int codeBytes = (bookNr == NORMALBOOK ? 3 : 4);
+		int rowBytes = codeBytes + (bookNr == DISTDEEPBOOK ? 1 : 0);
+		byte raw[] = new byte[size * rowBytes];
+		new DataInputStream(new BufferedInputStream(file)).readFully(raw);
 
-			if (bookNr == DISTDEEPBOOK) {
-				byte b = (byte) file.read();
-				vals[i] = b;
-			}
+		int codes[] = new int[size];
+		byte v[] = (bookNr == DISTDEEPBOOK ? new byte[size] : null);
+		for (int i = 0, k = 0; i < size; i++) {
+			int temp = 0;
+			for (int j = 0; j < codeBytes; j++)
+				temp = (temp << 8) | (raw[k++] & 0xFF);
+			codes[i] = temp;
+
+			if (bookNr == DISTDEEPBOOK)
+				v[i] = raw[k++];
+		}
+		book = IntBuffer.wrap(codes);
+		vals = (v == null ? null : ByteBuffer.wrap(v));
+	}
+
+	/**
+	 * Memory-map the book from a file in the format written by {@link #writeMappedBook(File)}.
+	 * Nothing is copied to the heap: the buffers are views of the mapped file.
+	 * 
+	 * @param f
+	 *            the mapped file
+	 * @throws IOException
+	 *             if the file cannot be mapped or does not contain this book
+	 */
+	public void mapBook(File f) throws IOException {
+		int size = BOOKSIZE[bookNr];
+		long length = MAPPED_HEADER + 4L * size + (bookNr == DISTDEEPBOOK ? size : 0);
+		ByteBuffer buf;
+		try (RandomAccessFile raf = new RandomAccessFile(f, "r");
+				FileChannel ch = raf.getChannel()) {
+			if (ch.size() != length)
+				throw new IOException("[Book.mapBook] " + f + " has wrong length " + ch.size() + " (expected " + length + ")");
+			buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, length);	// the mapping stays valid after close
+		}
+		if (buf.getInt(0) != MAPPED_MAGIC || buf.getInt(4) != MAPPED_VERSION
+				|| buf.getInt(8) != bookNr || buf.getInt(12) != size)
+			throw new IOException("[Book.mapBook] " + f + " is not a mapped book with bookNr=" + bookNr);
+
+		book = slice(buf, MAPPED_HEADER, 4 * size).asIntBuffer();
+		vals = (bookNr == DISTDEEPBOOK ? slice(buf, MAPPED_HEADER + 4 * size, size) : null);
+	}
+
+	private static ByteBuffer slice(ByteBuffer buf, int offset, int length) {
+		ByteBuffer b = buf.duplicate();
+		b.position(offset);
+		b.limit(offset + length);
+		return b.slice();
+	}
+
+	/**
+	 * Write the book (read with {@link #readBook()}) to a file in the mapped format.
+	 * 
+	 * @param f
+	 *            the mapped file
+	 * @throws IOException
+	 */
+	public void writeMappedBook(File f) throws IOException {
+		int size = BOOKSIZE[bookNr];
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+			out.writeInt(MAPPED_MAGIC);
+			out.writeInt(MAPPED_VERSION);
+			out.writeInt(bookNr);
+			out.writeInt(size);
+			for (int i = 0; i < size; i++)
+				out.writeInt(book.get(i));
+			if (bookNr == DISTDEEPBOOK)
+				for (int i = 0; i < size; i++)
+					out.writeByte(vals.get(i));
 		}
 	}
 
@@ -118,9 +245,9 @@ public class Book {
 		while (step > 0) {
 			step = (step != 1 ? (step + (step & 1)) >> 1 : 0);
 			if (pos < BOOKSIZE[bookNr] && pos >= 0)
-				code = book[pos] & MASKPOSITION;
+				code = book.get(pos) & MASKPOSITION;
 			if (pos2 < BOOKSIZE[bookNr] && pos2 >= 0)
-				code2 = book[pos2] & MASKPOSITION;
+				code2 = book.get(pos2) & MASKPOSITION;
 
 			if (codedPos < code)
 				pos -= step;
@@ -128,9 +255,9 @@ public class Book {
 				pos += step;
 			else if (codedPos == code)
 				if (bookNr != DISTDEEPBOOK)
-					return (book[pos] & MASKVALUE);
+					return (book.get(pos) & MASKVALUE);
 				else
-					return vals[pos];
+					return vals.get(pos);
 
 			if (codedPosMirrored < code2)
 				pos2 -= step;
@@ -138,9 +265,9 @@ public class Book {
 				pos2 += step;
 			else if (codedPosMirrored == code2)
 				if (bookNr != DISTDEEPBOOK)
-					return (book[pos2] & MASKVALUE);
+					return (book.get(pos2) & MASKVALUE);
 				else
-					return vals[pos2];
+					return vals.get(pos2);
 		}
 		return 2; //Value was not found in database, must be a win for X
 	}
@@ -155,7 +282,7 @@ public class Book {
 	 * @return Value for the board
 	 */
 	public int getBoard(int index, int board[][]) {
-		int hCode = book[index];
+		int hCode = book.get(index);
 		int col = 0, row = 0;
 
 		long b1 = 0, b2 = 0;
@@ -182,8 +309,8 @@ public class Book {
 				board[col][row++] = 1;
 		}
 		if (bookNr != DISTDEEPBOOK)
-			return book[index] & MASKVALUE;
-		return vals[index];
+			return book.get(index) & MASKVALUE;
+		return vals.get(index);
 	}
 
 	/**
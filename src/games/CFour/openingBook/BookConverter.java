@@ -0,0 +1,42 @@
+package games.CFour.openingBook;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Convert the opening books from the resources {@code book.dat, bookDeep.dat, bookDeepDist.dat}
+ * to the fixed-width mapped format which {@link Book#load(int)} memory-maps.
+ * <p>
+ * Usage:
+ * <pre>
+ *    BookConverter [ outDir ] </pre>
+ * {@code outDir} defaults to {@link Book#MAPPED_DIR}. Books which are not available as resource are skipped.
+ *
+ * @see Book#writeMappedBook(File)
+ */
+public class BookConverter {
+
+	public static void main(String[] args) throws IOException {
+		File dir = new File(args.length > 0 ? args[0] : Book.MAPPED_DIR);
+		if (!dir.exists() && !dir.mkdirs())
+			throw new IOException("[BookConverter] Could not create directory " + dir);
+
+		for (int bookNr : new int[] { Book.NORMALBOOK, Book.DEEPBOOK, Book.DISTDEEPBOOK }) {
+			Book b = new Book(bookNr);
+			try {
+				b.openBook();
+			} catch (IOException e) {
+				System.out.println("[BookConverter] book " + bookNr + " not available, skipped");
+				continue;
+			}
+			try {
+				b.readBook();
+			} finally {
+				b.closeBook();
+			}
+			File f = new File(dir, Book.getMappedFile(bookNr).getName());
+			b.writeMappedBook(f);
+			System.out.println("[BookConverter] book " + bookNr + ": " + b.getBookSize() + " rows written to " + f);
+		}
+	}
+}
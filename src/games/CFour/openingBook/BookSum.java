@@ -5,7 +5,9 @@ import java.io.IOException;
 /**
  * @author Markus Thill
  * 
- *         Load all opening Books in this class.
+ *         Load all opening Books in this class. The books are loaded on first use. The getters are
+ *         synchronized, because several search threads may share one {@link BookSum}. All
+ *         {@link BookSum} objects share the same (read-only) books, see {@link Book#load(int)}.
  */
 public class BookSum {
 
@@ -16,14 +18,11 @@ public class BookSum {
 	public BookSum() {
 	}
 
-	public Book getOpeningBook() {
+	public synchronized Book getOpeningBook() {
 
 		if (openingBook == null) {
-			openingBook = new Book(Book.NORMALBOOK);
 			try {
-				openingBook.openBook();
-				openingBook.readBook();
-				openingBook.closeBook();
+				openingBook = Book.load(Book.NORMALBOOK);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -31,13 +30,10 @@ public class BookSum {
 		return openingBook;
 	}
 
-	public Book getOpeningBookDeep() {
+	public synchronized Book getOpeningBookDeep() {
 		if (openingBookDeep == null) {
-			openingBookDeep = new Book(Book.DEEPBOOK);
 			try {
-				openingBookDeep.openBook();
-				openingBookDeep.readBook();
-				openingBookDeep.closeBook();
+				openingBookDeep = Book.load(Book.DEEPBOOK);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -45,14 +41,10 @@ public class BookSum {
 		return openingBookDeep;
 	}
 
-	public Book getOpeningBookDeepDist() {
+	public synchronized Book getOpeningBookDeepDist() {
 		if (openingBookDeepDist == null) {
-			openingBookDeepDist = new Book(Book.DISTDEEPBOOK);
 			try {
-
-				openingBookDeepDist.openBook();
-				openingBookDeepDist.readBook();
-				openingBookDeepDist.closeBook();
+				openingBookDeepDist = Book.load(Book.DISTDEEPBOOK);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -11,6 +11,7 @@ import controllers.MaxN2Wrapper;
 import controllers.PlayAgent;
 import controllers.PlayAgent.AgentState;
 import games.CFour.ArenaTrainC4;
+import games.CFour.EvaluatorC4;
 import games.Hex.ArenaHex;
 import games.Hex.ArenaTrainHex;
 import games.Nim.ArenaNim2P;
@@ -59,6 +60,7 @@ public class GBGBatch {
 	protected static ArenaTrain t_Game;
 	protected static String filePath = null;
 	protected static String savePath = null;
+	protected static String ckptPath = null;
 	protected ArrayList<MTrain> mtList;
 	protected boolean doTrainEvaluation;
 	protected Measure oQ,oT;
@@ -69,12 +71,15 @@ public class GBGBatch {
 	/**
 	 * Syntax:
 	 * <pre>
-	 * GBGBatch gameName n agentFile [ trainNum maxGameNum csvFile scaPar0 scaPar1 scaPar2 ] </pre>
+	 * GBGBatch gameName n agentFile [ trainNum maxGameNum csvFile scaPar0 scaPar1 scaPar2 ] [ --parallel=P --seed=S ]
+	 *          [ --checkpoint=C --resume ]</pre>
 	 * <p>
 	 * Examples:
 	 * <pre>
 	 * GBGBatch Hex 1 td3new_10-6.agt.zip 1 50000 multiTest.csv 4
 	 * GBGBatch ConnectFour 1 TCL-EXP-NT3-al37-lam000-6000k-epsfin0.stub.agt.zip 10 6000000 multiTrain-noFA.csv
+	 * GBGBatch Othello 1 TCL3-fixed6_250k-lam05_P4_nPly2-FAm.agt.zip 10 250000 multiTrain.csv --parallel=5
+	 * GBGBatch Othello 1 TCL3-fixed6_250k-lam05_P4_nPly2-FAm.agt.zip 10 250000 multiTrain.csv --checkpoint=10000 --resume
 	 * </pre>         	
 	 * @param args <br>
 	 * 			[0] {@code gameName}: name of the game, suitable as subdirectory name in the 
@@ -109,6 +114,23 @@ public class GBGBatch {
 	 * <b>scaPar0,1,2</b> contain the scalable parameters of a game (if a game supports such parameters). Example: The game 
 	 * Hex has the board size (4,5,6,...) as scalable parameter scaPar0. If no scalable parameter is given as 
 	 * command line argument, the defaults from {@link #setDefaultScaPars(String)} apply.
+	 * <p>
+	 * The options may appear anywhere in {@code args}, they are not counted for the positions [0] - [8]:
+	 * <ul>
+	 * <li> <b>--parallel=P</b>: (only n=1) run up to P of the trainNum training runs concurrently
+	 * 		(see {@link XArenaFuncs#setMultiTrainParallel(int, Long)}). Default: 1 (one run after the other).
+	 * <li> <b>--seed=S</b>: run i of multiTrain seeds its agent with S+i (with or without --parallel). 
+	 * 		Default: no seed (with --parallel, the seed base is taken from the clock).
+	 * <li> <b>--checkpoint=C</b>: (only n=1, not with --parallel) write a checkpoint of the training every C 
+	 * 		games to {@code <csvName>.ckpt.bin} (see {@link XArenaFuncs#setCheckpoint(int, String, boolean)}). 
+	 * 		The checkpoint is deleted when multiTrain completes. Default: 0 (no checkpoints).
+	 * <li> <b>--resume</b>: (only n=1) continue from the checkpoint {@code <csvName>.ckpt.bin} of an interrupted 
+	 * 		run with the same arguments: the run number, the agent with its game counter, alpha, epsilon 
+	 * 		and weights, and the {@link MTrain} history so far are taken from the checkpoint. 
+	 * <li> <b>--abHelpers=H</b>: (only ConnectFour) the Alpha-Beta agents of the evaluators search with H 
+	 * 		Lazy-SMP helper threads (see {@link EvaluatorC4#AB_NUM_HELPERS}). This is faster, but the helper 
+	 * 		results depend on thread timing, so the evaluations are not reproducible. Default: 0 (single-threaded).
+	 * </ul>
 	 * 
 	 * @throws IOException if s.th. goes wrong when loading the agent or saving the csv file.
 	 */
@@ -116,7 +138,36 @@ public class GBGBatch {
 		t_Batch = new GBGBatch();
 		int trainNum = -1;
 		int maxGameNum = -1;
+		int parallel = 1;
+		Long seed = null;
+		int checkpoint = 0;
+		boolean resume = false;
 		String csvName = "";
+
+		// strip the options --parallel=P, --seed=S, --checkpoint=C, --resume and --abHelpers=H from args:
+		ArrayList<String> posArgs = new ArrayList<>();
+		for (String arg : args) {
+			try {
+				if (arg.startsWith("--parallel=")) {
+					parallel = Integer.parseInt(arg.substring("--parallel=".length()));
+				} else if (arg.startsWith("--seed=")) {
+					seed = Long.parseLong(arg.substring("--seed=".length()));
+				} else if (arg.startsWith("--checkpoint=")) {
+					checkpoint = Integer.parseInt(arg.substring("--checkpoint=".length()));
+				} else if (arg.equals("--resume")) {
+					resume = true;
+				} else if (arg.startsWith("--abHelpers=")) {
+					EvaluatorC4.AB_NUM_HELPERS = Integer.parseInt(arg.substring("--abHelpers=".length()));
+				} else {
+					posArgs.add(arg);
+				}
+			} catch(NumberFormatException e) {
+				e.printStackTrace(System.err);
+				System.err.println("[GBGBatch.main]: option '"+arg+"' has no valid number!");
+				System.exit(1);
+			}
+		}
+		args = posArgs.toArray(new String[0]);
 		
 		if (args.length<3) {
 			System.err.println("[GBGBatch.main] needs at least 3 arguments.");
@@ -153,8 +204,10 @@ public class GBGBatch {
 			if (args.length >= i + 7) scaPar[i] = args[i + 6];
 
 		t_Game = setupSelectedGame(selectedGame, scaPar);
+		t_Game.m_xfun.setMultiTrainParallel(parallel, seed);
 
 		setupPaths(args[2],args[5]);
+		t_Game.m_xfun.setCheckpoint(checkpoint, ckptPath, resume);
 
 		// start a batch run without any windows
 		switch(args[1]) {
@@ -293,6 +346,7 @@ public class GBGBatch {
 
 		savePath = csvFile.replaceAll("csv", "agt.zip");
 		savePath = strDir + "/" + savePath;
+		ckptPath = strDir + "/" + csvFile.replaceAll("\\.csv$", "") + TrainCheckpoint.EXTENSION;
 	}
 
 	public GBGBatch() {
@@ -752,9 +806,7 @@ public class GBGBatch {
 		gb.initialize();
 		while (pa.getGameNum()<pa.getMaxGameNum())
 		{
-			StateObservation so = soSelectStartState(gb,xab.oPar[n].getChooseStart01(), pa);
-
-			pa.trainAgent(so);
+			XArenaFuncs.trainEpisodes(pa, gb, xab.oPar[n], numEval, false);
 
 			gameNum = pa.getGameNum();
 			if (gameNum%numEval==0 ) { //|| gameNum==1) {
@@ -815,16 +867,6 @@ public class GBGBatch {
 		return pa;
 	}
 
-	private StateObservation soSelectStartState(GameBoard gb, boolean chooseStart01, PlayAgent pa) {
-		StateObservation so; 
-		if (chooseStart01) {
-			so = gb.chooseStartState(pa);
-		} else {
-			so = gb.getDefaultStartState();  
-		}					
-		return so;
-	}
-	
 	protected PlayAgent wrapAgent(int n, PlayAgent pa, ParOther oPar, ParMaxN mPar, StateObservation so) 
 	{
 		PlayAgent qa;
@@ -836,7 +878,7 @@ public class GBGBatch {
 //				qa = new MaxNWrapper(pa,mPar,oPar);		// mPar has useMaxNHashMap
 //				qa = new MaxNWrapper(pa,nply);			// always maxNHashMap==false    // OLD
 			} else {
-				qa = new ExpectimaxWrapper(pa,nply);
+				qa = new ExpectimaxWrapper(pa,nply,mPar.getMaxNUseHashmap());
 			}
 		} else {
 			qa=pa;			
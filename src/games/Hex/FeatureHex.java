@@ -25,7 +25,7 @@ public class FeatureHex implements Feature, Serializable {
             case 2:
                 return createFeatureVector2(stateObs.getPlayer(), stateObs.getBoard());
             case 3:
-                return createFeatureVector3(stateObs.getPlayer(), stateObs.getBoard());
+                return createFeatureVector3(stateObs.getPlayer(), stateObs.getBoard(), stateObs.getChains());
             case 99:
                 return createFeatureVector99(stateObs.getPlayer(), stateObs.getBoard());
             default:
@@ -121,8 +121,16 @@ public class FeatureHex implements Feature, Serializable {
      * @return A vector containing all the features described above
      */
     public double[] createFeatureVector3(int player, HexTile[][] board) {
-        double[] featureCurrentPlayer = HexUtils.getFeature3ForPlayer(board, HexConfig.PLAYER_ONE);
-        double[] featureOpponentPlayer = HexUtils.getFeature3ForPlayer(board, HexConfig.PLAYER_TWO);
+        return createFeatureVector3(player, board, HexUnionFind.fromBoard(board));
+    }
+
+    /**
+     * Same as {@link #createFeatureVector3(int, HexTile[][])}, with the chains of {@code board} given
+     * (see {@link StateObserverHex#getChains()}).
+     */
+    double[] createFeatureVector3(int player, HexTile[][] board, HexUnionFind chains) {
+        double[] featureCurrentPlayer = HexUtils.getFeature3ForPlayer(board, HexConfig.PLAYER_ONE, chains);
+        double[] featureOpponentPlayer = HexUtils.getFeature3ForPlayer(board, HexConfig.PLAYER_TWO, chains);
 
         //double[] featureMode1 = createFeatureVector1(player, board);
 
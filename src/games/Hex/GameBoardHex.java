@@ -82,8 +82,8 @@ public class GameBoardHex implements GameBoard {
 			m_gameGui.updateBoard(soHex, withReset, showValueOnGameboard);
 
         if (verbose) {
-            double featureVectorP1[] = HexUtils.getFeature3ForPlayer(soHex.getBoard(), PLAYER_ONE);
-            double featureVectorP2[] = HexUtils.getFeature3ForPlayer(soHex.getBoard(), PLAYER_TWO);
+            double featureVectorP1[] = HexUtils.getFeature3ForPlayer(soHex.getBoard(), PLAYER_ONE, soHex.getChains());
+            double featureVectorP2[] = HexUtils.getFeature3ForPlayer(soHex.getBoard(), PLAYER_TWO, soHex.getChains());
             System.out.println("---------------------------------");
             System.out.println("Longest chain for player BLACK: " + featureVectorP1[0]);
             System.out.println("Longest chain for player WHITE: " + featureVectorP2[0]);
@@ -0,0 +1,132 @@
+package games.Hex;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static games.Hex.HexConfig.*;
+
+/**
+ * Disjoint-set forest (union-find) of the chains on a Hex board. There is one node for each tile
+ * (node {@code i*BOARD_SIZE+j} for tile {@code [i,j]}) and four virtual nodes for the board edges, two for
+ * each player: a stone on an edge of its owner is joined with the node of that edge. So a player has won
+ * as soon as both of his edge nodes are in the same set, see {@link #hasWon(int)}.
+ * <p>
+ * Since only stones of the same player are joined, one forest holds the chains of both players. It is
+ * maintained incrementally by {@link #place(HexTile[][], int, int, int)} with union by size and path
+ * splitting, so each move costs almost constant time. The forest is a single {@code int[]}, a copy is one
+ * array clone.
+ */
+class HexUnionFind implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the 6 neighbors of tile [i,j] are [i+DI[k],j+DJ[k]] (see {@link HexUtils#isValidTile(int, int)})
+     */
+    private static final int[] DI = {-1, -1, 0, 0, 1, 1};
+    private static final int[] DJ = {0, 1, -1, 1, -1, 0};
+
+    private final int size;         // BOARD_SIZE
+    /**
+     * the parent of each node, or -(size of the set) for the root of a set
+     */
+    private final int[] parent;
+
+    /**
+     * An empty board: each node is a set of its own
+     */
+    HexUnionFind(int boardSize) {
+        size = boardSize;
+        parent = new int[boardSize * boardSize + 4];
+        Arrays.fill(parent, -1);
+    }
+
+    HexUnionFind(HexUnionFind other) {
+        size = other.size;
+        parent = other.parent.clone();
+    }
+
+    /**
+     * @return the chains of all stones on {@code board}
+     */
+    static HexUnionFind fromBoard(HexTile[][] board) {
+        HexUnionFind uf = new HexUnionFind(board.length);
+        for (int i = 0; i < board.length; i++)
+            for (int j = 0; j < board.length; j++)
+                if (board[i][j].getPlayer() != PLAYER_NONE)
+                    uf.place(board, i, j, board[i][j].getPlayer());
+        return uf;
+    }
+
+    /**
+     * Join the stone of {@code player} on tile [i,j] with the adjacent stones of {@code player} and the
+     * adjacent edges of {@code player}.
+     *
+     * @param board the board (its tile [i,j] may or may not be set to {@code player} already)
+     */
+    void place(HexTile[][] board, int i, int j, int player) {
+        int node = i * size + j;
+        for (int k = 0; k < 6; k++) {
+            int x = i + DI[k], y = j + DJ[k];
+            if (x >= 0 && x < size && y >= 0 && y < size && board[x][y].getPlayer() == player)
+                union(node, x * size + y);
+        }
+        // the edges of PLAYER_TWO are the first and last row, the edges of PLAYER_ONE are the first and last column
+        int c = (player == PLAYER_TWO) ? i : j;
+        if (c == 0) union(node, edgeNode(player, 1));
+        if (c == size - 1) union(node, edgeNode(player, 2));
+    }
+
+    /**
+     * @return true, if the edges of {@code player} are connected by a chain of his stones
+     */
+    boolean hasWon(int player) {
+        return find(edgeNode(player, 1)) == find(edgeNode(player, 2));
+    }
+
+    /**
+     * @param edge 1 or 2, the first or second edge of {@code player}
+     * @return the virtual node of this edge
+     */
+    int edgeNode(int player, int edge) {
+        return size * size + 2 * player + edge - 1;
+    }
+
+    /**
+     * @return the number of tiles (node numbers smaller than this are tiles, the others are edges)
+     */
+    int numTiles() {
+        return size * size;
+    }
+
+    /**
+     * @return the representative of the set of {@code node}
+     */
+    int find(int node) {
+        while (parent[node] >= 0) {
+            int p = parent[node];
+            if (parent[p] >= 0) parent[node] = parent[p];     // path splitting
+            node = p;
+        }
+        return node;
+    }
+
+    /**
+     * @return the number of nodes in the set of {@code node} (virtual edge nodes included)
+     */
+    int setSize(int node) {
+        return -parent[find(node)];
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b) return;
+        if (parent[a] > parent[b]) {        // the set of b is larger: make it a
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[a] += parent[b];
+        parent[b] = a;
+    }
+}
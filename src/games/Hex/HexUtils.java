@@ -4,6 +4,7 @@ import tools.Types;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 
@@ -324,6 +325,9 @@ public class HexUtils {
     /**
      * Checks if the chain that contains the last placed stone touches both edges.
      * Other chains, especially those by the opponent, don't have to be checked each time.
+     * <p>
+     * The chains are built here from scratch with a {@link HexUnionFind}. {@link StateObserverHex} maintains
+     * its chains incrementally and does not need this method.
      *
      * @param board          Game board array
      * @param lastPlacedTile Tile that the last stone was placed on
@@ -334,44 +338,9 @@ public class HexUtils {
             //System.out.println("lastPlacedTile was null");
             return null;
         }
-        int player = lastPlacedTile.getPlayer();
-        LinkedList<HexTile> tilesToVisit = new LinkedList<>();
-        ArrayList<HexTile> visitedTiles = new ArrayList<>();
-
-        boolean firstEdgeReached = false;
-        boolean secondEdgeReached = false;
-
-        tilesToVisit.add(lastPlacedTile);
-
-        while (tilesToVisit.size() > 0) {
-            HexTile currentTile = tilesToVisit.pop();
-            //Add all neighbors that belong to the player and have not been visited
-            ArrayList<HexTile> adjacentTiles = getAdjacentTiles(board, currentTile);
-            for (HexTile currentNeighbor : adjacentTiles) {
-                if (currentNeighbor.getPlayer() == player &&
-                        !tilesToVisit.contains(currentNeighbor) &&
-                        !visitedTiles.contains(currentNeighbor)) {
-                    tilesToVisit.add(currentNeighbor);
-                }
-            }
-
-            //Check if the tile is next to an edge belonging to the player
-            switch (isNextToEdge(currentTile)) {
-                case 1:
-                    firstEdgeReached = true;
-                    break;
-                case 2:
-                    secondEdgeReached = true;
-                    break;
-            }
-
-            if (firstEdgeReached && secondEdgeReached) {
-                return Types.WINNER.PLAYER_WINS;
-            }
-
-            visitedTiles.add(currentTile);
+        if (HexUnionFind.fromBoard(board).hasWon(lastPlacedTile.getPlayer())) {
+            return Types.WINNER.PLAYER_WINS;
         }
-
         return null;
     }
 
@@ -504,6 +473,20 @@ public class HexUtils {
      * @return Feature vector 3
      */
     public static double[] getFeature3ForPlayer(HexTile[][] board, int player) {
+        return getFeature3ForPlayer(board, player, HexUnionFind.fromBoard(board));
+    }
+
+    /**
+     * Same as {@link #getFeature3ForPlayer(HexTile[][], int)}, but with the chains of {@code board} given
+     * (e.g. those maintained by {@link StateObserverHex}). A chain is a set of the union-find with at least
+     * two nodes, i.e. the stones connected by direct connections, including the edges.
+     *
+     * @param board  Game board array
+     * @param player Player for whom to generate the features
+     * @param chains The chains of both players on {@code board}
+     * @return Feature vector 3
+     */
+    static double[] getFeature3ForPlayer(HexTile[][] board, int player, HexUnionFind chains) {
         LinkedList<HexTile> tilesToVisit = new LinkedList<>();
         ArrayList<HexTile> freeNeighborTiles = new ArrayList<>();
         ArrayList<ArrayList<HexTile>> connections = new ArrayList<>();
@@ -576,24 +559,39 @@ public class HexUtils {
 
         int longestChain = 0;
 
-        ArrayList<ArrayList<HexTile>> chains = generateChains(connections);
-        for (ArrayList<HexTile> chain : chains) {
-            int currentChainMin = Integer.MAX_VALUE;
-            int currentChainMax = Integer.MIN_VALUE;
-
-            for (HexTile currentTile : chain) {
-                if (player == HexConfig.PLAYER_TWO) {
-                    //For player two, x direction matters
-                    currentChainMin = Math.min(currentTile.getCoords().x, currentChainMin);
-                    currentChainMax = Math.max(currentTile.getCoords().x, currentChainMax);
-                } else if (player == PLAYER_ONE) {
-                    //For player one, y direction matters
-                    currentChainMin = Math.min(currentTile.getCoords().y, currentChainMin);
-                    currentChainMax = Math.max(currentTile.getCoords().y, currentChainMax);
+        //Extent of each chain, indexed by its representative in the union-find. For player two, x direction
+        //matters, for player one, y direction. The edges count with coordinate -1 and -2 (as their dummy tiles)
+        int numNodes = chains.numTiles() + 4;
+        int[] chainMin = new int[numNodes];
+        int[] chainMax = new int[numNodes];
+        Arrays.fill(chainMin, Integer.MAX_VALUE);
+        Arrays.fill(chainMax, Integer.MIN_VALUE);
+        for (int n = 0; n < numNodes; n++) {
+            int coord;
+            if (n < chains.numTiles()) {
+                HexTile tile = board[n / HexConfig.BOARD_SIZE][n % HexConfig.BOARD_SIZE];
+                if (tile.getPlayer() != player) {
+                    continue;
                 }
+                coord = (player == HexConfig.PLAYER_TWO) ? tile.getCoords().x : tile.getCoords().y;
+            } else if (n == chains.edgeNode(player, 1)) {
+                coord = edge1.getCoords().x;
+            } else if (n == chains.edgeNode(player, 2)) {
+                coord = edge2.getCoords().x;
+            } else {
+                continue;
+            }
+            if (chains.setSize(n) < 2) {
+                continue;       //A single stone without direct connection is no chain
+            }
+            int root = chains.find(n);
+            chainMin[root] = Math.min(coord, chainMin[root]);
+            chainMax[root] = Math.max(coord, chainMax[root]);
+        }
+        for (int n = 0; n < numNodes; n++) {
+            if (chainMin[n] <= chainMax[n]) {
+                longestChain = Math.max(longestChain, (chainMax[n] - chainMin[n]) + 1);
             }
-            longestChain = Math.max(longestChain, (currentChainMax - currentChainMin) + 1);
-            //System.out.println(chain);
         }
 
         int virtualConnections = 0;
@@ -606,7 +604,8 @@ public class HexUtils {
         while (iter.hasNext()) {
             ArrayList<HexTile> connection = iter.next();
             int connectionSize = connection.size();
-            if (connectionSize > 2 && areConnected(chains, connection.get(0), connection.get(2))) {
+            if (connectionSize > 2 && chains.find(node(chains, connection.get(0), player))
+                    == chains.find(node(chains, connection.get(2), player))) {
                 iter.remove();
                 continue;
             }
@@ -682,86 +681,19 @@ public class HexUtils {
     }
 
     /**
-     * Checks if there exists a chain that contains both tiles
-     *
-     * @param chains List of chains
-     * @param tile1  First tile
-     * @param tile2  Second tile
-     * @return True or False, depending on if the tiles are in the same chain or not
-     */
-    private static boolean areConnected(ArrayList<ArrayList<HexTile>> chains, HexTile tile1, HexTile tile2) {
-        for (ArrayList<HexTile> chain : chains) {
-            if (chain.contains(tile1) && chain.contains(tile2)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Generates a list of chains from the list of connections.
-     * Does so by stitching together all direct connections.
+     * Used for feature mode 3.
      *
-     * @param connections List of connections
-     * @return List of chains
+     * @param chains Union-find of the board
+     * @param tile   A tile of the board or one of the dummy edge tiles (-1,-1) and (-2,-2)
+     * @param player The player whose edges the dummy tiles stand for
+     * @return The node of the tile in {@code chains}
      */
-    private static ArrayList<ArrayList<HexTile>> generateChains(ArrayList<ArrayList<HexTile>> connections) {
-        ArrayList<ArrayList<HexTile>> chains = new ArrayList<>();
-
-        for (ArrayList<HexTile> connection : connections) {
-            if (connection.size() != 2) {
-                continue;
-            }
-
-            boolean matchFound = false;
-            for (ArrayList<HexTile> chain : chains) {
-                boolean tile1Contained = chain.contains(connection.get(0));
-                boolean tile2Contained = chain.contains(connection.get(1));
-
-                if (tile1Contained || tile2Contained) {
-                    matchFound = true;
-                    boolean merged = false;
-                    if (!tile1Contained) {
-                        for (ArrayList<HexTile> chain2 : chains) {
-                            if (chain2.contains(connection.get(0))) {
-                                chain.removeAll(chain2);
-                                chain.addAll(chain2);
-                                chain2.removeAll(chain);
-                                merged = true;
-                            }
-                        }
-                        if (!merged) {
-                            chain.add(connection.get(0));
-                        }
-                    } else if (!tile2Contained) {
-                        for (ArrayList<HexTile> chain2 : chains) {
-                            if (chain2.contains(connection.get(1))) {
-                                chain.removeAll(chain2);
-                                chain.addAll(chain2);
-                                chain2.removeAll(chain);
-                                merged = true;
-                            }
-                        }
-                        if (!merged) {
-                            chain.add(connection.get(1));
-                        }
-                    }
-                }
-            }
-
-            if (!matchFound) {
-                ArrayList<HexTile> newChain = new ArrayList<>();
-                newChain.add(connection.get(0));
-                newChain.add(connection.get(1));
-                chains.add(newChain);
-            }
+    private static int node(HexUnionFind chains, HexTile tile, int player) {
+        int x = tile.getCoords().x;
+        if (x < 0) {
+            return chains.edgeNode(player, -x);
         }
-
-        //The above code can leave empty chains in the array list, remove them
-        chains.removeIf(chain -> chain.size() == 0);
-
-        return chains;
+        return x * HexConfig.BOARD_SIZE + tile.getCoords().y;
     }
 
     /**
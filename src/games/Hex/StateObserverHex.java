@@ -4,6 +4,7 @@ import games.ObserverBase;
 import games.StateObservation;
 import tools.Types;
 import tools.Types.ACTIONS;
+import tools.Zobrist;
 
 import java.util.ArrayList;
 
@@ -36,7 +37,9 @@ import static games.Hex.HexConfig.*;
  * </pre>
  * Player 0 (Black) has the first move. The white borders are below the first and above the 
  * last row (rows = cells with the same 1st index). The black borders are from lowest to highest row.
- * 
+ * <p>
+ * The chains of both players are kept in a {@link HexUnionFind}, which is updated in {@link #advance(ACTIONS)}
+ * with the new stone. So the check for a winner is a comparison of the sets of two edge nodes.
  */
 public class StateObserverHex extends ObserverBase implements StateObservation {
     /**
@@ -49,10 +52,13 @@ public class StateObserverHex extends ObserverBase implements StateObservation {
     private HexTile[][] board;
     private HexTile lastUpdatedTile;
     private ArrayList<Types.ACTIONS> availableActions;
+    private long m_hash = 0;		// Zobrist key, 0: not yet computed (see hashKey())
+    private transient HexUnionFind chains;	// null: not yet built (see getChains())
 
     public StateObserverHex() {
         board = defaultGameBoard();
         currentPlayer = HexConfig.PLAYER_ONE;
+        chains = new HexUnionFind(HexConfig.BOARD_SIZE);
         setAvailableActions();
     }
 
@@ -83,7 +89,10 @@ public class StateObserverHex extends ObserverBase implements StateObservation {
         board = new HexTile[HexConfig.BOARD_SIZE][HexConfig.BOARD_SIZE];
         copyTable(other.board);
         this.currentPlayer =other.currentPlayer;
+        this.m_hash = other.m_hash;
         this.lastUpdatedTile = other.lastUpdatedTile;
+        if (other.chains!=null)
+            this.chains = new HexUnionFind(other.chains);
 		if (other.availableActions!=null)	// this check is needed when loading older logs
 			this.availableActions = (ArrayList<ACTIONS>) other.availableActions.clone();
 					// note that clone does only clone the ArrayList, but not the contained ACTIONS, they are 
@@ -141,13 +150,14 @@ public class StateObserverHex extends ObserverBase implements StateObservation {
 
     /**
      * Uses information about the tile on which the last stone has been placed to determine if the chain containing
-     * that stone touches both game board edges that have to be connected. Actual calculation is done in HexUtils.
+     * that stone touches both game board edges that have to be connected. Actual calculation is done in 
+     * {@link HexUnionFind#hasWon(int)}.
      *
      * @return ID of the player who won the game. ID of HexConfig.PLAYER_NONE if game is not over.
      */
     private int determineWinner() {
-        Types.WINNER winner = HexUtils.getWinner(getBoard(), getLastUpdatedTile());
-        if (winner == Types.WINNER.PLAYER_WINS) {
+        HexTile lastTile = getLastUpdatedTile();
+        if (lastTile != null && getChains().hasWon(lastTile.getPlayer())) {
             //Reverse winners, since current player changes after the winning tile was placed
             return (this.getPlayer() == PLAYER_ONE ? PLAYER_ONE : PLAYER_TWO);
         }
@@ -259,9 +269,22 @@ public class StateObserverHex extends ObserverBase implements StateObservation {
             return;
         }
         board[i][j].setPlayer(currentPlayer);
+        getChains().place(board, i, j, currentPlayer);
+        if (m_hash!=0) m_hash ^= Zobrist.key(actionInt, currentPlayer) ^ Zobrist.side(PLAYER_ONE) ^ Zobrist.side(PLAYER_TWO);
 
         lastUpdatedTile = board[i][j];
-        setAvailableActions();            // IMPORTANT: adjust the available actions (have reduced by one)
+        // IMPORTANT: adjust the available actions (have reduced by one). We build a new list without actionInt 
+        // (instead of scanning the board with setAvailableActions()), but do not modify the old list, since 
+        // callers may still hold it.
+        if (availableActions == null) {    // older logs
+            setAvailableActions();
+        } else {
+            ArrayList<ACTIONS> acts = new ArrayList<>(availableActions.size());
+            for (ACTIONS act : availableActions) {
+                if (act.toInt() != actionInt) acts.add(act);
+            }
+            availableActions = acts;
+        }
 		super.incrementMoveCounter();
 
         // set up player for next advance()
@@ -355,10 +378,38 @@ public class StateObserverHex extends ObserverBase implements StateObservation {
         return currentPlayer;
     }
 
+    /**
+     * @return the Zobrist key of this state, computed on first call and then updated incrementally in 
+     * 		{@link #advance(Types.ACTIONS)}
+     */
+    @Override
+    public long hashKey() {
+        if (m_hash == 0) {
+            long h = Zobrist.side(currentPlayer);
+            for (int i = 0; i < HexConfig.BOARD_SIZE; i++) {
+                for (int j = 0; j < HexConfig.BOARD_SIZE; j++) {
+                    int p = board[i][j].getPlayer();
+                    if (p != HexConfig.PLAYER_NONE) h ^= Zobrist.key(i * HexConfig.BOARD_SIZE + j, p);
+                }
+            }
+            m_hash = h;
+        }
+        return m_hash;
+    }
+
     public HexTile[][] getBoard() {
         return board;
     }
 
+    /**
+     * @return the chains of both players (built from the board, if this state was deserialized)
+     */
+    HexUnionFind getChains() {
+        if (chains == null)
+            chains = HexUnionFind.fromBoard(board);
+        return chains;
+    }
+
 
     /**
      * @return The tile on which the last stone was placed
@@ -95,6 +95,16 @@ public class XNTupleFuncsHex extends XNTupleBase implements XNTupleFuncs, Serial
         return symmetries;
     }
 
+    /**
+     * The symmetries of Hex are pure cell permutations.
+     * 
+     * @return {@code perm[s][c]}, see {@link XNTupleFuncs#symmetryPermutations()}
+     */
+    @Override
+    public int[][] symmetryPermutations() {
+        return cellPermutations();
+    }
+
 	/**
 	 * Given a certain board array of symmetric (equivalent) states for state <b>{@code so}</b> 
 	 * and a certain action to be taken in <b>{@code so}</b>, 
@@ -5,6 +5,8 @@ import tools.Types;
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This class is responsible for logging games
@@ -15,16 +17,21 @@ import java.util.*;
  */
 public class LogManager {
     public boolean loggingEnabled = false;  //enables or disables logging
-    public boolean advancedLogging = true; //if advancedLogging is enabled every new logEntry is saved to a temporary file
-                                           //the log is not lost when a crash occurs
-                                           //call generateLogSessionContainerFromFile(path of temp folder) to combine all temporary files and generate the log
+    public boolean advancedLogging = true; //if advancedLogging is enabled every new logEntry is appended to a temporary session file
+                                           //the log is not lost when a crash occurs (see LogSessionFile)
+                                           //call generateLogSessionContainerFromFile(path of session file) to generate the log
+    public boolean asyncWriter = false;    //advancedLogging: write the session files in a background thread
+                                           //(faster, but the entries not yet written are lost when a crash occurs)
+    public int snapshotInterval = 50;      //advancedLogging: every snapshotInterval entries the full StateObservation
+                                           //is saved, the other entries save only the action
     public boolean verbose = true;
 
     public String filePath = "logs";
     public String tempPath = "logs\\temp";
     private String subDir = null;
 
-    private HashMap<Integer, Integer> counter = new HashMap<>(); //saves a counter for each sessionid
+    private HashMap<Integer, LogSessionFile.Writer> writers = new HashMap<>(); //saves a session file writer for each sessionid
+    private ExecutorService writerThread = null;    //for asyncWriter, created on first use
     private HashMap<Integer, List<LogContainer>> simpleLoggingContainers = new HashMap<>();
 
     /**
@@ -63,10 +70,8 @@ public class LogManager {
     public void addLogEntry(Types.ACTIONS action, StateObservation stateObservation, int sessionid) {
         //sessionid = -1 => session is invalid, started while logging was disabled
         if(loggingEnabled && sessionid != -1) {
-            LogContainer logContainer = new LogContainer(action, stateObservation);
-
             if(advancedLogging) {
-                if(!counter.containsKey(sessionid)) {
+                if(!writers.containsKey(sessionid)) {
                 	// this should normally not happen. It happens only if addLogEntry is
                 	// called without a prior newLoggingSession. We print out a warning and 
                 	// return. (This is less disruptive than throwing an exception.)
@@ -76,12 +81,7 @@ public class LogManager {
                 }
 
                 try {
-                    FileOutputStream fos = new FileOutputStream(tempPath + "\\temp_" + sessionid + "\\" + counter.get(sessionid) + ".temp");
-                    ObjectOutputStream oos = new ObjectOutputStream(fos);
-                    oos.writeObject(logContainer);
-                    fos.close();
-                    oos.close();
-                    counter.put(sessionid, counter.get(sessionid) + 1);
+                    writers.get(sessionid).add(action, stateObservation);
                 } catch (IOException ignore) {
                     ignore.printStackTrace();
                 }
@@ -95,7 +95,7 @@ public class LogManager {
                     //throw new RuntimeException("Invalid Session ID");
                 }
 
-                simpleLoggingContainers.get(sessionid).add(logContainer);
+                simpleLoggingContainers.get(sessionid).add(new LogContainer(action, stateObservation));
             }
         }
     }
@@ -113,7 +113,7 @@ public class LogManager {
         if(loggingEnabled) {
             sessionid = 0;
             if(advancedLogging) {
-                while (counter.containsKey(sessionid)) {
+                while (writers.containsKey(sessionid)) {
                     sessionid++;
                 }
             } else {
@@ -122,28 +122,29 @@ public class LogManager {
                 }
             }
 
-            LogContainer logContainer = new LogContainer(null, stateObservation.copy());
-
             if(advancedLogging) {
-                while(tools.Utils.checkAndCreateFolder(tempPath + "\\temp_" + sessionid)) {
+                while(new File(getSessionFileName(sessionid)).exists() || new File(tempPath + "\\temp_" + sessionid).exists()) {
                     sessionid++;
                 }
 
-                counter.put(sessionid, 0);
-
                 try {
-                    FileOutputStream fos = new FileOutputStream(tempPath + "\\temp_" + sessionid + "\\" + counter.get(sessionid) + ".temp");
-                    ObjectOutputStream oos = new ObjectOutputStream(fos);
-                    oos.writeObject(logContainer);
-                    fos.close();
-                    oos.close();
-                    counter.put(sessionid, counter.get(sessionid) + 1);
+                    if (asyncWriter && writerThread == null) {
+                        writerThread = Executors.newSingleThreadExecutor(r -> {
+                            Thread t = new Thread(r, "LogManager");
+                            t.setDaemon(true);
+                            return t;
+                        });
+                    }
+                    LogSessionFile.Writer writer = new LogSessionFile.Writer(new File(getSessionFileName(sessionid)),
+                            snapshotInterval, asyncWriter ? writerThread : null);
+                    writers.put(sessionid, writer);
+                    writer.add(null, stateObservation);
                 } catch (IOException ignore) {
                     ignore.printStackTrace();
                 }
             } else {
                 simpleLoggingContainers.put(sessionid, new ArrayList<>());
-                simpleLoggingContainers.get(sessionid).add(logContainer);
+                simpleLoggingContainers.get(sessionid).add(new LogContainer(null, stateObservation.copy()));
             }
 
             if(verbose) {
@@ -167,12 +168,16 @@ public class LogManager {
                 System.out.println("LogManager: Ending logging session with id: " + sessionid);
             }
             if(advancedLogging) {
-                if(!counter.containsKey(sessionid)) {
+                if(!writers.containsKey(sessionid)) {
                     throw new RuntimeException("Invalid Session ID");
                 }
 
-                logSessionContainer = generateLogSessionContainerFromFile(tempPath + "\\temp_" + sessionid);
-                counter.remove(sessionid);
+                try {
+                    writers.remove(sessionid).close();
+                } catch (IOException ignore) {
+                    ignore.printStackTrace();
+                }
+                logSessionContainer = generateLogSessionContainerFromFile(getSessionFileName(sessionid));
             } else {
                 if(!simpleLoggingContainers.containsKey(sessionid)) {
                     throw new RuntimeException("Invalid Session ID");
@@ -190,16 +195,32 @@ public class LogManager {
     }
 
     /**
-     * generates a LogSessionContainer from a directory that contains multiple files with one LogContainer each
+     * @return the session file for advanced logging
+     */
+    private String getSessionFileName(int sessionid) {
+        return tempPath + "\\temp_" + sessionid + LogSessionFile.EXTENSION;
+    }
+
+    /**
+     * generates a LogSessionContainer from a session file (see {@link LogSessionFile}) or from a directory that 
+     * contains multiple files with one LogContainer each (the temporary files of older versions). The file or 
+     * directory is deleted afterwards.
      *
-     * @param path the path of the directory
+     * @param path the path of the session file or directory
      * @return the LogSessionContainer
      */
     public LogSessionContainer generateLogSessionContainerFromFile(String path) {
         LogSessionContainer logSessionContainer = new LogSessionContainer();
 
         File sessionFolder = new File(path);
-        if (sessionFolder.exists()) {
+        if (sessionFolder.isFile()) {
+            try {
+                logSessionContainer = LogSessionFile.read(sessionFolder);
+                sessionFolder.delete();
+            } catch (IOException ignore) {
+                ignore.printStackTrace();
+            }
+        } else if (sessionFolder.exists()) {
             int length = sessionFolder.listFiles().length;
             for (int i = 0; i < length; i++) {
                 try {
@@ -285,7 +306,7 @@ public class LogManager {
 //    }
 
     public boolean running() {
-        if(counter.size() > 0 || simpleLoggingContainers.size() > 0) {
+        if(writers.size() > 0 || simpleLoggingContainers.size() > 0) {
             return true;
         } else {
             return false;
@@ -301,52 +322,3 @@ public class LogManager {
     }
 
 }
-
-/**
- * The LogContainer is used to save a log entry, a log entry is a pair of an Action and the new StateObservation
- *
- * @author Johannes Kutsch, 30.04.2017
- */
-class LogContainer implements Serializable {
-    public Types.ACTIONS action;
-    public StateObservation stateObservation;
-
-	/**
-	 * change the version ID for serialization only if a newer version is no longer 
-	 * compatible with an older one (older .gamelog containing this object will become 
-	 * unreadable or you have to provide a special version transformation)
-	 */
-	private static final long serialVersionUID = 1L;
-
-    public LogContainer(Types.ACTIONS action, StateObservation stateObservation) {
-        this.action = action;
-        this.stateObservation = stateObservation;
-    }
-}
-
-/**
- * The LogSessionContainer is used to save a logsession, a log session consists of multiple Actions and StateObservations
- *
- * @author Johannes Kutsch, 30.04.2017
- */
-class LogSessionContainer implements Serializable {
-    public List<Types.ACTIONS> actions = new ArrayList<>();
-    public List<StateObservation> stateObservations = new ArrayList<>();
-
-	/**
-	 * change the version ID for serialization only if a newer version is no longer 
-	 * compatible with an older one (older .gamelog containing this object will become 
-	 * unreadable or you have to provide a special version transformation)
-	 */
-	private static final long serialVersionUID = 1L;
-
-    public void addLogEntry(LogContainer logContainer) {
-        actions.add(logContainer.action);
-        stateObservations.add(logContainer.stateObservation);
-    }
-
-    public void addLogEntry(Types.ACTIONS action, StateObservation stateObservation) {
-        actions.add(action);
-        stateObservations.add(stateObservation);
-    }
-}
\ No newline at end of file
@@ -99,10 +99,10 @@ public class LogManagerGUI {
 
         jMICompile.addActionListener((e) ->
         {
-            //compiles a temp log to .gamelog
+            //compiles a temp log (a session file or a folder of older versions) to .gamelog
             JFileChooser fileChooser = new JFileChooser(logManager.filePath + "\\temp");
-            fileChooser.setFileFilter(new FileNameExtensionFilter("Folder", "dir"));
-            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            fileChooser.setFileFilter(new FileNameExtensionFilter("Session file or folder", LogSessionFile.EXTENSION.substring(1)));
+            fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
             fileChooser.setAcceptAllFileFilterUsed(false);
             Action details = fileChooser.getActionMap().get("viewTypeDetails");
             details.actionPerformed(null);
@@ -154,7 +154,7 @@ public class LogManagerGUI {
             }
             JFileChooser fileChooser = new JFileChooser(logPath);
 
-            fileChooser.setFileFilter(new FileNameExtensionFilter(gameName + " Gamelog", "gamelog"));
+            fileChooser.setFileFilter(new FileNameExtensionFilter(gameName + " Gamelog", "gamelog", LogSessionFile.EXTENSION.substring(1)));
             Action details = fileChooser.getActionMap().get("viewTypeDetails");
             details.actionPerformed(null);
 
@@ -163,14 +163,23 @@ public class LogManagerGUI {
             if (succes == JFileChooser.APPROVE_OPTION) {
                 File selectedFile = fileChooser.getSelectedFile();
                 try {
-                    FileInputStream fis = new FileInputStream(selectedFile);
-                    ObjectInputStream ois = new ObjectInputStream(fis);
-                    LogSessionContainer tempLog = (LogSessionContainer) ois.readObject();
-                    fis.close();
-                    ois.close();
+                    LogSessionContainer tempLog;
+                    if (selectedFile.getName().endsWith(LogSessionFile.EXTENSION)) {
+                        //a temporary session file of advanced logging, e.g. left over after a crash
+                        tempLog = LogSessionFile.read(selectedFile);
+                    } else {
+                        FileInputStream fis = new FileInputStream(selectedFile);
+                        ObjectInputStream ois = new ObjectInputStream(fis);
+                        tempLog = (LogSessionContainer) ois.readObject();
+                        fis.close();
+                        ois.close();
+                    }
 
                     //check if gameboard and log have the same StateObserver Type
-                    if(!tempLog.stateObservations.get(0).getClass().equals(gameBoard.getStateObs().getClass())) {
+                    if(tempLog.stateObservations.isEmpty()) {
+                        JOptionPane.showMessageDialog(null, "The log is empty.");
+                        return;
+                    } else if(!tempLog.stateObservations.get(0).getClass().equals(gameBoard.getStateObs().getClass())) {
                         JOptionPane.showMessageDialog(null, "Please only select logs for the current gameboard.");
                         return;
                     } else {
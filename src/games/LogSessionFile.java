@@ -0,0 +1,279 @@
+package games;
+
+import tools.Types;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * The append-only session file of {@link LogManager} (advanced logging): all log entries of one logging session
+ * go into one file, which is written record by record while the game is running.
+ * <p>
+ * File format: a header (int {@link #MAGIC}, int {@link #VERSION}) followed by records. Each record is
+ * <pre>
+ *    int length, int crc32, byte[length] body </pre>
+ * with the body
+ * <ul>
+ * <li> {@link #SNAPSHOT}: int action, the serialized {@link StateObservation}
+ * <li> {@link #ACTION}: int action, the stored action info (see {@link ObserverBase#storeBestActionInfo(Types.ACTIONS, double[])})
+ * </ul>
+ * (action -1: no action, i.e. the start state). An {@link #ACTION} record is replayed by advancing a copy of
+ * the previous state. A {@link #SNAPSHOT} is written for the first entry, every {@code snapshotInterval} entries,
+ * for each entry of a nondeterministic game and whenever the replay would not give the logged board (e.g. if
+ * the game board was changed between two entries).
+ * <p>
+ * A crash of the program leaves at most the last record incomplete. {@link #read(File)} stops at the first
+ * incomplete or corrupt record and returns the entries before it.
+ *
+ * @see LogManager
+ */
+class LogSessionFile {
+    static final int MAGIC = 0x47424C47;    // "GBLG"
+    static final int VERSION = 1;
+    static final byte SNAPSHOT = 1;
+    static final byte ACTION = 2;
+
+    /**
+     * the file extension of session files
+     */
+    static final String EXTENSION = ".gbglog";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Read a session file.
+     *
+     * @param file the session file
+     * @return the log session with all complete entries of {@code file}
+     * @throws IOException if {@code file} cannot be read or is no session file
+     */
+    static LogSessionContainer read(File file) throws IOException {
+        LogSessionContainer logSessionContainer = new LogSessionContainer();
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            if (dis.readInt() != MAGIC)
+                throw new IOException(file + " is no session log file");
+            int version = dis.readInt();
+            if (version != VERSION)
+                throw new IOException(file + " has unknown version " + version);
+
+            StateObservation last = null;
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] body;
+                try {
+                    int length = dis.readInt();
+                    int checksum = dis.readInt();
+                    if (length <= 0) break;
+                    body = new byte[length];
+                    dis.readFully(body);
+                    crc.reset();
+                    crc.update(body, 0, length);
+                    if ((int) crc.getValue() != checksum) break;
+                } catch (EOFException e) {
+                    break;      // end of file or incomplete record
+                }
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(body));
+                byte type = rec.readByte();
+                int a = rec.readInt();
+                Types.ACTIONS action = (a == -1) ? null : new Types.ACTIONS(a);
+                StateObservation so;
+                if (type == SNAPSHOT) {
+                    try (ObjectInputStream ois = new ObjectInputStream(rec)) {
+                        so = (StateObservation) ois.readObject();
+                    } catch (ClassNotFoundException e) {
+                        throw new IOException("Class not found: " + e.getMessage(), e);
+                    }
+                } else if (type == ACTION && last != null && action != null) {
+                    so = last.copy();
+                    so.advance(action);
+                    readStoredInfo(rec, so);
+                } else {
+                    break;
+                }
+                logSessionContainer.addLogEntry(action, so);
+                last = so;
+            }
+        }
+        return logSessionContainer;
+    }
+
+    private static void writeStoredInfo(DataOutputStream dos, StateObservation so) throws IOException {
+        if (!(so instanceof ObserverBase) || ((ObserverBase) so).storedValues == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        ObserverBase ob = (ObserverBase) so;
+        dos.writeInt(ob.storedValues.length);
+        for (int i = 0; i < ob.storedValues.length; i++) {
+            dos.writeInt(ob.storedActions[i].toInt());
+            dos.writeDouble(ob.storedValues[i]);
+        }
+        dos.writeBoolean(ob.storedActBest != null);
+        if (ob.storedActBest != null)
+            dos.writeInt(ob.storedActBest.toInt());
+        dos.writeDouble(ob.storedMaxScore);
+    }
+
+    private static void readStoredInfo(DataInputStream dis, StateObservation so) throws IOException {
+        int n = dis.readInt();
+        if (!(so instanceof ObserverBase)) return;
+        ObserverBase ob = (ObserverBase) so;
+        if (n < 0) {            // the logged state had no stored action info
+            ob.storedActions = null;
+            ob.storedValues = null;
+            ob.storedActBest = null;
+            return;
+        }
+        ob.storedActions = new Types.ACTIONS[n];
+        ob.storedValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            ob.storedActions[i] = new Types.ACTIONS(dis.readInt());
+            ob.storedValues[i] = dis.readDouble();
+        }
+        ob.storedActBest = dis.readBoolean() ? new Types.ACTIONS(dis.readInt()) : null;
+        ob.storedMaxScore = dis.readDouble();
+    }
+
+    /**
+     * Writes the records of one logging session. With an executor, the records are written in the background
+     * (all records pending at a time with one write), otherwise each record is written before
+     * {@link #add(Types.ACTIONS, StateObservation)} returns.
+     */
+    static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int snapshotInterval;
+        private final ExecutorService executor;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        private final CRC32 crc = new CRC32();
+        private final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+        private volatile IOException error = null;
+        private StateObservation last = null;   // copy of the last logged state
+        private int numEntries = 0;
+
+        /**
+         * @param file             the session file (created, or appended to if it exists)
+         * @param snapshotInterval write a full state every {@code snapshotInterval} entries
+         * @param executor         a single-thread executor for background writing, or null
+         */
+        Writer(File file, int snapshotInterval, ExecutorService executor) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            this.snapshotInterval = Math.max(1, snapshotInterval);
+            this.executor = executor;
+            if (channel.size() == 0) {
+                DataOutputStream dos = new DataOutputStream(bos);
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                submit(bos.toByteArray());
+            }
+        }
+
+        /**
+         * Append a log entry.
+         *
+         * @param action the action that was used to advance {@code so} (null for the start state)
+         * @param so     the advanced state
+         */
+        void add(Types.ACTIONS action, StateObservation so) throws IOException {
+            if (error != null) throw error;
+            boolean snapshot = (last == null || numEntries % snapshotInterval == 0 || action == null
+                    || !so.isDeterministicGame());
+            if (!snapshot) {
+                StateObservation replay = last.copy();
+                replay.advance(action);
+                snapshot = !replay.stringDescr().equals(so.stringDescr());
+            }
+
+            bos.reset();
+            DataOutputStream dos = new DataOutputStream(bos);
+            dos.writeInt(0);                // length and crc, see below
+            dos.writeInt(0);
+            dos.writeByte(snapshot ? SNAPSHOT : ACTION);
+            dos.writeInt(action == null ? -1 : action.toInt());
+            if (snapshot) {
+                ObjectOutputStream oos = new ObjectOutputStream(dos);
+                oos.writeObject(so);
+                oos.flush();
+            } else {
+                writeStoredInfo(dos, so);
+            }
+            dos.flush();
+            byte[] record = bos.toByteArray();
+            crc.reset();
+            crc.update(record, 8, record.length - 8);
+            ByteBuffer.wrap(record).putInt(record.length - 8).putInt((int) crc.getValue());
+            submit(record);
+
+            last = so.copy();
+            numEntries++;
+        }
+
+        private void submit(byte[] record) throws IOException {
+            if (executor == null) {
+                write(ByteBuffer.wrap(record));
+            } else {
+                pending.add(record);
+                if (drainScheduled.compareAndSet(false, true))
+                    executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * write all pending records (in the executor thread)
+         */
+        private void drain() {
+            drainScheduled.set(false);
+            try {
+                buffer.clear();
+                for (byte[] record = pending.poll(); record != null; record = pending.poll()) {
+                    if (record.length > buffer.remaining()) {
+                        buffer.flip();
+                        write(buffer);
+                        buffer.clear();
+                    }
+                    if (record.length > buffer.capacity()) {
+                        write(ByteBuffer.wrap(record));
+                    } else {
+                        buffer.put(record);
+                    }
+                }
+                buffer.flip();
+                write(buffer);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        private void write(ByteBuffer buf) throws IOException {
+            while (buf.hasRemaining())
+                channel.write(buf);
+        }
+
+        /**
+         * Wait until all records are written and close the file.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (executor != null)
+                    executor.submit(this::drain).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            } finally {
+                channel.close();
+            }
+            if (error != null) throw error;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.ListIterator;
@@ -54,7 +55,7 @@ import tools.Types;
  *  @see XArenaFuncs#multiTrain(String, XArenaButtons, GameBoard)
  *  @see games.PStats
  */
-public class MTrain {
+public class MTrain implements Serializable {
 	public int i;				// number of training runs during multiTrain
 	public int gameNum;			// number of training games (episodes) during a run
 	public double evalQ;		// quick eval score
@@ -67,6 +68,8 @@ public class MTrain {
 	public double userValue2=0.0;
 	//DecimalFormat frm1 = new DecimalFormat("#0.0000");
 	static String sep = ", ";
+
+	private static final long serialVersionUID = 1L;
 	
 	MTrain(int i, int gameNum, double evalQ, double evalT, /*double evalM,*/ 
 			long actionNum, long trnMoveNum) {
@@ -8,6 +8,7 @@ import games.ObserverBase;
 import games.StateObservation;
 import tools.Types;
 import tools.Types.ACTIONS;
+import tools.Zobrist;
 
 /**
  * Class StateObserverNim observes the current state of the game Nim <b>for 2 players</b> and it is the 
@@ -25,6 +26,7 @@ public class StateObserverNim extends ObserverBase implements StateObservation {
 	protected int m_player;		// player who makes the next move (0 or 1)
 	protected ArrayList<Types.ACTIONS> availableActions = new ArrayList();	// holds all available actions
 	protected boolean SORT_IT = false;		// experimental
+	private long m_hash = 0;				// Zobrist key, 0: not yet computed (see hashKey())
     
 	/**
 	 * change the version ID for serialization only if a newer version is no longer 
@@ -56,6 +58,7 @@ public class StateObserverNim extends ObserverBase implements StateObservation {
 		this.m_heap = other.m_heap.clone();
 		this.m_player = other.m_player;
 		this.SORT_IT = other.SORT_IT;
+		this.m_hash = other.m_hash;
 		if (other.availableActions!=null)	// this check is needed when loading older logs
 			this.availableActions = (ArrayList<ACTIONS>) other.availableActions.clone();
 				// Note that clone does only clone the ArrayList, but not the contained ACTIONS, they are 
@@ -168,14 +171,19 @@ public class StateObserverNim extends ObserverBase implements StateObservation {
 		assert subtractor <= NimConfig.MAX_MINUS : "Oops, cannot take more than "+NimConfig.MAX_MINUS+" items from heap!";
 		assert m_heap[heap]>=subtractor : "Oops, heap "+heap+" has not "+subtractor+" items left!"; 		
 		
+		if (m_hash!=0) m_hash ^= Zobrist.key(heap, m_heap[heap]) ^ Zobrist.key(heap, m_heap[heap]-subtractor);
 		m_heap[heap] -= subtractor;
     	
-		if (SORT_IT) Arrays.sort(m_heap);	// still experimental
+		if (SORT_IT) {
+			Arrays.sort(m_heap);	// still experimental
+			m_hash = 0;
+		}
 		
     	setAvailableActions(); 			// IMPORTANT: adjust the available actions (have reduced by one)
     	
     	// set up player for next advance()
     	int n=this.getNumPlayers();
+		if (m_hash!=0) m_hash ^= Zobrist.side(m_player) ^ Zobrist.side((m_player+1) % n);
 		m_player = (m_player+1) % n;  // many-player games: 0,1,...,n-1,0,1,...
 		
 		super.incrementMoveCounter();
@@ -232,6 +240,20 @@ public class StateObserverNim extends ObserverBase implements StateObservation {
 		return availableActions.get(i);
 	}
 
+	/**
+	 * @return the Zobrist key of this state, computed on first call and then updated incrementally in 
+	 * 		{@link #advance(ACTIONS)}
+	 */
+	@Override
+	public long hashKey() {
+		if (m_hash==0) {
+			long h = Zobrist.side(m_player);
+			for (int i=0; i<m_heap.length; i++) h ^= Zobrist.key(i, m_heap[i]);
+			m_hash = h;
+		}
+		return m_hash;
+	}
+
 	public int[] getHeaps() {
 		return m_heap;
 	}
@@ -103,6 +103,16 @@ public class XNTupleFuncsNim2P extends XNTupleBase implements XNTupleFuncs, Seri
 		
 		return equiv;
 	}
+
+	/**
+	 * The symmetries of Nim are pure cell permutations.
+	 * 
+	 * @return {@code perm[s][c]}, see {@link XNTupleFuncs#symmetryPermutations()}
+	 */
+	@Override
+	public int[][] symmetryPermutations() {
+		return cellPermutations();
+	}
 	
 	/**
 	 * Given a certain board array of symmetric (equivalent) states for state <b>{@code so}</b> 
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import controllers.PlayAgent;
 import tools.ScoreTuple;
 import tools.Types;
+import tools.Zobrist;
 import tools.Types.ACTIONS;
 
 /**
@@ -276,6 +277,14 @@ abstract public class ObserverBase implements StateObservation {
 	 */
 	abstract public String stringDescr();
 
+	/**
+	 * This default implementation hashes {@link #stringDescr()} and the player to move. It allocates 
+	 * the string, so derived classes should override it with Zobrist keys (see {@link Zobrist}).
+	 */
+	public long hashKey() {
+		return Zobrist.hashString(stringDescr()) ^ Zobrist.side(getPlayer());
+	}
+
 	/**
 	 * 
 	 * @return a string representation of action {@code act}
@@ -3,7 +3,6 @@ package games.Othello;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 
@@ -73,29 +72,6 @@ public class BaseOthello implements Serializable
 		return "";
 	}
 
-	/**
-	 * Used to determine availableActions
-	 */
-	public static final Modifier[] modifier = {
-			new Modifier(-1,-1), 
-			new Modifier(0,-1), 
-			new Modifier(+1,-1),
-			new Modifier(-1,0),
-			new Modifier(+1,0),
-			new Modifier(-1,+1),
-			new Modifier(0,+1),
-			new Modifier(+1,+1)
-	};
-
-	private static class Modifier{
-		int x,y;
-		public Modifier(int x, int y)
-		{
-			this.x = x;
-			this.y = y;
-		}
-	}
-
 	public static void deepCopyGameState(int[][] toCopy, int[][] result)
 	{
 		for(int i = 0; i < toCopy.length; i++)
@@ -111,119 +87,63 @@ public class BaseOthello implements Serializable
 	 * 
 	 * @param currentGameState the game state of the board
 	 * @param player who has to place a token   0 = Black    1 = White
-	 * @return returns an ArrayList with all possible Actions from which can be picked from.
+	 * @return returns an ArrayList with all possible Actions from which can be picked from (in ascending order).
+	 * 
+	 * @see BitBoardOthello#moves(long, long)
 	 */
 	public static ArrayList<ACTIONS> possibleActions(int[][] currentGameState, int player)
 	{
-//		System.out.println("Call to possibleActions");
-		ArrayList<ACTIONS> retVal = new ArrayList<ACTIONS>();
-		for(int i = 0, n = 0; i < currentGameState.length; i++) {
-			for(int j = 0; j < currentGameState[0].length; j++, n++)
-			{
-				if(currentGameState[i][j] == ConfigOthello.EMPTY) {
-					if(isLegalAction(currentGameState,i,j,player)) {
-						
-						retVal.add(new ACTIONS(n));
-					}
-				}
-					
-			}
-		}
-		return retVal;
+		long own = BitBoardOthello.fromTable(currentGameState, player);
+		long opp = BitBoardOthello.fromTable(currentGameState, getOpponent(player));
+		return BitBoardOthello.toActions(BitBoardOthello.moves(own, opp));
 	}
 
 	/**
-	 * 2 = Empty 1 = white 0 = Black
-	 * @param cgs currentGameState[i][j]
+	 * Used to advance the game state: flip in all 8 directions the opponent stones between cell (i,j)
+	 * and the next own stone.
+	 * @param cgs current game state
 	 * @param i index
 	 * @param j index
-	 * @param player who has to place a token   0 = Black    1 = White
-	 * @return
-	 */
-	private static boolean isLegalAction(int[][] cgs, int i, int j, int player) 
-	{
-		for(Modifier x : modifier) {
-			int setX = (i+x.x), setY = (j+x.y);
-			if(inBounds((setX),(setY))) {
-				if(cgs[setX][setY] == getOpponent(player)) {
-					if(validateAction(cgs,(setX),(setY),x,player)) return true;
-				}
-			}
-		}
-		return false;
-	}
-
-	/**
-	 * Iterative method to find the own stone in a given row
-	 * @param cgs 			current game state int[][] {-1,0,1}
-	 * @param i 			index of current game state
-	 * @param j				index of current game state
-	 * @param x				modifier to iterate through cell.
-	 * @param playerColor	integer -1 or 1 representing the actual player.
-	 * @return
+	 * @param player player 
 	 */
-	private static boolean validateAction(int[][] cgs, int i, int j, Modifier x, int player) 
-	{
-		while(inBounds(i+x.x,j+x.y))
-		{
-			if(cgs[(i+x.x)][(j+x.y)] == player) return true;
-			if(cgs[(i+x.x)][(j+x.y)] == ConfigOthello.EMPTY) return false; 
-			
-			i += x.x;
-			j += x.y;
-		}
-		return false;
+	public static void flip(int[][] cgs, int i, int j, int player){
+		flip(cgs, i, j, player, null);
 	}
 
 	/**
-	 * Used to advance the game state. Checking for all modifiers (see above)
-	 *  to find an opponent stone,
-	 * then adding them to the flipList until an own stone has been found.
+	 * Same as {@link #flip(int[][], int, int, int)}, but returns additionally the XOR of 
+	 * {@code flipKeys[8*x+y]} for all flipped cells (x,y). Used to update Zobrist keys incrementally.
 	 * @param cgs current game state
 	 * @param i index
 	 * @param j index
 	 * @param player player 
+	 * @param flipKeys	the key of each cell (or null)
+	 * @return the XOR of the keys of all flipped cells (0, if {@code flipKeys==null})
+	 * 
+	 * @see BitBoardOthello#flips(long, long, int)
 	 */
-	public static void flip(int[][] cgs, int i, int j, int player){
-		HashSet<Modifier> flipSet = new HashSet<Modifier>();
-		for(Modifier x : modifier) {
-			flipSet.clear();
-			boolean flipping = false;
-			int setX = i;
-			int setY = j;
-			while(inBounds(setX += x.x, setY += x.y))
-			{
-				if(cgs[setX][setY] == ConfigOthello.EMPTY) {
-					break;
-				}
-
-				if(cgs[setX][setY] == getOpponent(player)) {
-					flipSet.add(new Modifier(setX, setY));
-				}
-				if(cgs[setX][setY] == player)								
-				{
-					flipping = true;
-					break;
-				}
-			}
-			if(flipping)
-			{
-				for(Modifier y : flipSet)
-				{
-					cgs[y.x][y.y] = player;
-				}
-			}
-		}
+	public static long flip(int[][] cgs, int i, int j, int player, long[] flipKeys){
+		long own = BitBoardOthello.fromTable(cgs, player);
+		long opp = BitBoardOthello.fromTable(cgs, getOpponent(player));
+		return flip(cgs, BitBoardOthello.flips(own, opp, i*ConfigOthello.BOARD_SIZE+j), player, flipKeys);
 	}
 
 	/**
-	 * @param row	index representing int[row]
-	 * @param col	index representing int[x][col]
-	 * @return		boolean if the given integers are in our board
+	 * Set all cells of {@code flips} in {@code cgs} to {@code player}.
+	 * @param cgs current game state
+	 * @param flips the cells to flip as bitboard (bit {@code 8*x+y} for cell (x,y))
+	 * @param player player 
+	 * @param flipKeys	the key of each cell (or null)
+	 * @return the XOR of the keys of all flipped cells (0, if {@code flipKeys==null})
 	 */
-	private static boolean inBounds(int row, int col)
-	{
-		return 0 <= row && row < ConfigOthello.BOARD_SIZE && 0 <= col && col <  ConfigOthello.BOARD_SIZE;
+	static long flip(int[][] cgs, long flips, int player, long[] flipKeys){
+		long delta = 0;
+		for (; flips != 0; flips &= flips - 1) {
+			int n = Long.numberOfTrailingZeros(flips);
+			cgs[n / ConfigOthello.BOARD_SIZE][n % ConfigOthello.BOARD_SIZE] = player;
+			if (flipKeys!=null) delta ^= flipKeys[n];
+		}
+		return delta;
 	}
 
 	/**
@@ -0,0 +1,102 @@
+package games.Othello;
+
+import java.util.ArrayList;
+
+import tools.Types.ACTIONS;
+
+/**
+ * Bitboard move engine for Othello. A position is given by two {@code long}s, one for the discs of the player
+ * to move ({@code own}) and one for the discs of the opponent ({@code opp}). Bit {@code 8*i+j} stands for board
+ * cell {@code (i,j)}, so the bit number is the action number of {@link StateObserverOthello}.
+ * <p>
+ * Moves and flips are computed for all 8 directions at once per direction with shift-and-mask operations:
+ * an occluded fill in Kogge-Stone style ({@link #fill(long, long, int)}) propagates a set of generator discs
+ * over contiguous runs of opponent discs in 3 steps (shift by 1, 2 and 4 cells). The column masks prevent
+ * that a shift wraps from column 7 to column 0 of the next row (or vice versa).
+ * <p>
+ * All methods are static, allocation-free (except {@link #toActions(long)}) and thread-safe.
+ */
+final class BitBoardOthello {
+	private static final long NOT_COL0 = 0xFEFEFEFEFEFEFEFEL;	// all cells except column 0
+	private static final long NOT_COL7 = 0x7F7F7F7F7F7F7F7FL;	// all cells except column 7
+
+	/**
+	 * The 8 directions as bit shifts (positive: left shift, negative: unsigned right shift) with the mask
+	 * of cells a shift may reach. Direction {@code d^1} is the opposite of direction {@code d}.
+	 */
+	private static final int[] SHIFT = { 1, -1, 8, -8, 9, -9, 7, -7 };	// E, W, S, N, SE, NW, SW, NE
+	private static final long[] MASK = { NOT_COL0, NOT_COL7, -1L, -1L, NOT_COL0, NOT_COL7, NOT_COL7, NOT_COL0 };
+
+	private BitBoardOthello() {}
+
+	private static long shift(long b, int s) {
+		return (s > 0) ? b << s : b >>> -s;
+	}
+
+	/**
+	 * Occluded fill in direction {@code d}: all cells of {@code gen} plus all cells of {@code pro} which are
+	 * reached from {@code gen} in direction {@code d} over an unbroken run of {@code pro} cells.
+	 */
+	private static long fill(long gen, long pro, int d) {
+		int s = SHIFT[d];
+		pro &= MASK[d];
+		gen |= pro & shift(gen, s);
+		pro &= shift(pro, s);
+		gen |= pro & shift(gen, 2*s);
+		pro &= shift(pro, 2*s);
+		gen |= pro & shift(gen, 4*s);
+		return gen;
+	}
+
+	/**
+	 * @param own	the discs of the player to move
+	 * @param opp	the discs of the opponent
+	 * @return the set of legal moves: all empty cells adjacent to a run of opponent discs which ends with an own disc
+	 */
+	static long moves(long own, long opp) {
+		long empty = ~(own | opp);
+		long moves = 0;
+		for (int d=0; d<8; d++)
+			moves |= shift(fill(own, opp, d) & opp, SHIFT[d]) & MASK[d];
+		return moves & empty;
+	}
+
+	/**
+	 * @param own	the discs of the player to move
+	 * @param opp	the discs of the opponent
+	 * @param sq	the cell of the move (assumed to be legal, see {@link #moves(long, long)})
+	 * @return the opponent discs flipped by the move: in each direction the run of opponent discs starting
+	 * 		next to {@code sq} which is closed by an own disc
+	 */
+	static long flips(long own, long opp, int sq) {
+		long move = 1L << sq;
+		long flips = 0;
+		for (int d=0; d<8; d++)
+			flips |= fill(move, opp, d) & fill(own, opp, d^1);
+		return flips & opp;
+	}
+
+	/**
+	 * @param table		a board position {@code int[8][8]} with values BLACK, WHITE, EMPTY (or any other
+	 * 					value for empty cells)
+	 * @param player	BLACK or WHITE
+	 * @return the bitboard of {@code player}'s discs in {@code table}
+	 */
+	static long fromTable(int[][] table, int player) {
+		long b = 0;
+		for (int i=0, n=0; i<ConfigOthello.BOARD_SIZE; i++)
+			for (int j=0; j<ConfigOthello.BOARD_SIZE; j++, n++)
+				if (table[i][j] == player) b |= 1L << n;
+		return b;
+	}
+
+	/**
+	 * @return the actions for all set bits of {@code moves}, in ascending order
+	 */
+	static ArrayList<ACTIONS> toActions(long moves) {
+		ArrayList<ACTIONS> retVal = new ArrayList<>(Long.bitCount(moves));
+		for (; moves != 0; moves &= moves - 1)
+			retVal.add(new ACTIONS(Long.numberOfTrailingZeros(moves)));
+		return retVal;
+	}
+}
@@ -5,6 +5,7 @@ import games.StateObservation;
 import tools.Types;
 import tools.Types.ACTIONS;
 import tools.Types.WINNER;
+import tools.Zobrist;
 
 import java.util.ArrayList;
 /**
@@ -49,6 +50,12 @@ import java.util.ArrayList;
  *
  *     col 0   1   2   3   4   5   6   7
  *  </pre>
+ *  Moves are generated and executed on two bitboards (see {@link BitBoardOthello}), one {@code long} for the 
+ *  black and one for the white discs, where bit {@code 8*i+j} is cell {@code (i,j)}. The {@code int[8][8]} 
+ *  array is updated along with them (only the placed and the flipped cells), so that 
+ *  {@link #getCurrentGameState()} stays valid. The bitboards are rebuilt from the array in 
+ *  {@link #setAvailableActions()} and after {@link #setPlayer(int)} (and after deserialization), so a 
+ *  subclass which sets {@code currentGameState} directly has to call one of them afterwards.
  */
 public class StateObserverOthello extends ObserverBase{
 
@@ -63,6 +70,14 @@ public class StateObserverOthello extends ObserverBase{
 	private ArrayList<ACTIONS> availableActions = new ArrayList<ACTIONS>();
 	private ArrayList<Integer> lastMoves;
 	private int turn;
+	private long m_hash = 0;		// Zobrist key, 0: not yet computed (see hashKey())
+	private transient long black, white;	// bitboards of currentGameState
+	private transient boolean bitsValid = false;	// false: black, white have to be rebuilt from currentGameState
+	private static final long[] ZOBRIST = Zobrist.table(64,3);	// [cell*3 + value], value = BLACK, WHITE, EMPTY
+	private static final long[] FLIPKEYS = new long[64];		// key change when cell flips between BLACK and WHITE
+	static {
+		for (int c=0; c<64; c++) FLIPKEYS[c] = ZOBRIST[3*c+ConfigOthello.BLACK] ^ ZOBRIST[3*c+ConfigOthello.WHITE];
+	}
 	
 	public StateObserverOthello()
 	{
@@ -104,6 +119,10 @@ public class StateObserverOthello extends ObserverBase{
 		this.countBlack = other.countBlack;
 		this.countWhite = other.countWhite;
 		this.turn = other.turn;
+		this.m_hash = other.m_hash;
+		this.black = other.black;
+		this.white = other.white;
+		this.bitsValid = other.bitsValid;
 		if (other.availableActions!=null)	// this check is needed when loading older logs
 			this.availableActions = (ArrayList<ACTIONS>) other.availableActions.clone();
 					// Note that clone does only clone the ArrayList, but not the contained ACTIONS, they are 
@@ -163,8 +182,10 @@ public class StateObserverOthello extends ObserverBase{
 //		return (BaseOthello.possibleActions(currentGameState, playerNextMove).size() == 0 ) &&
 //				(BaseOthello.possibleActions(currentGameState, getOpponent(playerNextMove)).size() == 0);
 		// /WK/ this does the same as above, but should be faster (possibleActions is a costly method):
-		if  (availableActions.size() == 0 ) 
-			return (BaseOthello.possibleActions(currentGameState, getOpponent(playerNextMove)).size() == 0);
+		if  (availableActions.size() == 0 ) {
+			syncBitBoards(false);
+			return BitBoardOthello.moves(discs(getOpponent(playerNextMove)), discs(playerNextMove)) == 0;
+		}
 		return false;
 	}
 
@@ -189,31 +210,18 @@ public class StateObserverOthello extends ObserverBase{
 	public WINNER winStatus() {
 		assert isGameOver() :"Game isn't over";
 		assert this.getPlayer()==this.playerNextMove : "Oops, this.getPlayer() differs from playerNextMove!";
-		int countPlayer = 0, countOpponent = 0;
-		for(int i = 0; i < ConfigOthello.BOARD_SIZE; i++)
-		{
-			for( int j = 0; j < ConfigOthello.BOARD_SIZE; j++)
-			{
-				if(currentGameState[i][j] == this.getPlayer()) countPlayer++;
-				if(currentGameState[i][j] == (this.getOpponent(this.getPlayer()))) countOpponent++;
-			}
-		}
+		syncBitBoards(false);
+		int countPlayer = Long.bitCount(discs(this.getPlayer()));
+		int countOpponent = Long.bitCount(discs(this.getOpponent(this.getPlayer())));
 		if(countPlayer > countOpponent) return WINNER.PLAYER_WINS;
 		else if(countPlayer == countOpponent) return WINNER.TIE;
 		return WINNER.PLAYER_LOSES;
 	}
 
 	public void setPieceCounters() {
-		this.countBlack=0;
-		this.countWhite=0;
-		for(int i = 0; i < ConfigOthello.BOARD_SIZE; i++)
-		{
-			for( int j = 0; j < ConfigOthello.BOARD_SIZE; j++)
-			{
-				if(currentGameState[i][j] == 0) this.countBlack++;
-				if(currentGameState[i][j] == 1) this.countWhite++;
-			}
-		}
+		syncBitBoards(false);
+		this.countBlack = Long.bitCount(black);
+		this.countWhite = Long.bitCount(white);
 	}
 	
 	@Override
@@ -247,12 +255,29 @@ public class StateObserverOthello extends ObserverBase{
 
 	/**
 	 * updating the ArrayList, which contains all possible actions for the actual 
-	 * players move.
+	 * players move. The bitboards are rebuilt from {@code currentGameState} before.
 	 */
 	@Override
 	public void setAvailableActions() {
-		availableActions.clear();
-		availableActions = BaseOthello.possibleActions(currentGameState, playerNextMove);
+		syncBitBoards(true);
+		availableActions = BitBoardOthello.toActions(
+				BitBoardOthello.moves(discs(playerNextMove), discs(getOpponent(playerNextMove))));
+	}
+
+	/**
+	 * Rebuild the bitboards {@code black, white} from {@code currentGameState}
+	 * @param force	if false, rebuild only if they are not valid
+	 */
+	private void syncBitBoards(boolean force) {
+		if (force || !bitsValid) {
+			black = BitBoardOthello.fromTable(currentGameState, ConfigOthello.BLACK);
+			white = BitBoardOthello.fromTable(currentGameState, ConfigOthello.WHITE);
+			bitsValid = true;
+		}
+	}
+
+	private long discs(int player) {
+		return (player == ConfigOthello.BLACK) ? black : white;
 	}
 	/**
 	 * 
@@ -290,35 +315,59 @@ public class StateObserverOthello extends ObserverBase{
 		int iAction = action.toInt();
 		int j = iAction % ConfigOthello.BOARD_SIZE;
 		int i = (iAction-j) / ConfigOthello.BOARD_SIZE;
-		BaseOthello.flip(currentGameState, i, j, playerNextMove);
-		currentGameState[i][j] = playerNextMove;
-		super.incrementMoveCounter();
+		syncBitBoards(false);
 		int prevPlayer = playerNextMove;
+		long own = discs(prevPlayer);
+		long opp = discs(getOpponent(prevPlayer));
+		long flips = BitBoardOthello.flips(own, opp, iAction);
+		long delta = BaseOthello.flip(currentGameState, flips, prevPlayer, (m_hash!=0) ? FLIPKEYS : null);
+		currentGameState[i][j] = prevPlayer;
+		own |= flips | (1L << iAction);
+		opp &= ~flips;
+		if (prevPlayer == ConfigOthello.BLACK) {
+			black = own;
+			white = opp;
+		} else {
+			white = own;
+			black = opp;
+		}
+		if (m_hash!=0) m_hash ^= delta ^ ZOBRIST[3*iAction+ConfigOthello.EMPTY] ^ ZOBRIST[3*iAction+prevPlayer];
+		super.incrementMoveCounter();
 		
 		// Set playerNextMove.
 		// The normal case: if the opponent of playerNextMove (playerNextMove is the player who just advanced) has 
 		// possible actions, then playerNextMove will become this opponent. If however the opponent has no possible
 		// moves, he has to pass, and playerNextMove will stay at the value it has (and the next advance
-		// will be done by the same playerNextMove):
-		availableActions = BaseOthello.possibleActions(currentGameState, this.getOpponent(playerNextMove));
-		if(availableActions.size() > 0 ) {
-			playerNextMove = getOpponent(playerNextMove);  // the normal case
+		// will be done by the same playerNextMove, with the possible actions for prevPlayer, which have changed):
+		long oppMoves = BitBoardOthello.moves(opp, own);
+		if (oppMoves != 0) {
+			playerNextMove = getOpponent(prevPlayer);  // the normal case
+			availableActions = BitBoardOthello.toActions(oppMoves);
+		} else {
+			availableActions = BitBoardOthello.toActions(BitBoardOthello.moves(own, opp));
 		}
-//		else {
-//			// nothing to do
-//		}
 		
-		if (playerNextMove==prevPlayer)
-			setAvailableActions();	// yes, we have to call possibleActions (inside setAvailableActions) a 2nd time
-									// in the rare cases where playerNextMove is identical prevPlayer (there was no 
-									// possible next move for opponent AND the possible actions for prevPlayer have
-									// changed).
-									// In all other cases we can skip setAvailableActions: the member availableActions
-									// calculated above is valid!
+		if (m_hash!=0 && playerNextMove!=prevPlayer) m_hash ^= Zobrist.side(prevPlayer) ^ Zobrist.side(playerNextMove);
 		lastMoves.add(action.toInt());
 		turn++;
 	}
 
+	/**
+	 * @return the Zobrist key of this state, computed on first call and then updated incrementally in 
+	 * 		{@link #advance(ACTIONS)}
+	 */
+	@Override
+	public long hashKey() {
+		if (m_hash==0) {
+			long h = Zobrist.side(playerNextMove);
+			for(int i = 0; i < ConfigOthello.BOARD_SIZE; i++) 
+				for(int j = 0; j < ConfigOthello.BOARD_SIZE; j++)
+					h ^= ZOBRIST[3*(i*ConfigOthello.BOARD_SIZE+j)+currentGameState[i][j]];
+			m_hash = h;
+		}
+		return m_hash;
+	}
+
 	@Override
 	public int getPlayer() {
 		return playerNextMove;
@@ -394,6 +443,9 @@ public class StateObserverOthello extends ObserverBase{
 		return sout;
 	}
 	
+	/**
+	 * @return the board as {@code int[8][8]} (a view, not a copy: it must not be modified)
+	 */
 	public int[][] getCurrentGameState(){return currentGameState;}
 	
 	/**
@@ -408,8 +460,11 @@ public class StateObserverOthello extends ObserverBase{
 	}
 	
 	// WK now needed to get the right playerNextMove for AsStateObserverOthello (!) 
+	// (the bitboards are rebuilt on next use, since AsStateObserverOthello sets currentGameState before)
 	public void setPlayer(int p) {
 		this.playerNextMove = p;
+		this.m_hash = 0;
+		this.bitsValid = false;
 	}
 	
 	public int getOpponent(int player)
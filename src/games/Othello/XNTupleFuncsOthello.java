@@ -164,6 +164,16 @@ public class XNTupleFuncsOthello extends XNTupleBase implements XNTupleFuncs, Se
 		return symmetryVectors;
 	}
 
+	/**
+	 * The symmetries of Othello are pure cell permutations.
+	 * 
+	 * @return {@code perm[s][c]}, see {@link XNTupleFuncs#symmetryPermutations()}
+	 */
+	@Override
+	public int[][] symmetryPermutations() {
+		return cellPermutations();
+	}
+
 	/**
 	 * Helper function for  {@link #symmetryVectors(BoardVector, int)} :
 	 * Rotates the given boardVector 90 degrees clockwise
@@ -1,15 +1,26 @@
 package games.RubiksCube;
 
 import java.text.DecimalFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import games.RubiksCube.ColorTrafoMap.ColMapType;
 import games.RubiksCube.CubeState.Twist;
 import games.RubiksCube.CubeStateMap.CsMapType;
+import tools.ComputePool;
 
 /**
  * This is a class for generating and representing <b>distance sets</b> for the cube.
@@ -17,6 +28,15 @@ import games.RubiksCube.CubeStateMap.CsMapType;
  * We use an {@link ArrayList} for the representation of distance sets (and not a {@link HashSet},
  * which may seem more natural for a distance <em>set</em> D), since only with an {@link ArrayList}
  * we can easily pick a random element via D.get(index).
+ * <p>
+ * To make membership tests fast, the list has a hash index on the packed face colors of its states 
+ * (see {@link CubeState#packFcol(long[], int)} and {@link CSKeyIndex}): {@link #contains(Object)}, 
+ * {@link #indexOf(Object)} and {@link #findTwin(CubeState)} take O(1) instead of O(size). 
+ * {@link #add(CubeState)} updates the index, all other modifications of the list (also through 
+ * {@link #subList(int, int)}) drop it and it is rebuilt on the next membership test. The states must not be changed while they are in the list.
+ * <p>
+ * The <b>complete</b> distance sets are generated by {@link #generateDistanceSets(int)}, a (multi-threaded) 
+ * breadth-first search.
  */
 public class CSArrayList extends ArrayList<CubeState> {
 	public enum CSAListType {GenerateD0, GenerateD1, GenerateNext, GenerateNextColSymm};
@@ -25,6 +45,7 @@ public class CSArrayList extends ArrayList<CubeState> {
 		super();
 	}
 	private CubeStateFactory csFactory = new CubeStateFactory();
+	private transient volatile CSKeyIndex index = null;		// built lazily in index()
 
 	/**
 	 * Generate either distance set D0 or D1
@@ -82,13 +103,15 @@ public class CSArrayList extends ArrayList<CubeState> {
 	 * @param doAssert	do assertions (time consuming), if true 
 	 * 
 	 * @see TupleInt 
+	 * @see #generateDistanceSets(int)
 	 */
 	public CSArrayList(CSAListType csaType, CSArrayList D, CSArrayList Dprev, int N,
 			ArrayList tintList, boolean silent, boolean doAssert, Random rand) {
 		super();
-		// Dcopy is just a copy of D from which we can safely remove the elements 
-		// we already picked (in the for-n-loop below) without altering D:
-		CSArrayList Dcopy = (CSArrayList) D.clone();
+		// picked[0..n-1] are the positions in D which we already picked (in the for-n-loop below), 
+		// picked[n..] are the positions not yet picked:
+		int[] picked = new int[D.size()];
+		for (int k=0; k<picked.length; k++) picked[k] = k;
 		Twist[] twist = {Twist.U,Twist.L,Twist.F};
 		CubeStateMap hmRots = new CubeStateMap(CsMapType.AllWholeCubeRotTrafos);
 		ColorTrafoMap hmCols = new ColorTrafoMap(ColMapType.AllColorTrafos);
@@ -100,15 +123,16 @@ public class CSArrayList extends ArrayList<CubeState> {
 		for (int n=0; n<N; n++) {
 			if (n%200==0) System.out.print(".");
 			if (n%(200*80)==0) System.out.println();
-			// We use an ArrayList for the representation of D and Dcopy (and not a HashSet,
+			// We use an ArrayList for the representation of D (and not a HashSet,
 			// which may seem more natural for a distance set D), since only with an ArrayList 
-			// we can easily pick a random element via Dcopy.get(index):
-			int index = rand.nextInt(Dcopy.size());
-			CubeState cS0 = (CubeState)Dcopy.get(index);
-			// Each n shall pick a random, but different element from Dcopy. 
-			// Therefore we remove from Dcopy, which starts as a clone of D, 
-			// every element which has already been picked:
-			Dcopy.remove(cS0);
+			// we can easily pick a random element via D.get(index).
+			// Each n shall pick a random, but different element from D. Therefore we pick
+			// only from the positions not yet picked and swap the picked one to the front:
+			int index = n + rand.nextInt(D.size()-n);
+			int pos = picked[index];
+			picked[index] = picked[n];
+			picked[n] = pos;
+			CubeState cS0 = D.get(pos);
 //			System.out.println(cS0.twistSeq+"  "+n);
 			int count=0;
 			for (int i=1; i<=3; i++) {
@@ -229,11 +253,8 @@ public class CSArrayList extends ArrayList<CubeState> {
 	 * @return the twin in {@code this}, if it is found, else {@code null}
 	 */
 	public CubeState findTwin(CubeState other) {
-	    Iterator it2 = this.iterator();
-	    while (it2.hasNext()) {
-		    CubeState twin = (CubeState)it2.next();
-		    if (twin.equals(other)) return twin;
-        } 
+		int i = this.indexOf(other);
+		if (i>=0) return this.get(i);
 	    System.err.println("Warning: findTwin could not get a match! Returning null.");
 	    return null;	
 	}
@@ -254,6 +275,397 @@ public class CSArrayList extends ArrayList<CubeState> {
 
 	}
 	
+	/**
+	 * Generate the <b>complete</b> distance sets D[0], D[1], ..., D[pmax] with a breadth-first search:
+	 * D[p] is generated from D[p-1] and D[p-2] by {@link #nextDistanceSet(CSArrayList, CSArrayList)}.
+	 * Each state in D[p] gets {@code minTwists=p}.
+	 * <p>
+	 * For the 2x2x2 cube the sizes of D[p] are 1, 9, 54, 321, 1847, 9992, 50136, 227536, 870072, ... 
+	 * (see {@link CubeConfig#theoCov}). The sets up to {@code pmax=8} take about 0.5 GB of memory.
+	 * 
+	 * @param pmax	the largest distance
+	 * @return an array with the distance sets D[0], ..., D[pmax]
+	 */
+	public static CSArrayList[] generateDistanceSets(int pmax) {
+		CSArrayList[] D = new CSArrayList[pmax+1];
+		D[0] = new CSArrayList(CSAListType.GenerateD0);
+		D[0].get(0).minTwists = 0;
+		for (int p=1; p<=pmax; p++) 
+			D[p] = nextDistanceSet(D[p-1], (p>=2) ? D[p-2] : new CSArrayList());
+		return D;
+	}
+
+	/**
+	 * Given the <b>complete</b> distance sets D and Dprev from stage p-1 and p-2, generate the complete
+	 * distance set for stage p: all states which are reached by a twist U, L or F (1, 2 or 3 times) 
+	 * from a state in D and which are neither in D nor in Dprev. As in 
+	 * {@link #CSArrayList(CSAListType, CSArrayList, CSArrayList, int, ArrayList, boolean, boolean, Random)},  
+	 * we skip the twist of the same face as {@code lastTwist}.
+	 * <p>
+	 * The elements of D are expanded in parallel chunks in {@link ComputePool}. The chunks return only the 
+	 * packed face colors of their new states (plus parent and twist), these are merged in the order of the 
+	 * chunks, so that the result does not depend on the number of threads. Only the states which survive the 
+	 * merge are created (again in parallel). For the COLOR types the merge compares only the packed face colors, 
+	 * since for states generated by twists from the default cube the face colors determine the sticker locations. 
+	 * For the TRAFO types the packed face colors are only a hash: the merge creates the new states and 
+	 * compares states with equal keys with {@link CubeState#isEqual(CubeState)}.
+	 * 
+	 * @param D		the distance set for stage p-1
+	 * @param Dprev	the distance set for stage p-2 (empty for p=1)
+	 * @return the distance set for stage p
+	 */
+	public static CSArrayList nextDistanceSet(CSArrayList D, CSArrayList Dprev) {
+		CSArrayList Dnext = new CSArrayList();
+		int nD = D.size();
+		if (nD==0) return Dnext;
+		D.index();				// build the indices before the parallel reads
+		Dprev.index();
+		int width = D.get(0).packedFcolLength();
+		int chunk = Math.max(256, (nD + 4*ComputePool.getParallelism() - 1) / (4*ComputePool.getParallelism()));
+		List<Callable<Successors>> expand = new ArrayList<>();
+		for (int from=0; from<nD; from+=chunk) {
+			int f = from, t = Math.min(from+chunk, nD);
+			expand.add(() -> Successors.expand(D, Dprev, f, t, width));
+		}
+		List<Successors> succ = ComputePool.invokeAll(expand);
+
+		int total = 0;
+		for (Successors s : succ) total += s.n;
+		CSKeyIndex nextIndex = new CSKeyIndex(width, total);
+		CubeState.Type type = D.get(0).type;
+		if (type!=CubeState.Type.COLOR_P && type!=CubeState.Type.COLOR_R) {
+			// TRAFO types: equal keys do not imply equal states
+			CubeStateFactory factory = new CubeStateFactory();
+			for (Successors s : succ) {
+				for (int j=0; j<s.n; j++) {
+					CubeState cS1 = Successors.twist(factory.makeCubeState(D.get(s.parent[j])), s.move[j]);
+					if (nextIndex.get(s.keys, j*width, cS1, Dnext)>=0) continue;
+					cS1.minTwists = (D.get(s.parent[j]).minTwists<0) ? -1 : D.get(s.parent[j]).minTwists+1;
+					nextIndex.put(s.keys, j*width, Dnext.size());
+					Dnext.add(cS1);		// (Dnext has no index yet, so add does not update it)
+				}
+			}
+			Dnext.index = nextIndex;
+			return Dnext;
+		}
+		int[] parent = new int[total];
+		byte[] move = new byte[total];
+		int nNext = 0;
+		for (Successors s : succ) {
+			for (int j=0; j<s.n; j++) {
+				if (nextIndex.putIfAbsent(s.keys, j*width, nNext)) {
+					parent[nNext] = s.parent[j];
+					move[nNext] = s.move[j];
+					nNext++;
+				}
+			}
+		}
+
+		CubeState[] states = new CubeState[nNext];
+		List<Callable<Void>> create = new ArrayList<>();
+		for (int from=0; from<nNext; from+=chunk) {
+			int f = from, t = Math.min(from+chunk, nNext);
+			create.add(() -> {
+				CubeStateFactory factory = new CubeStateFactory();
+				for (int q=f; q<t; q++) {
+					CubeState cS0 = D.get(parent[q]);
+					states[q] = Successors.twist(factory.makeCubeState(cS0), move[q]);
+					states[q].minTwists = (cS0.minTwists<0) ? -1 : cS0.minTwists+1;
+				}
+				return null;
+			});
+		}
+		ComputePool.invokeAll(create);
+		Dnext.ensureCapacity(nNext);
+		for (CubeState cs : states) Dnext.add(cs);	// (Dnext has no index yet, so add does not update it)
+		Dnext.index = nextIndex;					// the positions in nextIndex are the positions in Dnext
+		return Dnext;
+	}
+
+	/**
+	 * The new states found by one chunk of {@link CSArrayList#nextDistanceSet(CSArrayList, CSArrayList)}: 
+	 * for the j-th new state the packed face colors {@code keys[j*width..]}, the position of its parent in D 
+	 * and the twist {@code move[j]} (face U, L, F = {@code move/3}, {@code move%3+1} times).
+	 */
+	private static class Successors {
+		private static final Twist[] TWIST = {Twist.U,Twist.L,Twist.F};
+		final int width;
+		long[] keys;
+		int[] parent = new int[64];
+		byte[] move = new byte[64];
+		int n = 0;
+
+		Successors(int width) {
+			this.width = width;
+			this.keys = new long[64*width];
+		}
+
+		static Successors expand(CSArrayList D, CSArrayList Dprev, int from, int to, int width) {
+			CubeStateFactory factory = new CubeStateFactory();
+			Successors s = new Successors(width);
+			long[] key = new long[width];
+			for (int i=from; i<to; i++) {
+				CubeState cS0 = D.get(i);
+				for (int m=0; m<9; m++) {
+					if (TWIST[m/3]==cS0.lastTwist) continue;	// stays in D or goes to Dprev
+					CubeState cS1 = twist(factory.makeCubeState(cS0), m);
+					cS1.packFcol(key, 0);
+					if (D.find(cS1, key)>=0 || Dprev.find(cS1, key)>=0) continue;
+					s.add(key, i, m);
+				}
+			}
+			return s;
+		}
+
+		static CubeState twist(CubeState cs, int m) {
+			switch(TWIST[m/3]) {
+			case U: return cs.UTw(m%3+1);
+			case L: return cs.LTw(m%3+1);
+			default: return cs.FTw(m%3+1);
+			}
+		}
+
+		private void add(long[] key, int p, int m) {
+			if (n==parent.length) {
+				keys = Arrays.copyOf(keys, 2*n*width);
+				parent = Arrays.copyOf(parent, 2*n);
+				move = Arrays.copyOf(move, 2*n);
+			}
+			System.arraycopy(key, 0, keys, n*width, width);
+			parent[n] = p;
+			move[n] = (byte) m;
+			n++;
+		}
+	}
+
+	//
+	// --- the hash index on the packed face colors (see class comment) ---
+	//
+
+	/**
+	 * @return the index of {@code this} (build it, if there is none)
+	 */
+	private CSKeyIndex index() {
+		CSKeyIndex ix = index;
+		if (ix==null && !isEmpty()) {
+			synchronized (this) {
+				ix = index;
+				if (ix==null) {
+					ix = new CSKeyIndex(get(0).packedFcolLength(), size());
+					long[] key = new long[ix.width()];
+					for (int i=0; i<size(); i++) {
+						get(i).packFcol(key, 0);
+						if (ix.get(key, 0, get(i), this)<0) ix.put(key, 0, i);	// only the first of equal states
+					}
+					index = ix;
+				}
+			}
+		}
+		return ix;
+	}
+
+	/**
+	 * @param cs	the state
+	 * @param key	the packed face colors of {@code cs}
+	 * @return the position of the first element of {@code this} equal to {@code cs} or -1
+	 */
+	private int find(CubeState cs, long[] key) {
+		CSKeyIndex ix = index();
+		if (ix==null || key.length!=ix.width()) return -1;
+		return ix.get(key, 0, cs, this);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!(o instanceof CubeState)) return -1;
+		CubeState cs = (CubeState) o;
+		long[] key = new long[cs.packedFcolLength()];
+		cs.packFcol(key, 0);
+		return find(cs, key);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o)>=0;
+	}
+
+	@Override
+	public boolean add(CubeState cs) {
+		super.add(cs);
+		CSKeyIndex ix = index;
+		if (ix!=null) {
+			long[] key = new long[cs.packedFcolLength()];
+			cs.packFcol(key, 0);
+			if (key.length!=ix.width()) index = null;
+			else if (ix.get(key, 0, cs, this)<0) ix.put(key, 0, size()-1);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends CubeState> c) {
+		for (CubeState cs : c) add(cs);
+		return !c.isEmpty();
+	}
+
+	// all other modifications drop the index:
+
+	@Override
+	public void add(int i, CubeState cs) {
+		index = null;
+		super.add(i, cs);
+	}
+
+	@Override
+	public boolean addAll(int i, Collection<? extends CubeState> c) {
+		index = null;
+		return super.addAll(i, c);
+	}
+
+	@Override
+	public CubeState set(int i, CubeState cs) {
+		index = null;
+		return super.set(i, cs);
+	}
+
+	@Override
+	public CubeState remove(int i) {
+		index = null;
+		return super.remove(i);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		index = null;
+		return super.remove(o);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		index = null;
+		return super.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		index = null;
+		return super.retainAll(c);
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super CubeState> filter) {
+		index = null;
+		return super.removeIf(filter);
+	}
+
+	@Override
+	protected void removeRange(int from, int to) {
+		index = null;
+		super.removeRange(from, to);
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<CubeState> operator) {
+		index = null;
+		super.replaceAll(operator);
+	}
+
+	@Override
+	public void sort(Comparator<? super CubeState> c) {
+		index = null;
+		super.sort(c);
+	}
+
+	@Override
+	public void clear() {
+		index = null;
+		super.clear();
+	}
+
+	@Override
+	public Object clone() {
+		CSArrayList copy = (CSArrayList) super.clone();
+		copy.index = null;		// the clone must not share the index
+		return copy;
+	}
+
+	/**
+	 * @return a view of the elements {@code from, ..., to-1}. Unlike the sublist of {@link ArrayList}, it modifies 
+	 * 		{@code this} only through the methods above, so that the index stays valid.
+	 */
+	@Override
+	public List<CubeState> subList(int from, int to) {
+		if (from<0 || to>size() || from>to) 
+			throw new IndexOutOfBoundsException("from="+from+", to="+to+", size="+size());
+		return new SubList(from, to);
+	}
+
+	private class SubList extends AbstractList<CubeState> implements RandomAccess {
+		private final int offset;
+		private int size;
+		private int expectedModCount = CSArrayList.this.modCount;
+
+		SubList(int from, int to) {
+			this.offset = from;
+			this.size = to-from;
+		}
+
+		@Override
+		public CubeState get(int i) {
+			checkIndex(i, size);
+			return CSArrayList.this.get(offset+i);
+		}
+
+		@Override
+		public CubeState set(int i, CubeState cs) {
+			checkIndex(i, size);
+			return CSArrayList.this.set(offset+i, cs);
+		}
+
+		@Override
+		public int size() {
+			checkForComodification();
+			return size;
+		}
+
+		@Override
+		public void add(int i, CubeState cs) {
+			checkIndex(i, size+1);
+			CSArrayList.this.add(offset+i, cs);
+			structuralChange(1);
+		}
+
+		@Override
+		public CubeState remove(int i) {
+			checkIndex(i, size);
+			CubeState cs = CSArrayList.this.remove(offset+i);
+			structuralChange(-1);
+			return cs;
+		}
+
+		@Override
+		protected void removeRange(int from, int to) {
+			checkForComodification();
+			CSArrayList.this.removeRange(offset+from, offset+to);
+			structuralChange(from-to);
+		}
+
+		private void checkIndex(int i, int bound) {
+			checkForComodification();
+			if (i<0 || i>=bound) throw new IndexOutOfBoundsException("index="+i+", size="+size);
+		}
+
+		private void checkForComodification() {
+			if (CSArrayList.this.modCount!=expectedModCount) throw new ConcurrentModificationException();
+		}
+
+		private void structuralChange(int delta) {
+			expectedModCount = CSArrayList.this.modCount;
+			size += delta;
+			modCount++;
+		}
+	}
+	
 	/**
 	 *  TupleInt is just a class to store a tuple of int's with diagnostic information
 	 *  about {@code this} (called by constructor CSArrayList(GenerateNext*,...)) <ul>
@@ -0,0 +1,107 @@
+package games.RubiksCube;
+
+import java.util.Arrays;
+import java.util.List;
+
+import tools.Zobrist;
+
+/**
+ * Hash index for the {@link CubeState}s of a list (see {@link CSArrayList}): maps the packed face colors
+ * (see {@link CubeState#packFcol(long[], int)}) of a state to its position in the list.
+ * <p>
+ * Keys and positions are kept in primitive arrays with open addressing (linear probing), so there is no boxing
+ * and no object per entry. Several entries may have the same key (states with equal {@code fcol}, but different
+ * {@code sloc}, e.g. after color transformations), therefore {@link #get(long[], int, CubeState, List)} compares
+ * the candidates with {@link CubeState#isEqual(CubeState)}.
+ * <p>
+ * Concurrent reads are safe as long as no thread writes.
+ */
+final class CSKeyIndex {
+	private final int width;		// number of longs per key
+	private long[] keys;
+	private int[] pos;				// -1: empty slot
+	private int mask;
+	private int size = 0;
+
+	/**
+	 * @param width		the number of longs per key ({@link CubeState#packedFcolLength()})
+	 * @param expected	the expected number of entries
+	 */
+	CSKeyIndex(int width, int expected) {
+		this.width = width;
+		int cap = 16;
+		while (cap < 2*expected) cap <<= 1;
+		allocate(cap);
+	}
+
+	private void allocate(int cap) {
+		keys = new long[cap*width];
+		pos = new int[cap];
+		Arrays.fill(pos, -1);
+		mask = cap-1;
+	}
+
+	int width() {
+		return width;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param key	the key of {@code cs}, starting at {@code key[off]}
+	 * @param cs	the state to look for or null (then any entry with this key matches)
+	 * @param list	the list the positions refer to
+	 * @return the position of the first entry equal to {@code cs} or -1
+	 */
+	int get(long[] key, int off, CubeState cs, List<CubeState> list) {
+		for (int s=slot(key, off); pos[s]>=0; s=(s+1)&mask)
+			if (keyEquals(s, key, off) && (cs==null || cs.isEqual(list.get(pos[s]))))
+				return pos[s];
+		return -1;
+	}
+
+	/**
+	 * Add the entry ({@code key}, {@code p}), even if there is already an entry with this key
+	 */
+	void put(long[] key, int off, int p) {
+		if (2*(size+1) > pos.length) grow();
+		int s = slot(key, off);
+		while (pos[s]>=0) s=(s+1)&mask;
+		System.arraycopy(key, off, keys, s*width, width);
+		pos[s] = p;
+		size++;
+	}
+
+	/**
+	 * Add the entry ({@code key}, {@code p}), if there is no entry with this key yet
+	 * @return true, if the entry was added
+	 */
+	boolean putIfAbsent(long[] key, int off, int p) {
+		if (get(key, off, null, null)>=0) return false;
+		put(key, off, p);
+		return true;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldPos = pos;
+		allocate(2*oldPos.length);
+		size = 0;
+		for (int s=0; s<oldPos.length; s++)
+			if (oldPos[s]>=0) put(oldKeys, s*width, oldPos[s]);
+	}
+
+	private int slot(long[] key, int off) {
+		long h = 0;
+		for (int k=0; k<width; k++) h = Zobrist.mix(h ^ key[off+k]);
+		return (int) h & mask;
+	}
+
+	private boolean keyEquals(int s, long[] key, int off) {
+		for (int k=0; k<width; k++)
+			if (keys[s*width+k]!=key[off+k]) return false;
+		return true;
+	}
+}
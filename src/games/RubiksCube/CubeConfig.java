@@ -80,6 +80,12 @@ public class CubeConfig {
 	public static int replayBufferCapacity = 500;
 	public static int batchSize = 50;
 
+	/**
+	 * if true, sample the batches from the replay buffer with priorities (absolute TD error of the last update),
+	 * else uniformly
+	 */
+	public static boolean PRIORITIZED_REPLAY = false;
+
 
 	/**
 	 * This influences the behavior in {@link GameBoardCube#selectByTwists1(int) GameBoardCube.selectByTwists1(p)} 
@@ -2,6 +2,7 @@ package games.RubiksCube;
 
 import java.io.Serializable;
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Hashtable;
 
@@ -572,6 +573,29 @@ abstract public class CubeState implements Serializable {
 		return true;
 	}
 	
+	/**
+	 * @return the number of longs written by {@link #packFcol(long[], int)} (1 for the 2x2, 2 for the 3x3 cube)
+	 */
+	public int packedFcolLength() {
+		return (fcol.length+23)/24;
+	}
+
+	/**
+	 * Pack the face colors {@link #fcol} into {@link #packedFcolLength()} longs, starting at {@code dst[off]}:
+	 * each long holds up to 24 stickers as a base-6 number (6^24 &lt; 2^63). For the COLOR types this encoding
+	 * is one-to-one, for the TRAFO types it is only a hash. States which are {@link #isEqual(CubeState)} have 
+	 * the same packed face colors.
+	 * 
+	 * @see CSArrayList
+	 */
+	public void packFcol(long[] dst, int off) {
+		for (int i=0; i<fcol.length; off++) {
+			long key = 0;
+			for (int end=Math.min(i+24, fcol.length); i<end; i++) key = 6*key + fcol[i];
+			dst[off] = key;
+		}
+	}
+
 	/**
 	 * It is important that {@link Object#equals(Object)} is overwritten here, so that objects
 	 * of class CubeState which have the same elements in fcol[] are considered as
@@ -592,6 +616,9 @@ abstract public class CubeState implements Serializable {
 	 * Since the equality check for inserting an object into a Set (HashSet) is based on 
 	 * sameness of equals() AND hashCode() (!!)  
 	 * <p> 
+	 * We hash only {@code fcol}: equal objects have equal {@code fcol}, and hashing the array directly is much 
+	 * faster than hashing {@link #toString()}.
+	 * <p> 
 	 * See <a href="https://stackoverflow.com/questions/6187294/java-set-collection-override-equals-method/11577351">
 	 *     https://stackoverflow.com/questions/6187294/java-set-collection-override-equals-method/11577351</a>
 	 *     
@@ -600,7 +627,7 @@ abstract public class CubeState implements Serializable {
 	 */
 	@Override
 	public int hashCode() {
-		return this.toString().hashCode();
+		return Arrays.hashCode(this.fcol);
 	}
 } // class CubeState
    
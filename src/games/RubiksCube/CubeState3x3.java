@@ -229,7 +229,7 @@ public class CubeState3x3 extends CubeState {
 
     //
     // invL_3x3[i] is the sticker location which moves under an L-twist to location i. E.g. sticker 18 moves to location 0.
-    private static final int[]
+    static final int[]
             invU_3x3 = { 6, 7, 0, 1, 2, 3, 4, 5, 44,45,46,11,12,13,14,15, 10,17,18,19,20,21, 8, 9,
                         24,25,26,27,28,29,30,31, 32,33,22,23,16,37,38,39, 40,41,42,43,34,35,36,47},
             invL_3x3 = {18, 1, 2, 3, 4, 5,16,17, 14,15, 8, 9,10,11,12,13, 28,29,30,19,20,21,22,23,
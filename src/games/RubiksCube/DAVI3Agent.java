@@ -1,6 +1,5 @@
 package games.RubiksCube;
 
-import java.io.Serializable;
 import java.util.*;
 
 import agentIO.LoadSaveGBG;
@@ -8,6 +7,7 @@ import controllers.PlayAgent;
 import controllers.TD.ntuple2.NTuple2ValueFunc;
 import controllers.TD.ntuple2.NTupleBase;
 import controllers.TD.ntuple2.NextState;
+import controllers.TD.ntuple2.ReplayBuffer;
 import games.StateObsWithBoardVector;
 import games.StateObservation;
 import games.XNTupleFuncs;
@@ -26,8 +26,8 @@ import tools.Types.ACTIONS_VT;
  *  <ul>
  *      <li> If {@link CubeConfig#REPLAYBUFFER} is false, simplify DAVI further by updating the net in each step only with
  *      the actual (state, target) pair </li>
- *      <li> If {@link CubeConfig#REPLAYBUFFER} is true, maintain a replay buffer of {@link TrainingItem}s and train the net
- *      in batches sampled from this replay buffer. </li>
+ *      <li> If {@link CubeConfig#REPLAYBUFFER} is true, maintain a {@link ReplayBuffer} of training items and train the net
+ *      in batches sampled (uniformly or prioritized, see {@link CubeConfig#PRIORITIZED_REPLAY}) from this replay buffer. </li>
  *  </ul>
  *  It <b>maximizes</b> the value V(s) where each step (twist) adds a negative step reward to V(s).
  *  Only the solved cube s* has V(s*)={@link StateObserverCube#REWARD_POSITIVE}.
@@ -39,7 +39,7 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 
 	private Random rand;
 
-	private transient LinkedList replayBuffer;
+	private transient ReplayBuffer replayBuffer;
 
 //	private NTupleAgt.EligType m_elig;
 //	private int numPlayers;
@@ -99,7 +99,7 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 		setTDParams(tdPar, maxGameNum);
 		m_Net.setHorizon();
 
-		replayBuffer  = new LinkedList<>();
+		replayBuffer  = new ReplayBuffer(CubeConfig.replayBufferCapacity);
 
 		setAgentState(AgentState.INIT);
 	}
@@ -125,7 +125,7 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 		// initialize transient members (in case a further training should take place --> see ValidateAgentTest) 
 		this.m_Net.instantiateAfterLoading();   // instantiate transient eList and nTuples
 
-		replayBuffer  = new LinkedList<>();
+		replayBuffer  = new ReplayBuffer(CubeConfig.replayBufferCapacity);
 
 		return true;
 	}
@@ -292,12 +292,10 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 		Types.ACTIONS_VT  a_t;
 		StateObservation s_t = so.copy();
 		int epiLength = m_oPar.getEpisodeLength();
-		LinkedList<TrainingItem> episodeList = new LinkedList<>();
-		TrainingItem item;
-		int index;
+		ArrayList<TrainingItem> episodeList = new ArrayList<>();
 
-		int curPlayer;
-		double vLast;
+		if (replayBuffer.capacity()!=CubeConfig.replayBufferCapacity)
+			replayBuffer = new ReplayBuffer(CubeConfig.replayBufferCapacity);
 		assert (epiLength != -1) : "trainAgent: Rubik's Cube should not be run with epiLength==-1 !";
 		if (so.equals(def)) {
 			System.err.println("trainAgent: cube should NOT be the default (solved) cube!");
@@ -310,13 +308,13 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 
 			a_t = getNextAction2(s_t, false, true);	// choose action a_t (agent-specific behavior)
 
-			// add a new TrainingElem to episodeList
+			// add a new TrainingItem to episodeList
 			TrainingItem trainItem = new TrainingItem(
-					new StateObsWithBoardVector(s_t.copy(), m_Net.xnf),
-					a_t.getVBest(),
-					this.getGameNum()
+					packState((StateObserverCube) s_t),
+					s_t.getPlayer(),
+					a_t.getVBest()
 			);
-			episodeList.addFirst(trainItem);
+			episodeList.add(trainItem);
 			//System.out.println(s_t.stringDescr()+", "+a_t.getVBest());
 
 			s_t.advance(a_t);		// advance the state
@@ -325,11 +323,9 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 				m_finished = true;
 
 				// successful episode --> put all episodeList elements into replayBuffer
-				ListIterator<DAVI3Agent.TrainingItem> iter = episodeList.listIterator();
-				while(iter.hasNext()) {
-					replayBuffer.addFirst(iter.next());
-					if (replayBuffer.size() > CubeConfig.replayBufferCapacity) replayBuffer.pollLast();
-				}
+				// (the last one first; if replayBuffer is full, each new item replaces the oldest one)
+				for (int k=episodeList.size()-1; k>=0; k--)
+					episodeList.get(k).addTo(replayBuffer, 0.0, this.getGameNum());
 
 			}
 			if (s_t.getMoveCounter()>=epiLength) {
@@ -338,13 +334,8 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 				// unsuccessful episode --> reduce the target of all elements in episodeList by 'amount'
 				// and put them then into replayBuffer
 				double amount = m_oPar.getIncAmount(); //-0.03;
-				ListIterator<DAVI3Agent.TrainingItem> iter = episodeList.listIterator();
-				while(iter.hasNext()) {
-//					TrainingItem ti = iter.next();
-//					ti.reduceTarget(amount);
-					replayBuffer.addFirst(iter.next().increaseTarget(amount));
-					if (replayBuffer.size() > CubeConfig.replayBufferCapacity) replayBuffer.pollLast();
-				}
+				for (int k=episodeList.size()-1; k>=0; k--)
+					episodeList.get(k).addTo(replayBuffer, amount, this.getGameNum());
 
 			}
 
@@ -354,24 +345,13 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 		// train network from replayBuffer ...
 		if (replayBuffer.size() < CubeConfig.batchSize) {
 			// ... with all samples in replayBuffer
-			ListIterator<TrainingItem> iter = replayBuffer.listIterator();
-			while(iter.hasNext()) {
-				item = iter.next();
-				curPlayer = item.sowb.getStateObservation().getPlayer();
-				vLast = m_Net.getScoreI(item.sowb,curPlayer);
-				m_Net.updateWeightsTD(item.sowb, curPlayer, vLast, item.target,
-						s_t.getStepRewardTuple().scTup[0], item.sowb.getStateObservation());
-			}
+			for (int slot=0; slot<replayBuffer.size(); slot++)
+				trainFromReplayBuffer(slot);
 		} else {
 			// ... with batchSize random samples
-			for (int i=0; i<CubeConfig.batchSize; i++) {
-				index = rand.nextInt(replayBuffer.size());
-				item = (TrainingItem)replayBuffer.get(index);
-				s_t = item.sowb.getStateObservation();
-				vLast = m_Net.getScoreI(item.sowb,s_t.getPlayer());
-				m_Net.updateWeightsTD(item.sowb, s_t.getPlayer(), vLast, item.target,
-						s_t.getStepRewardTuple().scTup[0], s_t);
-			}
+			for (int i=0; i<CubeConfig.batchSize; i++)
+				trainFromReplayBuffer(CubeConfig.PRIORITIZED_REPLAY ? replayBuffer.samplePrioritized(rand)
+																	: replayBuffer.sampleUniform(rand));
 		}
 
 		incrementGameNum();
@@ -380,6 +360,22 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 		return false;
 	}
 
+	/**
+	 * Train the net with the item in {@code slot} of {@link #replayBuffer}. The state is reconstructed from its 
+	 * packed form (the state is needed for the symmetries of the cube, see 
+	 * {@link XNTupleFuncsCube#symmetryVectors(StateObsWithBoardVector, int)}).
+	 */
+	private void trainFromReplayBuffer(int slot) {
+		StateObservation s_t = unpackState(replayBuffer.getVector(slot));
+		StateObsWithBoardVector sowb = new StateObsWithBoardVector(s_t, m_Net.xnf);
+		int curPlayer = replayBuffer.getPlayer(slot);
+		double vLast = m_Net.getScoreI(sowb, curPlayer);
+		double target = replayBuffer.getTarget(slot);
+		m_Net.updateWeightsTD(sowb, curPlayer, vLast, target, s_t.getStepRewardTuple().scTup[0], s_t);
+		if (CubeConfig.PRIORITIZED_REPLAY) 
+			replayBuffer.setPriority(slot, Math.abs(target-vLast) + 1e-3);
+	}
+
 	@Override
 	public double getScore(StateObservation so) {
         assert (so instanceof StateObserverCube) : "Not a StateObserverCube object";
@@ -447,21 +443,37 @@ public class DAVI3Agent extends NTupleBase implements PlayAgent {
 	public void collectReward(NextState ns) {
 	}
 
-	// class TrainingItem is needed for replayBuffer (see trainAgent_replayBuffer(so))
-	private class TrainingItem implements Serializable {
-		StateObsWithBoardVector sowb;
+	/**
+	 * @return the state of {@code so} as int vector for {@link #replayBuffer}: the {@link PackedCubeState}, 
+	 * 		including the last twist (needed for {@link CubeConfig.BoardVecType#CUBEPLUSACTION})
+	 * @see #unpackState(int[])
+	 */
+	static int[] packState(StateObserverCube so) {
+		return new PackedCubeState(so.getCubeState()).toIntArray();
+	}
+
+	/**
+	 * @return the state packed by {@link #packState(StateObserverCube)}. Its board vector is the one of the 
+	 * 		packed state for every {@link CubeConfig#boardVecType}.
+	 */
+	static StateObserverCube unpackState(int[] code) {
+		return new StateObserverCube(new PackedCubeState(CubeConfig.cubeType, code).toCubeState());
+	}
+
+	// class TrainingItem collects the items of one episode before they go to replayBuffer (see trainAgent_replayBuffer(so))
+	private static class TrainingItem {
+		int[] state;		// the packed state, see packState
+		int player;
 		double target;
-		int numEpisode;
 
-		TrainingItem(StateObsWithBoardVector sowb, double target, int numEpisode) {
-			this.sowb = sowb;
+		TrainingItem(int[] state, int player, double target) {
+			this.state = state;
+			this.player = player;
 			this.target = target;
-			this.numEpisode = numEpisode;
 		}
 
-		TrainingItem increaseTarget(double amount) {
-			this.target += amount;
-			return this;
+		void addTo(ReplayBuffer buffer, double amount, int numEpisode) {
+			buffer.add(state, player, target+amount, numEpisode);
 		}
 	}
 
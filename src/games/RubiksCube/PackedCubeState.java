@@ -0,0 +1,387 @@
+package games.RubiksCube;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import games.BoardVector;
+import games.RubiksCube.CubeState.Twist;
+import tools.Zobrist;
+
+/**
+ * A compact alternative to the color representation of {@link CubeState}: the cube state is stored as the
+ * position and orientation of each cubie in one {@code long} (corners) or two {@code long}s (corners and edges),
+ * and the twists are done in place with precomputed move tables. There are no arrays to copy, so a twist
+ * allocates nothing and {@link #set(PackedCubeState)} replaces the object copy of
+ * {@link CubeStateFactory#makeCubeState(CubeState)}.
+ * <p>
+ * Encoding: Each cubie has a <b>reference sticker</b> (the first sticker of the cubie in the solved cube).
+ * For each corner cubie we store which of the 24 corner-sticker locations its reference sticker occupies
+ * (5 bits, cubie c in bits {@code 5c..5c+4} of {@link #getCorners()}), likewise for the 12 edge cubies of
+ * the 3x3x3 cube with the 24 edge-sticker locations ({@link #getEdges()}, 60 bits). This location determines
+ * position <b>and</b> orientation of the cubie: the other stickers follow in the cyclic order of the corner
+ * (which no twist changes). So a twist just maps each 5-bit field through the sticker permutation of the
+ * twist; the tables do this for two fields at once.
+ * <p>
+ * The tables are built once from the inverse twist transformations of {@link CubeState2x2} and
+ * {@link CubeState3x3}, so both representations agree for any twist sequence. The conversion to
+ * {@link CubeState} ({@link #toCubeState()}) and {@link BoardVector} ({@link #getBoardVector()}) is lossless,
+ * so n-tuple agents can evaluate packed states. Like the color representation, a packed state can represent
+ * only cube states which are reachable by twists (no color transformations).
+ * <p>
+ * For the 2x2x2 pocket cube only U,L,F-twists are allowed.
+ *
+ * @see CubeState
+ */
+public final class PackedCubeState implements Serializable {
+	private static final long serialVersionUID = 12L;
+	private static final Twist[] TWISTS = Twist.values();
+
+	private final CubeConfig.CubeType cubeType;
+	private long corners;
+	private long edges;				// always 0 for POCKET
+	private Twist lastTwist = Twist.ID;
+	private int lastTimes = 0;
+
+	/**
+	 * Construct a solved cube of type {@code cubeType}
+	 */
+	public PackedCubeState(CubeConfig.CubeType cubeType) {
+		this.cubeType = cubeType;
+		Tables tab = tables();
+		this.corners = tab.solvedCorners;
+		this.edges = tab.solvedEdges;
+	}
+
+	/**
+	 * Copy constructor
+	 */
+	public PackedCubeState(PackedCubeState other) {
+		this.cubeType = other.cubeType;
+		set(other);
+	}
+
+	/**
+	 * Construct the packed state from an int vector made by {@link #toIntArray()}
+	 */
+	public PackedCubeState(CubeConfig.CubeType cubeType, int[] code) {
+		if (code.length!=6) throw new RuntimeException("[PackedCubeState] code has length "+code.length+", not 6");
+		this.cubeType = cubeType;
+		this.corners = (code[0] & 0xFFFFFFFFL) | (long) code[1] << 32;
+		this.edges = (code[2] & 0xFFFFFFFFL) | (long) code[3] << 32;
+		this.lastTwist = TWISTS[code[4]];
+		this.lastTimes = code[5];
+	}
+
+	/**
+	 * Construct the packed state from the sticker locations {@link CubeState#sloc} of {@code cs}
+	 * (the cube type is inferred from the number of stickers).
+	 */
+	public PackedCubeState(CubeState cs) {
+		if (cs.sloc==null) throw new RuntimeException("[PackedCubeState] CubeState without sticker locations");
+		this.cubeType = (cs.sloc.length==24) ? CubeConfig.CubeType.POCKET : CubeConfig.CubeType.RUBIKS;
+		Tables tab = tables();
+		this.corners = tab.pack(cs.sloc, tab.cornerGroup, tab.cornerIndex);
+		this.edges = tab.pack(cs.sloc, tab.edgeGroup, tab.edgeIndex);
+		this.lastTwist = cs.lastTwist;
+		this.lastTimes = cs.lastTimes;
+		assert Arrays.equals(getSloc(), cs.sloc) : "[PackedCubeState] sloc of cs is not reachable by twists";
+	}
+
+	/**
+	 * Copy the state of {@code other} (of the same cube type) into {@code this}, without allocation
+	 * @return {@code this}
+	 */
+	public PackedCubeState set(PackedCubeState other) {
+		assert other.cubeType==this.cubeType : "[PackedCubeState] different cube types";
+		this.corners = other.corners;
+		this.edges = other.edges;
+		this.lastTwist = other.lastTwist;
+		this.lastTimes = other.lastTimes;
+		return this;
+	}
+
+	/**
+	 * Twist a face {@code times} * 90 degrees counter-clockwise (in place, like {@link CubeState#UTw(int)} etc.)
+	 *
+	 * @param twist	one of U,L,F,D,R,B (only U,L,F for the 2x2x2 cube)
+	 * @param times	1, 2 or 3
+	 * @return {@code this}
+	 */
+	public PackedCubeState twist(Twist twist, int times) {
+		assert 1<=times && times<=3 : "times="+times+" is not in {1,2,3}";
+		return twist(3*(twist.ordinal()-1) + times-1);
+	}
+
+	/**
+	 * Twist in place with the action numbering of {@link StateObserverCube#advance(tools.Types.ACTIONS)}
+	 *
+	 * @param action	{@code 3*i+j} for face i (0: U, 1: L, 2: F, 3: D, 4: R, 5: B) and {@code j+1} quarter turns
+	 * @return {@code this}
+	 */
+	public PackedCubeState twist(int action) {
+		Tables tab = tables();
+		if (action<0 || action>=tab.numActions)
+			throw new RuntimeException("[PackedCubeState] action "+action+" not allowed for "+cubeType);
+		corners = apply(corners, tab.cornerMove[action], 4);
+		if (cubeType==CubeConfig.CubeType.RUBIKS)
+			edges = apply(edges, tab.edgeMove[action], 6);
+		lastTwist = TWISTS[action/3+1];
+		lastTimes = action%3+1;
+		return this;
+	}
+
+	/**
+	 * map the {@code 2*pairs} 5-bit fields of {@code x} through the pair table {@code move}
+	 */
+	private static long apply(long x, char[] move, int pairs) {
+		long r = 0;
+		for (int p=0; p<pairs; p++)
+			r |= (long) move[(int) (x >>> 10*p) & 0x3FF] << 10*p;
+		return r;
+	}
+
+	public boolean isSolved() {
+		Tables tab = tables();
+		return corners==tab.solvedCorners && edges==tab.solvedEdges;
+	}
+
+	public CubeConfig.CubeType getCubeType() {
+		return cubeType;
+	}
+
+	/**
+	 * @return the packed corners: the location index (0..23) of the reference sticker of corner cubie c
+	 * 		in bits {@code 5c..5c+4}
+	 */
+	public long getCorners() {
+		return corners;
+	}
+
+	/**
+	 * @return the packed edges: the location index (0..23) of the reference sticker of edge cubie e
+	 * 		in bits {@code 5e..5e+4} (0 for the 2x2x2 cube)
+	 */
+	public long getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @return the state as 6 ints: corners and edges (low and high word each), ordinal of the last twist and
+	 * 		its times (e.g. for {@link controllers.TD.ntuple2.ReplayBuffer})
+	 * @see #PackedCubeState(CubeConfig.CubeType, int[])
+	 */
+	public int[] toIntArray() {
+		return new int[]{(int) corners, (int) (corners >>> 32), (int) edges, (int) (edges >>> 32),
+				lastTwist.ordinal(), lastTimes};
+	}
+
+	public Twist getLastTwist() {
+		return lastTwist;
+	}
+
+	/**
+	 * @return the sticker locations, see {@link CubeState#sloc}
+	 */
+	public int[] getSloc() {
+		Tables tab = tables();
+		int[] sloc = new int[tab.numStickers];
+		tab.unpack(corners, tab.cornerGroup, tab.cornerLoc, tab.next, sloc);
+		tab.unpack(edges, tab.edgeGroup, tab.edgeLoc, tab.next, sloc);
+		return sloc;
+	}
+
+	/**
+	 * @return the equivalent {@link CubeState} (color representation with {@code fcol} and {@code sloc}; the
+	 * 		twist sequence is not known). {@link CubeConfig#cubeType} has to match the type of {@code this}.
+	 */
+	public CubeState toCubeState() {
+		CubeState cs = (cubeType==CubeConfig.CubeType.POCKET)
+				? new CubeState2x2(CubeState.Type.COLOR_P)
+				: new CubeState3x3(CubeState.Type.COLOR_R);
+		int[] def = cs.fcol.clone();
+		cs.sloc = getSloc();
+		for (int i=0; i<def.length; i++) cs.fcol[cs.sloc[i]] = def[i];
+		cs.lastTwist = this.lastTwist;
+		cs.lastTimes = this.lastTimes;
+		return cs;
+	}
+
+	/**
+	 * @return the board vector of {@link #toCubeState()}, for all {@link CubeConfig#boardVecType}s
+	 * @see CubeState#getBoardVector()
+	 */
+	public BoardVector getBoardVector() {
+		return toCubeState().getBoardVector();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof PackedCubeState)) return false;
+		PackedCubeState p = (PackedCubeState) other;
+		return p.cubeType==cubeType && p.corners==corners && p.edges==edges;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) Zobrist.mix(corners ^ Zobrist.mix(edges));
+	}
+
+	@Override
+	public String toString() {
+		return cubeType+"|"+Long.toHexString(corners)+"|"+Long.toHexString(edges)+"|";
+	}
+
+	private Tables tables() {
+		return (cubeType==CubeConfig.CubeType.POCKET) ? PocketTables.TAB : RubiksTables.TAB;
+	}
+
+	private static class PocketTables {
+		// the sticker locations of the corner cubies a,...,h (see Cor and CubeState2x2.getBoardVector)
+		static final Tables TAB = new Tables(24,
+				new int[][] {{0,4,8},{1,11,18},{2,17,23},{3,22,5},{12,16,20},{13,19,10},{14,9,7},{15,6,21}},
+				new int[0][],
+				new int[][] {CubeState2x2.invU_2x2, CubeState2x2.invL_2x2, CubeState2x2.invF_2x2});
+	}
+
+	private static class RubiksTables {
+		// the sticker locations of the corner cubies a,...,h and the edge cubies E0,...,Eb
+		// (see Cor, CubeState3x3.Edg and CubeState3x3.getBoardVector)
+		static final Tables TAB = new Tables(48,
+				new int[][] {{0,8,16},{2,22,36},{4,34,46},{6,10,44},{24,32,40},{20,26,38},{14,18,28},{12,30,42}},
+				new int[][] {{1,23},{3,35},{5,45},{7,9},{15,17},{21,37},{11,43},{33,47},{25,39},{19,27},{13,29},{31,41}},
+				new int[][] {CubeState3x3.invU_3x3, CubeState3x3.invL_3x3, CubeState3x3.invF_3x3,
+							 CubeState3x3.invD_3x3, CubeState3x3.invR_3x3, CubeState3x3.invB_3x3});
+	}
+
+	/**
+	 * The move tables and the sticker layout of one cube type
+	 */
+	private static final class Tables {
+		final int numStickers;
+		final int numActions;				// 3 per face
+		final int[] next;					// next[i]: the next sticker location after i in the cyclic order of its cubie
+		final int[][] cornerGroup, edgeGroup;	// the sticker locations of each cubie in the solved cube, reference first
+		final int[] cornerLoc, edgeLoc;		// the location of corner (edge) sticker index k = 0..23
+		final int[] cornerIndex, edgeIndex;	// the inverse: the index k of a sticker location or -1
+		final char[][] cornerMove, edgeMove;	// [action][two 5-bit fields] -> two 5-bit fields
+		final long solvedCorners, solvedEdges;
+
+		Tables(int numStickers, int[][] corners, int[][] edges, int[][] inv) {
+			this.numStickers = numStickers;
+			this.numActions = 3*inv.length;
+			int[][] fwd = new int[inv.length][numStickers];	// fwd[f][i]: the new location of the sticker at i
+			for (int f=0; f<inv.length; f++)
+				for (int i=0; i<numStickers; i++) fwd[f][inv[f][i]] = i;
+
+			this.next = cyclicOrder(corners, edges, fwd);
+			this.cornerGroup = orderGroups(corners, next);
+			this.edgeGroup = orderGroups(edges, next);
+			this.cornerLoc = new int[3*corners.length];
+			this.edgeLoc = new int[2*edges.length];
+			this.cornerIndex = locationIndex(cornerGroup, cornerLoc);
+			this.edgeIndex = locationIndex(edgeGroup, edgeLoc);
+
+			this.cornerMove = new char[numActions][];
+			this.edgeMove = new char[numActions][];
+			for (int a=0; a<numActions; a++) {
+				int[] perm = new int[numStickers];		// the sticker permutation of action a
+				for (int i=0; i<numStickers; i++) {
+					perm[i] = i;
+					for (int t=0; t<=a%3; t++) perm[i] = fwd[a/3][perm[i]];
+				}
+				cornerMove[a] = pairTable(perm, cornerLoc, cornerIndex);
+				edgeMove[a] = pairTable(perm, edgeLoc, edgeIndex);
+			}
+			int[] id = new int[numStickers];
+			for (int i=0; i<numStickers; i++) id[i] = i;
+			this.solvedCorners = pack(id, cornerGroup, cornerIndex);
+			this.solvedEdges = pack(id, edgeGroup, edgeIndex);
+		}
+
+		/**
+		 * Derive the cyclic order of the stickers of each cubie: start with the order of the first group
+		 * which is not yet ordered and carry it to all groups reachable by twists (twists are rigid motions,
+		 * they keep the cyclic order). Throws an exception if the twists are inconsistent with the groups.
+		 */
+		private static int[] cyclicOrder(int[][] corners, int[][] edges, int[][] fwd) {
+			int n = fwd[0].length;
+			int[] next = new int[n];
+			Arrays.fill(next, -1);
+			int[][][] groupsArr = {corners, edges};
+			for (int[][] groups : groupsArr) {
+				for (int[] g : groups) {
+					if (next[g[0]]>=0) continue;
+					ArrayDeque<Integer> queue = new ArrayDeque<>();
+					for (int k=0; k<g.length; k++) {
+						next[g[k]] = g[(k+1)%g.length];
+						queue.add(g[k]);
+					}
+					while (!queue.isEmpty()) {
+						int i = queue.poll();
+						for (int[] f : fwd) {
+							int j = f[i], nj = f[next[i]];
+							if (next[j]<0) {
+								next[j] = nj;
+								queue.add(j);
+							} else if (next[j]!=nj) {
+								throw new RuntimeException("[PackedCubeState] twists do not keep the cyclic order at sticker "+j);
+							}
+						}
+					}
+				}
+			}
+			return next;
+		}
+
+		/**
+		 * @return the groups with their stickers in cyclic order, starting with the first sticker of each group
+		 */
+		private static int[][] orderGroups(int[][] groups, int[] next) {
+			int[][] ordered = new int[groups.length][];
+			for (int c=0; c<groups.length; c++) {
+				ordered[c] = new int[groups[c].length];
+				ordered[c][0] = groups[c][0];
+				for (int k=1; k<groups[c].length; k++) ordered[c][k] = next[ordered[c][k-1]];
+			}
+			return ordered;
+		}
+
+		private int[] locationIndex(int[][] groups, int[] loc) {
+			int[] index = new int[numStickers];
+			Arrays.fill(index, -1);
+			int k = 0;
+			for (int[] g : groups)
+				for (int i : g) {
+					loc[k] = i;
+					index[i] = k++;
+				}
+			return index;
+		}
+
+		private static char[] pairTable(int[] perm, int[] loc, int[] index) {
+			char[] table = new char[1024];
+			for (int hi=0; hi<loc.length; hi++)
+				for (int lo=0; lo<loc.length; lo++)
+					table[hi<<5 | lo] = (char) (index[perm[loc[hi]]]<<5 | index[perm[loc[lo]]]);
+			return table;
+		}
+
+		long pack(int[] sloc, int[][] groups, int[] index) {
+			long x = 0;
+			for (int c=0; c<groups.length; c++)
+				x |= (long) index[sloc[groups[c][0]]] << 5*c;
+			return x;
+		}
+
+		void unpack(long x, int[][] groups, int[] loc, int[] next, int[] sloc) {
+			for (int c=0; c<groups.length; c++) {
+				int l = loc[(int) (x >>> 5*c) & 0x1F];
+				for (int s : groups[c]) {
+					sloc[s] = l;
+					l = next[l];
+				}
+			}
+		}
+	}
+}
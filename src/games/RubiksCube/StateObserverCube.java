@@ -9,6 +9,7 @@ import games.StateObservation;
 import tools.ScoreTuple;
 import tools.Types;
 import tools.Types.ACTIONS;
+import tools.Zobrist;
 
 /**
  * Class StateObserverCube observes the current state of the game, it has utility functions for
@@ -145,6 +146,15 @@ public class StateObserverCube extends ObserverBase implements StateObservation
 		return m_action;
 	}
 
+	/**
+	 * The hash key includes the last action, because agents like DAVI3Agent exclude its inverse from 
+	 * the search, so the result of a search depends on it.
+	 */
+	@Override
+	public long hashKey() {
+		return super.hashKey() ^ Zobrist.key(-1, m_action.toInt());
+	}
+
 	/**
 	 * The game score of state {@code this}, seen from the perspective of {@code refer}'s player. 
 	 * For Rubik's Cube only the game-over state (solved cube) has a non-zero game score
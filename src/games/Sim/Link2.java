@@ -6,6 +6,9 @@ import java.io.Serializable;
  *  This class holds all links emanating from a certain node {@code nFrom} in the Sim graph. 
  *  <p>
  *  Note that only links with {@literal nFrom < i} are relevant, where i is an index for {@code lTo}.
+ *  <p>
+ *  {@link StateObserverSim} now codes its graph as adjacency bitmasks. This class is only needed to read 
+ *  older logs.
  *
  */
 public class Link2 implements Serializable 
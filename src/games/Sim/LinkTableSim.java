@@ -0,0 +1,68 @@
+package games.Sim;
+
+/**
+ * Lookup tables for the links of the complete graph K_n, numbered as the actions of {@link StateObserverSim}:
+ * link {@code k} connects node {@code from[k]} with node {@code to[k]} ({@literal from[k] < to[k]}), and
+ * {@code link[i][j]} is the number of the link between nodes {@code i} and {@code j}.
+ * <p>
+ * The tables depend only on the number of nodes, so there is one shared (immutable) instance for each
+ * graph size, see {@link #of(int)}.
+ */
+final class LinkTableSim {
+	/**
+	 * the maximum number of nodes (one bit per node in a {@code long} adjacency mask)
+	 */
+	static final int MAX_NODES = 64;
+
+	private static final LinkTableSim[] TABLES = new LinkTableSim[MAX_NODES+1];
+
+	final int numNodes;
+	final int numLinks;
+	final int[] from;
+	final int[] to;
+	/**
+	 * {@code link[i][j]}: the link between nodes i and j, -1 for i==j
+	 */
+	final int[][] link;
+
+	private LinkTableSim(int numNodes) {
+		this.numNodes = numNodes;
+		this.numLinks = numNodes*(numNodes-1)/2;
+		this.from = new int[numLinks];
+		this.to = new int[numLinks];
+		this.link = new int[numNodes][numNodes];
+		for (int i=0; i<numNodes; i++) link[i][i] = -1;
+		for (int i=0, k=0; i<numNodes-1; i++) {
+			for (int j=i+1; j<numNodes; j++, k++) {
+				from[k] = i;
+				to[k] = j;
+				link[i][j] = link[j][i] = k;
+			}
+		}
+	}
+
+	/**
+	 * @return the tables for the graph with {@code numNodes} nodes
+	 */
+	static LinkTableSim of(int numNodes) {
+		if (numNodes<2 || numNodes>MAX_NODES)
+			throw new RuntimeException("Sim: number of nodes has to be in 2,...,"+MAX_NODES+", but is "+numNodes);
+		LinkTableSim table = TABLES[numNodes];
+		if (table==null) 		// (a race here only builds the same tables twice)
+			TABLES[numNodes] = table = new LinkTableSim(numNodes);
+		return table;
+	}
+
+	/**
+	 * @param perm a permutation of the nodes 0,...,numNodes-1
+	 * @return the link lookup table {@code lut} of {@code perm}: if the nodes of a graph are relabeled such
+	 * 		that node i of the new graph is node {@code perm[i]} of the old graph, then link {@code k} of the
+	 * 		new graph is link {@code lut[k]} of the old graph.
+	 */
+	int[] permutedLinks(int[] perm) {
+		int[] lut = new int[numLinks];
+		for (int k=0; k<numLinks; k++)
+			lut[k] = link[perm[from[k]]][perm[to[k]]];
+		return lut;
+	}
+}
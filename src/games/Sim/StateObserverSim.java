@@ -1,5 +1,7 @@
 package games.Sim;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 
@@ -16,11 +18,12 @@ import tools.Types.ACTIONS;
 import tools.Types.WINNER;
 import tools.Types;
 import tools.ValidateStateObsTest;
+import tools.Zobrist;
 
 /**
- * This class holds any valid Sim game state. It is coded
- * as array {@link Link2}{@code [] lFrom}, where {@code lFrom[i]} carries all links from node {@code i} 
- * to all nodes with higher index than {@code i}. Each link can be 
+ * This class holds any valid Sim game state. It is coded as adjacency bitmasks {@code long[] adj}: 
+ * bit {@code j} of {@code adj[p*K+i]} is set if the link between node {@code i} and node {@code j} 
+ * belongs to player p (K: number of nodes). So each link can be 
  * <ul>
  * <li>= 0 for an empty link,
  * <li>= 1 for a P0 link,
@@ -43,7 +46,13 @@ import tools.ValidateStateObsTest;
  *                         12  13  3
  *                             14  4
  *                                 5    </pre>
- *  The {@code lines} in {@link BoardPanel} are numbered exactly the same way as the actions.
+ *  The {@code lines} in {@link BoardPanel} are numbered exactly the same way as the actions 
+ *  (see {@link LinkTableSim}).
+ *  <p>
+ *  With the bitmasks, a monochromatic triangle through the last link (i,j) is a single AND of the masks 
+ *  of nodes i and j, and a copy of the graph is a clone of K*P {@code long}s (P: number of players).
+ *  (Former versions coded the graph as array {@link Link2}{@code [] lFrom} of link objects. Older logs 
+ *  carrying such states are converted when they are read, see {@link #readObject(ObjectInputStream)}.)
  *  <p>
  *  This class is a completely rewritten version of the former StateObsererSim (by P. Wuensch, now in 
  *  deprecated/.../StateObserverSim_OLD.java). The new version has code easier to maintain and can be better 
@@ -56,7 +65,15 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 	private int numNodes;
 	private int numPlayers;
 	private int player;			// 0,1 in 2-player variant;   0,1,2 in 3-player variant
+	/**
+	 * {@code adj[p*numNodes+i]}: bit j is set if the link between nodes i and j belongs to player p
+	 */
+	private long[] adj;
+	/**
+	 * the graph of older logs (now null, see {@link #readObject(ObjectInputStream)})
+	 */
 	private Link2[] lFrom;
+	private transient LinkTableSim links;
 	/**
 	 * The list of available actions
 	 */
@@ -73,6 +90,10 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 	 * (needed in {@link BoardPanel} to color this triangle).
 	 */
 	private int[] lastNodes = {-1,-1,-1};
+	/**
+	 * The Zobrist key of this state, 0: not yet computed (see {@link #hashKey()})
+	 */
+	private long m_hash = 0;
 	
 	private static final long serialVersionUID = 12L;	//Serial number
 	private FinalSim finalSim;
@@ -88,10 +109,10 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 		this.numNodes = other.numNodes;
 		this.numPlayers = other.numPlayers;
 		this.player = other.player;
+		this.m_hash = other.m_hash;
 		this.finalSim = new FinalSim(other.finalSim);
-
-		setupLinks(other.numNodes);
-		copyLinks(other.lFrom);
+		this.links = other.links;
+		this.adj = other.adj.clone();
 		
 		this.lastMoves = (ArrayList<Integer>) other.lastMoves.clone();
 		if (other.availableActions!=null)	// this check is needed when loading older logs
@@ -107,8 +128,8 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 		this.numPlayers = numberOfPlayer;
 		this.player = 0;
 		this.finalSim = new FinalSim(numberOfPlayer);
-		
-		setupLinks(numberOfNodes);
+		this.links = LinkTableSim.of(numberOfNodes);
+		this.adj = new long[numberOfPlayer*numberOfNodes];
 		setAvailableActions();
 		this.lastMoves = new ArrayList<Integer>();
 	}
@@ -121,34 +142,59 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 		return sos;
 	}
 
-	private void setupLinks(int numberOfNodes)
+	/**
+	 * Convert the graph of older logs ({@link Link2}{@code [] lFrom}) to adjacency bitmasks.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		links = LinkTableSim.of(numNodes);
+		if (adj == null) {
+			adj = new long[numPlayers*numNodes];
+			for (int k = 0; k < links.numLinks; k++) {
+				int p = lFrom[links.from[k]].getPlayer(links.to[k]);
+				if (p != 0) setLink(links.from[k], links.to[k], p - 1);
+			}
+			lFrom = null;
+		}
+	}
+	
+	private void setLink(int i, int j, int p)
 	{
-		lFrom = new Link2[numberOfNodes];
-		for(int i = 0; i < numberOfNodes; i++)
-			lFrom[i] = new Link2(i,numberOfNodes);
+		adj[p*numNodes + i] |= 1L << j;
+		adj[p*numNodes + j] |= 1L << i;
 	}
 	
-	private void copyLinks(Link2[] links)
+	/**
+	 * @return all nodes which are connected with node {@code i} by a link (of any player)
+	 */
+	private long occupied(int i)
+	{
+		long mask = 0;
+		for (int p = 0; p < numPlayers; p++)
+			mask |= adj[p*numNodes + i];
+		return mask;
+	}
+	
+	/**
+	 * @return the number of links of player {@code p}
+	 */
+	private int countLinks(int p)
 	{
-		for(int i = 0; i < numNodes; i++)
-			this.lFrom[i] = new Link2(links[i]);
+		int count = 0;
+		for (int i = p*numNodes; i < (p+1)*numNodes; i++)
+			count += Long.bitCount(adj[i]);
+		return count/2;			// each link is in the masks of both of its nodes
 	}
 	
 	public boolean hasLost(int player)
 	{
 		if (lastNodes[0] != lastNodes[1]) {		// if action 'grab the link between these two nodes' is taken
-			for(int i = 0; i < lFrom.length; i++)
-				if(i == lastNodes[0] || i == lastNodes[1])
-					continue;
-				else
-				{
-					if(getLinkFromTo(i,lastNodes[0]) == player + 1 && 
-					   getLinkFromTo(i,lastNodes[1]) == player + 1) {
-						lastNodes[2] = i;
-						//System.out.println(this.stringDescr());
-						return true;
-					}
-				}
+			// the nodes connected by 'player' with both nodes of the last link:
+			long common = adj[player*numNodes + lastNodes[0]] & adj[player*numNodes + lastNodes[1]];
+			if (common != 0) {
+				lastNodes[2] = Long.numberOfTrailingZeros(common);
+				return true;
+			}
 		}		
 		return false;
 	}
@@ -163,10 +209,10 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 	 */
 	private boolean isFull()
 	{
-		for(Link2 link : lFrom)
-			if(link.hasSpaceLeft())
-				return false;
-		return true;
+		int count = 0;
+		for (int p = 0; p < numPlayers; p++)
+			count += countLinks(p);
+		return count == links.numLinks;
 	}
 	
 	@Override
@@ -191,31 +237,12 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 
 	private boolean isLegalState2Player()
 	{
-		int count0 = 0, count1 = 0;			// counti: number of links that player i=0,1 occupies
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++) {
-				if (lFrom[i].getPlayer(j) == 1)
-					count0++;
-				else if (lFrom[i].getPlayer(j) == 2)
-					count1++;
-			}
-		}	
-		return checkIfLegal2(count0,count1);
+		return checkIfLegal2(countLinks(0),countLinks(1));		// counti: number of links that player i=0,1 occupies
 	}
 	
 	private boolean isLegalState3Player()
 	{
-		int count0 = 0, count1 = 0, count2 = 0;		// counti: number of links that player i=0,1,2 occupies
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++) {
-				if (lFrom[i].getPlayer(j) == 1)
-					count0++;
-				else if (lFrom[i].getPlayer(j) == 2)
-					count1++;
-				else if (lFrom[i].getPlayer(j) == 3)
-					count2++;
-			}
-		}
+		int count0 = countLinks(0), count1 = countLinks(1), count2 = countLinks(2);
 		// now count0,1,2 have the # of links occupied by player P0,1,2
 		
 		if (finalSim.getLoser()==-1) 
@@ -330,13 +357,12 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 	@Override
 	public void setAvailableActions() {
 		availableActions.clear();
-		int action = 0;
 		
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++) {
-				if (lFrom[i].getPlayer(j) == 0)					// all empty links are available actions
+		for(int i = 0, action = 0; i < numNodes -1 ; i++) {
+			long empty = ~occupied(i);
+			for(int j = i+1; j < numNodes; j++, action++) {
+				if ((empty >>> j & 1) != 0)						// all empty links are available actions
 					availableActions.add(Types.ACTIONS.fromInt(action));
-				action++;
 			}
 		}
 	}
@@ -348,14 +374,9 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 
     @Override
 	public ArrayList<ACTIONS> getAllAvailableActions() {
-		int action = 0;
         ArrayList allActions = new ArrayList<>();
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++) {
-				allActions.add(Types.ACTIONS.fromInt(action));
-				action++;
-			}
-		}       
+		for(int action = 0; action < links.numLinks; action++)
+			allActions.add(Types.ACTIONS.fromInt(action));
         return allActions;
 	}
 	
@@ -370,17 +391,28 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 		int iAction = action.toInt();
 		
 		setAction(iAction);
-		setAvailableActions();		// IMPORTANT: adjust the available actions (have reduced by one)
+		removeAvailableAction(iAction);		// IMPORTANT: adjust the available actions (have reduced by one)
 		
 		finalSim.checkIfPlayerLost();
 		
-		player = getNextPlayer();	// 2-player games: 0,1,0,1,...;   3-player games: 0,1,2,0,1,...
+		int nextPlayer = getNextPlayer();	// 2-player games: 0,1,0,1,...;   3-player games: 0,1,2,0,1,...
+		if (m_hash!=0) 
+			m_hash ^= Zobrist.key(iAction, player+1) ^ Zobrist.side(player) ^ Zobrist.side(nextPlayer);
+		player = nextPlayer;
 		super.incrementMoveCounter();		
 		lastMoves.add(action.toInt());
 //		System.out.println("lastMove: "+action.toInt());
 //		System.out.println(this.stringDescr());		// only debug
 	}
 	
+	private void removeAvailableAction(int iAction) {
+		for (int i = 0; i < availableActions.size(); i++)
+			if (availableActions.get(i).toInt() == iAction) {
+				availableActions.remove(i);
+				return;
+			}
+	}
+	
 	@Override
 	public int getPlayer() {
 		return player;
@@ -424,17 +456,13 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 	
 	@Override
 	public String stringDescr() {
-		String sout = "";
-		String str[] = new String[4]; 
-		str[0] = "_"; str[1]="0"; str[2]="1";str[3]="2" ;
+		char[] str = {'_', '0', '1', '2'};
+		char[] sout = new char[links.numLinks];
 		
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++) {
-				sout = sout + str[lFrom[i].getPlayer(j)];
-			}
-		}
+		for(int k = 0; k < links.numLinks; k++)
+			sout[k] = str[getLinkFromTo(links.from[k], links.to[k])];
 		
- 		return sout;
+ 		return new String(sout);
 	}
 
 	public String stringDescr2() {
@@ -442,12 +470,12 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 		String str[] = new String[4]; 
 		str[0] = "-"; str[1]="0"; str[2]="1";str[3]="2" ;
 		
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = 0; j < lFrom.length; j++) {
-				if (j <= lFrom[i].getNode()) {
+		for(int i = 0; i < numNodes -1 ; i++) {
+			for(int j = 0; j < numNodes; j++) {
+				if (j <= i) {
 					sout = sout + " ";
 				} else {
-					sout = sout + str[lFrom[i].getPlayer(j)];
+					sout = sout + str[getLinkFromTo(i,j)];
 				}
 			}
 			sout = sout + "\n";
@@ -457,51 +485,51 @@ public class StateObserverSim extends ObserverBase implements StateObservation {
 
 	void setAction(int action)
 	{
-		int k = 0;
-		
-		for(int i = 0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++,k++) {
-				if(k == action)	{
-					lFrom[i].setPlayer(j, player + 1);
-					setLastNodes(i,j);
-					return;
-				}
-			}
-		}
+		if (action < 0 || action >= links.numLinks) return;
+		int i = links.from[action], j = links.to[action];
+		setLink(i, j, player);
+		setLastNodes(i,j);
 	}
 
 	public boolean isLegalAction(ACTIONS act)
 	{
 		int iAction = act.toInt();
-		
-		for(int i=0, k=0; i < lFrom.length -1 ; i++) {
-			for(int j = lFrom[i].getNode()+1; j < lFrom.length; j++,k++) {
-				if(k == iAction && lFrom[i].getPlayer(j) == 0)
-					return true;
-			}
-		}
-		
-		return false;
+		if (iAction < 0 || iAction >= links.numLinks) return false;
+		return getLinkFromTo(links.from[iAction], links.to[iAction]) == 0;
 	}
 	
 	public int inputToActionInt(int n1, int n2)
 	{
-		if (n1>n2) return inputToActionInt(n2,n1);
+		if (n1 < 0 || n2 < 0 || n1 >= numNodes || n2 >= numNodes || n1 == n2)
+			throw new RuntimeException("No action fits to n1="+n1+", n2="+n2+" !");
 		
-		for(int i=0, k=0; i < lFrom.length -1 ; i++) {
-			for(int j = i+1; j < lFrom.length; j++,k++) {
-				if(n1 == i && n2 == j)
-					return k;
+		return links.link[n1][n2];
+	}
+
+	/**
+	 * @return the Zobrist key of this state (one key per link taken and one for the player to move), 
+	 * 		computed on first call and then updated incrementally in {@link #advance(ACTIONS)}
+	 */
+	@Override
+	public long hashKey() {
+		if (m_hash==0) {
+			long h = Zobrist.side(player);
+			for(int k = 0; k < links.numLinks; k++) {
+				int p = getLinkFromTo(links.from[k], links.to[k]);
+				if (p!=0) h ^= Zobrist.key(k, p);
 			}
+			m_hash = h;
 		}
-		
-		throw new RuntimeException("No action fits to n1="+n1+", n2="+n2+" !");
-//		return -1;
+		return m_hash;
 	}
 
+	/**
+	 * @return the player 1,2,3 who owns the link between node {@code i} and node {@code j} (0 if empty)
+	 */
 	public int getLinkFromTo(int i, int j) {
-		if (i>j) return lFrom[j].getPlayer(i);
-		return lFrom[i].getPlayer(j);
+		for (int p = 0; p < numPlayers; p++)
+			if ((adj[p*numNodes + i] >>> j & 1) != 0) return p + 1;
+		return 0;
 	}
 	
 	public int getNumNodes()
@@ -23,6 +23,13 @@ public class XNTupleFuncsSim extends XNTupleBase implements XNTupleFuncs, Serial
 	transient AllPermutation perm; // /WK/ 'perm' is only needed to build 'list'. 'perm' could be local to setPermutations()
 	
 	transient PermutationIterable <Integer> pi;
+	/**
+	 * {@code symLinks[r]} is the link lookup table (see {@link LinkTableSim#permutedLinks(int[])}) of the 
+	 * {@code r}th node permutation of {@link #pi}. Only built for graphs with not more than 
+	 * {@link #MAX_SYM_NODES} nodes (at most 7! = 5040 tables), otherwise null.
+	 */
+	transient int[][] symLinks;
+	private static final int MAX_SYM_NODES = 7;
 //	/**
 //	 * {@link #arrLink}{@code .get(i)} holds all links emerging from node {@code i}.
 //	 */
@@ -98,6 +105,21 @@ public class XNTupleFuncsSim extends XNTupleBase implements XNTupleFuncs, Serial
         List <Integer> il = new ArrayList <Integer> ();
         for (int i = 0; i < ConfigSim.NUM_NODES; i++) il.add(Integer.valueOf(i));
         pi = new PermutationIterable <Integer> (il);
+        
+        // the lookup tables of all permutations, if there are not too many of them:
+        symLinks = null;
+        if (ConfigSim.NUM_NODES <= MAX_SYM_NODES) {
+        	PermutationIterator <Integer> pitor = (PermutationIterator <Integer>) pi.iterator ();
+        	LinkTableSim links = LinkTableSim.of(ConfigSim.NUM_NODES);
+        	int[] perm = new int[ConfigSim.NUM_NODES];
+        	symLinks = new int[(int) pitor.last][];
+        	for (int r = 0; pitor.hasNext(); r++) {
+        		List <Integer> rli = pitor.next();
+        		for (int i = 0; i < perm.length; i++) perm[i] = rli.get(i);
+        		symLinks[r] = links.permutedLinks(perm);
+        	}
+        }
+        if (rand == null) rand = new Random();		// transient, null after loading
 
         // this is the old version by Percy Wnsch. It explicitly creates all 
         // permutations in perm and therefore crashes (mem exhausted) if the 
@@ -203,47 +225,47 @@ public class XNTupleFuncsSim extends XNTupleBase implements XNTupleFuncs, Serial
 		throw new RuntimeException("StateObservation so is not StateObserverSim");
 	}
 
-	// should return a symmetry permuted BoardVector, but does not yet work
-	//
-	private BoardVector getBoardVector(StateObservation so, List<Integer> rli) 
-	{
-		if (so instanceof StateObserverSim) {
-			StateObserverSim sim = (StateObserverSim) so;
-			int [] board = new int[ConfigSim.NUM_NODES*(ConfigSim.NUM_NODES-1)/2]; 
-			int k = 0;
-			
-			for(int i = 0; i < sim.getNumNodes() -1 ; i++) {
-				for(int j = i+1; j < sim.getNumNodes(); j++) {
-					board[k++] = sim.getLinkFromTo(rli.get(i),rli.get(j));
-				}
-			}
-			
-			return new BoardVector(board);
-		}
-		throw new RuntimeException("StateObservation so is not StateObserverSim");
-	}
-
+	/**
+	 * Sim has K! symmetries, the permutations of the nodes. We pick n-1 of them at random and look up the 
+	 * permuted links in {@link #symLinks} (K &le; {@link #MAX_SYM_NODES}). For larger K we draw a random 
+	 * permutation and map the links with {@link LinkTableSim} directly.
+	 */
 	@Override
 	public BoardVector[] symmetryVectors(StateObsWithBoardVector curSOWB, int n) {
 		BoardVector boardVector = curSOWB.getBoardVector();
 		StateObservation so = curSOWB.getStateObservation();
 		assert so instanceof StateObserverSim : "Ooops, so is not of class StateObserverSim";
-		StateObserverSim sim = (StateObserverSim) so;
+		int[] bvec = boardVector.bvec;
 		
 		//TODO: This does not yet guarantee that all n symmetric states are different!!
 		//      Way out: make a set with exactly n-1 different numbers (if K! is large)
 		//		or make a permutation of (0,1,...,K!-1) and pick only the first n elements (if K! is small)
 		BoardVector[] symmetricVectors = new BoardVector[n];
 		symmetricVectors[0] = boardVector;
-        PermutationIterator <Integer> pitor = (PermutationIterator  <Integer>) pi.iterator ();
-        for (int i = 1; i < n; ++i)
-        {
-            int rnd = rand.nextInt ((int) pitor.last); 
-            List <Integer> rli = pitor.get (rnd);
-            symmetricVectors[i] = getBoardVector(so,rli); 		
-//            System.out.println(symmetricVectors[i].toString());
-//            int dummy = 1; 
-        }
+		if (symLinks != null && symLinks[0].length == bvec.length) {
+	        for (int i = 1; i < n; ++i)
+	        {
+	        	int[] lut = symLinks[rand.nextInt(symLinks.length)];
+	        	int[] sym = new int[bvec.length];
+	        	for (int k = 0; k < sym.length; k++) sym[k] = bvec[lut[k]];
+	            symmetricVectors[i] = new BoardVector(sym);
+	        }
+		} else {
+			LinkTableSim links = LinkTableSim.of(((StateObserverSim) so).getNumNodes());
+			int[] perm = new int[links.numNodes];
+	        for (int i = 1; i < n; ++i)
+	        {
+	        	for (int j = 0; j < perm.length; j++) {			// random permutation (Fisher-Yates)
+	        		int r = rand.nextInt(j+1);
+	        		perm[j] = perm[r];
+	        		perm[r] = j;
+	        	}
+	        	int[] sym = new int[bvec.length];
+	        	for (int k = 0; k < sym.length; k++) 
+	        		sym[k] = bvec[links.link[perm[links.from[k]]][perm[links.to[k]]]];
+	            symmetricVectors[i] = new BoardVector(sym);
+	        }
+		}
 		return symmetricVectors;
 	}
 	
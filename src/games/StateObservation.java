@@ -81,6 +81,19 @@ public interface StateObservation extends Serializable{
 	 */
 	public String stringDescr();
 
+	/**
+	 * A 64-bit hash key of the state, e.g. for transposition tables in tree search agents. Equal states 
+	 * (same board and same player to move) must have equal keys. 
+	 * <p>
+	 * ObserverBase provides a default implementation which hashes {@link #stringDescr()} and the player to move. 
+	 * Games with a faster implementation (Zobrist keys, updated incrementally in {@code advance}) override it.
+	 * 
+	 * @return the hash key
+	 * @see tools.Zobrist
+	 * @see tools.TranspositionTable
+	 */
+	public long hashKey();
+
 	/**
 	 * 
 	 * @return a string representation of action {@code act}
@@ -8,6 +8,7 @@ import games.StateObservation;
 import games.Othello.StateObserverOthello;
 import tools.Types;
 import tools.Types.ACTIONS;
+import tools.Zobrist;
 
 /**
  * Class StateObservation observes the current state of the game, it has utility functions for
@@ -25,6 +26,8 @@ public class StateObserverTTT extends ObserverBase implements StateObservation {
 	private int[][] m_Table;		// current board position
 	private int m_Player;			// player who makes the next move (+1 or -1)
 	protected ArrayList<Types.ACTIONS> availableActions = new ArrayList();	// holds all available actions
+	private long m_hash = 0;		// Zobrist key, 0: not yet computed (see hashKey())
+	private static final long[] ZOBRIST = Zobrist.table(9,3);	// [cell*3 + value+1]
     
 	/**
 	 * change the version ID for serialization only if a newer version is no longer 
@@ -65,6 +68,7 @@ public class StateObserverTTT extends ObserverBase implements StateObservation {
 		this.m_Table = new int[3][3];
 		TicTDBase.copyTable(other.m_Table,m_Table); 
 		m_Player = other.m_Player;
+		m_hash = other.m_hash;
 		if (other.availableActions!=null)	// this check is needed when loading older logs
 			this.availableActions = (ArrayList<ACTIONS>) other.availableActions.clone();
 				// Note that clone does only clone the ArrayList, but not the contained ACTIONS, they are 
@@ -196,6 +200,9 @@ public class StateObserverTTT extends ObserverBase implements StateObservation {
     	
     	setAvailableActions(); 		// IMPORTANT: adjust the available actions (have reduced by one)
     	
+		if (m_hash!=0) 
+			m_hash ^= ZOBRIST[3*iAction+1] ^ ZOBRIST[3*iAction+m_Player+1] 
+					^ Zobrist.side(getPlayer()) ^ Zobrist.side(1-getPlayer());
 		m_Player = m_Player*(-1);    // 2-player games: 1,-1,1,-1,...
     		
 		super.incrementMoveCounter();
@@ -274,5 +281,21 @@ public class StateObserverTTT extends ObserverBase implements StateObservation {
 		return 2;				// TicTacToe is a 2-player game
 	}
 
+	/**
+	 * @return the Zobrist key of this state, computed on first call and then updated incrementally in 
+	 * 		{@link #advance(ACTIONS)}
+	 */
+	@Override
+	public long hashKey() {
+		if (m_hash==0) {
+			long h = Zobrist.side(getPlayer());
+			for (int i=0; i<3; i++)
+				for (int j=0; j<3; j++)
+					h ^= ZOBRIST[3*(3*i+j)+m_Table[i][j]+1];
+			m_hash = h;
+		}
+		return m_hash;
+	}
+
 
 }
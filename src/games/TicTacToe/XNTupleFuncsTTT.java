@@ -9,6 +9,7 @@ import games.BoardVector;
 import games.StateObservation;
 import games.XNTupleBase;
 import games.XNTupleFuncs;
+import tools.Types;
 
 public class XNTupleFuncsTTT extends XNTupleBase implements XNTupleFuncs, Serializable {
 
@@ -132,6 +133,30 @@ public class XNTupleFuncsTTT extends XNTupleBase implements XNTupleFuncs, Serial
 
 		return equiv;
 	}
+
+	/**
+	 * The symmetries of TicTacToe are pure cell permutations.
+	 * 
+	 * @return {@code perm[s][c]}, see {@link XNTupleFuncs#symmetryPermutations()}
+	 */
+	@Override
+	public int[][] symmetryPermutations() {
+		return cellPermutations();
+	}
+
+	/**
+	 * A move in TicTacToe changes only the cell {@code act}: it gets the mark of the player to move
+	 * (position value 2 for player 0, 0 for player 1, see {@link #getBoardVector(StateObservation)}).
+	 * 
+	 * @return true
+	 * @see XNTupleFuncs#afterstateBoardVector(StateObservation, int[], Types.ACTIONS, int[])
+	 */
+	@Override
+	public boolean afterstateBoardVector(StateObservation so, int[] bvec, Types.ACTIONS act, int[] next) {
+		System.arraycopy(bvec, 0, next, 0, bvec.length);
+		next[act.toInt()] = 2 - 2*so.getPlayer();
+		return true;
+	}
 	
 	/**
 	 * Given a certain board array of symmetric (equivalent) states for state <b>{@code so}</b> 
@@ -0,0 +1,207 @@
+package games;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import agentIO.BinaryAgentFormat;
+import controllers.AgentBase;
+import controllers.PlayAgent;
+import controllers.TD.ntuple2.NTupleBase;
+import controllers.TD.ntuple4.NTuple4Base;
+
+/**
+ * A checkpoint of {@link XArenaFuncs#train(int, String, XArenaButtons, GameBoard) train} or
+ * {@link XArenaFuncs#multiTrain(int, String, XArenaButtons, GameBoard, String) multiTrain}: the agent in
+ * training (with its game counter, weights and random generator), the number of the training run, the
+ * {@link MTrain} history and the final evaluation results of the completed runs. Since
+ * {@link PlayAgent#instantiateAfterLoading()} restarts the alpha and epsilon schedule of the n-tuple agents,
+ * the current alpha and epsilon (and the transient count of learn actions) are stored as well and 
+ * re-established by {@link #load(String)}.
+ * <p>
+ * Checkpoints are written with {@link Writer} in binary agent format (see {@link BinaryAgentFormat}).
+ *
+ * @see XArenaFuncs#setCheckpoint(int, String, boolean)
+ */
+public class TrainCheckpoint implements Serializable {
+	public static final String EXTENSION = ".ckpt.bin";
+
+	/**
+	 * the agent in training, null if run {@link #run} has not yet started
+	 */
+	final PlayAgent pa;
+	/**
+	 * the training run of multiTrain (0 for train)
+	 */
+	final int run;
+	final ArrayList<MTrain> mtList;
+	/**
+	 * the final results of quick eval and train eval of the runs 0,...,run-1
+	 */
+	final double[] finalQ, finalT;
+	private final double alpha, epsilon;	// NaN, if pa has no alpha/epsilon schedule
+	private final long numLrnActions;
+
+	private static final long serialVersionUID = 1L;
+
+	TrainCheckpoint(PlayAgent pa, int run, ArrayList<MTrain> mtList, double[] finalQ, double[] finalT) {
+		this.pa = pa;
+		this.run = run;
+		this.mtList = new ArrayList<>(mtList);
+		this.finalQ = finalQ.clone();
+		this.finalT = finalT.clone();
+		this.numLrnActions = (pa == null) ? 0L : pa.getNumLrnActions();
+		if (pa instanceof NTupleBase) {
+			alpha = ((NTupleBase) pa).getAlpha();
+			epsilon = ((NTupleBase) pa).getEpsilon();
+		} else if (pa instanceof NTuple4Base) {
+			alpha = ((NTuple4Base) pa).getAlpha();
+			epsilon = ((NTuple4Base) pa).getEpsilon();
+		} else {
+			alpha = epsilon = Double.NaN;
+		}
+	}
+
+	/**
+	 * Load a checkpoint and instantiate its agent (if any) in its state at checkpoint time.
+	 *
+	 * @param filePath	the checkpoint file
+	 * @return the checkpoint
+	 * @throws IOException if the file is missing or holds no checkpoint
+	 */
+	public static TrainCheckpoint load(String filePath) throws IOException {
+		Object obj;
+		try (ObjectInputStream ois = BinaryAgentFormat.openAgentStream(new File(filePath))) {
+			obj = ois.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Class not found: "+e.getMessage(), e);
+		}
+		if (!(obj instanceof TrainCheckpoint))
+			throw new IOException(filePath+" holds no training checkpoint");
+		TrainCheckpoint cp = (TrainCheckpoint) obj;
+		if (cp.pa != null) {
+			cp.pa.instantiateAfterLoading();
+			if (cp.pa.getParOther() == null) ((AgentBase) cp.pa).setDefaultParOther();
+			if (cp.pa instanceof NTupleBase) {
+				((NTupleBase) cp.pa).setAlpha(cp.alpha);
+				((NTupleBase) cp.pa).setEpsilon(cp.epsilon);
+				((NTupleBase) cp.pa).setNumLrnActions(cp.numLrnActions);
+			} else if (cp.pa instanceof NTuple4Base) {
+				((NTuple4Base) cp.pa).setAlpha(cp.alpha);
+				((NTuple4Base) cp.pa).setEpsilon(cp.epsilon);
+				((NTuple4Base) cp.pa).setNumLrnActions(cp.numLrnActions);
+			}
+		}
+		return cp;
+	}
+
+	/**
+	 * Writes checkpoints in a background thread. {@link #write(TrainCheckpoint)} takes a snapshot of the
+	 * checkpoint in the calling thread (the skeleton and a copy of the weight arrays, see
+	 * {@link BinaryAgentFormat#snapshot(Object, boolean)}) and returns, while the snapshot is written to disk.
+	 * So training may continue right away. At most one write is pending: a new checkpoint waits for the
+	 * write of the previous one.
+	 * <p>
+	 * Each checkpoint is first written to a temporary file, which then replaces the checkpoint file. So a
+	 * crash during writing leaves the previous checkpoint intact.
+	 */
+	public static class Writer {
+		private final String filePath;
+		private final int interval;
+		private final ExecutorService executor;
+		private Future<?> pending = null;
+		private int lastGameNum = 0;
+
+		/**
+		 * @param filePath	the checkpoint file
+		 * @param interval	write a checkpoint every {@code interval} training games (see {@link #isDue(int)})
+		 */
+		public Writer(String filePath, int interval) {
+			this.filePath = filePath;
+			this.interval = interval;
+			this.executor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "TrainCheckpoint");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+
+		/**
+		 * @return true, if {@code gameNum} has passed a multiple of {@code interval} since the last call
+		 * 		that returned true (or since {@link #restart(int)})
+		 */
+		public boolean isDue(int gameNum) {
+			if (gameNum/interval > lastGameNum/interval) {
+				lastGameNum = gameNum;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Restart the counting of {@link #isDue(int)} at {@code gameNum} (at the start of a training run)
+		 */
+		public void restart(int gameNum) {
+			lastGameNum = gameNum;
+		}
+
+		/**
+		 * Take a snapshot of {@code cp} and write it in the background (errors are reported on System.err,
+		 * training is not interrupted)
+		 */
+		public void write(TrainCheckpoint cp) {
+			BinaryAgentFormat.Snapshot snap;
+			try {
+				snap = BinaryAgentFormat.snapshot(cp, true);
+			} catch (IOException e) {
+				System.err.println("[TrainCheckpoint] could not take a snapshot: "+e.getMessage());
+				return;
+			}
+			waitForPending();
+			pending = executor.submit(() -> {
+				Path tmp = new File(filePath+".tmp").toPath();
+				snap.write(tmp.toString(), false);
+				try {
+					Files.move(tmp, new File(filePath).toPath(), StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tmp, new File(filePath).toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				return null;
+			});
+		}
+
+		/**
+		 * Wait for the pending write (if any) and stop the background thread.
+		 *
+		 * @param delete	if true, delete the checkpoint file afterwards (training completed)
+		 */
+		public void close(boolean delete) {
+			waitForPending();
+			executor.shutdown();
+			if (delete) new File(filePath).delete();
+		}
+
+		private void waitForPending() {
+			if (pending == null) return;
+			try {
+				pending.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				System.err.println("[TrainCheckpoint] could not write "+filePath+": "+e.getCause().getMessage());
+			}
+			pending = null;
+		}
+	}
+}
@@ -7,9 +7,11 @@ import controllers.MC.MCAgentN;
 import controllers.MCTS.MCTSAgentT;
 import controllers.MCTSExpectimax.MCTSExpectimaxAgt;
 import controllers.TD.TDAgent;
+import controllers.TD.ntuple2.NTupleBase;
 import controllers.TD.ntuple2.NTupleFactory;
 import controllers.TD.ntuple2.SarsaAgt;
 import controllers.TD.ntuple2.TDNTuple3Agt;
+import controllers.TD.ntuple4.NTuple4Base;
 import controllers.TD.ntuple4.NTuple4Factory;
 import controllers.TD.ntuple4.TDNTuple4Agt;
 import games.CFour.AlphaBetaAgent;
@@ -29,10 +31,18 @@ import tools.*;
 import tools.Types.ACTIONS;
 
 import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 /**
  * Class {@link XArenaFuncs} contains several methods to train, evaluate and
@@ -66,6 +76,15 @@ public class XArenaFuncs {
 	protected int numPlayers;
 
 	protected Random rand;
+	// number of training runs which multiTrain executes concurrently (1: one after the other)
+	private int multiTrainThreads = 1;
+	// if not null, run i of multiTrain seeds its agent with multiTrainSeed+i
+	private Long multiTrainSeed = null;
+	// train and multiTrain write a checkpoint every checkpointInterval games (0: no checkpoints)
+	private int checkpointInterval = 0;
+	private String checkpointPath = null;
+	// whether the next train or multiTrain resumes from the checkpoint in checkpointPath
+	private boolean checkpointResume = false;
 	protected LineChartSuccess lChart = null;
 	protected DeviationWeightsChart wChart = null;
 
@@ -93,6 +112,58 @@ public class XArenaFuncs {
 		if (wChart != null)	wChart.destroy();
 	}
 
+	/**
+	 * @param threads	if &gt; 1, {@link #multiTrain(int, String, XArenaButtons, GameBoard, String) multiTrain} 
+	 * 					executes up to {@code threads} training runs concurrently (only without GUI)
+	 * @param seed		if not null, run {@code i} of multiTrain (sequential or parallel) seeds its agent with 
+	 * 					{@code seed+i}. If null, sequential runs keep the agents' own seeding and parallel runs 
+	 * 					take the seed base from the clock.
+	 */
+	public void setMultiTrainParallel(int threads, Long seed) {
+		this.multiTrainThreads = threads;
+		this.multiTrainSeed = seed;
+	}
+
+	/**
+	 * @param interval	if &gt; 0, {@link #train(int, String, XArenaButtons, GameBoard) train} and (sequential)
+	 * 					{@link #multiTrain(int, String, XArenaButtons, GameBoard, String) multiTrain} write a
+	 * 					{@link TrainCheckpoint} every {@code interval} training games (asynchronously, see
+	 * 					{@link TrainCheckpoint.Writer}). The checkpoint is deleted when training completes.
+	 * @param filePath	the checkpoint file
+	 * @param resume	if true, the next train or multiTrain continues from the checkpoint in {@code filePath}
+	 * 					(if that file exists)
+	 */
+	public void setCheckpoint(int interval, String filePath, boolean resume) {
+		this.checkpointInterval = interval;
+		this.checkpointPath = filePath;
+		this.checkpointResume = resume;
+	}
+
+	/**
+	 * @return the checkpoint to resume from or null, if there is none (or if resume is not requested)
+	 * @throws RuntimeException if the checkpoint cannot be loaded
+	 */
+	private TrainCheckpoint loadCheckpoint() {
+		if (!checkpointResume) return null;
+		checkpointResume = false;		// resume only once
+		if (checkpointPath==null || !new File(checkpointPath).exists()) {
+			System.out.println(TAG+"No checkpoint "+checkpointPath+" found --> start training from scratch");
+			return null;
+		}
+		try {
+			TrainCheckpoint cp = TrainCheckpoint.load(checkpointPath);
+			System.out.println(TAG+"Resume from checkpoint "+checkpointPath+": run "+cp.run
+					+ ((cp.pa==null) ? "" : ", "+cp.pa.getGameNum()+" games"));
+			return cp;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not load checkpoint "+checkpointPath+": "+e.getMessage());
+		}
+	}
+
+	private TrainCheckpoint.Writer makeCheckpointWriter() {
+		return (checkpointInterval>0) ? new TrainCheckpoint.Writer(checkpointPath, checkpointInterval) : null;
+	}
+
 	// Helper for constructAgent and fetchAgent
 	private void updateParams(int n, XArenaButtons m_xab) {
 
@@ -485,8 +556,8 @@ public class XArenaFuncs {
 		return qaVector;
 	}
 
-	// a similar function, just needed by TS
-	protected PlayAgent[] wrapAgents(PlayAgent[] paVector, StateObservation so, XArenaButtons m_xab) {
+	// a similar function, just needed by TS (wraps each agent according to its own ParOther)
+	public PlayAgent[] wrapAgents(PlayAgent[] paVector, StateObservation so, XArenaButtons m_xab) {
 		PlayAgent[] qaVector = new PlayAgent[numPlayers];
 		for (int n = 0; n < numPlayers; n++) {
 			qaVector[n] = wrapAgent(n, paVector[n], paVector[n].getParOther(), m_xab.maxnPar[n], so);
@@ -506,7 +577,7 @@ public class XArenaFuncs {
 				// qa = new MaxNWrapper(pa, wrap_mPar, oPar); // wrap_mPar has useMaxNHashMap
 				// qa = new MaxNWrapper(pa,nply); // always maxNHashMap==false  // OLD
 			} else {
-				qa = new ExpectimaxWrapper(pa, nply);
+				qa = new ExpectimaxWrapper(pa, nply, wrap_mPar.getMaxNUseHashmap());
 			}
 		} else {
 			qa = pa;
@@ -549,9 +620,17 @@ public class XArenaFuncs {
 
 		PlayAgent pa;
 		PlayAgent qa;
+		TrainCheckpoint cp;
 
 		try {
-			pa = this.constructAgent(n, sAgent, xab);
+			cp = loadCheckpoint();
+			if (cp != null && cp.pa != null) {
+				updateParams(n, xab);
+				pa = cp.pa;
+			} else {
+				cp = null;
+				pa = this.constructAgent(n, sAgent, xab);
+			}
 			if (pa == null)
 				throw new RuntimeException("Could not construct agent = " + sAgent);
 
@@ -582,8 +661,11 @@ public class XArenaFuncs {
 		System.out.println(pa.stringDescr2());
 		pa.setMaxGameNum(maxGameNum);
 		pa.setNumEval(numEval);
-		pa.setGameNum(0);
+		if (cp == null) pa.setGameNum(0);
 		System.out.println(pa.printTrainStatus());
+		TrainCheckpoint.Writer ckptWriter = makeCheckpointWriter();
+		if (ckptWriter != null) ckptWriter.restart(pa.getGameNum());
+		boolean aborted = false;
 
 		stopTest = xab.oPar[n].getStopTest();
 		stopEval = xab.oPar[n].getStopEval();
@@ -611,11 +693,9 @@ public class XArenaFuncs {
 		long startTime = System.currentTimeMillis();
 		gb.initialize();
 		while (pa.getGameNum() < pa.getMaxGameNum()) {
-			StateObservation so = soSelectStartState(gb, xab.oPar[n].getChooseStart01(), pa);
-
-			pa.trainAgent(so);
+			StateObservation so = trainEpisodes(pa, gb, xab.oPar[n], numEval, stopTest > 0 && stopEval > 0);
 
-			if (doTrainStatistics)
+			if (doTrainStatistics && so != null)	// (no statistics in parallel mode)
 				collectTrainStats(tsList, pa, so);
 
 			gameNum = pa.getGameNum();
@@ -649,12 +729,16 @@ public class XArenaFuncs {
 				// enable premature exit if TRAIN button is pressed again:
 				if (xab.m_arena.taskState != Arena.Task.TRAIN) {
 					m_Arena.showMessage("Training stopped prematurely", "Warning", JOptionPane.WARNING_MESSAGE);
+					aborted = true;
 					break; // out of while
 				}
 
 				startTime = System.currentTimeMillis();
 			}
 
+			if (ckptWriter != null && ckptWriter.isDue(gameNum))
+				ckptWriter.write(new TrainCheckpoint(pa, 0, new ArrayList<>(), new double[0], new double[0]));
+
 			if (stopTest > 0 && (gameNum - 1) % numEval == 0 && stopEval > 0) {
 				// construct 'qa' anew (possibly wrapped agent for eval)
 				qa = wrapAgent(n, pa, xab.oPar[n], xab.maxnPar[n], gb.getStateObs());
@@ -679,6 +763,8 @@ public class XArenaFuncs {
 		// Debug only
 		// TDNTupleAgt.pstream.close();
 
+		if (ckptWriter != null) ckptWriter.close(!aborted);
+
 		if (doTrainStatistics) {
 			taggList = aggregateTrainStats(tsList);
 			System.out.println("--- Train Statistics ---");
@@ -723,7 +809,7 @@ public class XArenaFuncs {
 		return pa;
 	}
 
-	private StateObservation soSelectStartState(GameBoard gb, boolean chooseStart01, PlayAgent pa) {
+	private static StateObservation soSelectStartState(GameBoard gb, boolean chooseStart01, PlayAgent pa) {
 		StateObservation so;
 		if (chooseStart01) {
 			so = gb.chooseStartState(pa);
@@ -733,6 +819,44 @@ public class XArenaFuncs {
 		return so;
 	}
 
+	/**
+	 * Train agent {@code pa} for one episode or - in parallel mode - for all episodes up to the next
+	 * evaluation. 
+	 * <p>
+	 * Parallel mode is active if {@code oPar.getNumWorkers() > 1} and {@code pa} is a {@link TDNTuple3Agt}.
+	 * Then the start states of the next episodes are selected here (in the calling thread) and the episodes 
+	 * are trained with {@link TDNTuple3Agt#trainAgentParallel(StateObservation[], int)}. The episodes end
+	 * at the next game number {@code gameNum} with {@code gameNum%numEval==0} (or {@code gameNum%numEval==1}, 
+	 * if {@code stopCheck}) or at {@code pa.getMaxGameNum()}. So the train loops see the same game numbers 
+	 * for evaluation as in sequential mode, numEval counts the total games of all workers.
+	 * 
+	 * @param pa		the agent to train
+	 * @param gb		the game board (for start state selection)
+	 * @param oPar		the parameters {@code chooseStart01} and {@code numWorkers} are taken from here
+	 * @param numEval	evaluation interval (in games)
+	 * @param stopCheck	whether the caller needs also game numbers with {@code gameNum%numEval==1}
+	 * @return the start state of the episode in sequential mode, null in parallel mode
+	 */
+	public static StateObservation trainEpisodes(PlayAgent pa, GameBoard gb, ParOther oPar, int numEval,
+			boolean stopCheck) {
+		int numWorkers = oPar.getNumWorkers();
+		if (numWorkers>1 && pa instanceof TDNTuple3Agt) {
+			int gameNum = pa.getGameNum();
+			int gameEnd = (gameNum/numEval+1)*numEval;
+			if (stopCheck && gameNum%numEval==0 && gameNum+1<gameEnd) 
+				gameEnd = gameNum+1;
+			gameEnd = Math.min(gameEnd, pa.getMaxGameNum());
+			StateObservation[] startSO = new StateObservation[gameEnd-gameNum];
+			for (int k=0; k<startSO.length; k++)
+				startSO[k] = soSelectStartState(gb, oPar.getChooseStart01(), pa).copy();
+			((TDNTuple3Agt) pa).trainAgentParallel(startSO, numWorkers);
+			return null;
+		}
+		StateObservation so = soSelectStartState(gb, oPar.getChooseStart01(), pa);
+		pa.trainAgent(so);
+		return so;
+	}
+
 	private void collectTrainStats(ArrayList<TStats> tsList, PlayAgent pa, StateObservation so) {
 		int n = pa.getGameNum();
 		int p = so.getMinEpisodeLength();
@@ -788,33 +912,49 @@ public class XArenaFuncs {
 	 */
 	public PlayAgent multiTrain(int n, String sAgent, XArenaButtons xab, GameBoard gb, String csvName)
 	{
-		DecimalFormat frm3 = new DecimalFormat("+0.000;-0.000");
-		DecimalFormat frm = new DecimalFormat("#0.000");
-		DecimalFormat frm2 = new DecimalFormat("+0.00;-0.00");
-		DecimalFormat frm1 = new DecimalFormat("#0.00");
 		String userTitle1 = "", userTitle2 = "";
 		double userValue1 = 0., userValue2 = 0.0;
-		long elapsedMs;
 		int stopEval = 0;
 		boolean doTrainEvaluation = false;
 
 		int trainNum = xab.getTrainNumber();
 		int maxGameNum = xab.getGameNumber();
-		PlayAgent pa = null, qa;
+		PlayAgent pa = null;
+
+		if (multiTrainThreads > 1 && trainNum > 1) {
+			if (!m_Arena.hasGUI()) 
+				return multiTrainParallel(n, sAgent, xab, csvName);
+			System.out.println("[multiTrain] parallel multiTrain is only available without GUI --> sequential");
+		}
 
 		System.out.println("*** Starting multiTrain with trainNum = " + trainNum + " ***");
 
 		Measure oQ = new Measure(); // quick eval measure
 		Measure oT = new Measure(); // train eval measure
-		MTrain mTrain;
-		double evalQ = 0.0, evalT = 0.0;
 		ArrayList<MTrain> mtList = new ArrayList<>();
+		double[] finalQ = new double[trainNum], finalT = new double[trainNum];	// for checkpoints
+		int iStart = 0;
 
-		for (int i = 0; i < trainNum; i++) {
-			int gameNum;
-			long actionNum, trnMoveNum;
-			double totalTrainSec, elapsedTime, movesSecond;
+		TrainCheckpoint cp;
+		try {
+			cp = loadCheckpoint();
+		} catch (RuntimeException e) {
+			m_Arena.showMessage(e.getMessage(), "Warning", JOptionPane.WARNING_MESSAGE);
+			return null;
+		}
+		if (cp != null) {
+			iStart = cp.run;
+			mtList.addAll(cp.mtList);
+			for (int k = 0; k < cp.run && k < trainNum; k++) {
+				finalQ[k] = cp.finalQ[k];
+				finalT[k] = cp.finalT[k];
+				oQ.add(finalQ[k]);
+				if (!Double.isNaN(finalT[k])) oT.add(finalT[k]);
+			}
+		}
+		TrainCheckpoint.Writer ckptWriter = makeCheckpointWriter();
 
+		for (int i = iStart; i < trainNum; i++) {
 			xab.setTrainNumberText(trainNum, (i + 1) + "/" + trainNum);
 
 			// --- DON'T use this anymore! Use instead GBGBatch.multiTrainAlphaSweep or 
@@ -829,23 +969,31 @@ public class XArenaFuncs {
 			// userTitle2="null"; userValue2=0.0;
 			// xab.tdPar[0].setLambda(i*0.1);
 
+			MTrainRun run = new MTrainRun(i, mtList);
+			run.resumed = (cp != null && i == cp.run && cp.pa != null);
+			run.userValue1 = userValue1;
+			run.userValue2 = userValue2;
 			try {
-				pa = constructAgent(n, sAgent, xab);
+				if (run.resumed) {
+					updateParams(n, xab);
+					pa = cp.pa;
+				} else {
+					xab.setGameNumber(maxGameNum);	// the agent's schedules are based on xab's game number
+					pa = constructAgent(n, sAgent, xab);
+				}
 				if (pa == null)
 					throw new RuntimeException("Could not construct AgentX = " + sAgent);
 			} catch (RuntimeException e) {
 				m_Arena.showMessage(e.getMessage(), "Warning", JOptionPane.WARNING_MESSAGE);
+				if (ckptWriter != null) ckptWriter.close(false);
 				return pa;
 			}
+			run.pa = pa;
+			run.gb = gb;
+			run.oPar = xab.oPar[n];		// set *after* constructAgent (which contains xab.oPar[n].pushFromOTParams)
 
-			// bug fix: numEval needs to be set *after* constructAgent (which contains xab.oPar[n].pushFromOTParams)
-			int numEval = xab.oPar[n].getNumEval();
-			if (numEval == 0)
-				numEval = 500; // just for safety, to avoid ArithmeticException in
-								// 'gameNum%numEval' below
-			
 			int qem = xab.oPar[n].getQuickEvalMode();
-			m_evaluatorQ = xab.m_arena.makeEvaluator(pa, gb, stopEval, qem, 1);
+			m_evaluatorQ = run.evQ = xab.m_arena.makeEvaluator(pa, gb, stopEval, qem, 1);
 			int tem = xab.oPar[n].getTrainEvalMode();
 			//
 			// doTrainEvaluation flags whether Train Evaluator is executed:
@@ -854,101 +1002,48 @@ public class XArenaFuncs {
 			// the choice box 'Train Eval Mode' is not -1 ("none").
 			doTrainEvaluation = (tem != -1);
 			if (doTrainEvaluation)
-				m_evaluatorT = xab.m_arena.makeEvaluator(pa, gb, stopEval, tem, 1);
-
-			// if (i==0) {
-			System.out.println(pa.stringDescr());
-			System.out.println(pa.stringDescr2());
-			// }
-			pa.setMaxGameNum(maxGameNum);
-			pa.setGameNum(0);
-			long startTime = System.currentTimeMillis();
-			gb.initialize();
-			while (pa.getGameNum() < pa.getMaxGameNum()) {
-				StateObservation so = soSelectStartState(gb, xab.oPar[n].getChooseStart01(), pa);
-
-				pa.trainAgent(so);
-
-				gameNum = pa.getGameNum();
-				if (gameNum % numEval == 0) { // || gameNum==1) {
-					elapsedMs = (System.currentTimeMillis() - startTime);	// ms spent in last numEval trainAgent calls
-					pa.incrementDurationTrainingMs(elapsedMs);
-					elapsedTime = (double) elapsedMs / 1000.0;
-					// elapsedTime: time [sec] for the last numEval training
-					// episodes (not counting the evaluation time)
-
-					startTime = System.currentTimeMillis();
-
-					xab.setGameNumber(gameNum);
-
-					// construct 'qa' anew (possibly wrapped agent for eval)
-					qa = wrapAgent(n, pa, xab.oPar[n], xab.maxnPar[n], gb.getStateObs());
-
-					m_evaluatorQ.eval(qa);			// throws RuntimeException, if TDReferee.agt.zip is not found
-					evalQ = m_evaluatorQ.getLastResult();
-					if (doTrainEvaluation) {
-						m_evaluatorT.eval(qa);		// throws RuntimeException, if TDReferee.agt.zip is not found
-						evalT = m_evaluatorT.getLastResult();
-					}
-
-					// gather information for later printout to
-					// agents/gameName/csv/multiTrain.csv.
-					actionNum = pa.getNumLrnActions();
-					trnMoveNum = pa.getNumTrnMoves();
-					totalTrainSec = (double) pa.getDurationTrainingMs() / 1000.0;
-									// time [sec] spent in trainAgent since start of this training run
-									// (only self-play, excluding evaluations)
-					movesSecond   = actionNum / totalTrainSec;    
-									// average number of moves per second since start of this training run
-									// (counting only training time, excluding evaluation time)
-					mTrain = new MTrain(i, gameNum, evalQ, evalT, actionNum, trnMoveNum, totalTrainSec,
-							movesSecond, userValue1, userValue2);
-					mtList.add(mTrain);
-					
-					System.out.println(pa.printTrainStatus() + ", " + elapsedTime + " sec, " + frm1.format(movesSecond) +" moves/s");
-
-					elapsedMs = (System.currentTimeMillis() - startTime); 	// ms spent for evaluation
-					pa.incrementDurationEvaluationMs(elapsedMs);
-
-					// enable premature exit if MULTITRAIN button is pressed
-					// again:
-					if (xab.m_arena.taskState != Arena.Task.MULTTRN) {
-						m_Arena.showMessage("MultiTraining stopped prematurely", "Warning",
-								JOptionPane.WARNING_MESSAGE);
-						break; // out of while
-					}
+				m_evaluatorT = run.evT = xab.m_arena.makeEvaluator(pa, gb, stopEval, tem, 1);
 
-					startTime = System.currentTimeMillis();		// start the timer for next numEval train episodes
-				}
-			} // end while
+			Long seed = (multiTrainSeed == null) ? null : multiTrainSeed + i;
+			trainRun(run, n, xab, maxGameNum, seed, "", ckptWriter, 
+					r -> new TrainCheckpoint(r.pa, r.i, mtList, Arrays.copyOf(finalQ, r.i), Arrays.copyOf(finalT, r.i)));
 
 			//
 			// things to do at the end of a training run:
 			//
-			
-			// construct 'qa' anew (possibly wrapped agent for eval)
-			qa = wrapAgent(0, pa, xab.oPar[n], xab.maxnPar[n], gb.getStateObs());
-
-			// final evaluation:
-			m_evaluatorQ.eval(qa);
-			oQ.add(m_evaluatorQ.getLastResult());
-			if (doTrainEvaluation) {
-				m_evaluatorT.eval(qa);
-				oT.add(m_evaluatorT.getLastResult());
-			}
-
-			elapsedMs = (System.currentTimeMillis() - startTime);	// ms spent for final evaluation
-			pa.incrementDurationEvaluationMs(elapsedMs);
+			oQ.add(run.finalQ);
+			finalQ[i] = run.finalQ;
+			finalT[i] = run.finalT;
+			if (doTrainEvaluation) oT.add(run.finalT);
 
 			// print the full list mtList after finishing each run i
 			// (overwrites the file written from previous run i-1)
 			MTrain.printMultiTrainList(csvName, mtList, pa, m_Arena, userTitle1, userTitle2);
 
-			if (xab.m_arena.taskState != Arena.Task.MULTTRN) {
+			if (run.stopped) {
 				break; // out of for
 			}
+
+			// checkpoint 'run i completed, start with run i+1':
+			if (ckptWriter != null && i+1 < trainNum)
+				ckptWriter.write(new TrainCheckpoint(null, i+1, mtList, Arrays.copyOf(finalQ, i+1), Arrays.copyOf(finalT, i+1)));
 		} // for (i)
 
+		if (ckptWriter != null) ckptWriter.close(xab.m_arena.taskState == Arena.Task.MULTTRN);
+
+		printMultiTrainSummary(oQ, oT, doTrainEvaluation);
+
+		xab.setTrainNumber(trainNum);
+		return pa;
+
+	} // multiTrain
+
+	// print the averages over all runs of multiTrain (based on m_evaluatorQ, m_evaluatorT) and set lastMsg
+	private void printMultiTrainSummary(Measure oQ, Measure oT, boolean doTrainEvaluation) {
+		DecimalFormat frm3 = new DecimalFormat("+0.000;-0.000");
+		DecimalFormat frm = new DecimalFormat("#0.000");
+		DecimalFormat frm2 = new DecimalFormat("+0.00;-0.00");
+		DecimalFormat frm1 = new DecimalFormat("#0.00");
 		if (m_evaluatorQ.m_mode != (-1))
 		// m_mode=-1 signals: 'no evaluation done' --> oT did not receive
 		// evaluation results
@@ -969,11 +1064,285 @@ public class XArenaFuncs {
 			this.lastMsg = (m_evaluatorQ.getPrintString() + frm2.format(oQ.getMean()) + " +- "
 					+ frm1.format(oQ.getStd()) + "");
 		}
+	}
+
+	// one training run i of multiTrain: the agent, its game board, parameters and evaluators, and the results
+	private static class MTrainRun {
+		final int i;
+		final ArrayList<MTrain> mtList;		// the MTrain rows of run i are appended to this list
+		PlayAgent pa;
+		GameBoard gb;
+		ParOther oPar;
+		Evaluator evQ, evT = null;
+		boolean resumed = false;			// whether pa continues a run from a checkpoint
+		boolean stopped = false;			// whether the run was stopped prematurely
+		double userValue1 = 0.0, userValue2 = 0.0;
+		double finalQ, finalT = Double.NaN;	// finalT is NaN, if there is no train evaluator
+
+		MTrainRun(int i, ArrayList<MTrain> mtList) {
+			this.i = i;
+			this.mtList = mtList;
+		}
+	}
+
+	/**
+	 * One training run of multiTrain, shared by the sequential and the parallel version: trains {@code run.pa} 
+	 * on {@code run.gb} for {@code maxGameNum} episodes, evaluates it with {@code run.evQ} (and {@code run.evT}) 
+	 * every numEval episodes (rows appended to {@code run.mtList}) and once more at the end of the run 
+	 * (results in {@code run.finalQ}, {@code run.finalT}).
+	 * 
+	 * @param seed			if not null, the agent is seeded with it (unless {@code run} is resumed from a checkpoint)
+	 * @param prefix		prefix for the console output of this run
+	 * @param ckptWriter	if not null, a checkpoint {@code checkpoint.apply(run)} is written whenever it is due
+	 * @param checkpoint	builds the mid-run checkpoint
+	 */
+	private void trainRun(MTrainRun run, int n, XArenaButtons xab, int maxGameNum, Long seed, String prefix, 
+			TrainCheckpoint.Writer ckptWriter, Function<MTrainRun, TrainCheckpoint> checkpoint) {
+		DecimalFormat frm1 = new DecimalFormat("#0.00");
+		double evalQ = 0.0, evalT = 0.0;
+		long elapsedMs;
+		PlayAgent pa = run.pa, qa;
+		GameBoard gb = run.gb;
+
+		if (seed != null && !run.resumed)
+			seedAgent(pa, seed);
+		int numEval = run.oPar.getNumEval();
+		if (numEval == 0)
+			numEval = 500; // just for safety, to avoid ArithmeticException in 'gameNum%numEval' below
+
+		System.out.println(prefix + pa.stringDescr());
+		System.out.println(prefix + pa.stringDescr2());
+		pa.setMaxGameNum(maxGameNum);
+		if (!run.resumed) pa.setGameNum(0);
+		if (ckptWriter != null) ckptWriter.restart(pa.getGameNum());
+		long startTime = System.currentTimeMillis();
+		gb.initialize();
+		while (pa.getGameNum() < pa.getMaxGameNum()) {
+			trainEpisodes(pa, gb, run.oPar, numEval, false);
+
+			int gameNum = pa.getGameNum();
+			if (gameNum % numEval == 0) {
+				elapsedMs = (System.currentTimeMillis() - startTime);	// ms spent in last numEval trainAgent calls
+				pa.incrementDurationTrainingMs(elapsedMs);
+				double elapsedTime = (double) elapsedMs / 1000.0;
+				// elapsedTime: time [sec] for the last numEval training
+				// episodes (not counting the evaluation time)
+
+				startTime = System.currentTimeMillis();
+
+				synchronized (xab) {	// parallel runs construct their agents from xab's game number
+					xab.setGameNumber(gameNum);
+				}
+
+				// construct 'qa' anew (possibly wrapped agent for eval)
+				qa = wrapAgent(n, pa, run.oPar, xab.maxnPar[n], gb.getStateObs());
+
+				run.evQ.eval(qa);			// throws RuntimeException, if TDReferee.agt.zip is not found
+				evalQ = run.evQ.getLastResult();
+				if (run.evT != null) {
+					run.evT.eval(qa);		// throws RuntimeException, if TDReferee.agt.zip is not found
+					evalT = run.evT.getLastResult();
+				}
+
+				// gather information for later printout to
+				// agents/gameName/csv/multiTrain.csv.
+				long actionNum = pa.getNumLrnActions();
+				double totalTrainSec = (double) pa.getDurationTrainingMs() / 1000.0;
+								// time [sec] spent in trainAgent since start of this training run
+								// (only self-play, excluding evaluations)
+				double movesSecond = actionNum / totalTrainSec;    
+								// average number of moves per second since start of this training run
+								// (counting only training time, excluding evaluation time)
+				run.mtList.add(new MTrain(run.i, gameNum, evalQ, evalT, actionNum, pa.getNumTrnMoves(), 
+						totalTrainSec, movesSecond, run.userValue1, run.userValue2));
+				
+				System.out.println(prefix + pa.printTrainStatus() + ", " + elapsedTime + " sec, " 
+						+ frm1.format(movesSecond) + " moves/s");
+
+				elapsedMs = (System.currentTimeMillis() - startTime); 	// ms spent for evaluation
+				pa.incrementDurationEvaluationMs(elapsedMs);
+
+				// enable premature exit if MULTITRAIN button is pressed
+				// again:
+				if (xab.m_arena.taskState != Arena.Task.MULTTRN) {
+					m_Arena.showMessage("MultiTraining stopped prematurely", "Warning",
+							JOptionPane.WARNING_MESSAGE);
+					run.stopped = true;
+					break; // out of while
+				}
+
+				startTime = System.currentTimeMillis();		// start the timer for next numEval train episodes
+			}
+
+			if (ckptWriter != null && ckptWriter.isDue(gameNum))
+				ckptWriter.write(checkpoint.apply(run));
+		} // end while
+
+		// construct 'qa' anew (possibly wrapped agent for eval)
+		qa = wrapAgent(0, pa, run.oPar, xab.maxnPar[n], gb.getStateObs());
+
+		// final evaluation:
+		run.evQ.eval(qa);
+		run.finalQ = run.evQ.getLastResult();
+		if (run.evT != null) {
+			run.evT.eval(qa);
+			run.finalT = run.evT.getLastResult();
+		}
+
+		elapsedMs = (System.currentTimeMillis() - startTime);	// ms spent for final evaluation
+		pa.incrementDurationEvaluationMs(elapsedMs);
+	}
+
+	/**
+	 * Parallel version of {@link #multiTrain(int, String, XArenaButtons, GameBoard, String) multiTrain}: 
+	 * executes the {@code trainNum} training runs on a pool of {@code multiTrainThreads} threads. 
+	 * <p>
+	 * Each run has its own agent (seeded with {@code multiTrainSeed+i}, see {@link #seedAgent(PlayAgent, long)}), 
+	 * its own game board (for start states, see {@link Arena#makeExtraGameBoard()}) and its own evaluators. 
+	 * Agents, game boards and evaluators are constructed one at a time, since they share the parameter 
+	 * objects in {@code xab} and the arena. The training itself is the same as in sequential multiTrain, 
+	 * see {@link #trainRun(MTrainRun, int, XArenaButtons, int, Long, String, TrainCheckpoint.Writer, Function) trainRun}.
+	 * <p>
+	 * Whenever a run finishes, the CSV file is re-written with the results of all finished runs, ordered by 
+	 * run number. So the final file has the same row order as in sequential multiTrain. Checkpoints are 
+	 * written only between runs: whenever runs 0,...,k-1 are completed, a checkpoint 'start with run k' 
+	 * is written. 
+	 * 
+	 * @return the agent of the last run (highest run number)
+	 */
+	private PlayAgent multiTrainParallel(int n, String sAgent, XArenaButtons xab, String csvName) {
+		int trainNum = xab.getTrainNumber();
+		int maxGameNum = xab.getGameNumber();
+		int numThreads = Math.min(multiTrainThreads, trainNum);
+		// without a seed, take one from the clock: agents constructed at the same time would get the same seed
+		long seedBase = (multiTrainSeed == null) ? System.currentTimeMillis() : multiTrainSeed;
+		MTrainRun[] runs = new MTrainRun[trainNum];
+		int iStart = 0;
+
+		System.out.println("*** Starting multiTrain with trainNum = " + trainNum + " on " + numThreads + " threads ***");
+
+		TrainCheckpoint cp;
+		try {
+			cp = loadCheckpoint();
+		} catch (RuntimeException e) {
+			m_Arena.showMessage(e.getMessage(), "Warning", JOptionPane.WARNING_MESSAGE);
+			return null;
+		}
+		if (cp != null) {
+			iStart = Math.min(cp.run, trainNum);
+			for (int k = 0; k < iStart; k++) {
+				runs[k] = new MTrainRun(k, new ArrayList<>());
+				for (MTrain mt : cp.mtList)
+					if (mt.i == k) runs[k].mtList.add(mt);
+				runs[k].finalQ = cp.finalQ[k];
+				runs[k].finalT = cp.finalT[k];
+			}
+		}
+		TrainCheckpoint.Writer ckptWriter = makeCheckpointWriter();
+		if (ckptWriter != null)
+			System.out.println("[multiTrain] parallel multiTrain writes checkpoints only after completed runs");
+
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		CompletionService<MTrainRun> ecs = new ExecutorCompletionService<>(executor);
+		for (int i = iStart; i < trainNum; i++) {
+			final int run = i;
+			final PlayAgent resumeAgent = (cp != null && i == cp.run) ? cp.pa : null;
+			ecs.submit(() -> multiTrainRun(run, n, sAgent, xab, maxGameNum, seedBase + run, resumeAgent));
+		}
+		try {
+			int completed = iStart;		// runs 0,...,completed-1 are finished
+			for (int k = iStart; k < trainNum; k++) {
+				MTrainRun r = ecs.take().get();
+				runs[r.i] = r;
+				xab.setTrainNumberText(trainNum, (k + 1) + "/" + trainNum);
+
+				ArrayList<MTrain> mtList = new ArrayList<>();
+				for (MTrainRun fin : runs)
+					if (fin != null) mtList.addAll(fin.mtList);
+				MTrain.printMultiTrainList(csvName, mtList, r.pa, m_Arena, "", "");
+
+				// checkpoint 'runs 0,...,completed-1 completed, start with run completed':
+				int prev = completed;
+				while (completed < trainNum && runs[completed] != null) completed++;
+				if (ckptWriter != null && completed > prev && completed < trainNum 
+						&& xab.m_arena.taskState == Arena.Task.MULTTRN) {
+					ArrayList<MTrain> doneList = new ArrayList<>();
+					double[] finalQ = new double[completed], finalT = new double[completed];
+					for (int j = 0; j < completed; j++) {
+						doneList.addAll(runs[j].mtList);
+						finalQ[j] = runs[j].finalQ;
+						finalT[j] = runs[j].finalT;
+					}
+					ckptWriter.write(new TrainCheckpoint(null, completed, doneList, finalQ, finalT));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			m_Arena.showMessage("MultiTraining interrupted", "Warning", JOptionPane.WARNING_MESSAGE);
+			if (ckptWriter != null) ckptWriter.close(false);
+			return null;
+		} catch (ExecutionException e) {
+			m_Arena.showMessage(e.getCause().getMessage(), "Warning", JOptionPane.WARNING_MESSAGE);
+			if (ckptWriter != null) ckptWriter.close(false);
+			return null;
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (ckptWriter != null) ckptWriter.close(xab.m_arena.taskState == Arena.Task.MULTTRN);
+
+		Measure oQ = new Measure(); // quick eval measure
+		Measure oT = new Measure(); // train eval measure
+		for (MTrainRun r : runs) {
+			oQ.add(r.finalQ);
+			if (!Double.isNaN(r.finalT)) oT.add(r.finalT);
+		}
+		MTrainRun last = runs[trainNum - 1];
+		m_evaluatorQ = last.evQ;
+		m_evaluatorT = last.evT;
+		printMultiTrainSummary(oQ, oT, last.evT != null);
 
 		xab.setTrainNumber(trainNum);
-		return pa;
+		return last.pa;
+	}
 
-	} // multiTrain
+	// one training run i of multiTrainParallel: construct agent, game board and evaluators, then train
+	private MTrainRun multiTrainRun(int i, int n, String sAgent, XArenaButtons xab, int maxGameNum, long seed, 
+			PlayAgent resumeAgent) {
+		int stopEval = 0;
+		MTrainRun run = new MTrainRun(i, new ArrayList<>());
+		run.resumed = (resumeAgent != null);
+
+		synchronized (xab) {
+			if (run.resumed) {
+				updateParams(n, xab);
+				run.pa = resumeAgent;
+			} else {
+				xab.setGameNumber(maxGameNum);	// the agent's schedules are based on xab's game number
+				run.pa = constructAgent(n, sAgent, xab);
+			}
+			if (run.pa == null)
+				throw new RuntimeException("Could not construct AgentX = " + sAgent);
+			run.oPar = new ParOther(xab.oPar[n]);
+			run.gb = xab.m_arena.makeExtraGameBoard();
+			run.evQ = xab.m_arena.makeEvaluator(run.pa, run.gb, stopEval, run.oPar.getQuickEvalMode(), 1);
+			if (run.oPar.getTrainEvalMode() != -1)
+				run.evT = xab.m_arena.makeEvaluator(run.pa, run.gb, stopEval, run.oPar.getTrainEvalMode(), 1);
+		}
+		trainRun(run, n, xab, maxGameNum, seed, "[run " + i + "] ", null, null);
+		return run;
+	}
+
+	/**
+	 * Seed the random number generator of agent {@code pa} (currently only for the n-tuple agents
+	 * {@link NTupleBase} and {@link NTuple4Base}; other agents keep their own seeding).
+	 */
+	private static void seedAgent(PlayAgent pa, long seed) {
+		if (pa instanceof NTupleBase)
+			((NTupleBase) pa).rand = new Random(seed);
+		if (pa instanceof NTuple4Base)
+			((NTuple4Base) pa).rand = new Random(seed);
+	}
 
 	// --- the generalization of old method compete() to arbitrary N players ---
 	/**
@@ -6,11 +6,13 @@ import java.util.HashSet;
 import agentIO.LoadSaveGBG;
 import controllers.TD.ntuple4.Sarsa4Agt;
 import controllers.TD.ntuple4.TDNTuple4Agt;
+import tools.Types;
 
 /**
- *  This class just provides a default implementation for methods {@link #instantiateAfterLoading()} and
- *  {@link #makeBoardVectorEachCellDifferent()} from the interface {@link XNTupleFuncs}. All other methods 
- *  are left as abstract methods.
+ *  This class just provides a default implementation for methods {@link #instantiateAfterLoading()},
+ *  {@link #makeBoardVectorEachCellDifferent()}, {@link #symmetryPermutations()} and 
+ *  {@link #afterstateBoardVector(StateObservation, int[], Types.ACTIONS, int[])} from the interface 
+ *  {@link XNTupleFuncs}. All other methods are left as abstract methods.
  */
 abstract public class XNTupleBase implements Serializable, XNTupleFuncs {
 
@@ -21,6 +23,8 @@ abstract public class XNTupleBase implements Serializable, XNTupleFuncs {
      */
     private static final long serialVersionUID = 42L;
 
+    private transient int[][] symPerm = null;	// cache for cellPermutations()
+
     public XNTupleBase() {	}
 
 	/**
@@ -89,6 +93,46 @@ abstract public class XNTupleBase implements Serializable, XNTupleFuncs {
 	@Override
 	abstract public BoardVector[] symmetryVectors(BoardVector boardVector, int n);
 
+	/**
+	 * The default: symmetries are not pure cell permutations. Games whose symmetries are pure
+	 * cell permutations should override this method and return {@link #cellPermutations()}.
+	 * 
+	 * @return null
+	 */
+	@Override
+	public int[][] symmetryPermutations() {
+		return null;
+	}
+	
+	/**
+	 * The default: the game provides no afterstate delta, the afterstate has to be built.
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean afterstateBoardVector(StateObservation so, int[] bvec, Types.ACTIONS act, int[] next) {
+		return false;
+	}
+	
+	/**
+	 * Derive the permutation tables for {@link #symmetryPermutations()} by transforming
+	 * {@link #makeBoardVectorEachCellDifferent()} with {@link #symmetryVectors(BoardVector, int)}.
+	 * This is only valid for games whose symmetries are pure cell permutations.
+	 * The tables are computed once and cached.
+	 * 
+	 * @return {@code perm[numSym][numCells]}
+	 */
+	protected int[][] cellPermutations() {
+		if (symPerm==null) {
+			BoardVector[] sv = symmetryVectors(makeBoardVectorEachCellDifferent(),0);
+			int[][] perm = new int[sv.length][];
+			for (int s=0; s<sv.length; s++) 
+				perm[s] = sv[s].bvec.clone();
+			symPerm = perm;
+		}
+		return symPerm;
+	}
+
 	@Override
 	abstract public int[] symmetryActions(int actionKey);
 
@@ -7,6 +7,7 @@ import controllers.TD.ntuple2.SarsaAgt;
 import java.util.HashSet;
 
 import agentIO.LoadSaveGBG;
+import tools.Types;
 import controllers.TD.ntuple2.TDNTuple3Agt;
 import controllers.TD.ntuple4.Sarsa4Agt;
 import controllers.TD.ntuple4.TDNTuple4Agt;
@@ -107,6 +108,38 @@ public interface XNTupleFuncs {
 	 * object in order to construct the symmetric board vectors.)
 	 */
 	BoardVector[] symmetryVectors(StateObsWithBoardVector curSOWB, int n);
+
+	/**
+	 * If the symmetries of this game are pure cell permutations (the value of cell {@code c} in the 
+	 * {@code s}th symmetric board is the value of a certain cell in the original board), return 
+	 * the permutation tables {@code perm[s][c]} such that
+	 * <pre>
+	 *     symmetryVectors(boardVector,0)[s].bvec[c] == boardVector.bvec[perm[s][c]] </pre>
+	 * for all board vectors. {@code perm[0]} is the identity. 
+	 * <p>
+	 * With these tables, {@link NTuple2ValueFunc} can read the symmetric boards through the 
+	 * permutations instead of building them with {@link #symmetryVectors(BoardVector, int)}.
+	 * 
+	 * @return {@code perm[numSym][numCells]} or {@code null}, if the symmetries are no pure cell
+	 * 			permutations (e.g. if they transform colors as well) or if the game picks symmetries at random
+	 */
+	int[][] symmetryPermutations();
+
+	/**
+	 * Cheap afterstate board vector for the batched evaluation 
+	 * {@link NTuple2ValueFunc#scoreAfterstates(StateObservation, java.util.List, double[])}: 
+	 * write into {@code next} the board vector of the afterstate which {@code so.advanceDeterministic(act)}
+	 * would produce, given the board vector {@code bvec} of {@code so}. Neither {@code so} nor {@code bvec}
+	 * are changed, so no copy of {@code so} is needed.
+	 * 
+	 * @param so	the state
+	 * @param bvec	the board vector of {@code so}, see {@link #getBoardVector(StateObservation)}
+	 * @param act	an available action in {@code so}
+	 * @param next	on output: the board vector of the afterstate (if true is returned)
+	 * @return true, if {@code next} is filled. False, if the game does not provide this delta: then the 
+	 * 			caller has to build the afterstate and call {@link #getBoardVector(StateObservation)}
+	 */
+	boolean afterstateBoardVector(StateObservation so, int[] bvec, Types.ACTIONS act, int[] next);
 	
 	/**
 	 * Given a certain board array of symmetric (equivalent) states for state <b>{@code so}</b> 
@@ -0,0 +1,110 @@
+package games.ZweiTausendAchtundVierzig;
+
+/**
+ * Table-driven move engine for the 2048 board {@code long boardB} of {@link StateObserver2048}
+ * (one hex digit per tile, the 4 lowest hex digits are the lowest row, digit 3 of a row is its leftmost tile).
+ * <p>
+ * For each of the 65536 possible rows, the result of a left and a right move and the score gained
+ * by it are precomputed once (with the reference implementation {@link RowBitShift}). A left or right
+ * move of the board is then four table lookups. Up and down moves transpose the board with bit tricks,
+ * so that the columns become rows, apply the left (up) or right (down) row table and transpose back.
+ * <p>
+ * All methods are static, allocation-free and thread-safe.
+ */
+final class BitBoard2048 {
+	private static final int SZ = 1 << 16;
+	private static final char[] ROW_LEFT = new char[SZ];
+	private static final char[] ROW_RIGHT = new char[SZ];
+	private static final int[] SCORE_LEFT = new int[SZ];
+	private static final int[] SCORE_RIGHT = new int[SZ];
+	private static final byte[] ROW_MAX = new byte[SZ];	// the highest exponent in the row
+
+	static {
+		RowBitShift rbs = new RowBitShift(0);
+		for (int i=0; i<SZ; i++) {
+			rbs.rowB = i;
+			rbs.score = 0;
+			ROW_LEFT[i] = (char) rbs.lActionSlow().getRow();
+			SCORE_LEFT[i] = rbs.score;
+			rbs.rowB = i;
+			rbs.score = 0;
+			ROW_RIGHT[i] = (char) rbs.rActionSlow().getRow();
+			SCORE_RIGHT[i] = rbs.score;
+			int max = 0;
+			for (int k=0; k<4; k++) max = Math.max(max, (i >> 4*k) & 0x0F);
+			ROW_MAX[i] = (byte) max;
+		}
+	}
+
+	private BitBoard2048() {}
+
+	/**
+	 * @param board	the board
+	 * @param move	0: left, 1: up, 2: right, 3: down
+	 * @return the board after the move (without a new random tile)
+	 */
+	static long move(long board, int move) {
+		switch (move) {
+		case 0: return rows(board, ROW_LEFT);
+		case 1: return transpose(rows(transpose(board), ROW_LEFT));
+		case 2: return rows(board, ROW_RIGHT);
+		case 3: return transpose(rows(transpose(board), ROW_RIGHT));
+		default: throw new RuntimeException("move="+move+" is not in {0,1,2,3}");
+		}
+	}
+
+	/**
+	 * @param board	the board
+	 * @param move	0: left, 1: up, 2: right, 3: down
+	 * @return the score gained by the move (the sum of all merged tile values)
+	 */
+	static int moveScore(long board, int move) {
+		switch (move) {
+		case 0: return score(board, SCORE_LEFT);
+		case 1: return score(transpose(board), SCORE_LEFT);
+		case 2: return score(board, SCORE_RIGHT);
+		case 3: return score(transpose(board), SCORE_RIGHT);
+		default: throw new RuntimeException("move="+move+" is not in {0,1,2,3}");
+		}
+	}
+
+	/**
+	 * @return the highest exponent {@code exp} of all tiles {@code 2^exp} on the board (0 for an empty board)
+	 */
+	static int maxExponent(long board) {
+		int max = ROW_MAX[(int) board & 0xFFFF];
+		max = Math.max(max, ROW_MAX[(int) (board >>> 16) & 0xFFFF]);
+		max = Math.max(max, ROW_MAX[(int) (board >>> 32) & 0xFFFF]);
+		return Math.max(max, ROW_MAX[(int) (board >>> 48) & 0xFFFF]);
+	}
+
+	/**
+	 * Transpose the 4x4 board: the tile in row {@code r}, column {@code c} (hex digit {@code 4*r+c})
+	 * moves to row {@code c}, column {@code r}. So row {@code k} of the result holds column {@code k}
+	 * of the board with its lowest tile in digit 0.
+	 */
+	static long transpose(long x) {
+		long a1 = x & 0xF0F00F0FF0F00F0FL;
+		long a2 = x & 0x0000F0F00000F0F0L;
+		long a3 = x & 0x0F0F00000F0F0000L;
+		long a = a1 | (a2 << 12) | (a3 >>> 12);
+		long b1 = a & 0xFF00FF0000FF00FFL;
+		long b2 = a & 0x00FF00FF00000000L;
+		long b3 = a & 0x00000000FF00FF00L;
+		return b1 | (b2 >>> 24) | (b3 << 24);
+	}
+
+	private static long rows(long b, char[] tab) {
+		return (long) tab[(int) b & 0xFFFF]
+			| (long) tab[(int) (b >>> 16) & 0xFFFF] << 16
+			| (long) tab[(int) (b >>> 32) & 0xFFFF] << 32
+			| (long) tab[(int) (b >>> 48) & 0xFFFF] << 48;
+	}
+
+	private static int score(long b, int[] tab) {
+		return tab[(int) b & 0xFFFF]
+			+ tab[(int) (b >>> 16) & 0xFFFF]
+			+ tab[(int) (b >>> 32) & 0xFFFF]
+			+ tab[(int) (b >>> 48) & 0xFFFF];
+	}
+}
@@ -16,6 +16,8 @@ public class ConfigEvaluator {
     public static final boolean PLAYSTATS_CSV = false;	// if true, print out playing statistics
     // to agents/gameName/csv/playStats.csv (it is recommended to reduce NUMBEREVALUATIONS
     // to 15 in this case)
+    public static final boolean PARALLEL_GAMES = true;	// if true, play the games in parallel on tools.ComputePool
+    // for the agents which allow it (see Evaluator2048.playsInParallel), all other agents play sequentially
 
 
     //Evaluator2048_BoardPositions Settings
@@ -1,13 +1,18 @@
 package games.ZweiTausendAchtundVierzig;
 
+import controllers.Expectimax2Wrapper;
+import controllers.ExpectimaxWrapper;
 import controllers.MC.MCAgentN;
 import controllers.MCTSExpectimax.MCTSExpectimaxAgt;
 import controllers.PlayAgent;
+import controllers.TD.ntuple2.NTupleBase;
+import controllers.TD.ntuple4.NTuple4Base;
 import games.Evaluator;
 import games.GameBoard;
 import games.Arena;
 import games.PStats;
 import games.ZweiTausendAchtundVierzig.Heuristic.Evaluator2048_EA;
+import tools.ComputePool;
 import tools.Types;
 import tools.Types.ACTIONS_VT;
 
@@ -20,8 +25,6 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.*;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Base evaluator for 2048: average score from playing 50 episodes.
@@ -36,8 +39,6 @@ import java.util.concurrent.Executors;
  * @see Evaluator2048_EA
  */
 public class Evaluator2048 extends Evaluator {
-    private final ExecutorService executorService = Executors.newFixedThreadPool(6);
-
     private double medianScore;
     private int minScore = Integer.MAX_VALUE;
     private int maxScore = Integer.MIN_VALUE;
@@ -72,7 +73,6 @@ public class Evaluator2048 extends Evaluator {
         if (m_mode == -1) {
             return true;
         }
-		int cumEmpty;
 		ArrayList<PStats> psList = new ArrayList<>();
         startTime = System.currentTimeMillis();
         if(verbose == 0) {
@@ -82,148 +82,43 @@ public class Evaluator2048 extends Evaluator {
         }
         List<StateObserver2048> stateObservers = new ArrayList<>();
 
-
-        if(	m_PlayAgent.getName().equals("MCTS Expectimax") ) {
-            //async for MCTS Expectimax agents 
-            List<Callable<StateObserver2048>> callables = new ArrayList<>();
+        if (m_PlayAgent instanceof MCTSExpectimaxAgt && verbose == 0) {
             MCTSExpectimaxAgt mctsExpectimaxAgt = (MCTSExpectimaxAgt) m_PlayAgent;
+       		System.out.println("Detected MCTS Expectimax Agent, iterations: " + mctsExpectimaxAgt.params.getNumIter() + ", rolloutdepth: " + mctsExpectimaxAgt.params.getRolloutDepth() + ", Treedepth: " + mctsExpectimaxAgt.params.getTreeDepth() + ", k: " + mctsExpectimaxAgt.params.getK_UCT() + ", maxnodes: " + mctsExpectimaxAgt.params.getMaxNodes() + ", alternative version: " + mctsExpectimaxAgt.params.getAlternateVersion());
+        }
 
-        	if (verbose == 0) 
-        		System.out.println("Detected MCTS Expectimax Agent, iterations: " + mctsExpectimaxAgt.params.getNumIter() + ", rolloutdepth: " + mctsExpectimaxAgt.params.getRolloutDepth() + ", Treedepth: " + mctsExpectimaxAgt.params.getTreeDepth() + ", k: " + mctsExpectimaxAgt.params.getK_UCT() + ", maxnodes: " + mctsExpectimaxAgt.params.getMaxNodes() + ", alternative version: " + mctsExpectimaxAgt.params.getAlternateVersion());
-
-            //play Games
-            for(int i = 0; i < ConfigEvaluator.NUMBEREVALUATIONS; i++) {
-                int gameNumber = i+1;
-                callables.add(() -> {
-                    StateObserver2048 so = new StateObserver2048();
-                    PlayAgent playAgent;
-                    long gameStartTime = System.currentTimeMillis();
-
-                    // we need a new agent for every eval thread, since MCTSExpectimaxAgt is
-                    // not thread-safe in its method getNextAction2:
-                    playAgent = new MCTSExpectimaxAgt("MCTS Expectimax", mctsExpectimaxAgt.params);
- 
-                    while (!so.isGameOver()) {
-                        Types.ACTIONS action = playAgent.getNextAction2(so, false, true);
-                        so.advance(action);
-                        
-                        // TODO: integrate a branch for ConfigEvaluator.PLAYSTATS_CSV, if needed
-                    }
-
-                    if(verbose == 0) {
-                        System.out.print("Finished game " + gameNumber + " with scores " + so.score + 
-                        		" after " + (System.currentTimeMillis() - gameStartTime) + "ms."+
-                        		" Highest tile is " + so.getHighestTileValue() + ".\n");
-                    }
-                    return so;
-                });
-            }
-
-            //save final gameState
-            try {
-                executorService.invokeAll(callables).stream().map(future -> {
-                    try {
-                        return future.get();
-                    }
-                    catch (Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                }).forEach(stateObservers::add);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-
-        } else if (	m_PlayAgent.getName().equals("ExpectimaxWrapper") || m_PlayAgent.getName().equals("Expectimax2Wrapper") ) {
-            //async for wrapper agents (ExpectiMaxN or MaxN tree nply)
-            List<Callable<StateObserver2048>> callables = new ArrayList<>();
-
-            //play Games
-            for(int i = 0; i < ConfigEvaluator.NUMBEREVALUATIONS; i++) {
-                int gameNumber = i+1;
-                callables.add(() -> {
-                    StateObserver2048 so = new StateObserver2048();
-                    long gameStartTime = System.currentTimeMillis();
-
-                    // we can use the same m_PlayAgent in every parallel eval thread, since 
-                    // ExpectiMaxN's method getNextAction2 and the wrapped agent's method getScore* are 
-                    // thread-safe:
-                    PlayAgent playAgent = m_PlayAgent;
-
-                    while (!so.isGameOver()) {
-                        Types.ACTIONS action = playAgent.getNextAction2(so, false, true);
-                        so.advance(action);
-                        
-                        // TODO: integrate a branch for ConfigEvaluator.PLAYSTATS_CSV, if needed
-                    }
-
-                    if(verbose == 0) {
-                        System.out.print("Finished game " + gameNumber + " with scores " + so.score 
-                        		+ " after " + (System.currentTimeMillis() - gameStartTime) 
-                        		+ "ms. Highest tile is " + so.getHighestTileValue() + ".\n");
-                    }
-                    return so;
-                });
-            }
-
-            //save final gameState
-            try {
-                executorService.invokeAll(callables).stream().map(future -> {
-                    try {
-                        return future.get();
-                    }
-                    catch (Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                }).forEach(stateObservers::add);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-
+        // one task per game. The games run in parallel on the shared ComputePool, if the agent allows
+        // it (see playsInParallel). Otherwise they run sequentially (agents which parallelize themselves,
+        // like MCAgentN, fork their tasks into the ComputePool):
+        List<Callable<GameResult>> callables = new ArrayList<>();
+        for (int i = 0; i < ConfigEvaluator.NUMBEREVALUATIONS; i++) {
+            int gameNumber = i;
+            callables.add(() -> playGame(gameNumber));
+        }
+        List<GameResult> gameResults;
+        if (ConfigEvaluator.PARALLEL_GAMES && playsInParallel(m_PlayAgent)) {
+            gameResults = ComputePool.invokeAll(callables);
         } else {
-            //sync for other Agents (MC Agent uses multiple cores naturally, TD agents are very fast)
-            for (int i = 0; i < ConfigEvaluator.NUMBEREVALUATIONS; i++) {
-                long gameStartTime = System.currentTimeMillis();
-                cumEmpty=0;
-                ACTIONS_VT actBest;
-                StateObserver2048 so2048 = new StateObserver2048();
-//              moveNum=0;
-//        		pstats = new PStats(i, so2048.getMoveCounter(), so2048.getPlayer(), -1, gameScore, (double) nEmpty, (double) cumEmpty);
-//        		psList.add(pstats);
-        		psList.add(makePStats2048(i, so2048, null, cumEmpty));
-
-                while (!so2048.isGameOver()) {
-                    actBest = m_PlayAgent.getNextAction2(so2048, false, true);
-                    so2048.advance(actBest);
-//                  System.out.print("Finished move " + (so.moves) + " with score " + so.score + " after " + (System.currentTimeMillis() - gameMoveTime) + "ms.\n");
-                    
-                    // gather information for later printout to agents/gameName/csv/playStats.csv:
-                    if (ConfigEvaluator.PLAYSTATS_CSV) {
-//                        moveNum++;
-//                    	nEmpty = so2048.getNumEmptyTiles();  
-//                    	gameScore = so2048.getGameScore(so2048)*so2048.MAXSCORE;
-//                    	cumEmpty += nEmpty;
-//                		pstats = new PStats(i, moveNum, so2048.getPlayer(), actBest.toInt(), gameScore, (double) nEmpty, (double) cumEmpty);
-                		psList.add(makePStats2048(i, so2048, actBest, cumEmpty));
-                    }
-                }
-
-                if(verbose == 0) {
-                    System.out.print("Finished game " + (i + 1) + " with score " + so2048.score + 
-                    		" after " + (System.currentTimeMillis() - gameStartTime) + "ms."+ 
-                    		" Highest tile is " + so2048.getHighestTileValue() + ".\n");
+            gameResults = new ArrayList<>();
+            for (Callable<GameResult> c : callables) {
+                try {
+                    gameResults.add(c.call());
+                } catch (Exception e) {
+                    throw new RuntimeException("[Evaluator2048.evalAgent] game failed: " + e, e);
                 }
-
-                stateObservers.add(so2048);
-                
-            }
-            if (ConfigEvaluator.PLAYSTATS_CSV) {
-            	PlayAgent[] paVector = {m_PlayAgent};
-        		PStats.printPlayStats(psList, null, paVector,this.ar);
-        									//we do not hand over a startSO, since psList may have many runs, 
-        									//each with a different startSO.
             }
-            
-        } // else
+        }
+        for (GameResult gr : gameResults) {
+            stateObservers.add(gr.so);
+            psList.addAll(gr.psList);
+        }
+
+        if (ConfigEvaluator.PLAYSTATS_CSV) {
+        	PlayAgent[] paVector = {m_PlayAgent};
+    		PStats.printPlayStats(psList, null, paVector,this.ar);
+    									//we do not hand over a startSO, since psList may have many runs, 
+    									//each with a different startSO.
+        }
 
         //evaluate games
         //Average Score
@@ -288,6 +183,81 @@ public class Evaluator2048 extends Evaluator {
 //      return lastResult;
 //  }
     
+    /**
+     * Play one evaluation game.
+     * @param i	the game number (starting at 0)
+     * @return the final state and, if {@link ConfigEvaluator#PLAYSTATS_CSV}, the play statistics of this game
+     */
+    private GameResult playGame(int i) {
+        long gameStartTime = System.currentTimeMillis();
+        int cumEmpty=0;
+        ACTIONS_VT actBest;
+        List<PStats> psList = new ArrayList<>();
+        StateObserver2048 so2048 = new StateObserver2048();
+        PlayAgent playAgent = agentForGame(m_PlayAgent);
+        if (ConfigEvaluator.PLAYSTATS_CSV) 
+        	psList.add(makePStats2048(i, so2048, null, cumEmpty));
+
+        while (!so2048.isGameOver()) {
+            actBest = playAgent.getNextAction2(so2048, false, true);
+            so2048.advance(actBest);
+            
+            // gather information for later printout to agents/gameName/csv/playStats.csv:
+            if (ConfigEvaluator.PLAYSTATS_CSV) 
+        		psList.add(makePStats2048(i, so2048, actBest, cumEmpty));
+        }
+
+        if(verbose == 0) {
+            System.out.print("Finished game " + (i + 1) + " with score " + so2048.score + 
+            		" after " + (System.currentTimeMillis() - gameStartTime) + "ms."+ 
+            		" Highest tile is " + so2048.getHighestTileValue() + ".\n");
+        }
+        return new GameResult(so2048, psList);
+    }
+
+    /**
+     * Only a few agents may play several evaluation games at the same time: 
+     * <ul>
+     * <li> {@link MCTSExpectimaxAgt} gets a new instance per game (see {@link #agentForGame(PlayAgent)}),
+     * <li> the Expectimax wrappers around n-tuple agents are shared by all games, since 
+     * 		ExpectiMaxN's method getNextAction2 and the n-tuple agent's methods getScore* are thread-safe.
+     * </ul>
+     * All other agents keep state during {@code getNextAction2} or {@code getScore} (e.g. the 
+     * activations of TD_NNet in TDAgent or the search tree of MCTSAgentT) and play their games sequentially.
+     * 
+     * @param pa	the agent to evaluate
+     * @return true, if the evaluation games of {@code pa} may run in parallel
+     */
+    static boolean playsInParallel(PlayAgent pa) {
+        if (pa instanceof MCTSExpectimaxAgt) return true;
+        PlayAgent wrapped = null;
+        if (pa instanceof ExpectimaxWrapper) wrapped = ((ExpectimaxWrapper) pa).getWrappedPlayAgent();
+        if (pa instanceof Expectimax2Wrapper) wrapped = ((Expectimax2Wrapper) pa).getWrappedPlayAgent();
+        return (wrapped instanceof NTupleBase || wrapped instanceof NTuple4Base);
+    }
+
+    /**
+     * @return the agent for one evaluation game: a new agent for agents which keep a search state
+     * 		(not thread-safe in {@code getNextAction2}), else {@code pa} itself
+     */
+    private static PlayAgent agentForGame(PlayAgent pa) {
+        if (pa instanceof MCTSExpectimaxAgt) {
+            MCTSExpectimaxAgt mctsExpectimaxAgt = (MCTSExpectimaxAgt) pa;
+            return new MCTSExpectimaxAgt(mctsExpectimaxAgt.getName(), mctsExpectimaxAgt.params);
+        }
+        return pa;
+    }
+
+    private static class GameResult {
+        final StateObserver2048 so;
+        final List<PStats> psList;
+
+        GameResult(StateObserver2048 so, List<PStats> psList) {
+            this.so = so;
+            this.psList = psList;
+        }
+    }
+
     private PStats makePStats2048(int i, StateObserver2048 so2048, ACTIONS_VT actBest, int cumEmpty) {
     	int moveNum = so2048.getMoveCounter();
     	int actNum = (actBest==null) ? (-1) : actBest.toInt();
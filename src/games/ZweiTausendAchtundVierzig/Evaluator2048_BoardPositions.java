@@ -11,6 +11,7 @@ import params.MCParams;
 //import params.MCTSExpectimaxParams;
 import params.ParMC;
 import params.ParMCTSE;
+import tools.ComputePool;
 import tools.Types;
 
 import java.io.*;
@@ -18,8 +19,6 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import static java.util.Arrays.deepEquals;
 
@@ -36,7 +35,6 @@ import static java.util.Arrays.deepEquals;
  */
 public class Evaluator2048_BoardPositions extends Evaluator{
     private Random random = new Random();
-    private ExecutorService executorService = Executors.newWorkStealingPool();
 
     public Evaluator2048_BoardPositions(PlayAgent e_PlayAgent, GameBoard gb, int stopEval, int verbose) {
         super(e_PlayAgent, gb, 1, stopEval, verbose);
@@ -74,18 +72,7 @@ public class Evaluator2048_BoardPositions extends Evaluator{
         }
 
         List<ResultContainer> resultContainers = new ArrayList<>();
-        try {
-            executorService.invokeAll(callables).stream().map(future -> {
-                try {
-                    return future.get();
-                }
-                catch (Exception e) {
-                    throw new IllegalStateException(e);
-                }
-            }).forEach(resultContainers::add);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        ComputePool.invokeAll(callables).forEach(resultContainers::add);
         
         String[][] results = new String[3][10];
         /*for(ResultContainer resultContainer : resultContainers) {
@@ -238,18 +225,7 @@ public class Evaluator2048_BoardPositions extends Evaluator{
             }
 
             //merge all gameStates
-            try {
-                executorService.invokeAll(callables).stream().map(future -> {
-                    try {
-                        return future.get();
-                    }
-                    catch (Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                }).forEach(gameStates::addAll);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }        	
+            ComputePool.invokeAll(callables).forEach(gameStates::addAll);        	
         } else {
             //play i games --- serial execution on one core (better for debugging) ---
             List<StateObserver2048> tempGameStates=null;
@@ -3,6 +3,7 @@ package games.ZweiTausendAchtundVierzig.Heuristic;
 import controllers.MCTSExpectimax.MCTSExpectimaxAgt;
 import games.ZweiTausendAchtundVierzig.StateObserver2048;
 import params.ParMCTSE;
+import tools.ComputePool;
 import tools.Types;
 import tools.cmaes.fitness.IObjectiveFunction;
 
@@ -10,8 +11,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Created by Johannes Kutsch on 27.06.2017.
@@ -21,7 +20,6 @@ public class HeuristicSettings2048 implements IObjectiveFunction {
     private double[] genes;
     public double fitness;
     private Random random = new Random();
-    private ExecutorService executorService = Executors.newWorkStealingPool();
 
     //empty tiles
     public boolean enableEmptyTiles = true;
@@ -99,18 +97,7 @@ public class HeuristicSettings2048 implements IObjectiveFunction {
 
         List<StateObserver2048> stateObservers = new ArrayList<>();
 
-        try {
-            executorService.invokeAll(callables).stream().map(future -> {
-                try {
-                    return future.get();
-                }
-                catch (Exception e) {
-                    throw new IllegalStateException(e);
-                }
-            }).forEach(stateObservers::add);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        ComputePool.invokeAll(callables).forEach(stateObservers::add);
 
         for (StateObserver2048 so: stateObservers) {
             totScore += so.score;
@@ -7,6 +7,7 @@ import games.ObserverBase;
 import games.StateObsNondeterministic;
 import games.ZweiTausendAchtundVierzig.Heuristic.HeuristicSettings2048;
 import tools.Types;
+import tools.Zobrist;
 import tools.Types.ACTIONS;
 
 import java.io.Serializable;
@@ -667,11 +668,10 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
 	}
 
     public void setAvailableActions() {
-        ArrayList<ACTIONS> acts = this.getAvailableActions();
-        actions = new ACTIONS[acts.size()];
+        actions = new ACTIONS[availableMoves.size()];
         for(int i = 0; i < actions.length; ++i)
         {
-            actions[i] = acts.get(i);
+            actions[i] = ACTIONS.fromInt(availableMoves.get(i));
         }
     }
 
@@ -841,6 +841,15 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
         return boardB;
     }
 
+    /**
+     * @return a hash key of the board {@code boardB} (instead of the default hash of {@link #stringDescr()}, 
+     * 		which is much slower). The score is not part of the key.
+     */
+    @Override
+    public long hashKey() {
+        return Zobrist.mix(boardB);
+    }
+
     /**
      * Add tile 2^value to the 2048 board, i.e. change {@code boardB} accordingly.<br>
      * Assumes (and asserts) that board is empty at {@code position}.
@@ -916,23 +925,9 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
      */
     void updateAvailableMoves() {
         availableMoves.clear();
-        int oldScore = score;
-        long oldCumulEmptyTiles = cumulEmptyTiles;
-        long oldBoardB = boardB;
-        if (leftAction().boardB!=oldBoardB)
-            availableMoves.add(0);
-        boardB=oldBoardB;
-        if (upAction().boardB!=oldBoardB)
-            availableMoves.add(1);
-        boardB=oldBoardB;
-        if (rightAction().boardB!=oldBoardB)
-            availableMoves.add(2);
-        boardB=oldBoardB;
-        if (downAction().boardB!=oldBoardB)
-            availableMoves.add(3);
-        boardB=oldBoardB;
-        cumulEmptyTiles = oldCumulEmptyTiles;
-        score=oldScore;
+        for (int m=0; m<4; m++)
+            if (BitBoard2048.move(boardB, m)!=boardB)
+                availableMoves.add(m);
 
         if(availableMoves.size() <= 0) {
             setWinState(-1);
@@ -947,9 +942,8 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
         for(int r=3; r>=0; r--)
         {
             System.out.print("|");
-            RowBitShift row = this.getRow(r);
             for(int c=3; c>=0; c--) {
-                int exp=row.d(c);
+                int exp=(int) ((boardB >> (16*r+4*c)) & 0x0fL);
                 if(exp != 0) {
                     int val = (1 << exp);
                     if(val < 10) {
@@ -992,29 +986,14 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
      * @param move {@literal 0 > left, 1 > up, 2 > right, 3 > down}
      */
     public void move(int move) {
-        switch (move) {
-            case 0:
-                leftAction();
-                break;
-
-            case 1:
-                upAction();
-                break;
-
-            case 2:
-                rightAction();
-                break;
-
-            case 3:
-                downAction();
-                break;
+        if (move>=0 && move<=3) {
+            score += BitBoard2048.moveScore(boardB, move);
+            boardB = BitBoard2048.move(boardB, move);
         }
 //      moves++;
         super.incrementMoveCounter();
 
-        for(int i = 0; i < 16; i++) {
-            updateHighestTile((int)(boardB >> (15-i)*4 & 0x0fL));
-        }
+        updateHighestTile(BitBoard2048.maxExponent(boardB));
     }
 
     private void newBoard() {
@@ -1034,100 +1013,6 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
         updateAvailableMoves();
     }
 
-    private StateObserver2048 rightAction() {
-        for (int k=0; k<4; k++) {
-            RowBitShift row = this.getRow(k).rAction();
-            this.putRow(row,k);
-            this.score += row.score;
-        }
-        return this;
-    }
-
-    private StateObserver2048 leftAction() {
-        for (int k=0; k<4; k++) {
-            //System.out.println(String.format("Old: %04x", this.getRow(k).getRow()));
-            RowBitShift row = this.getRow(k).lAction();
-            //System.out.println(String.format("New: %04x", row.getRow()));
-            this.putRow(row,k);
-            this.score += row.score;
-        }
-        return this;
-    }
-
-    private StateObserver2048 downAction() {
-        for (int k=0; k<4; k++) {
-            RowBitShift row = this.getCol(k).rAction();
-            this.putCol(row,k);
-            this.score += row.score;
-        }
-        return this;
-    }
-
-    private StateObserver2048 upAction() {
-        for (int k=0; k<4; k++) {
-            RowBitShift row = this.getCol(k).lAction();
-            this.putCol(row,k);
-            this.score += row.score;
-        }
-        return this;
-    }
-
-    /**
-     * Returns the {@code k}th row of the board state
-     * @param k one out of {3,2,1,0} where 0 is the lowest row
-     * @return
-     */
-    private RowBitShift getRow(int k) {
-        long r = (boardB >> (16*k)) & 0x000000000000ffffL;
-        RowBitShift row = new RowBitShift((int) r);
-        return row;
-    }
-
-    private StateObserver2048 putRow(RowBitShift row, int k) {
-        long[] andB = {0xffffffffffff0000L,
-                0xffffffff0000ffffL,
-                0xffff0000ffffffffL,
-                0x0000ffffffffffffL};
-        long r = ((long)row.getRow() << (16*k)) ;
-        boardB = (boardB & andB[k]) + r;
-        return this;
-    }
-
-    /**
-     * Returns the {@code k}th column of the board state. The column returned is a
-     * 4-hex-digit number with the highest digit being the tile in the highest row.
-     * @param k one out of {3,2,1,0} where 0 is the rightmost column
-     * @return
-     */
-    private RowBitShift getCol(int k) {
-        long btemp = (boardB >> (4*k));  // shift the column to get in row 0 to digit 0
-        long r = 0L;
-        for (int j=3; j>=0; j--) {
-            r = r << 4;
-            r = r + ((btemp >> 16*j) & 0x000000000000000fL);
-        }
-        RowBitShift row = new RowBitShift((int) r);
-        return row;
-    }
-
-    private StateObserver2048 putCol(RowBitShift row, int k) {
-        long[] andB = {0xfff0fff0fff0fff0L,
-                0xff0fff0fff0fff0fL,
-                0xf0fff0fff0fff0ffL,
-                0x0fff0fff0fff0fffL};
-        long col = 0L;
-        for (int j=3; j>=0; j--) {
-            // shift one word (4 hex-digits) up and add the jth digit from row as lowest digit:
-            col = (col << 16) + row.d(j);
-        }
-        // shift the digits from row to the locations (the '0's in the relevant andB[k]):
-        col = col << 4*k;
-
-        // add the boardB digits on all other places:
-        boardB = (boardB & andB[k]) + col;
-        return this;
-    }
-
     /**
      * equals currently only tests if the gameboards are equal
      */
@@ -1153,230 +1038,6 @@ public class StateObserver2048 extends ObserverBase implements StateObsNondeterm
 	
 } // class StateObserver2048
 
-/**
- * RowBitShift represents an row of the 2048 board in the four lowest hex digits of 
- * {@code int rowB}. Digit 3 is the leftmost tile, digit 0 the rightmost tile.  <br>
- * (RowBitShift represents as well columns of the 2048 board, then digit 3 is the highest tile, 
- * digit 0 is the lowest tile of a column.) <p>
- * 
- * The hex value for each digit is {@code exp} in tile {@code 2^exp}. <p>
- * 
- * RowBitShift has methods {@link RowBitShift#lAction()} and {@link RowBitShift#rAction()} 
- * for left and right move action according to the rules of 2048. On first pass through 
- * these methods, static transposition tables {@code tabLeft} and {@code tabRight} are filled 
- * which contain for each possible row value the resulting row. <br>
- * Likewise, static transposition tables {@code scoreLeft} and {@code scoreRight} are filled 
- * which contain for each possible row value the resulting score. <p>
- * 
- * This speeds up the calculation in {@link StateObserver2048#advance(ACTIONS)} by a
- * factor of 10 as compared to {@link StateObserver2048Slow#advance(ACTIONS)}.
- *
- * @author Wolfgang Konen, THK
- */
-class RowBitShift {
-	int rowB;	// the four lowest hex digits (16 bit) of this 32-bit int are used 
-	int score=0;
-	static int[] tabRight = null;
-	static int[] tabLeft = null; 
-	static int[] scoreRight = null;
-	static int[] scoreLeft = null; 
-	
-	public RowBitShift(int row) {
-	    this.rowB = row;
-	}
-
-	// never used
-//	public RowBitShift(RowBitShift rbs) {
-//		this.rowB = rbs.rowB;
-//		this.score = rbs.score;
-//	}
-	
-	/**
-	 * Extract the k-th hexadecimal digit
-	 * @param k	one out of {3,2,1,0}, where 3 is the highest digit
-	 * @return an int holding the k-th hexadecimal digit
-	 */
-	public int d(int k) {
-		if (k>3 || k<0) throw new RuntimeException("k"+k+" is not in allowed range {0,1,2,3}");
-		return (rowB >> (k*4)) & 0x0F;
-	}
-	
-	/**
-	 * Shift digits from 3 to {@code lower} by one hex digit (4 bit) to the right, 
-	 * but leave the digits below {@code lower} untouched.
-	 * 
-	 * @param lower one out of {3,2,1,0}, where 3 is the highest digit
-	 * @return the shifted row
-	 */
-	public RowBitShift rShift(int lower) {
-		if (lower>3 || lower<0) throw new RuntimeException("lower"+lower+" is not in allowed range {0,1,2,3}");
-		int[] andS = {0xffff, 0xfff0, 0xff00, 0xf000};
-		int[] andR = {0x0000, 0x000f, 0x00ff, 0x0fff};
-		int shift = (rowB >> 4)  & andS[lower];
-		rowB = shift + (rowB & andR[lower]);
-		
-		return this;
-	}
-	
-	/**
-	 * Shift digits from 0 to {@code higher} by one hex digit (4 bit) to the left, 
-	 * but leave the digits above {@code higher} untouched.
-	 * 
-	 * @param higher one out of {3,2,1,0}, where 3 is the highest digit
-	 * @return the shifted row
-	 */
-	public RowBitShift lShift(int higher) {
-		if (higher>3 || higher<0) throw new RuntimeException("higher"+higher+" is not in allowed range {0,1,2,3}");
-		int[] andS = {0x000f, 0x00ff, 0x0fff, 0xffff};
-		int[] andR = {0xfff0, 0xff00, 0xf000, 0x0000};
-		int shift = (rowB << 4)  & andS[higher];
-		rowB = shift + (rowB & andR[higher]);
-		
-		return this;
-	}
-	
-	/**
-	 * Merge hex digits {@code r+1} and {@code r} on digit {@code r} (right merge),  
-	 * assuming that they both contain the same, non-zero value. 
-	 * Shift digits above {@code r} accordingly.
-	 * Leave digits below {@code r} untouched.
-	 * 
-	 * @param r one out of {2,1,0}
-	 * @return the merged row
-	 */
-	public RowBitShift rMerge(int r) {
-		if (r>2 || r<0) throw new RuntimeException("r="+r+" is not in allowed range {0,1,2}");
-		int exp = this.d(r);
-		if (exp!=this.d(r+1)) throw new RuntimeException("Digits "+(r+1)+" and "+r+" are not the same"); 
-		if (exp==0) throw new RuntimeException("Digit "+r+" must be greater than zero"); 
-
-		// andR is a bit mask which lets all digits pass except the two to-be-merged digits:
-		int[] andR = {0xff00, 0xf00f, 0x00ff};   
-									
-		// since each digit holds the exponent exp of tile 2^exp, merging two tiles (doubling) 
-		// is the same as adding 1 to the exponent:
-		int newd = exp+1;	
-		
-		// the score delta is 2^newd:
-		this.score += (1 << newd);
- 
-		// shift the merged result back to digit r and add the 'passed' digits:
-		rowB = (newd << (4*r)) + (rowB & andR[r]); 
-
-		this.rShift(r+1);
-		return this;
-	}
-	
-	/**
-	 * Merge hex digits {@code r} and {@code r-1} on digit {@code r} (left merge),  
-	 * assuming that they both contain the same, non-zero value. 
-	 * Shift digits below {@code r} accordingly.
-	 * Leave digits above {@code r} untouched.
-	 * 
-	 * @param r one out of {3,2,1}
-	 * @return the merged row
-	 */
-	public RowBitShift lMerge(int r) {
-		if (r>3 || r<1) throw new RuntimeException("r="+r+" is not in allowed range {1,2,3}");
-		int exp = this.d(r);
-		if (exp!=this.d(r-1)) throw new RuntimeException("Digits "+r+" and "+(r-1)+" are not the same"); 
-		if (exp==0) throw new RuntimeException("Digit "+r+" must be greater than zero"); 
-
-		// andR is a bit mask which lets all digits pass except the two to-be-merged digits:
-		int[] andR = {0x0000, 0xff00, 0xf00f, 0x00ff};   
-									
-		// since each digit holds the exponent exp of tile 2^exp, merging two tiles (doubling) 
-		// is the same as adding 1 to the exponent:
-		int newd = exp+1;		
-		
-		// the score delta is 2^newd:
-		this.score += (1 << newd);
- 
-		// shift the merged result back to digit r and add the 'passed' digits:
-		rowB = (newd << (4*r)) + (rowB & andR[r]); 
-
-		this.lShift(r-1);
-		return this;
-	}
-	
-	/**
-	 * Perform a "right" action. <br>
-	 * Use the static transposition table {@code tabRight} to do the job fast. An equivalent
-	 * but slow version (w/o {@code tabRight}) is in {@link RowBitShift#rActionSlow()}. 
-	 * @return the resulting row object
-	 */
-	public RowBitShift rAction( ) {
-		if (tabRight==null) calcTabRight();
-		this.score = scoreRight[rowB];
-		this.rowB = tabRight[rowB];
-		return this;
-	}
-	private void calcTabRight() {
-		int sz = (1 << 16);
-		tabRight = new int[sz];
-		scoreRight = new int[sz];
-		RowBitShift rbs = new RowBitShift(0);
-		for (int i=0; i<sz; i++) {
-			rbs.rowB=i;
-			rbs.score=0;
-			tabRight[i]=rbs.rActionSlow().getRow();
-			scoreRight[i]=rbs.score;
-		}
-	}
-	private RowBitShift rActionSlow( ) {
-		// remove the 'holes' (0-tiles) from left to right:
-		for (int k=2; k>=0; k--) 
-			if (this.d(k)==0) this.rShift(k);
-		
-		// merge adjacent same-value tiles from right to left:
-		for (int r=0; r<3; r++)
-			if (this.d(r+1)==this.d(r) && this.d(r)>0) this.rMerge(r);
-		
-		return this;
-	}
-	
-	/**
-	 * Perform a "left" action. <br>
-	 * Use the static transposition table {@code tabLeft} to do the job fast. An equivalent
-	 * but slow version (w/o {@code tabLeft}) is in {@link RowBitShift#lActionSlow()}. 
-	 * @return the resulting row object
-	 */
-	public RowBitShift lAction( ) {
-		if (tabLeft==null) calcTabLeft();
-		this.score = scoreLeft[rowB];
-		this.rowB = tabLeft[rowB];
-		return this;
-	}
-	private void calcTabLeft() {
-		int sz = (1 << 16);
-		tabLeft = new int[sz];
-		scoreLeft = new int[sz];
-		RowBitShift rbs = new RowBitShift(0);
-		for (int i=0; i<sz; i++) {
-			rbs.rowB=i;
-			rbs.score=0;
-			tabLeft[i]=rbs.lActionSlow().getRow();
-			scoreLeft[i]=rbs.score;
-		}
-	}
-	private RowBitShift lActionSlow( ) {
-		// remove the 'holes' (0-tiles) from right to left:
-		for (int k=1; k<4; k++)
-			if (this.d(k)==0) this.lShift(k);
-		
-		// merge adjacent same-value tiles from left to right:
-		for (int r=3; r>0; r--)
-			if (this.d(r-1)==this.d(r) && this.d(r)>0) this.lMerge(r);
-		
-		return this;
-	}
-	
-	
-	public int getRow() {
-		return rowB;
-	}
-}
-
 class RowInformationContainer implements Serializable {
     int rowLength;
     int rowValue;
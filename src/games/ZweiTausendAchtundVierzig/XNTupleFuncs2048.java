@@ -140,6 +140,16 @@ public class XNTupleFuncs2048 extends XNTupleBase implements XNTupleFuncs, Seria
 		return symmetries;
 	}
 
+	/**
+	 * The symmetries of 2048 are pure cell permutations.
+	 * 
+	 * @return {@code perm[s][c]}, see {@link XNTupleFuncs#symmetryPermutations()}
+	 */
+	@Override
+	public int[][] symmetryPermutations() {
+		return cellPermutations();
+	}
+
 	/**
 	 * Given a certain board array of symmetric (equivalent) states for state <b>{@code so}</b> 
 	 * and a certain action to be taken in <b>{@code so}</b>, 
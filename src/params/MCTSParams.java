@@ -31,6 +31,9 @@ import controllers.MCTS.SingleMCTSPlayer;
  * <li> <b>K (UCT)</b>: 	[1.414] parameter K in UCT rule  
  * <li> <b>Tree Depth</b>: 	[ 10] MCTS tree depth 
  * <li> <b>Rollout Depth</b>[200] MCTS rollout depth  
+ * <li> <b>Threads</b>: 	[  1] number of threads for one MCTS search (1: sequential)
+ * <li> <b>Parallel</b>: 	[root] how the threads search: "root" (one tree per thread, root statistics merged)  
+ * 		or "tree" (one shared tree with virtual loss)
  * </ul>
  * The defaults are defined in {@link ParMCTS}. 
  * 
@@ -47,6 +50,10 @@ public class MCTSParams extends Frame implements Serializable
 	private static final String TIPROLLOUTL = "maximum rollout depth (random moves from a leaf)";
 	private static final String TIPNORMALIZEL = "Normalize rollout value q(reward) to range [0,1]";
 	private static final String TIPSELECTORL = "Which selector to use in tree policy";
+	private static final String TIPTHREADSL = "Number of threads for one MCTS search (1: sequential)";
+	private static final String TIPPARMODEL = "<html>root: one tree per thread, root statistics are merged,<br>"
+			+ "tree: all threads grow one shared tree (with virtual loss)"
+			+ "</html>";
 	private static final String TIPVERBOSET = "<html>0: print nothing,<br>"
 			+ "1: one line per MCTS call, <br>"
 			+ "2: for each child (=action) one line, <br>"
@@ -55,6 +62,7 @@ public class MCTSParams extends Frame implements Serializable
 	// use "<html> ... <br> ... </html>" to get multi-line tooltip text
 	
 	private static String[] selTypeString = { "UCT","eps-greedy","roulette wheel" };
+	private static String[] parModeString = { "root","tree" };
 	
 	JLabel numIter_L;
 	JLabel selector_L;
@@ -64,14 +72,18 @@ public class MCTSParams extends Frame implements Serializable
 	JLabel rollout_L;
 	JLabel verbose_L;
 	JLabel normalize_L;
+	JLabel threads_L;
+	JLabel parMode_L;
 	JTextField numIter_T;
 	JTextField kUCT_T;
 	JTextField epsGreedy_T;
 	JTextField treedep_T;
 	JTextField rollout_T;
 	JTextField verbose_T;
+	JTextField threads_T;
 	JCheckBox normalize;
 	JComboBox choiceSelector;
+	JComboBox<String> choiceParMode;
 	JPanel mPanel;
 
 	/**
@@ -91,12 +103,15 @@ public class MCTSParams extends Frame implements Serializable
 		kUCT_L = new JLabel("K (UCT)");
 		epsGreedy_L = new JLabel("epsilon (greedy)");
 		normalize_L = new JLabel("Normalize: ");
+		threads_L = new JLabel("Threads");
+		parMode_L = new JLabel("Parallel: ");
 		numIter_T = new JTextField(ParMCTS.DEFAULT_NUM_ITERS+"");			
 		treedep_T = new JTextField(ParMCTS.DEFAULT_TREE_DEPTH+"");		 
 		rollout_T = new JTextField(ParMCTS.DEFAULT_ROLLOUT_DEPTH+"");		 
 		verbose_T = new JTextField(ParMCTS.DEFAULT_VERBOSITY+"");		 
 		kUCT_T = new JTextField(ParMCTS.DEFAULT_K+"");					// 
 		epsGreedy_T = new JTextField(ParMCTS.DEFAULT_EPSILONGREEDY+"");					// 
+		threads_T = new JTextField(ParMCTS.DEFAULT_NUM_THREADS+"");		 
 		normalize = new JCheckBox();
 		choiceSelector = new JComboBox(selTypeString);
 		choiceSelector.addActionListener(new ActionListener(){
@@ -106,6 +121,8 @@ public class MCTSParams extends Frame implements Serializable
 			}
 		});
 		choiceSelector.setEnabled(true);
+		choiceParMode = new JComboBox<>(parModeString);
+		choiceParMode.setSelectedIndex(ParMCTS.DEFAULT_PAR_MODE);
 
 		mPanel = new JPanel();		// put the inner buttons into panel mPanel. This panel
 									// can be handed over to a tab of a JTabbedPane object
@@ -120,6 +137,8 @@ public class MCTSParams extends Frame implements Serializable
 		epsGreedy_L.setToolTipText(TIPEPSILONGREEDY);
 		normalize_L.setToolTipText(TIPNORMALIZEL);
 		selector_L.setToolTipText(TIPSELECTORL);
+		threads_L.setToolTipText(TIPTHREADSL);
+		parMode_L.setToolTipText(TIPPARMODEL);
 		
 		setLayout(new BorderLayout(10,0));				// rows,columns,hgap,vgap
 		mPanel.setLayout(new GridLayout(0,4,10,10));		
@@ -147,10 +166,10 @@ public class MCTSParams extends Frame implements Serializable
 //		mPanel.add(new Canvas());
 //		mPanel.add(new Canvas());
 
-		mPanel.add(new Canvas());	// add empty row to balance height of fields
-		mPanel.add(new Canvas());
-		mPanel.add(new Canvas());
-		mPanel.add(new Canvas());
+		mPanel.add(threads_L);
+		mPanel.add(threads_T);
+		mPanel.add(parMode_L);
+		mPanel.add(choiceParMode);
 
 		add(mPanel,BorderLayout.CENTER);
 		
@@ -203,6 +222,15 @@ public class MCTSParams extends Frame implements Serializable
 	public boolean getNormalize() {
 		return normalize.isSelected();
 	}
+	public int getNumThreads() {
+		return Integer.valueOf(threads_T.getText()).intValue();
+	}
+	/**
+	 * @return 0: "root", 1: "tree" (see {@link ParMCTS#PAR_ROOT}, {@link ParMCTS#PAR_TREE})
+	 */
+	public int getParMode() {
+		return this.choiceParMode.getSelectedIndex();
+	}
 	public void setNumIter(int value) {
 		numIter_T.setText(value+"");
 	}
@@ -227,6 +255,12 @@ public class MCTSParams extends Frame implements Serializable
 	public void setNormalize(boolean state) {
 		normalize.setSelected(state);
 	}
+	public void setNumThreads(int value) {
+		threads_T.setText(value+"");
+	}
+	public void setParMode(int value) {
+		this.choiceParMode.setSelectedIndex(value);
+	}
 	
 	/**
 	 * Needed to restore the param tab with the parameters from a re-loaded agent
@@ -241,6 +275,8 @@ public class MCTSParams extends Frame implements Serializable
 		setVerbosity(tp.getVerbosity());
 		setNormalize(tp.getNormalize());
 		setSelectMode(tp.getSelectMode());
+		setNumThreads(tp.getNumThreads());
+		setParMode(tp.getParMode());
 //		System.out.println("numIter= "+tp.getNumIter());
 //		System.out.println("k_UCT= "+tp.getK_UCT());
 		enableUCTPart();
@@ -259,6 +295,8 @@ public class MCTSParams extends Frame implements Serializable
 		setVerbosity(tp.getVerbosity());
 		setNormalize(tp.getNormalize());
 		setSelectMode(tp.getSelectMode());
+		setNumThreads(tp.getNumThreads());
+		setParMode(tp.getParMode());
 		enableUCTPart();
 	}
 	
@@ -41,6 +41,9 @@ import games.RubiksCube.GameBoardCube;
  * goal is reached
  * <li><b>Wrapper nPly</b>: [0] if &gt; 0, wrap the agent in an (Expecti)Max-N wrapper with
  * n plies of look-ahead. CAUTION: n &gt; 5 can dramatically slow down computation. 
+ * <li><b>Train workers</b>: [1] During training: number of threads training in parallel
+ * (currently only {@link TDNTuple3Agt}, see {@link TDNTuple3Agt#trainAgentParallel(games.StateObservation[], int)}).
+ * 1: sequential training.
  * <li><b>Choose Start 01</b>: [false] During training: Whether to start always from default
  * start state ({@code false}, or to start 50% from default, 50% from a random
  * 1-ply state ({@code true}
@@ -72,12 +75,14 @@ public class OtherParams extends Frame {
 	JLabel wNply_L;
 	JLabel pMax_L;
 	JLabel rBuf_L;
+	JLabel workers_L;
 	public JTextField numEval_T;
 	public JTextField epiLeng_T;
 	public JTextField stopTest_T;
 	public JTextField stopEval_T;
 	public JTextField wNply_T;
 	public JTextField pMax_T;
+	public JTextField workers_T;
 	public Checkbox chooseS01;
 	public Checkbox learnRM;
 	public Checkbox replayBuf;
@@ -104,6 +109,7 @@ public class OtherParams extends Frame {
 		stopEval_T = new JTextField("-1"); 	// the defaults
 		wNply_T = new JTextField("0"); 		//
 		pMax_T = new JTextField("6");		//	
+		workers_T = new JTextField("1");	//
 		numEval_L = new JLabel("numEval");
 		epiLeng_L = new JLabel("Episode Length");
 		stopTest_L = new JLabel("stopTest");
@@ -114,6 +120,7 @@ public class OtherParams extends Frame {
 		wNply_L = new JLabel("Wrapper nPly");
 		pMax_L = new JLabel("pMax");
 		rBuf_L = new JLabel("Replay buffer");
+		workers_L = new JLabel("Train workers");
 		chooseS01 = new Checkbox("", false);
 		learnRM = new Checkbox("", false);
 		replayBuf = new Checkbox("", false);
@@ -143,6 +150,8 @@ public class OtherParams extends Frame {
 				"RubiksCube: number of initial twists (during traing and eval)");
 		rBuf_L.setToolTipText(
 				"RubiksCube: use replay buffer during training");
+		workers_L.setToolTipText(
+				"During training: number of parallel training threads (TD-NTuple-3 only, 1: sequential)");
 
 		// this.setQuickEvalMode(0);
 		// this.setTrainEvalMode(0);
@@ -197,8 +206,8 @@ public class OtherParams extends Frame {
 
 		oPanel.add(wNply_L);
 		oPanel.add(wNply_T);
-		oPanel.add(new Canvas());
-		oPanel.add(new Canvas());
+		oPanel.add(workers_L);
+		oPanel.add(workers_T);
 
 		if (m_arena.getGameName().equals("RubiksCube")) {
 			oPanel.add(pMax_L);
@@ -275,6 +284,10 @@ public class OtherParams extends Frame {
 		return Integer.valueOf(pMax_T.getText()).intValue();
 	}
 
+	public int getNumWorkers() {
+		return Integer.valueOf(workers_T.getText()).intValue();
+	}
+
 	public boolean getReplayBuffer() {
 		return replayBuf.getState();
 	}
@@ -358,6 +371,10 @@ public class OtherParams extends Frame {
 		pMax_T.setText(value + "");
 	}
 
+	public void setNumWorkers(int value) {
+		workers_T.setText(value + "");
+	}
+
 	public void setEpisodeLength(int value) {
 		if (value == Integer.MAX_VALUE) value=-1;
 		epiLeng_T.setText(value + "");
@@ -395,6 +412,7 @@ public class OtherParams extends Frame {
 		this.setStopEval(op.getStopEval());
 		this.setWrapperNPly(op.getWrapperNPly());
 		this.setpMaxRubiks(op.getpMaxRubiks());
+		this.setNumWorkers(op.getNumWorkers());
 		this.chooseS01.setState(op.getChooseStart01());
 		this.learnRM.setState(op.getLearnFromRM());
 		this.replayBuf.setState(op.getReplayBuffer());
@@ -21,6 +21,13 @@ public class ParMCTS implements Serializable {
     public static final double DEFAULT_EPSILONGREEDY = 0.05;
     public static final int DEFAULT_VERBOSITY = 0;
     public static final int DEFAULT_SELECT_MODE = 0;	// 0:[UCT], 1:[eps-greedy], 2:[roulette wheel]
+    public static final int DEFAULT_NUM_THREADS = 1;
+	/**
+	 * the parallelization modes for {@code numThreads > 1}: {@link #PAR_ROOT} builds one independent tree per
+	 * thread and merges the root statistics, {@link #PAR_TREE} lets all threads grow one shared tree (with virtual loss)
+	 */
+    public static final int PAR_ROOT = 0, PAR_TREE = 1;
+    public static final int DEFAULT_PAR_MODE = PAR_ROOT;
     private int numIters = DEFAULT_NUM_ITERS;
 	private int rolloutDepth = DEFAULT_ROLLOUT_DEPTH;
     private int treeDepth = DEFAULT_TREE_DEPTH;
@@ -29,6 +36,8 @@ public class ParMCTS implements Serializable {
     private int verbose = DEFAULT_VERBOSITY; 
     private boolean useNormalize = true;
     private int selectMode = DEFAULT_SELECT_MODE;
+    private int numThreads = DEFAULT_NUM_THREADS;	// search threads (0 in agents saved before, means 1)
+    private int parMode = DEFAULT_PAR_MODE;
 
     /**
      * This member is only constructed when the constructor {@link #ParMCTS(boolean) ParMCTS(boolean withUI)} 
@@ -67,6 +76,8 @@ public class ParMCTS implements Serializable {
 		this.verbose = tp.getVerbosity();
 		this.useNormalize = tp.getNormalize();
 		this.selectMode = tp.getSelectMode();
+		this.numThreads = tp.getNumThreads();
+		this.parMode = tp.getParMode();
 		
 		if (msparams!=null)
 			msparams.setFrom(this);
@@ -81,6 +92,8 @@ public class ParMCTS implements Serializable {
 		this.verbose = tp.getVerbosity();
 		this.useNormalize = tp.getNormalize();
 		this.selectMode = tp.getSelectMode();
+		this.numThreads = tp.getNumThreads();
+		this.parMode = tp.getParMode();
 		
 		if (msparams!=null)
 			msparams.setFrom(this);
@@ -124,6 +137,18 @@ public class ParMCTS implements Serializable {
 	public boolean getNormalize() {
 		return useNormalize;
 	}
+	/**
+	 * @return number of threads for one MCTS search (1: sequential search)
+	 */
+	public int getNumThreads() {
+		return (numThreads<1) ? 1 : numThreads;
+	}
+	/**
+	 * @return {@link #PAR_ROOT} or {@link #PAR_TREE}, only relevant if {@link #getNumThreads()} {@code > 1}
+	 */
+	public int getParMode() {
+		return parMode;
+	}
 
 	public void setNumIter(int numIters) {
 		this.numIters = numIters;
@@ -172,6 +197,18 @@ public class ParMCTS implements Serializable {
 		if (msparams!=null)
 			msparams.setNormalize(bNorm);
 	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = numThreads;
+		if (msparams!=null)
+			msparams.setNumThreads(numThreads);
+	}
+
+	public void setParMode(int parMode) {
+		this.parMode = parMode;
+		if (msparams!=null)
+			msparams.setParMode(parMode);
+	}
 	
 	/**
 	 * Set sensible parameters for a specific agent and specific game. By "sensible
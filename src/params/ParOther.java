@@ -26,6 +26,7 @@ public class ParOther implements Serializable {
     public static int DEFAULT_STOP_EVAL = 100;
     public static int DEFAULT_WRAPPER_NPLY = 0;
     public static int DEFAULT_PMAX_RUBIKS = 6;
+    public static int DEFAULT_NUM_WORKERS = 1;
 
     private int quickEvalMode = DEFAULT_QUICK_EVAL_MODE;
     private int trainEvalMode = DEFAULT_TRAIN_EVAL_MODE;
@@ -35,6 +36,7 @@ public class ParOther implements Serializable {
     private int stopEval = DEFAULT_STOP_EVAL; 		// new meaning: max episode length during eval
     private int wrapperNply = DEFAULT_WRAPPER_NPLY; 
     private int pMaxRubiks = DEFAULT_PMAX_RUBIKS;	// only relevant for RubiksCube, see CubeConfig.pMax
+    private int numWorkers = DEFAULT_NUM_WORKERS;	// parallel training threads (0 in agents saved before, means 1)
 	private boolean chooseStart01 = false;
     private boolean learnFromRM = false;
 	private boolean bReplayBuf = false;	// only relevant for RubiksCube: whether to use a replay buffer or not
@@ -79,6 +81,7 @@ public class ParOther implements Serializable {
 		this.stopEval = op.getStopEval();
 		this.wrapperNply = op.getWrapperNPly();
 		this.pMaxRubiks = op.getpMaxRubiks();
+		this.numWorkers = op.getNumWorkers();
 		this.chooseStart01 = op.getChooseStart01();
 		this.learnFromRM = op.getLearnFromRM();
 		this.bReplayBuf = op.getReplayBuffer();
@@ -98,6 +101,7 @@ public class ParOther implements Serializable {
 		this.stopEval = op.getStopEval();
 		this.wrapperNply = op.getWrapperNPly();
 		this.pMaxRubiks = op.getpMaxRubiks();
+		this.numWorkers = op.getNumWorkers();
 		this.chooseStart01 = op.getChooseStart01();
 		this.learnFromRM = op.getLearnFromRM();
 		this.bReplayBuf = op.getReplayBuffer();
@@ -165,6 +169,15 @@ public class ParOther implements Serializable {
 
     public int getpMaxRubiks() { return pMaxRubiks;	}
 
+	/**
+	 * @return During training: number of threads which train the agent in parallel (1: sequential training).
+	 * 		Currently only supported by {@link TDNTuple3Agt}, see
+	 * 		{@link TDNTuple3Agt#trainAgentParallel(games.StateObservation[], int)}.
+	 */
+	public int getNumWorkers() {
+		return (numWorkers<1) ? 1 : numWorkers;
+	}
+
 	public double getIncAmount() { return incAmount; }
 
 	public boolean getChooseStart01() {
@@ -264,6 +277,12 @@ public class ParOther implements Serializable {
 			otparams.setLearnFromRM(bReplayBuf);
 	}
 
+	public void setNumWorkers(int numWorkers) {
+		this.numWorkers = numWorkers;
+		if (otparams!=null)
+			otparams.setNumWorkers(numWorkers);
+	}
+
 	public void setIncAmount(double incAmount) {
 		this.incAmount = incAmount;
 	}
@@ -0,0 +1,84 @@
+package tools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The process-wide pool for compute-bound parallel tasks (e.g. parallel evaluation games in
+ * {@code Evaluator2048}, parallel rollouts in {@code MCAgentN}).
+ * <p>
+ * It is a {@link ForkJoinPool} with one (daemon) worker per available processor, created on first use.
+ * {@link #invokeAll(Collection)} may be nested: if it is called from a task already running in the pool
+ * (e.g. an MC agent inside a parallel evaluation game), the subtasks are forked into the same pool and the
+ * waiting worker executes pending tasks itself, so the number of busy threads stays at the number of
+ * processors, and there is no deadlock.
+ */
+public final class ComputePool {
+	/**
+	 * the number of worker threads. Change it only before the first use of the pool.
+	 */
+	public static int NUM_THREADS = Runtime.getRuntime().availableProcessors();
+
+	private ComputePool() {}
+
+	private static class Holder {
+		static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, NUM_THREADS), pool -> {
+			ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			t.setName("ComputePool-" + t.getPoolIndex());
+			t.setDaemon(true);
+			return t;
+		}, null, false);
+	}
+
+	/**
+	 * @return the shared pool
+	 */
+	public static ForkJoinPool get() {
+		return Holder.POOL;
+	}
+
+	/**
+	 * @return the number of worker threads of the shared pool
+	 */
+	public static int getParallelism() {
+		return get().getParallelism();
+	}
+
+	/**
+	 * Execute all {@code tasks} in the shared pool and wait for their results.
+	 *
+	 * @param tasks	the tasks
+	 * @return the results, in the order of {@code tasks}
+	 * @throws RuntimeException if one of the tasks threw an exception (the first one is the cause)
+	 */
+	public static <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks) {
+		ForkJoinPool pool = get();
+		List<ForkJoinTask<T>> futures = new ArrayList<>(tasks.size());
+		boolean nested = (ForkJoinTask.getPool()==pool);
+		for (Callable<T> task : tasks) {
+			ForkJoinTask<T> f = ForkJoinTask.adapt(task);
+			futures.add(nested ? f.fork() : pool.submit(f));
+		}
+		List<T> results = new ArrayList<>(futures.size());
+		try {
+			// join in reverse order of forking: a worker finds its own last forked tasks on top of its queue
+			for (int i=futures.size()-1; i>=0; i--)
+				futures.get(i).quietlyJoin();
+			for (ForkJoinTask<T> f : futures)
+				results.add(f.get());
+		} catch (InterruptedException e) {
+			for (ForkJoinTask<T> f : futures) f.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("[ComputePool.invokeAll] interrupted", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("[ComputePool.invokeAll] task failed: " + e.getCause(), e.getCause());
+		}
+		return results;
+	}
+}
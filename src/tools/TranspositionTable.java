@@ -0,0 +1,195 @@
+package tools;
+
+import java.util.Arrays;
+
+import controllers.ExpectimaxNAgent;
+import controllers.MaxN2Wrapper;
+import controllers.MaxNAgent;
+import games.StateObservation;
+
+/**
+ * A fixed-size transposition table for tree search agents, keyed on the 64-bit hash keys
+ * {@link StateObservation#hashKey()}.
+ * <p>
+ * Each entry stores the key, the <b>draft</b> (the remaining search depth below the stored state),
+ * a bound type ({@link #EXACT}, {@link #LOWER}, {@link #UPPER}), the best move (or -1) and
+ * the {@link ScoreTuple} values. All data are held in primitive arrays, so the table does not
+ * allocate objects when storing, and its memory is bounded: about {@code 2^log2Size * (14 + 8*numPlayers)} bytes.
+ * <p>
+ * The table is organized in buckets of two entries: the first is <b>depth-preferred</b> (replaced only by an
+ * entry with the same or larger draft), the second is <b>always-replace</b> (takes every entry rejected by the
+ * first one, and the entry which is displaced from the first one).
+ * <p>
+ * The table is not thread-safe.
+ *
+ * @see MaxNAgent
+ * @see MaxN2Wrapper
+ * @see ExpectimaxNAgent
+ * @see Zobrist
+ */
+public class TranspositionTable {
+	/**
+	 * the bound types: the stored values are exact values, lower bounds or upper bounds
+	 */
+	public static final byte EXACT = 0, LOWER = 1, UPPER = 2;
+	/**
+	 * default size: 2^18 entries, which needs about 7 MB for 2 players
+	 */
+	public static int DEFAULT_LOG2_SIZE = 18;
+	/**
+	 * the largest draft that can be stored. Store a result with this draft if it is exact for every depth 
+	 * (e.g. if the search below the state reached only game-over states).
+	 */
+	public static final int MAX_DRAFT = Byte.MAX_VALUE-1;
+
+	private final int numPlayers;
+	private final int mask;
+	private final long[] keys;
+	private final byte[] drafts;		// draft+1, 0: empty entry
+	private final byte[] bounds;
+	private final int[] moves;
+	private final double[] values;		// [numEntries*numPlayers]
+	private long probes=0, hits=0;
+
+	/**
+	 * @param log2Size		the table has {@code 2^log2Size} entries
+	 * @param numPlayers	number of players, i.e. length of the score tuples
+	 */
+	public TranspositionTable(int log2Size, int numPlayers) {
+		int size = 1 << Math.max(1, log2Size);
+		this.numPlayers = numPlayers;
+		this.mask = size-1;
+		keys = new long[size];
+		drafts = new byte[size];
+		bounds = new byte[size];
+		moves = new int[size];
+		values = new double[size*numPlayers];
+	}
+
+	/**
+	 * @param numPlayers	number of players
+	 */
+	public TranspositionTable(int numPlayers) {
+		this(DEFAULT_LOG2_SIZE, numPlayers);
+	}
+
+	public int getNumPlayers() {
+		return numPlayers;
+	}
+
+	public int getNumEntries() {
+		return keys.length;
+	}
+
+	/**
+	 * Remove all entries and reset the statistics.
+	 */
+	public void clear() {
+		Arrays.fill(drafts, (byte) 0);
+		probes = hits = 0;
+	}
+
+	/**
+	 * @param key	the hash key
+	 * @return the entry stored for {@code key}, regardless of its draft, or -1 if there is none
+	 */
+	public int find(long key) {
+		int b = (int) key & mask & ~1;
+		if (drafts[b]!=0 && keys[b]==key) return b;
+		if (drafts[b+1]!=0 && keys[b+1]==key) return b+1;
+		return -1;
+	}
+
+	/**
+	 * @param key	the hash key
+	 * @param draft	the remaining search depth required
+	 * @return the entry stored for {@code key} with a draft of at least {@code draft}, or -1 if there is none
+	 */
+	public int probe(long key, int draft) {
+		probes++;
+		int e = find(key);
+		if (e<0 || getDraft(e)<draft) return -1;
+		hits++;
+		return e;
+	}
+
+	/**
+	 * Store a search result. If the entry for {@code key} is already present with a larger draft,
+	 * the table is left unchanged.
+	 *
+	 * @param key		the hash key
+	 * @param draft		the remaining search depth below the stored state
+	 * @param bound		one of {@link #EXACT}, {@link #LOWER}, {@link #UPPER}
+	 * @param bestMove	the best move (e.g. {@code ACTIONS.toInt()}) or -1
+	 * @param sc		the score tuple, length {@link #getNumPlayers()}
+	 */
+	public void store(long key, int draft, byte bound, int bestMove, ScoreTuple sc) {
+		int d = Math.min(Math.max(draft, 0), MAX_DRAFT) + 1;
+		int b = (int) key & mask & ~1;
+		int e;
+		if (drafts[b]!=0 && keys[b]==key) {
+			if (d<drafts[b]) return;
+			e = b;
+		} else if (drafts[b+1]!=0 && keys[b+1]==key && d<drafts[b]) {
+			e = b+1;
+		} else if (d>=drafts[b]) {
+			if (drafts[b]!=0) copyEntry(b, b+1);	// demote the depth-preferred entry
+			e = b;
+		} else {
+			e = b+1;
+		}
+		keys[e] = key;
+		drafts[e] = (byte) d;
+		bounds[e] = bound;
+		moves[e] = bestMove;
+		System.arraycopy(sc.scTup, 0, values, e*numPlayers, numPlayers);
+	}
+
+	private void copyEntry(int from, int to) {
+		keys[to] = keys[from];
+		drafts[to] = drafts[from];
+		bounds[to] = bounds[from];
+		moves[to] = moves[from];
+		System.arraycopy(values, from*numPlayers, values, to*numPlayers, numPlayers);
+	}
+
+	public int getDraft(int entry) {
+		return drafts[entry]-1;
+	}
+
+	public byte getBound(int entry) {
+		return bounds[entry];
+	}
+
+	public int getBestMove(int entry) {
+		return moves[entry];
+	}
+
+	public double getValue(int entry, int player) {
+		return values[entry*numPlayers+player];
+	}
+
+	/**
+	 * @param entry	an entry returned by {@link #probe(long, int)} or {@link #find(long)}
+	 * @return a new score tuple with the stored values
+	 */
+	public ScoreTuple getScoreTuple(int entry) {
+		ScoreTuple sc = new ScoreTuple(numPlayers);
+		System.arraycopy(values, entry*numPlayers, sc.scTup, 0, numPlayers);
+		return sc;
+	}
+
+	/**
+	 * @return the number of calls to {@link #probe(long, int)} since the last {@link #clear()}
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * @return the number of successful calls to {@link #probe(long, int)} since the last {@link #clear()}
+	 */
+	public long getHits() {
+		return hits;
+	}
+}
@@ -0,0 +1,73 @@
+package tools;
+
+import games.StateObservation;
+
+/**
+ * Zobrist keys for {@link StateObservation#hashKey()}.
+ * <p>
+ * The hash key of a board is the XOR of one 64-bit key per occupied cell (depending on cell and piece)
+ * and one key for the player to move. When a move changes the value of a cell, the hash key is updated
+ * incrementally by XOR-ing out the key for the old value and XOR-ing in the key for the new value.
+ * <p>
+ * The keys are not drawn from a {@link java.util.Random} table but computed by a fixed mixing function
+ * (SplitMix64) from (cell, value). So they are the same in every run and for every board size, and games
+ * with a variable number of cells or values (e.g. Nim heaps) need no table. Games with a fixed board
+ * may cache them in a table via {@link #table(int, int)}.
+ *
+ * @see TranspositionTable
+ */
+public class Zobrist {
+
+	/**
+	 * @param cell	the cell number, 0,1,...
+	 * @param value	the value (piece) in this cell
+	 * @return the key for piece {@code value} in cell {@code cell}
+	 */
+	public static long key(int cell, int value) {
+		return mix(((long) cell << 32) ^ (value & 0xffffffffL));
+	}
+
+	/**
+	 * @param player	the player to move, 0,1,...
+	 * @return the key for {@code player} being the player to move
+	 */
+	public static long side(int player) {
+		return mix(0x5DEECE66DL + player);
+	}
+
+	/**
+	 * @param numCells	number of cells
+	 * @param numValues	number of values per cell
+	 * @return {@code table[numCells*numValues]}, where {@code table[cell*numValues+value] = key(cell,value)}
+	 */
+	public static long[] table(int numCells, int numValues) {
+		long[] table = new long[numCells*numValues];
+		for (int c=0, k=0; c<numCells; c++)
+			for (int v=0; v<numValues; v++, k++)
+				table[k] = key(c,v);
+		return table;
+	}
+
+	/**
+	 * @param s	a string
+	 * @return a 64-bit hash of {@code s} (FNV-1a, then mixed)
+	 */
+	public static long hashString(String s) {
+		long h = 0xcbf29ce484222325L;
+		for (int i=0; i<s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * The SplitMix64 finalizer: a bijective mixing function on 64 bits.
+	 */
+	public static long mix(long z) {
+		z += 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,61 @@
+package TournamentSystem;
+
+import controllers.RandomAgent;
+import games.Arena;
+import games.GBGBatch;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.util.Arrays;
+
+/**
+ * A double round robin of random agents in TicTacToe, played by {@link TSParallelEngine} with one and with four
+ * threads, must give identical results (game results, Elo ratings) for the same seed.
+ */
+public class TSParallelEngineTest {
+
+    @Test
+    public void testSameResults() {
+        Arena arena = GBGBatch.setupSelectedGame("TicTacToe", GBGBatch.setDefaultScaPars("TicTacToe"));
+        TSAgentManager seq = runTournament(arena, 1);
+        TSAgentManager par = runTournament(arena, 4);
+
+        assert seq.isTournamentDone() && par.isTournamentDone();
+        assert Arrays.deepEquals(seq.results.gamePlan, par.results.gamePlan);
+        assert Arrays.deepEquals(seq.results.gameResult, par.results.gameResult)
+                : Arrays.deepToString(seq.results.gameResult) + " vs. " + Arrays.deepToString(par.results.gameResult);
+        int episodes = 0;
+        for (int i = 0; i < seq.results.mAgents.size(); i++) {
+            TSAgent a = seq.results.mAgents.get(i), b = par.results.mAgents.get(i);
+            assert a.getCountWonGames() == b.getCountWonGames() && a.getCountLostGames() == b.getCountLostGames();
+            assert a.mEloPlayerFIDE.getEloRating() == b.mEloPlayerFIDE.getEloRating();
+            episodes += a.getCountWonGames() + a.getCountTieGames() + a.getCountLostGames();
+        }
+        assert episodes == 2 * 12 * 10 : "episodes played: " + episodes;
+
+        // another seed gives other start states and thus (most likely) other results:
+        TSAgentManager other = runTournament(arena, 4, 4711L);
+        assert !Arrays.deepEquals(seq.results.gameResult, other.results.gameResult);
+    }
+
+    private TSAgentManager runTournament(Arena arena, int nThreads) {
+        return runTournament(arena, nThreads, 42L);
+    }
+
+    private TSAgentManager runTournament(Arena arena, int nThreads, long seed) {
+        TSAgentManager manager = new TSAgentManager(2);
+        manager.setSeed(seed);
+        manager.setNumberOfEpisodes(10);
+        manager.setNumberOfRandomStartMoves(2);
+        manager.setTournamentMode(1, 0);
+        for (int i = 0; i < 4; i++) {
+            String name = "Random" + i;
+            manager.addAgent(name, "RandomAgent", new JCheckBox(name, true), true, new RandomAgent(name, 100 + i));
+        }
+        manager.lockToCompete(arena.getGameBoard());
+        assert TSParallelEngine.isApplicable(manager);
+        assert new TSParallelEngine(manager, arena, nThreads).run(null);
+        manager.unlockAfterComp();
+        return manager;
+    }
+}
@@ -0,0 +1,139 @@
+package agentIO;
+
+import controllers.PlayAgent;
+import controllers.TD.ntuple2.NTuple2;
+import controllers.TD.ntuple2.TDNTuple3Agt;
+import games.CFour.StateObserverC4;
+import games.CFour.XNTupleFuncsC4;
+import games.StateObservation;
+import games.XNTupleFuncs;
+import org.junit.Test;
+import params.ParNT;
+import params.ParOther;
+import params.ParTD;
+import tools.Types;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Round trips of an n-tuple agent through the binary agent format {@link BinaryAgentFormat} (with and without
+ * memory mapping, with float weights) and through {@link AgentFormatConverter}.
+ */
+public class BinaryAgentFormatTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        TDNTuple3Agt pa = makeAgent();
+        File bin = File.createTempFile("agent", BinaryAgentFormat.EXTENSION);
+        boolean oldMmap = BinaryAgentFormat.USE_MMAP;
+        try {
+            BinaryAgentFormat.save(pa, bin.getPath());
+            for (boolean mmap : new boolean[]{true, false}) {
+                BinaryAgentFormat.USE_MMAP = mmap;
+                PlayAgent pb = BinaryAgentFormat.load(bin.getPath());
+                assert pb instanceof TDNTuple3Agt && pb.getName().equals(pa.getName());
+                checkScores(pa, pb, 0.0);
+            }
+            BinaryAgentFormat.save(pa, bin.getPath(), true);
+            checkScores(pa, BinaryAgentFormat.load(bin.getPath()), 1e-5);
+        } finally {
+            BinaryAgentFormat.USE_MMAP = oldMmap;
+            bin.delete();
+        }
+    }
+
+    @Test
+    public void testConverter() throws IOException {
+        TDNTuple3Agt pa = makeAgent();
+        File bin = File.createTempFile("agent", BinaryAgentFormat.EXTENSION);
+        File zip = File.createTempFile("agent", ".agt.zip");
+        File zip2 = File.createTempFile("agent2", ".agt.zip");
+        try {
+            BinaryAgentFormat.save(pa, bin.getPath());
+            AgentFormatConverter.convert(bin.getPath(), zip.getPath(), false);
+            AgentFormatConverter.convert(zip.getPath(), bin.getPath(), false);
+            AgentFormatConverter.convert(bin.getPath(), zip2.getPath(), false);
+            assert zip.length() == zip2.length() : "binary round trip changes the .agt.zip file";
+            checkScores(pa, BinaryAgentFormat.load(bin.getPath()), 0.0);
+        } finally {
+            bin.delete();
+            zip.delete();
+            zip2.delete();
+        }
+    }
+
+    /**
+     * An agent file saved by GBG (from the agents directory of TicTacToe) is converted to {@code .agt.bin} and
+     * back, and the result is loaded by {@link LoadSaveGBG}.
+     */
+    @Test
+    public void testGBGAgentFile() throws Exception {
+        File zip = new File("agents/TicTacToe/fb_maxn-25.agt.zip");
+        assert zip.exists() : "agent file " + zip + " not found";
+        File bin = File.createTempFile("agent", BinaryAgentFormat.EXTENSION);
+        File zip2 = File.createTempFile("agent", ".agt.zip");
+        try {
+            AgentFormatConverter.convert(zip.getPath(), bin.getPath(), false);
+            PlayAgent pa = BinaryAgentFormat.load(bin.getPath());
+            assert pa.getName().equals("Max-N") : "name = " + pa.getName();
+            AgentFormatConverter.convert(bin.getPath(), zip2.getPath(), false);
+            try (ObjectInputStream ois = AgentFormatConverter.openZipAgentStream(new FileInputStream(zip2))) {
+                assert ois.readObject().getClass() == pa.getClass();
+            }
+        } finally {
+            bin.delete();
+            zip2.delete();
+        }
+    }
+
+    @Test
+    public void testNoAgentFile() throws IOException {
+        File zip = File.createTempFile("agent", ".agt.zip");
+        try {
+            AgentFormatConverter.convert(saveTemp(makeAgent()).getPath(), zip.getPath(), false);
+            BinaryAgentFormat.openAgentStream(zip);
+            assert false : "a .agt.zip file is accepted as binary agent file";
+        } catch (IOException e) {
+            assert e.getMessage().contains("not in binary agent format") : e.getMessage();
+        } finally {
+            zip.delete();
+        }
+    }
+
+    private File saveTemp(PlayAgent pa) throws IOException {
+        File bin = File.createTempFile("agent", BinaryAgentFormat.EXTENSION);
+        bin.deleteOnExit();
+        BinaryAgentFormat.save(pa, bin.getPath());
+        return bin;
+    }
+
+    private TDNTuple3Agt makeAgent() {
+        XNTupleFuncs xnf = new XNTupleFuncsC4();
+        int[][] nTuples = new int[10][6];
+        for (int[] nTuple : nTuples)
+            for (int m = 0; m < nTuple.length; m++)
+                nTuple[m] = rand.nextInt(xnf.getNumCells());
+        TDNTuple3Agt pa = new TDNTuple3Agt("TDNT3", new ParTD(), new ParNT(), new ParOther(), nTuples, xnf, 1000);
+        for (NTuple2 nt : pa.getNTupleValueFunc().getNTuples()) nt.initWeights(true);
+        return pa;
+    }
+
+    private void checkScores(TDNTuple3Agt pa, PlayAgent pb, double tol) {
+        TDNTuple3Agt tb = (TDNTuple3Agt) pb;
+        StateObservation so = new StateObserverC4();
+        for (int k = 0; k < 100; k++) {
+            if (so.isGameOver()) so = new StateObserverC4();
+            double sa = pa.getScore(so, so), sb = tb.getScore(so, so);
+            assert Math.abs(sa - sb) <= tol : "scores differ for " + so.stringDescr() + ": " + sa + " vs. " + sb;
+            ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+            so = so.copy();
+            so.advance(acts.get(rand.nextInt(acts.size())));
+        }
+    }
+}
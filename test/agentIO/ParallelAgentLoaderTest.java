@@ -0,0 +1,118 @@
+package agentIO;
+
+import controllers.PlayAgent;
+import controllers.TD.ntuple2.TDNTuple3Agt;
+import games.TicTacToe.StateObserverTTT;
+import games.TicTacToe.XNTupleFuncsTTT;
+import games.StateObservation;
+import org.junit.Test;
+import params.ParNT;
+import params.ParOther;
+import params.ParTD;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Load .agt.zip and .agt.bin agents and a broken file with {@link ParallelAgentLoader}: every index is
+ * returned once by {@code take()}, the agents equal the saved ones, the broken file yields an
+ * {@link IOException}, and the aggregated progress reaches the sum of the file lengths.
+ */
+public class ParallelAgentLoaderTest {
+
+    @Test
+    public void testLoad() throws Exception {
+        int n = 5;
+        File[] files = new File[n + 1];
+        TDNTuple3Agt[] agents = new TDNTuple3Agt[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                agents[i] = makeAgent(i);
+                files[i] = File.createTempFile("agent" + i + "_", (i % 2 == 0) ? ".agt.zip" : BinaryAgentFormat.EXTENSION);
+                File bin = (i % 2 == 0) ? File.createTempFile("agent", BinaryAgentFormat.EXTENSION) : files[i];
+                BinaryAgentFormat.save(agents[i], bin.getPath());
+                if (bin != files[i]) {
+                    AgentFormatConverter.convert(bin.getPath(), files[i].getPath(), false);
+                    bin.delete();
+                }
+            }
+            files[n] = File.createTempFile("broken", ".agt.zip");
+            try (FileOutputStream fos = new FileOutputStream(files[n])) {
+                fos.write(new byte[]{1, 2, 3, 4, 5});
+            }
+
+            ParallelAgentLoader loader = new ParallelAgentLoader(files);
+            HashSet<Integer> taken = new HashSet<>();
+            for (int i = loader.take(); i >= 0; i = loader.take()) {
+                assert loader.isDone(i) && taken.add(i) : "index " + i + " taken twice or not done";
+            }
+            assert taken.size() == n + 1;
+
+            StateObservation so = new StateObserverTTT();
+            for (int i = 0; i < n; i++) {
+                PlayAgent pa = loader.get(i);
+                assert pa instanceof TDNTuple3Agt && pa.getParOther() != null;
+                assert ((TDNTuple3Agt) pa).getScore(so, so) == agents[i].getScore(so, so) : "agent " + i + " differs";
+                assert files[i].getName().startsWith(loader.getFileName(i));
+            }
+            try {
+                loader.get(n);
+                assert false : "broken file loaded without error";
+            } catch (IOException e) {
+                // expected
+            }
+
+            IOProgress progress = loader.getProgess();
+            long total = 0;
+            for (File f : files) total += f.length();
+            assert progress.getEstimated() == total;
+            assert progress.getActual() >= total - files[n].length() && progress.get() <= 1.0f
+                    : "progress " + progress.getActual() + " of " + total;
+        } finally {
+            for (File f : files)
+                if (f != null) f.delete();
+        }
+    }
+
+    /**
+     * Agent files saved by GBG (here: from the agents directory of TicTacToe) are loaded by
+     * {@link ParallelAgentLoader} and converted by {@link AgentFormatConverter}.
+     */
+    @Test
+    public void testGBGAgentFile() throws Exception {
+        File zip = new File("agents/TicTacToe/fb_maxn-25.agt.zip");
+        assert zip.exists() : "agent file " + zip + " not found";
+        ParallelAgentLoader loader = new ParallelAgentLoader(new File[]{zip});
+        PlayAgent pa = loader.get(0);
+        assert pa.getName().equals("Max-N") : "name = " + pa.getName();
+
+        File bin = File.createTempFile("agent", BinaryAgentFormat.EXTENSION);
+        File zip2 = File.createTempFile("agent", ".agt.zip");
+        try {
+            AgentFormatConverter.convert(zip.getPath(), bin.getPath(), false);
+            AgentFormatConverter.convert(bin.getPath(), zip2.getPath(), false);
+            loader = new ParallelAgentLoader(new File[]{bin, zip2});
+            assert loader.get(0).getClass() == pa.getClass() && loader.get(1).getClass() == pa.getClass();
+        } finally {
+            bin.delete();
+            zip2.delete();
+        }
+    }
+
+    private TDNTuple3Agt makeAgent(int seed) {
+        Random rand = new Random(seed);
+        int[][] nTuples = new int[4][5];
+        for (int[] nTuple : nTuples)
+            for (int m = 0; m < nTuple.length; m++)
+                nTuple[m] = rand.nextInt(9);
+        TDNTuple3Agt pa = new TDNTuple3Agt("TDNT3", new ParTD(), new ParNT(), new ParOther(), nTuples,
+                new XNTupleFuncsTTT(), 1000);
+        pa.rand = new Random(seed);
+        StateObservation startSO = new StateObserverTTT();
+        for (int k = 0; k < 50; k++) pa.trainAgent(startSO);
+        return pa;
+    }
+}
@@ -0,0 +1,56 @@
+package controllers;
+
+import games.ZweiTausendAchtundVierzig.StateObserver2048;
+import org.junit.Test;
+import params.ParMaxN;
+import params.ParOther;
+import tools.Types;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Check that the transposition cache ({@link ExpectimaxCache}) of {@link ExpectimaxNAgent} and
+ * {@link ExpectimaxWrapper} does not change the values on 2048 (up to round-off, since {@link ExpectimaxNAgent}
+ * stores its scores relative to the reward).
+ */
+public class ExpectimaxNAgentTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testExpectimaxNCache() {
+        PlayAgent pa = expectimaxN(5, false);
+        PlayAgent qa = expectimaxN(5, true);
+        checkSameValues(pa, qa, 20);
+    }
+
+    @Test
+    public void testExpectimaxWrapperCache() {
+        PlayAgent pa = new ExpectimaxWrapper(expectimaxN(1, false), 3, false);
+        PlayAgent qa = new ExpectimaxWrapper(expectimaxN(1, false), 3, true);
+        checkSameValues(pa, qa, 20);
+    }
+
+    private PlayAgent expectimaxN(int depth, boolean useHashMap) {
+        ParMaxN mPar = new ParMaxN();
+        mPar.setMaxNDepth(depth);
+        mPar.setMaxNUseHashmap(useHashMap);
+        return new ExpectimaxNAgent("ExpectimaxN", mPar, new ParOther());
+    }
+
+    private void checkSameValues(PlayAgent pa, PlayAgent qa, int nStates) {
+        StateObserver2048 so = new StateObserver2048();
+        for (int k = 0; k < nStates; k++) {
+            if (so.isGameOver()) so = new StateObserver2048();
+            Types.ACTIONS_VT act_pa = pa.getNextAction2(so, false, true);
+            Types.ACTIONS_VT act_qa = qa.getNextAction2(so, false, true);
+            double[] vt_pa = act_pa.getVTable();
+            double[] vt_qa = act_qa.getVTable();
+            for (int i = 0; i < vt_pa.length; i++)
+                assert Math.abs(vt_pa[i] - vt_qa[i]) < 1e-6 : "values differ for " + so.stringDescr() + ": "
+                        + vt_pa[i] + " vs. " + vt_qa[i];
+            ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+            so.advance(acts.get(rand.nextInt(acts.size())));
+        }
+    }
+}
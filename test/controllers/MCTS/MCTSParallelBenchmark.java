@@ -0,0 +1,85 @@
+package controllers.MCTS;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Random;
+
+import games.CFour.StateObserverC4;
+import games.Othello.StateObserverOthello;
+import games.StateObservation;
+import params.ParMCTS;
+import params.ParOther;
+import tools.Types;
+
+/**
+ * Scaling benchmark for the parallel search of {@link MCTSAgentT} (see {@link SingleMCTSPlayer#run(tools.ElapsedCpuTimer, double[])}):
+ * measures MCTS iterations per second on Othello and Connect Four for 1, 2, 4, ... threads (up to the number
+ * of available cores), once with root parallelization ({@link ParMCTS#PAR_ROOT}) and once with tree
+ * parallelization ({@link ParMCTS#PAR_TREE}).
+ * <p>
+ * Usage:
+ * <pre>
+ *    MCTSParallelBenchmark [ numIter [ maxThreads ] ] </pre>
+ * (No JMH in this project: we do a simple warm-up phase followed by timed searches on a fixed set of
+ * positions from random games.)
+ */
+public class MCTSParallelBenchmark {
+	static final int NUM_STATES = 20;
+	static final int WARMUP_ROUNDS = 1;
+	static final int ROUNDS = 2;
+
+	public static void main(String[] args) {
+		int numIter = (args.length>0) ? Integer.parseInt(args[0]) : 5000;
+		int maxThreads = (args.length>1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		System.out.println("available cores: "+Runtime.getRuntime().availableProcessors()+", iterations: "+numIter);
+		run("Othello", new StateObserverOthello(), numIter, maxThreads);
+		run("C4", new StateObserverC4(), numIter, maxThreads);
+	}
+
+	private static void run(String name, StateObservation startSO, int numIter, int maxThreads) {
+		StateObservation[] states = randomStates(startSO);
+		DecimalFormat frm = new DecimalFormat("#0.0");
+		for (int parMode : new int[]{ParMCTS.PAR_ROOT, ParMCTS.PAR_TREE}) {
+			double base = 0;
+			for (int numThreads=1; numThreads<=maxThreads; numThreads*=2) {
+				ParMCTS pm = new ParMCTS();
+				pm.setNumIter(numIter);
+				pm.setNumThreads(numThreads);
+				pm.setParMode(parMode);
+				MCTSAgentT pa = new MCTSAgentT("MCTS", startSO, pm, new ParOther());
+
+				for (int r=0; r<WARMUP_ROUNDS; r++)
+					search(pa, states);
+				long t0 = System.nanoTime();
+				for (int r=0; r<ROUNDS; r++)
+					search(pa, states);
+				long t1 = System.nanoTime();
+
+				double itersPerSec = (double) ROUNDS*states.length*numIter/((t1-t0)*1e-9);
+				if (numThreads==1) base = itersPerSec;
+				System.out.println(name+", "+(parMode==ParMCTS.PAR_ROOT ? "root" : "tree")+", threads="+numThreads
+						+": "+frm.format(itersPerSec)+" iterations/sec, speedup "+frm.format(itersPerSec/base));
+			}
+		}
+	}
+
+	private static void search(MCTSAgentT pa, StateObservation[] states) {
+		for (StateObservation so : states)
+			pa.getNextAction2(so, false, true);
+	}
+
+	private static StateObservation[] randomStates(StateObservation startSO) {
+		Random rand = new Random(42);
+		StateObservation[] states = new StateObservation[NUM_STATES];
+		StateObservation so = startSO.copy();
+		for (int k=0; k<NUM_STATES; k++) {
+			if (so.isGameOver()) so = startSO.copy();
+			states[k] = so;
+			ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+			so = so.copy();
+			so.advance(acts.get(rand.nextInt(acts.size())));
+		}
+		return states;
+	}
+}
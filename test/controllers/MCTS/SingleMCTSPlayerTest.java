@@ -0,0 +1,111 @@
+package controllers.MCTS;
+
+import games.CFour.StateObserverC4;
+import games.StateObservation;
+import org.junit.Test;
+import params.ParMCTS;
+import params.ParOther;
+import tools.ElapsedCpuTimer;
+import tools.Types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for the parallel search of {@link SingleMCTSPlayer}
+ */
+public class SingleMCTSPlayerTest {
+	static final int NUM_ITER = 2000;
+	static final int NUM_THREADS = 4;
+
+	/**
+	 * With root parallelization and a fixed seed, the parallel search has to give the same vtable and the same
+	 * action as the sequential search of the same trees (one after the other in the calling thread).
+	 */
+	@Test
+	public void testRootParallelMatchesSequential() {
+		ParMCTS pm = new ParMCTS();
+		pm.setNumIter(NUM_ITER);
+		pm.setNumThreads(NUM_THREADS);
+		pm.setParMode(ParMCTS.PAR_ROOT);
+		Random rand = new Random(42);
+		StateObservation so = new StateObserverC4();
+		for (int k=0; k<10; k++) {
+			MCTSAgentT parent = new MCTSAgentT("MCTS", so, pm, new ParOther());
+
+			SingleMCTSPlayer par = new SingleMCTSPlayer(parent, new Random(k), pm);
+			par.initActions(so);
+			par.init(so);
+			double[] vPar = new double[so.getNumAvailableActions()+1];
+			int aPar = par.run(timer(), vPar);
+
+			SingleMCTSPlayer seq = new SingleMCTSPlayer(parent, new Random(k), pm);
+			seq.initActions(so);
+			seq.init(so);
+			double[] vSeq = new double[so.getNumAvailableActions()+1];
+			for (int w=0; w<NUM_THREADS; w++) {
+				SingleTreeNode root = new SingleTreeNode(so, null, null, new Random(seq.m_rnd.nextLong()), seq);
+				int iters = NUM_ITER/NUM_THREADS + ((w < NUM_ITER%NUM_THREADS) ? 1 : 0);
+				root.mctsSearch(timer(), new double[vSeq.length], iters);
+				seq.m_root.addRootStatistics(root);
+			}
+			seq.m_root.fillVTable(vSeq);
+			int aSeq = seq.m_root.bestAction();
+
+			assert Arrays.equals(vPar, vSeq) : "state "+so.stringDescr()+": "+Arrays.toString(vPar)+" vs. "+Arrays.toString(vSeq);
+			assert aPar == aSeq : "state "+so.stringDescr()+": action "+aPar+" vs. "+aSeq;
+
+			ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+			so = so.copy();
+			so.advance(acts.get(rand.nextInt(acts.size())));
+		}
+	}
+
+	/**
+	 * With tree parallelization and rewards in [-1,1] ('Normalize' unchecked), every virtual loss has to be 
+	 * replaced by the rollout result: X can win at once, so the winning child has the value 1 for X (each of 
+	 * its visits is a win), and no node may have a value outside [-1,1].
+	 */
+	@Test
+	public void testTreeParallelVirtualLoss() {
+		ParMCTS pm = new ParMCTS();
+		pm.setNumIter(NUM_ITER);
+		pm.setNumThreads(NUM_THREADS);
+		pm.setParMode(ParMCTS.PAR_TREE);
+		pm.setNormalize(false);
+		StateObservation so = new StateObserverC4();
+		for (int a : new int[] {0,1,0,1,0,1})
+			so.advance(Types.ACTIONS.fromInt(a));		// X to move, column 0 wins
+		MCTSAgentT parent = new MCTSAgentT("MCTS", so, pm, new ParOther());
+		SingleMCTSPlayer player = new SingleMCTSPlayer(parent, new Random(1), pm);
+		player.initActions(so);
+		player.init(so);
+		double[] vtable = new double[so.getNumAvailableActions()+1];
+		player.run(timer(), vtable);
+
+		SingleTreeNode root = player.m_root;
+		assert root.getNVisits() == NUM_ITER : "root visits: "+root.getNVisits();
+		for (SingleTreeNode c : root.children) {
+			if (c != null && c.m_act.toInt() == 0)
+				assert c.totValue == c.getNVisits() : "winning child: "+c.totValue+" / "+c.getNVisits();
+		}
+		assertValuesInRange(root);
+	}
+
+	private static void assertValuesInRange(SingleTreeNode n) {
+		if (n.children == null) return;
+		for (SingleTreeNode c : n.children) {
+			if (c != null) {
+				assert Math.abs(c.totValue) <= c.getNVisits() : "value "+c.totValue+" / "+c.getNVisits();
+				assertValuesInRange(c);
+			}
+		}
+	}
+
+	private static ElapsedCpuTimer timer() {
+		ElapsedCpuTimer timer = new ElapsedCpuTimer(ElapsedCpuTimer.TimerType.CPU_TIME);
+		timer.setMaxTimeMillis(40);
+		return timer;
+	}
+}
@@ -0,0 +1,79 @@
+package controllers.TD;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Check the batched forward pass {@link TD_NNet#getScores(double[][], int, double[])}: it gives exactly the
+ * scores of {@link TD_NNet#getScore(double[])} (with and without output sigmoid), also while the weights are
+ * trained and after the net was read from a stream. Updates without weight change leave the weights as
+ * they are.
+ */
+public class TD_NNetTest {
+    private final Random rand = new Random(42);
+    private static final int N = 19;        // input size (e.g. FeatureTTT, featmode 3)
+
+    @Test
+    public void testBatchScores() throws IOException, ClassNotFoundException {
+        for (boolean withSigmoid : new boolean[]{false, true}) {
+            TD_NNet net = new TD_NNet(N, 15, withSigmoid);
+            net.setLambda(0.5);
+            net.setGamma(0.9);
+            for (int g = 0; g < 50; g++) {
+                net.resetElig();
+                net.calcScoresAndElig(randomInput());
+                for (int s = 0; s < 6; s++) {
+                    checkBatch(net, 1 + rand.nextInt(30));
+                    net.updateWeights(rand.nextInt(3) - 1, randomInput(), s == 5, rand.nextBoolean());
+                }
+            }
+            checkBatch(serializeAndRead(net), 20);
+
+            double[] wv = net.getWeights();
+            for (int i = 0; i < wv.length - 1; i++) wv[i] = rand.nextGaussian();
+            net.setWeights(wv);
+            checkBatch(net, 20);
+        }
+    }
+
+    @Test
+    public void testNoWeightChange() {
+        TD_NNet net = new TD_NNet(N, 10, true);
+        net.resetElig();
+        net.calcScoresAndElig(randomInput());
+        double[] weights = net.getWeights();
+        for (int s = 0; s < 10; s++)
+            net.updateWeights(1.0, randomInput(), s == 9, false);
+        assert Arrays.equals(weights, net.getWeights()) : "weights changed";
+        net.updateWeights(1.0, randomInput(), true, true);   // applies the accumulated changes
+        assert !Arrays.equals(weights, net.getWeights()) : "weights not changed";
+    }
+
+    private void checkBatch(TD_NNet net, int num) {
+        double[][] inputs = new double[num + 3][];          // (the last 3 rows are not evaluated)
+        double[] scores = new double[num];
+        for (int b = 0; b < num; b++) inputs[b] = randomInput();
+        net.getScores(inputs, num, scores);
+        for (int b = 0; b < num; b++)
+            assert scores[b] == net.getScore(inputs[b]) : "score " + b + " differs";
+    }
+
+    private double[] randomInput() {
+        double[] input = new double[N];
+        for (int i = 0; i < N; i++) input[i] = rand.nextInt(3) - 1;
+        return input;
+    }
+
+    private static TD_NNet serializeAndRead(TD_NNet net) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(net);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            return (TD_NNet) ois.readObject();
+        }
+    }
+}
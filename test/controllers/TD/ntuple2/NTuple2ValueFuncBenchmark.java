@@ -0,0 +1,124 @@
+package controllers.TD.ntuple2;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Random;
+
+import controllers.PlayAgent;
+import games.ArenaTrain;
+import games.GBGBatch;
+import games.StateObsWithBoardVector;
+import games.StateObservation;
+import games.XNTupleFuncs;
+import tools.Types;
+
+/**
+ * Micro-benchmark for {@link NTuple2ValueFunc#getScoreI(StateObsWithBoardVector, int)}: measures evaluations
+ * per second and bytes allocated per evaluation, once with the equivalent boards built by
+ * {@link XNTupleFuncs#symmetryVectors(StateObsWithBoardVector, int)} (the former behavior) and once
+ * with the boards read through {@link XNTupleFuncs#symmetryPermutations()}
+ * (see {@link NTuple2ValueFunc#USE_SYM_PERMUTATIONS}). A third run evaluates the same state sequence
+ * incrementally with {@link NTuple2IndexTable#updateIndices(int[], int[], int[])}.
+ * <p>
+ * Usage:
+ * <pre>
+ *    NTuple2ValueFuncBenchmark [ gameName agentFile ] </pre>
+ * e.g. {@code NTuple2ValueFuncBenchmark Othello TCL3-fixed6_250k-lam05_P4_nPly2-FAm.agt.zip}. The agent has
+ * to be a {@link TDNTuple3Agt} and is loaded from {@code agents/<gameName>/}.
+ * <p>
+ * (No JMH in this project: we do a simple warm-up phase followed by timed rounds. The allocation is measured
+ * with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.)
+ */
+public class NTuple2ValueFuncBenchmark {
+	static final int NUM_STATES = 2000;
+	static final int WARMUP_ROUNDS = 5;
+	static final int ROUNDS = 10;
+
+	public static void main(String[] args) throws Exception {
+		String selectedGame = (args.length>0) ? args[0] : "Othello";
+		String agtFile = (args.length>1) ? args[1] : "TCL3-fixed6_250k-lam05_P4_nPly2-FAm.agt.zip";
+
+		ArenaTrain ar = GBGBatch.setupSelectedGame(selectedGame, GBGBatch.setDefaultScaPars(selectedGame));
+		PlayAgent pa = ar.tdAgentIO.loadGBGAgent(Types.GUI_DEFAULT_DIR_AGENT+"/"+selectedGame+"/"+agtFile);
+		if (!(pa instanceof TDNTuple3Agt)) {
+			System.err.println("[NTuple2ValueFuncBenchmark] "+agtFile+" is not a TDNTuple3Agt");
+			return;
+		}
+		NTuple2ValueFunc net = ((TDNTuple3Agt) pa).getNTupleValueFunc();
+		XNTupleFuncs xnf = net.getXnf();
+		StateObsWithBoardVector[] states = randomStates(ar.getGameBoard().getDefaultStartState(), xnf);
+
+		boolean usePerm = NTuple2ValueFunc.USE_SYM_PERMUTATIONS;
+		NTuple2ValueFunc.USE_SYM_PERMUTATIONS = false;
+		run("symmetryVectors     ", net, states);
+		NTuple2ValueFunc.USE_SYM_PERMUTATIONS = true;
+		run("symmetryPermutations", net, states);
+		if (net.getIndexTable()!=null) 
+			run("incremental indices ", net, states);
+		NTuple2ValueFunc.USE_SYM_PERMUTATIONS = usePerm;
+	}
+
+	private static StateObsWithBoardVector[] randomStates(StateObservation startSO, XNTupleFuncs xnf) {
+		Random rand = new Random(42);
+		StateObsWithBoardVector[] states = new StateObsWithBoardVector[NUM_STATES];
+		StateObservation so = startSO.copy();
+		for (int k=0; k<NUM_STATES; k++) {
+			if (so.isGameOver()) so = startSO.copy();
+			states[k] = new StateObsWithBoardVector(so, xnf);
+			ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+			so = so.copy();
+			so.advance(acts.get(rand.nextInt(acts.size())));
+		}
+		return states;
+	}
+
+	private static double eval(String name, NTuple2ValueFunc net, StateObsWithBoardVector[] states) {
+		return name.startsWith("incremental") ? evalIncremental(net, states) : evalAll(net, states);
+	}
+
+	private static void run(String name, NTuple2ValueFunc net, StateObsWithBoardVector[] states) {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+		DecimalFormat frm = new DecimalFormat("#0.0");
+		double sum = 0;
+
+		for (int r=0; r<WARMUP_ROUNDS; r++)
+			sum += eval(name, net, states);
+
+		long bytes0 = mx.getThreadAllocatedBytes(tid);
+		long t0 = System.nanoTime();
+		for (int r=0; r<ROUNDS; r++)
+			sum += eval(name, net, states);
+		long t1 = System.nanoTime();
+		long bytes1 = mx.getThreadAllocatedBytes(tid);
+
+		double numEval = (double) ROUNDS*states.length;
+		System.out.println(name+": "+frm.format(numEval/((t1-t0)*1e-9))+" evals/sec, "
+				+frm.format((bytes1-bytes0)/numEval)+" bytes/eval   (checksum "+sum+")");
+	}
+
+	private static double evalAll(NTuple2ValueFunc net, StateObsWithBoardVector[] states) {
+		double sum = 0;
+		for (StateObsWithBoardVector sowb : states)
+			sum += net.getScoreI(sowb, sowb.getStateObservation().getPlayer());
+		return sum;
+	}
+
+	// the states are consecutive positions of random games, so each state differs from its predecessor
+	// only in a few cells
+	private static double evalIncremental(NTuple2ValueFunc net, StateObsWithBoardVector[] states) {
+		double sum = 0;
+		NTuple2IndexTable table = net.getIndexTable();
+		int[] indices = new int[table.getNumSlots()];
+		int[] prev = states[0].getBoardVector().bvec;
+		table.computeIndices(prev, indices);
+		for (StateObsWithBoardVector sowb : states) {
+			int[] bvec = sowb.getBoardVector().bvec;
+			table.updateIndices(prev, bvec, indices);
+			prev = bvec;
+			sum += net.getScoreFromIndices(indices, sowb.getStateObservation().getPlayer());
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,59 @@
+package controllers.TD.ntuple2;
+
+import games.BoardVector;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for {@link ReplayBuffer}: ring overwriting, stored items and the sampling distributions
+ */
+public class ReplayBufferTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testRing() {
+        ReplayBuffer buffer = new ReplayBuffer(5);
+        for (int k = 0; k < 12; k++) {
+            int slot = buffer.add(new BoardVector(new int[]{k, k + 1, k + 2}, new int[]{-k}), k % 2, 0.5 * k, k);
+            assert slot == k % 5 : "item " + k + " is in slot " + slot;
+            assert buffer.size() == Math.min(k + 1, 5);
+        }
+        // the buffer holds the items 7,...,11 (the oldest ones are overwritten)
+        for (int slot = 0; slot < buffer.size(); slot++) {
+            int k = buffer.getGameNum(slot);
+            assert k >= 7 && k % 5 == slot : "slot " + slot + " holds item " + k;
+            BoardVector bv = buffer.getBoardVector(slot);
+            assert Arrays.equals(bv.bvec, new int[]{k, k + 1, k + 2}) && Arrays.equals(bv.aux, new int[]{-k});
+            assert buffer.getTarget(slot) == 0.5 * k && buffer.getPlayer(slot) == k % 2;
+        }
+    }
+
+    @Test
+    public void testUniformSampling() {
+        ReplayBuffer buffer = new ReplayBuffer(100);
+        for (int k = 0; k < 10; k++) buffer.add(new BoardVector(new int[]{k}), 0, 0.0, k);
+        int[] count = new int[10];
+        for (int i = 0; i < 10000; i++) count[buffer.sampleUniform(rand)]++;
+        for (int c : count) assert c > 800 && c < 1200 : "uniform sampling: " + Arrays.toString(count);
+    }
+
+    @Test
+    public void testPrioritizedSampling() {
+        ReplayBuffer buffer = new ReplayBuffer(7, 1.0);
+        for (int k = 0; k < 7; k++) buffer.add(new BoardVector(new int[]{k}), 0, 0.0, k);
+        for (int k = 0; k < 7; k++) buffer.setPriority(k, k + 1);    // probabilities (k+1)/28
+        int n = 28000;
+        int[] count = new int[7];
+        for (int i = 0; i < n; i++) count[buffer.samplePrioritized(rand)]++;
+        for (int k = 0; k < 7; k++) {
+            double expected = n * (k + 1) / 28.0;
+            assert Math.abs(buffer.getSamplingProbability(k) - (k + 1) / 28.0) < 1e-12;
+            assert Math.abs(count[k] - expected) < 0.1 * expected + 50 : "prioritized sampling: " + Arrays.toString(count);
+        }
+        // a new item gets the largest priority seen so far and replaces item 0
+        assert buffer.add(new BoardVector(new int[]{7}), 0, 0.0, 7) == 0;
+        assert Math.abs(buffer.getSamplingProbability(0) - 7.0 / 34.0) < 1e-12;
+    }
+}
@@ -0,0 +1,120 @@
+package controllers.TD.ntuple2;
+
+import games.CFour.StateObserverC4;
+import games.CFour.XNTupleFuncsC4;
+import games.Hex.StateObserverHex;
+import games.Hex.XNTupleFuncsHex;
+import games.Othello.StateObserverOthello;
+import games.Othello.XNTupleFuncsOthello;
+import games.StateObsWithBoardVector;
+import games.StateObservation;
+import games.TicTacToe.StateObserverTTT;
+import games.TicTacToe.XNTupleFuncsTTT;
+import games.XNTupleFuncs;
+import org.junit.Test;
+import params.ParNT;
+import params.ParOther;
+import params.ParTD;
+import tools.Types;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Check the batched evaluation {@link NTuple2ValueFunc#scoreAfterstates(StateObservation, java.util.List, double[])}
+ * and {@link NTuple2ValueFunc#scoreActions(StateObsWithBoardVector, int, java.util.List, double[])} against the
+ * evaluation of single states, and the afterstate deltas
+ * {@link XNTupleFuncs#afterstateBoardVector(StateObservation, int[], Types.ACTIONS, int[])} against
+ * {@link XNTupleFuncs#getBoardVector(StateObservation)}.
+ */
+public class ScoreAfterstatesTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testAfterstateBoardVector() {
+        checkAfterstateBoardVector(new StateObserverTTT(), new XNTupleFuncsTTT(), 50);
+        checkAfterstateBoardVector(new StateObserverC4(), new XNTupleFuncsC4(), 50);
+    }
+
+    @Test
+    public void testScoreAfterstates() {
+        checkScoreAfterstates(new StateObserverTTT(), new XNTupleFuncsTTT());
+        checkScoreAfterstates(new StateObserverC4(), new XNTupleFuncsC4());
+        checkScoreAfterstates(new StateObserverOthello(), new XNTupleFuncsOthello());
+        checkScoreAfterstates(new StateObserverHex(), new XNTupleFuncsHex());
+    }
+
+    @Test
+    public void testScoreActions() throws IOException {
+        StateObservation startSO = new StateObserverTTT();
+        XNTupleFuncs xnf = new XNTupleFuncsTTT();
+        SarsaAgt pa = new SarsaAgt("Sarsa", new ParTD(), new ParNT(), new ParOther(), randomTuples(xnf),
+                xnf, startSO.getAllAvailableActions(), 1000);
+        NTuple2ValueFunc net = pa.getNTupleValueFunc();
+        for (NTuple2 nt : net.getNTuples()) nt.initWeights(true);
+        for (StateObservation so : randomStates(startSO, 100)) {
+            ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+            StateObsWithBoardVector curSOWB = new StateObsWithBoardVector(so, xnf);
+            double[] out = new double[acts.size()];
+            net.scoreActions(curSOWB, so.getPlayer(), acts, out);
+            for (int i = 0; i < acts.size(); i++)
+                assert out[i] == net.getQFunc(curSOWB, so.getPlayer(), acts.get(i))
+                        : "scoreActions differs from getQFunc for " + so.stringDescr() + ", action " + acts.get(i).toInt();
+        }
+    }
+
+    private void checkAfterstateBoardVector(StateObservation startSO, XNTupleFuncs xnf, int nStates) {
+        int[] next = new int[xnf.getNumCells()];
+        for (StateObservation so : randomStates(startSO, nStates)) {
+            int[] bvec = xnf.getBoardVector(so).bvec;
+            for (Types.ACTIONS act : so.getAvailableActions()) {
+                assert xnf.afterstateBoardVector(so, bvec, act, next);
+                StateObservation afterSO = so.copy();
+                afterSO.advanceDeterministic(act);
+                assert Arrays.equals(next, xnf.getBoardVector(afterSO).bvec)
+                        : "wrong afterstate board vector for " + so.stringDescr() + ", action " + act.toInt();
+            }
+        }
+    }
+
+    private void checkScoreAfterstates(StateObservation startSO, XNTupleFuncs xnf) {
+        TDNTuple3Agt pa = new TDNTuple3Agt("TDNT3", new ParTD(), new ParNT(), new ParOther(), randomTuples(xnf), xnf, 1000);
+        NTuple2ValueFunc net = pa.getNTupleValueFunc();
+        for (NTuple2 nt : net.getNTuples()) nt.initWeights(true);
+        for (StateObservation so : randomStates(startSO, 50)) {
+            ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+            double[] out = new double[acts.size()];
+            net.scoreAfterstates(so, acts, out);
+            for (int i = 0; i < acts.size(); i++) {
+                StateObservation afterSO = so.copy();
+                afterSO.advanceDeterministic(acts.get(i));
+                double expected = net.getScoreI(new StateObsWithBoardVector(afterSO, xnf), so.getPlayer());
+                assert out[i] == expected
+                        : "scoreAfterstates differs from getScoreI for " + so.stringDescr() + ", action " + acts.get(i).toInt();
+            }
+        }
+    }
+
+    private int[][] randomTuples(XNTupleFuncs xnf) {
+        int[][] nTuples = new int[10][4];
+        for (int[] nTuple : nTuples)
+            for (int m = 0; m < nTuple.length; m++)
+                nTuple[m] = rand.nextInt(xnf.getNumCells());
+        return nTuples;
+    }
+
+    private StateObservation[] randomStates(StateObservation startSO, int nStates) {
+        StateObservation[] states = new StateObservation[nStates];
+        StateObservation so = startSO.copy();
+        for (int k = 0; k < nStates; k++) {
+            if (so.isGameOver()) so = startSO.copy();
+            states[k] = so;
+            ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+            so = so.copy();
+            so.advance(acts.get(rand.nextInt(acts.size())));
+        }
+        return states;
+    }
+}
@@ -0,0 +1,123 @@
+package controllers.TD.ntuple2;
+
+import games.GBGBatch;
+import games.GameBoard;
+import games.StateObservation;
+import games.TicTacToe.StateObserverTTT;
+import games.TicTacToe.XNTupleFuncsTTT;
+import games.XArenaFuncs;
+import org.junit.Test;
+import params.ParNT;
+import params.ParOther;
+import params.ParTD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for {@link TDNTuple3Agt#trainAgentParallel(StateObservation[], int)} and for the evaluation cadence of
+ * {@link XArenaFuncs#trainEpisodes(controllers.PlayAgent, GameBoard, ParOther, int, boolean)} in parallel mode.
+ */
+public class TDNTuple3AgtParallelTest {
+    static final int NUM_GAMES = 300;
+
+    /**
+     * With one worker, trainAgentParallel has to give bit for bit the same weights and counters as trainAgent.
+     */
+    @Test
+    public void testOneWorker() {
+        TDNTuple3Agt seq = makeAgent(), par = makeAgent();
+        for (StateObservation so : startStates()) seq.trainAgent(so);
+        par.trainAgentParallel(startStates(), 1);
+
+        assertSameSchedule(seq, par);
+        assert seq.getNumLrnActions() == par.getNumLrnActions();
+        assert seq.getNumTrnMoves() == par.getNumTrnMoves();
+        NTuple2[] seqTuples = seq.getNTupleValueFunc().getNTuples(), parTuples = par.getNTupleValueFunc().getNTuples();
+        for (int i = 0; i < seqTuples.length; i++)
+            assert Arrays.equals(seqTuples[i].getWeights(), parTuples[i].getWeights()) : "weights of n-tuple " + i;
+    }
+
+    /**
+     * With N workers, game counter, ALPHA and epsilon after a batch have to be the same as after sequential
+     * training. Learn actions and train moves of all workers have to be counted (each TicTacToe episode has
+     * 5 to 9 moves).
+     */
+    @Test
+    public void testManyWorkers() {
+        TDNTuple3Agt seq = makeAgent(), par = makeAgent();
+        for (StateObservation so : startStates()) seq.trainAgent(so);
+        par.trainAgentParallel(startStates(), 4);
+
+        assertSameSchedule(seq, par);
+        long trnMoves = par.getNumTrnMoves();
+        assert 5L * NUM_GAMES <= trnMoves && trnMoves <= 9L * NUM_GAMES : "train moves: " + trnMoves;
+        assert 0 < par.getNumLrnActions() && par.getNumLrnActions() <= trnMoves : "learn actions: " + par.getNumLrnActions();
+
+        // a second batch continues the schedule:
+        for (StateObservation so : startStates()) seq.trainAgent(so);
+        par.trainAgentParallel(startStates(), 4);
+        assertSameSchedule(seq, par);
+    }
+
+    /**
+     * In parallel mode, trainEpisodes has to stop at the same game numbers as sequential training, where the
+     * train loops evaluate the agent.
+     */
+    @Test
+    public void testEvalCadence() {
+        GameBoard gb = GBGBatch.setupSelectedGame("TicTacToe", GBGBatch.setDefaultScaPars("TicTacToe")).getGameBoard();
+        ParOther oPar = new ParOther();
+        oPar.setNumWorkers(3);
+
+        assert gameNums(gb, oPar, false).equals(Arrays.asList(100, 200, 250));
+        assert gameNums(gb, oPar, true).equals(Arrays.asList(1, 100, 101, 200, 201, 250));
+    }
+
+    private ArrayList<Integer> gameNums(GameBoard gb, ParOther oPar, boolean stopCheck) {
+        TDNTuple3Agt pa = makeAgent();
+        pa.setMaxGameNum(250);
+        ArrayList<Integer> gameNums = new ArrayList<>();
+        while (pa.getGameNum() < pa.getMaxGameNum()) {
+            XArenaFuncs.trainEpisodes(pa, gb, oPar, 100, stopCheck);
+            gameNums.add(pa.getGameNum());
+        }
+        return gameNums;
+    }
+
+    private void assertSameSchedule(TDNTuple3Agt seq, TDNTuple3Agt par) {
+        assert seq.getGameNum() == par.getGameNum() : "gameNum: " + seq.getGameNum() + " vs. " + par.getGameNum();
+        assert seq.getAlpha() == par.getAlpha() : "alpha: " + seq.getAlpha() + " vs. " + par.getAlpha();
+        assert seq.getEpsilon() == par.getEpsilon() : "epsilon: " + seq.getEpsilon() + " vs. " + par.getEpsilon();
+    }
+
+    private TDNTuple3Agt makeAgent() {
+        ParTD tdPar = new ParTD();
+        tdPar.setAlpha(0.2);
+        tdPar.setAlphaFinal(0.01);
+        tdPar.setEpsilon(0.3);
+        tdPar.setEpsilonFinal(0.0);
+        TDNTuple3Agt pa = new TDNTuple3Agt("TDNT3", tdPar, new ParNT(), new ParOther(), randomTuples(),
+                new XNTupleFuncsTTT(), 1000);
+        pa.setMaxGameNum(1000);
+        pa.rand = new Random(42);
+        return pa;
+    }
+
+    private StateObservation[] startStates() {
+        StateObservation[] startSO = new StateObservation[NUM_GAMES];
+        for (int k = 0; k < NUM_GAMES; k++)
+            startSO[k] = new StateObserverTTT();
+        return startSO;
+    }
+
+    private int[][] randomTuples() {
+        Random rand = new Random(42);
+        int[][] nTuples = new int[8][7];
+        for (int[] nTuple : nTuples)
+            for (int m = 0; m < nTuple.length; m++)
+                nTuple[m] = rand.nextInt(9);
+        return nTuples;
+    }
+}
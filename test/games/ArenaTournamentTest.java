@@ -0,0 +1,90 @@
+package games;
+
+import TournamentSystem.TSAgent;
+import TournamentSystem.TSAgentManager;
+import controllers.AgentBase;
+import controllers.PlayAgent;
+import org.junit.Test;
+import tools.Types;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A double round robin of deterministic HDD agents in TicTacToe, played by {@link Arena#playTournament(Runnable)}
+ * one game after the other and with parallel matches enabled, must give identical results (game results, Elo
+ * ratings) for the same seed.
+ */
+public class ArenaTournamentTest {
+
+    @Test
+    public void testParallelEqualsSequential() {
+        Arena arena = GBGBatch.setupSelectedGame("TicTacToe", GBGBatch.setDefaultScaPars("TicTacToe"));
+        TSAgentManager seq = runTournament(arena, false);
+        TSAgentManager par = runTournament(arena, true);
+
+        assert seq.isTournamentDone() && par.isTournamentDone();
+        assert Arrays.deepEquals(seq.results.gamePlan, par.results.gamePlan);
+        assert Arrays.deepEquals(seq.results.gameResult, par.results.gameResult)
+                : Arrays.deepToString(seq.results.gameResult) + " vs. " + Arrays.deepToString(par.results.gameResult);
+        int episodes = 0;
+        for (int i = 0; i < seq.results.mAgents.size(); i++) {
+            TSAgent a = seq.results.mAgents.get(i), b = par.results.mAgents.get(i);
+            assert a.getCountWonGames() == b.getCountWonGames() && a.getCountLostGames() == b.getCountLostGames();
+            assert a.mEloPlayerFIDE.getEloRating() == b.mEloPlayerFIDE.getEloRating();
+            episodes += a.getCountWonGames() + a.getCountTieGames() + a.getCountLostGames();
+        }
+        assert episodes == 2 * 12 * 10 : "episodes played: " + episodes;
+    }
+
+    @Test
+    public void testParallelIsOptIn() {
+        assert !new TSAgentManager(2).getParallelTS() : "parallel matches have to be enabled by the user";
+    }
+
+    private TSAgentManager runTournament(Arena arena, boolean parallel) {
+        TSAgentManager manager = new TSAgentManager(2);
+        manager.setSeed(42L);
+        manager.setNumberOfEpisodes(10);
+        manager.setNumberOfRandomStartMoves(2);
+        manager.setTournamentMode(1, 0);
+        manager.setParallelTS(parallel);
+        for (int i = 0; i < 4; i++) {
+            String name = "Determ" + i;
+            manager.addAgent(name, "DeterministicAgent", new JCheckBox(name, true), true, new DeterministicAgent(name, i));
+        }
+        manager.lockToCompete(arena.getGameBoard());
+        arena.tournamentAgentManager = manager;
+        arena.playTournament(null);
+        manager.unlockAfterComp();
+        return manager;
+    }
+
+    /**
+     * An agent whose move depends only on the state and on its offset. Sequential play (which re-uses the agent
+     * objects) and parallel play (which plays each match on fresh copies) give the same games.
+     */
+    private static class DeterministicAgent extends AgentBase implements PlayAgent {
+        private static final long serialVersionUID = 1L;
+        private final int offset;
+
+        DeterministicAgent(String name, int offset) {
+            super(name);
+            this.offset = offset;
+            setAgentState(AgentState.TRAINED);
+        }
+
+        @Override
+        public Types.ACTIONS_VT getNextAction2(StateObservation so, boolean random, boolean silent) {
+            ArrayList<Types.ACTIONS> acts = so.getAvailableActions();
+            int k = ((so.stringDescr().hashCode() & 0x7fffffff) + offset) % acts.size();
+            return new Types.ACTIONS_VT(acts.get(k).toInt(), false, new double[acts.size()], 0.0);
+        }
+
+        @Override
+        public double getScore(StateObservation sob) {
+            return 0.0;
+        }
+    }
+}
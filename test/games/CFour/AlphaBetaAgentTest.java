@@ -0,0 +1,58 @@
+package games.CFour;
+
+import games.CFour.openingBook.BookSum;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The search of {@link AlphaBetaAgent} with Lazy-SMP helper threads (see {@link AlphaBetaAgent#setNumHelpers(int)})
+ * gives the same values as the single-threaded search
+ */
+public class AlphaBetaAgentTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testHelpers() {
+        BookSum books = new BookSum();
+        for (int sigfac : new int[]{1, 1000}) {
+            AlphaBetaAgent single = new AlphaBetaAgent(books, sigfac);
+            single.instantiateAfterLoading();
+            AlphaBetaAgent smp = new AlphaBetaAgent(books, sigfac);
+            smp.instantiateAfterLoading();
+            smp.setNumHelpers(3);
+            for (int n = 0; n < 8; n++) {
+                int[][] board = randomBoard(16 + n % 4);
+                double[] expected = single.getNextVTable(board, false);
+                double[] actual = smp.getNextVTable(board, false);
+                assert Arrays.equals(expected, actual) : "sigfac=" + sigfac + ": values with helpers "
+                        + Arrays.toString(actual) + " differ from " + Arrays.toString(expected);
+                assert single.getScore(board, false) == smp.getScore(board, false) : "sigfac=" + sigfac
+                        + ": score with helpers differs";
+            }
+            smp.setNumHelpers(0);
+            int[][] board = randomBoard(17);
+            assert Arrays.equals(single.getNextVTable(board, false), smp.getNextVTable(board, false));
+        }
+    }
+
+    /**
+     * @return a board with {@code pieces} pieces from random moves, where nobody has won yet
+     */
+    private int[][] randomBoard(int pieces) {
+        while (true) {
+            C4Base c4 = new C4Base();
+            int player = 1;
+            int k = 0;
+            for (; k < pieces; k++) {
+                int x = rand.nextInt(7);
+                if (!c4.isLegalMove(x)) break;
+                if (c4.canWin(player, x)) break;
+                c4.putPiece(player, x);
+                player = 3 - player;
+            }
+            if (k == pieces) return c4.getBoard();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package games.CFour.openingBook;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Check that a book memory-mapped with {@link Book#mapBook(File)} gives the same results as the book read
+ * from the resource with {@link Book#readBook()}.
+ */
+public class BookMappedTest {
+
+    @Test
+    public void testMappedNormalBook() throws IOException {
+        Book read = new Book(Book.NORMALBOOK);
+        read.openBook();
+        read.readBook();
+        read.closeBook();
+
+        File f = File.createTempFile("book", ".map");
+        f.deleteOnExit();
+        read.writeMappedBook(f);
+        Book mapped = new Book(Book.NORMALBOOK);
+        mapped.mapBook(f);
+
+        // every row of the book is found with its value, and the decoded boards are the same
+        int[][] b1 = new int[7][6], b2 = new int[7][6];
+        for (int i = 0; i < read.getBookSize(); i++) {
+            int v = read.getBoard(i, b1);
+            assert v == mapped.getBoard(i, b2) : "getBoard differs at index " + i;
+            assert Arrays.deepEquals(b1, b2) : "boards differ at index " + i;
+            for (int[] col : b1) Arrays.fill(col, 0);
+            for (int[] col : b2) Arrays.fill(col, 0);
+        }
+
+        // the binary search gives the same results for arbitrary codes
+        Random rand = new Random(42);
+        for (int k = 0; k < 100000; k++) {
+            int code = rand.nextInt() & 0xFFFFFFFC, code2 = rand.nextInt() & 0xFFFFFFFC;
+            assert read.getValue(code, code2) == mapped.getValue(code, code2);
+        }
+    }
+}
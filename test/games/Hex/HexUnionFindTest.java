@@ -0,0 +1,103 @@
+package games.Hex;
+
+import org.junit.Test;
+import tools.Types.ACTIONS;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Play random Hex games on several board sizes and check the incremental chains of {@link StateObserverHex}
+ * ({@link HexUnionFind}): the winner agrees with a breadth-first search from the edges, the chains agree with
+ * chains built from scratch, copies are independent, and feature vector 3 is the same with both.
+ */
+public class HexUnionFindTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testRandomGames() {
+        int boardSize = HexConfig.BOARD_SIZE;
+        try {
+            for (int size : new int[]{2, 3, 4, 5, 6, 7, 11}) {
+                HexConfig.BOARD_SIZE = size;
+                HexConfig.TILE_COUNT = size * size;
+                FeatureHex feature = new FeatureHex(3);
+                for (int g = 0; g < 200; g++) {
+                    StateObserverHex so = new StateObserverHex();
+                    StateObserverHex previous = null;
+                    while (!so.isGameOver()) {
+                        int lastPlayer = so.getPlayer();
+                        if (rand.nextInt(4) == 0) {
+                            previous = so;
+                            so = so.copy();
+                        }
+                        so.advance(so.getAction(rand.nextInt(so.getNumAvailableActions())));
+                        assert so.getChains().hasWon(lastPlayer) == bfsWins(so.getBoard(), lastPlayer)
+                                : "winner differs on " + so.stringDescr();
+                        assert !so.getChains().hasWon(so.getPlayer());
+                        assert so.getNumAvailableActions() + countStones(so.getBoard()) == size * size;
+                        assertSameChains(so.getChains(), HexUnionFind.fromBoard(so.getBoard()), size);
+                        if (previous != null)
+                            assertSameChains(previous.getChains(), HexUnionFind.fromBoard(previous.getBoard()), size);
+                        if (g < 20)
+                            assert Arrays.equals(feature.prepareFeatVector(so),
+                                    feature.createFeatureVector3(so.getPlayer(), so.getBoard()));
+                    }
+                    // a full board always has a winner:
+                    assert so.getGameScore(so) == HexConfig.REWARD_NEGATIVE;
+                }
+            }
+        } finally {
+            HexConfig.BOARD_SIZE = boardSize;
+            HexConfig.TILE_COUNT = boardSize * boardSize;
+        }
+    }
+
+    private static void assertSameChains(HexUnionFind uf1, HexUnionFind uf2, int size) {
+        int n = size * size + 4;
+        for (int a = 0; a < n; a++)
+            for (int b = a + 1; b < n; b++)
+                assert (uf1.find(a) == uf1.find(b)) == (uf2.find(a) == uf2.find(b)) : "nodes " + a + ", " + b;
+    }
+
+    private static int countStones(HexTile[][] board) {
+        int count = 0;
+        for (HexTile[] row : board)
+            for (HexTile tile : row)
+                if (tile.getPlayer() != HexConfig.PLAYER_NONE) count++;
+        return count;
+    }
+
+    /**
+     * Breadth-first search from the first edge of {@code player} over his stones: does it reach the second edge?
+     * (PLAYER_ONE connects the first and last column, PLAYER_TWO the first and last row.)
+     */
+    private static boolean bfsWins(HexTile[][] board, int player) {
+        int size = board.length;
+        boolean[][] visited = new boolean[size][size];
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        for (int k = 0; k < size; k++) {
+            int i = (player == HexConfig.PLAYER_TWO) ? 0 : k;
+            int j = (player == HexConfig.PLAYER_TWO) ? k : 0;
+            if (board[i][j].getPlayer() == player) {
+                visited[i][j] = true;
+                queue.add(new int[]{i, j});
+            }
+        }
+        while (!queue.isEmpty()) {
+            int[] t = queue.poll();
+            if ((player == HexConfig.PLAYER_TWO ? t[0] : t[1]) == size - 1) return true;
+            for (int di = -1; di <= 1; di++)
+                for (int dj = -1; dj <= 1; dj++) {
+                    int x = t[0] + di, y = t[1] + dj;
+                    if (di != dj && x >= 0 && x < size && y >= 0 && y < size
+                            && !visited[x][y] && board[x][y].getPlayer() == player) {
+                        visited[x][y] = true;
+                        queue.add(new int[]{x, y});
+                    }
+                }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,179 @@
+package games;
+
+import games.Othello.StateObserverOthello;
+import games.ZweiTausendAchtundVierzig.StateObserver2048;
+import org.junit.Test;
+import tools.Types;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Write session files of random games with {@link LogSessionFile.Writer} (synchronous and with a writer thread)
+ * and read them back: the states (board, player, stored action values) equal the logged ones. A truncated or
+ * corrupted file gives the entries before the damaged record. {@link LogManager} with advanced logging
+ * produces a {@code .gamelog} as before.
+ */
+public class LogSessionFileTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (ExecutorService ex : new ExecutorService[]{null, executor}) {
+                checkRoundTrip(new StateObserverOthello(), ex, 7);
+                checkRoundTrip(new StateObserver2048(), ex, 7);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        File file = File.createTempFile("session", LogSessionFile.EXTENSION);
+        try {
+            ArrayList<StateObservation> states = new ArrayList<>();
+            ArrayList<Types.ACTIONS> actions = new ArrayList<>();
+            playAndLog(new StateObserverOthello(), file, null, 5, states, actions);
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            int numEntries = LogSessionFile.read(file).stateObservations.size();
+            assert numEntries == states.size();
+            for (int len = bytes.length - 1; len > 8; len -= 1 + rand.nextInt(40)) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.write(bytes, 0, len);
+                    raf.setLength(len);
+                }
+                LogSessionContainer log = LogSessionFile.read(file);
+                assert log.stateObservations.size() <= numEntries && log.stateObservations.size() < states.size();
+                for (int i = 0; i < log.stateObservations.size(); i++)
+                    assert log.stateObservations.get(i).stringDescr().equals(states.get(i).stringDescr());
+                numEntries = log.stateObservations.size();
+            }
+
+            // a corrupted byte in the last record:
+            bytes[bytes.length - 3] ^= 0x55;
+            Files.write(file.toPath(), bytes);
+            assert LogSessionFile.read(file).stateObservations.size() == states.size() - 1;
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLogManager() throws IOException, ClassNotFoundException {
+        File dir = Files.createTempDirectory("logs").toFile();
+        try {
+            // (LogManager builds its paths with '\\', on other systems the files are then in dir)
+            LogManager logManager = new LogManager(dir.getPath() + "/logs", dir.getPath() + "/temp");
+            logManager.loggingEnabled = true;
+            logManager.advancedLogging = true;
+            logManager.asyncWriter = true;
+            logManager.verbose = false;
+            StateObservation so = new StateObserverOthello();
+            ArrayList<String> boards = new ArrayList<>();
+            boards.add(so.stringDescr());
+            int sessionid = logManager.newLoggingSession(so);
+            while (!so.isGameOver()) {
+                Types.ACTIONS act = so.getAction(rand.nextInt(so.getNumAvailableActions()));
+                so.advance(act);
+                logManager.addLogEntry(act, so, sessionid);
+                boards.add(so.stringDescr());
+            }
+            assert logManager.running();
+            logManager.endLoggingSession(sessionid);
+            assert !logManager.running();
+
+            File[] gamelogs = findFiles(dir, ".gamelog");
+            assert gamelogs.length == 1 : "found " + gamelogs.length + " .gamelog files";
+            assert findFiles(dir, LogSessionFile.EXTENSION).length == 0 : "session file not deleted";
+            LogSessionContainer log;
+            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(gamelogs[0]))) {
+                log = (LogSessionContainer) ois.readObject();
+            }
+            assert log.stateObservations.size() == boards.size();
+            for (int i = 0; i < boards.size(); i++)
+                assert log.stateObservations.get(i).stringDescr().equals(boards.get(i));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    private void checkRoundTrip(StateObservation startSO, ExecutorService executor, int snapshotInterval)
+            throws IOException {
+        File file = File.createTempFile("session", LogSessionFile.EXTENSION);
+        try {
+            ArrayList<StateObservation> states = new ArrayList<>();
+            ArrayList<Types.ACTIONS> actions = new ArrayList<>();
+            playAndLog(startSO, file, executor, snapshotInterval, states, actions);
+
+            LogSessionContainer log = LogSessionFile.read(file);
+            assert log.stateObservations.size() == states.size();
+            for (int i = 0; i < states.size(); i++) {
+                ObserverBase expected = (ObserverBase) states.get(i);
+                ObserverBase actual = (ObserverBase) log.stateObservations.get(i);
+                assert actual.stringDescr().equals(expected.stringDescr()) : "entry " + i + " differs";
+                assert actual.getPlayer() == expected.getPlayer() && actual.getMoveCounter() == expected.getMoveCounter();
+                assert Arrays.equals(actual.storedValues, expected.storedValues);
+                assert (actions.get(i) == null) ? log.actions.get(i) == null
+                        : log.actions.get(i).toInt() == actions.get(i).toInt();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Play a random game (with action values stored as in {@link Arena}) and log it. Once in a while the state is
+     * changed between two entries, so that the entry has to be a snapshot.
+     */
+    private void playAndLog(StateObservation so, File file, ExecutorService executor, int snapshotInterval,
+                            ArrayList<StateObservation> states, ArrayList<Types.ACTIONS> actions) throws IOException {
+        try (LogSessionFile.Writer writer = new LogSessionFile.Writer(file, snapshotInterval, executor)) {
+            writer.add(null, so);
+            states.add(so.copy());
+            actions.add(null);
+            while (!so.isGameOver()) {
+                int n = so.getNumAvailableActions();
+                double[] vtable = new double[n + 1];
+                for (int i = 0; i < n; i++) vtable[i] = rand.nextDouble();
+                Types.ACTIONS act = so.getAction(rand.nextInt(n));
+                so.storeBestActionInfo(act, vtable);
+                so.advance(act);
+                if (rand.nextInt(20) == 0 && !so.isGameOver()) {
+                    so.advance(so.getAction(0));     // not logged
+                }
+                writer.add(act, so);
+                states.add(so.copy());
+                actions.add(act);
+            }
+        }
+    }
+
+    private static File[] findFiles(File dir, String suffix) {
+        ArrayList<File> found = new ArrayList<>();
+        for (File f : dir.listFiles()) {
+            if (f.isDirectory()) found.addAll(Arrays.asList(findFiles(f, suffix)));
+            else if (f.getName().endsWith(suffix)) found.add(f);
+        }
+        return found.toArray(new File[0]);
+    }
+
+    private static void deleteAll(File dir) {
+        for (File f : dir.listFiles()) {
+            if (f.isDirectory()) deleteAll(f);
+            f.delete();
+        }
+        dir.delete();
+    }
+}
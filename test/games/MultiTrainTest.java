@@ -0,0 +1,53 @@
+package games;
+
+import org.junit.Test;
+import tools.Types;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Check that {@link XArenaFuncs#multiTrain(int, String, XArenaButtons, GameBoard, String) multiTrain} gives the 
+ * same {@link MTrain} rows, whether the runs are executed one after the other or in parallel, if both are seeded 
+ * with the same seed.
+ */
+public class MultiTrainTest extends GBGBatch {
+    String selectedGame = "TicTacToe";
+    String[] scaPar = GBGBatch.setDefaultScaPars(selectedGame);
+
+    @Test
+    public void testParallelEqualsSequential() throws IOException {
+        List<String> seqRows = multiTrainRows(1, "multiTrainSeq.csv");
+        List<String> parRows = multiTrainRows(3, "multiTrainPar.csv");
+
+        assert seqRows.size() == 3 * 3 : "rows: " + seqRows.size();
+        assert seqRows.equals(parRows) : "\nsequential: " + seqRows + "\nparallel:   " + parRows;
+    }
+
+    // run multiTrain with 3 runs of 300 episodes each and return the MTrain rows without the timing columns
+    private List<String> multiTrainRows(int threads, String csvName) throws IOException {
+        t_Game = GBGBatch.setupSelectedGame(selectedGame, scaPar);
+        t_Game.m_xab.setTrainNumber(3);
+        t_Game.m_xab.setGameNumber(300);
+        t_Game.m_xab.oPar[0].setNumEval(100);
+        t_Game.m_xab.oPar[0].setQuickEvalMode(-1);    // no evaluation: Max-N breaks ties with an unseeded Random
+        t_Game.m_xab.oPar[0].setTrainEvalMode(-1);
+        t_Game.m_xfun.setMultiTrainParallel(threads, 4711L);
+        t_Game.m_xab.m_arena.taskState = Arena.Task.MULTTRN;
+        t_Game.m_xfun.multiTrain(0, "TD-Ntuple-3", t_Game.m_xab, t_Game.getGameBoard(), csvName);
+
+        File csv = new File(Types.GUI_DEFAULT_DIR_AGENT + "/" + selectedGame + "/csv/" + csvName);
+        List<String> lines = Files.readAllLines(csv.toPath());
+        csv.delete();
+        List<String> rows = new ArrayList<>();
+        for (String line : lines.subList(3, lines.size())) {
+            String[] col = line.split(", ");
+            // run, gameNum, evalQ, evalT, actionNum, trnMoves (skip totalTrainSec and movesSecond):
+            rows.add(String.join(", ", col[0], col[1], col[2], col[3], col[4], col[5]));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,74 @@
+package games.Othello;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.function.LongSupplier;
+
+/**
+ * Perft benchmark for Othello: counts the leaf nodes of the game tree of depth {@code depth} from the start
+ * position (see {@link BitBoardOthelloTest#PERFT}) and measures nodes per second and bytes allocated per node,
+ * <ul>
+ * <li> with the former cell-by-cell engine on {@code int[8][8]} ({@link BitBoardOthelloTest.Reference}),
+ * <li> with {@link StateObserverOthello} ({@code copy()} and {@code advance()} for each node, as agents do),
+ * <li> with the raw bitboard functions of {@link BitBoardOthello}.
+ * </ul>
+ * Usage:
+ * <pre>
+ *    BitBoardOthelloBenchmark [ depth ] </pre>
+ * (No JMH in this project: we do a simple warm-up phase followed by timed rounds. The allocation is measured
+ * with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.)
+ */
+public class BitBoardOthelloBenchmark {
+	static final int WARMUP_ROUNDS = 2;
+	static final int ROUNDS = 3;
+
+	public static void main(String[] args) {
+		int depth = (args.length>0) ? Integer.parseInt(args[0]) : 9;
+		StateObserverOthello so = new StateObserverOthello();
+		int[][] start = so.getCurrentGameState();
+		long own = BitBoardOthello.fromTable(start, so.getPlayer());
+		long opp = BitBoardOthello.fromTable(start, BaseOthello.getOpponent(so.getPlayer()));
+
+		run("cell-by-cell (reference) ", () -> BitBoardOthelloTest.Reference.perft(start, so.getPlayer(), depth));
+		run("StateObserverOthello     ", () -> BitBoardOthelloTest.perft(so, depth));
+		run("BitBoardOthello          ", () -> perft(own, opp, depth));
+	}
+
+	private static void run(String name, LongSupplier perft) {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+		DecimalFormat frm = new DecimalFormat("#0.0");
+
+		long nodes = 0;
+		for (int r=0; r<WARMUP_ROUNDS; r++)
+			nodes = perft.getAsLong();
+		long bytes0 = mx.getThreadAllocatedBytes(tid);
+		long t0 = System.nanoTime();
+		for (int r=0; r<ROUNDS; r++)
+			nodes = perft.getAsLong();
+		long t1 = System.nanoTime();
+		long bytes1 = mx.getThreadAllocatedBytes(tid);
+		double numNodes = (double) ROUNDS*nodes;
+		System.out.println(name+": "+frm.format(numNodes/((t1-t0)*1e-9))+" nodes/sec, "
+				+frm.format((bytes1-bytes0)/numNodes)+" bytes/node   (perft = "+nodes+")");
+	}
+
+	/**
+	 * perft on bitboards, with the same pass rule as {@link StateObserverOthello}
+	 */
+	static long perft(long own, long opp, int depth) {
+		long moves = BitBoardOthello.moves(own, opp);
+		if (moves==0) {			// pass: the opponent moves again
+			long t = own; own = opp; opp = t;
+			moves = BitBoardOthello.moves(own, opp);
+		}
+		if (depth==0 || moves==0) return 1;
+		long sum = 0;
+		for (; moves!=0; moves &= moves-1) {
+			int sq = Long.numberOfTrailingZeros(moves);
+			long flips = BitBoardOthello.flips(own, opp, sq);
+			sum += perft(opp & ~flips, own | flips | (1L << sq), depth-1);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,225 @@
+package games.Othello;
+
+import org.junit.Test;
+import tools.Types.ACTIONS;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Check the bitboard engine {@link BitBoardOthello} and {@link StateObserverOthello} against the former
+ * cell-by-cell implementation of the Othello rules ({@link Reference}): move lists and flips on random boards,
+ * perft counts from the start position and complete random games (board, player to move, available actions,
+ * Zobrist key, game over and winner).
+ */
+public class BitBoardOthelloTest {
+    private final Random rand = new Random(42);
+
+    /**
+     * perft(d) of the start position for d = 1,...,8 (no pass and no game end occurs before depth 9)
+     */
+    static final long[] PERFT = {1, 4, 12, 56, 244, 1396, 8200, 55092, 390216};
+
+    @Test
+    public void testRandomBoards() {
+        for (int k = 0; k < 20000; k++) {
+            int[][] table = new int[8][8];
+            int pEmpty = 1 + rand.nextInt(3);
+            for (int i = 0; i < 8; i++)
+                for (int j = 0; j < 8; j++)
+                    table[i][j] = (rand.nextInt(pEmpty + 2) < pEmpty) ? ConfigOthello.EMPTY : rand.nextInt(2);
+            for (int player = 0; player < 2; player++) {
+                ArrayList<ACTIONS> expected = Reference.possibleActions(table, player);
+                assert BaseOthello.possibleActions(table, player).equals(expected)
+                        : "moves differ for " + Reference.toString(table) + ", player " + player;
+                long own = BitBoardOthello.fromTable(table, player);
+                long opp = BitBoardOthello.fromTable(table, BaseOthello.getOpponent(player));
+                for (ACTIONS act : expected) {
+                    int n = act.toInt();
+                    int[][] t1 = copy(table), t2 = copy(table);
+                    Reference.flip(t1, n / 8, n % 8, player);
+                    BaseOthello.flip(t2, n / 8, n % 8, player);
+                    assert equal(t1, t2) : "flips differ for move " + n + " on " + Reference.toString(table);
+                    long flips = BitBoardOthello.flips(own, opp, n);
+                    assert (flips | BitBoardOthello.fromTable(table, player)) == BitBoardOthello.fromTable(t1, player);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPerft() {
+        StateObserverOthello so = new StateObserverOthello();
+        for (int d = 1; d < PERFT.length; d++) {
+            assert perft(so, d) == PERFT[d] : "perft(" + d + ") = " + perft(so, d);
+            assert Reference.perft(so.getCurrentGameState(), so.getPlayer(), d) == PERFT[d];
+        }
+    }
+
+    @Test
+    public void testRandomGames() {
+        for (int g = 0; g < 2000; g++) {
+            StateObserverOthello so = new StateObserverOthello();
+            so.hashKey();       // from now on the key is updated incrementally
+            int[][] table = copy(so.getCurrentGameState());
+            int player = so.getPlayer();
+            while (!so.isGameOver()) {
+                ArrayList<ACTIONS> acts = so.getAvailableActions();
+                assert acts.equals(Reference.possibleActions(table, player));
+                ACTIONS act = acts.get(rand.nextInt(acts.size()));
+                if (rand.nextInt(10) == 0) so = so.copy();
+                so.advance(act);
+
+                Reference.flip(table, act.toInt() / 8, act.toInt() % 8, player);
+                table[act.toInt() / 8][act.toInt() % 8] = player;
+                if (Reference.possibleActions(table, BaseOthello.getOpponent(player)).size() > 0)
+                    player = BaseOthello.getOpponent(player);
+                assert equal(table, so.getCurrentGameState()) : "boards differ after move " + act.toInt();
+                assert so.getPlayer() == player;
+
+                StateObserverOthello fresh = so.copy();
+                fresh.setPlayer(player);        // resets the Zobrist key and the bitboards
+                assert fresh.hashKey() == so.hashKey() : "incremental Zobrist key differs";
+            }
+            assert Reference.possibleActions(table, 0).isEmpty() && Reference.possibleActions(table, 1).isEmpty();
+            int own = 0, opp = 0;
+            for (int[] row : table)
+                for (int c : row) {
+                    if (c == player) own++;
+                    else if (c != ConfigOthello.EMPTY) opp++;
+                }
+            double expected = (own > opp) ? 1.0 : (own < opp) ? -1.0 : 0.0;
+            assert so.getGameScore(so) == expected;
+        }
+    }
+
+    /**
+     * The Ludii bridge ({@code AsStateObserverOthello}) sets {@code currentGameState} directly and then calls
+     * {@code setPlayer} and {@code setAvailableActions}: the bitboards have to follow.
+     */
+    @Test
+    public void testSetGameState() {
+        StateObserverOthello so = new StateObserverOthello();
+        StateObserverOthello other = new StateObserverOthello();
+        for (int k = 0; k < 500; k++) {
+            if (other.isGameOver()) other = new StateObserverOthello();
+            other.advance(other.getAction(rand.nextInt(other.getNumAvailableActions())));
+            so.currentGameState = copy(other.getCurrentGameState());
+            so.setPlayer(other.getPlayer());
+            so.setAvailableActions();
+            assert so.getAvailableActions().equals(other.getAvailableActions());
+            assert so.isGameOver() == other.isGameOver();
+            if (!so.isGameOver()) {
+                ACTIONS act = so.getAction(rand.nextInt(so.getNumAvailableActions()));
+                StateObserverOthello next = other.copy();
+                so.advance(act);
+                next.advance(act);
+                assert equal(so.getCurrentGameState(), next.getCurrentGameState()) && so.getPlayer() == next.getPlayer();
+                assert so.getAvailableActions().equals(next.getAvailableActions());
+            }
+        }
+    }
+
+    static long perft(StateObserverOthello so, int depth) {
+        if (depth == 0 || so.isGameOver()) return 1;
+        long sum = 0;
+        for (ACTIONS act : so.getAvailableActions()) {
+            StateObserverOthello next = so.copy();
+            next.advance(act);
+            sum += perft(next, depth - 1);
+        }
+        return sum;
+    }
+
+    private static int[][] copy(int[][] table) {
+        int[][] t = new int[8][8];
+        BaseOthello.deepCopyGameState(table, t);
+        return t;
+    }
+
+    private static boolean equal(int[][] t1, int[][] t2) {
+        for (int i = 0; i < 8; i++)
+            for (int j = 0; j < 8; j++)
+                if (t1[i][j] != t2[i][j]) return false;
+        return true;
+    }
+
+    /**
+     * The former cell-by-cell implementation of {@link BaseOthello#possibleActions(int[][], int)} and
+     * {@link BaseOthello#flip(int[][], int, int, int)}: probe the 8 directions from each empty cell.
+     */
+    static class Reference {
+        private static final int[][] DIRS = {{-1, -1}, {0, -1}, {1, -1}, {-1, 0}, {1, 0}, {-1, 1}, {0, 1}, {1, 1}};
+
+        static ArrayList<ACTIONS> possibleActions(int[][] cgs, int player) {
+            ArrayList<ACTIONS> retVal = new ArrayList<>();
+            for (int i = 0, n = 0; i < 8; i++)
+                for (int j = 0; j < 8; j++, n++)
+                    if (cgs[i][j] == ConfigOthello.EMPTY && isLegalAction(cgs, i, j, player))
+                        retVal.add(new ACTIONS(n));
+            return retVal;
+        }
+
+        private static boolean isLegalAction(int[][] cgs, int i, int j, int player) {
+            for (int[] d : DIRS) {
+                int x = i + d[0], y = j + d[1];
+                if (inBounds(x, y) && cgs[x][y] == BaseOthello.getOpponent(player)) {
+                    while (inBounds(x + d[0], y + d[1])) {
+                        x += d[0];
+                        y += d[1];
+                        if (cgs[x][y] == player) return true;
+                        if (cgs[x][y] == ConfigOthello.EMPTY) break;
+                    }
+                }
+            }
+            return false;
+        }
+
+        static void flip(int[][] cgs, int i, int j, int player) {
+            for (int[] d : DIRS) {
+                ArrayList<int[]> flipList = new ArrayList<>();
+                int x = i, y = j;
+                while (inBounds(x += d[0], y += d[1])) {
+                    if (cgs[x][y] == ConfigOthello.EMPTY) break;
+                    if (cgs[x][y] == player) {
+                        for (int[] c : flipList) cgs[c[0]][c[1]] = player;
+                        break;
+                    }
+                    flipList.add(new int[]{x, y});
+                }
+            }
+        }
+
+        /**
+         * perft with the pass rule of {@link StateObserverOthello}: if the opponent has no move, the player
+         * moves again; if both have no move, the game is over (a leaf)
+         */
+        static long perft(int[][] cgs, int player, int depth) {
+            ArrayList<ACTIONS> acts = possibleActions(cgs, player);
+            if (acts.isEmpty()) {
+                player = BaseOthello.getOpponent(player);
+                acts = possibleActions(cgs, player);
+            }
+            if (depth == 0 || acts.isEmpty()) return 1;
+            long sum = 0;
+            for (ACTIONS act : acts) {
+                int[][] next = copy(cgs);
+                flip(next, act.toInt() / 8, act.toInt() % 8, player);
+                next[act.toInt() / 8][act.toInt() % 8] = player;
+                sum += perft(next, BaseOthello.getOpponent(player), depth - 1);
+            }
+            return sum;
+        }
+
+        private static boolean inBounds(int x, int y) {
+            return 0 <= x && x < 8 && 0 <= y && y < 8;
+        }
+
+        static String toString(int[][] cgs) {
+            StringBuilder sb = new StringBuilder();
+            for (int[] row : cgs)
+                for (int c : row) sb.append(c == ConfigOthello.EMPTY ? '-' : (char) ('0' + c));
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package games.RubiksCube;
+
+import games.RubiksCube.CSArrayList.CSAListType;
+import games.RubiksCube.CSArrayList.TupleInt;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+/**
+ * Tests for the hash index of {@link CSArrayList} and for the breadth-first generation of the distance sets
+ * {@link CSArrayList#generateDistanceSets(int)} (2x2x2 cube).
+ */
+public class CSArrayListTest {
+    private final CubeStateFactory csFactory = new CubeStateFactory();
+
+    private void init() {
+        CubeConfig.cubeType = CubeConfig.CubeType.POCKET;
+        CubeStateFactory.generateInverseTs();
+        CubeState.generateForwardTs();
+    }
+
+    /**
+     * The complete distance sets have the known sizes, no duplicates, correct twist sequences and minTwists
+     */
+    @Test
+    public void testGenerateDistanceSets() {
+        init();
+        int pmax = 6;
+        CSArrayList[] D = CSArrayList.generateDistanceSets(pmax);
+        for (int p = 0; p <= pmax; p++) {
+            assert D[p].size() == CubeConfig.theoCov[p] : "D[" + p + "] has size " + D[p].size();
+            for (int i = 0; i < D[p].size(); i++) {
+                CubeState cs = D[p].get(i);
+                assert D[p].indexOf(cs) == i : "duplicate state in D[" + p + "]";
+                assert cs.minTwists == p : "wrong minTwists in D[" + p + "]";
+                if (p >= 1) assert !D[p - 1].contains(cs) : "state of D[" + p + "] is in D[" + (p - 1) + "]";
+            }
+            if (p <= 4) D[p].assertTwistSeqInArrayList();
+        }
+    }
+
+    /**
+     * GenerateNext with N=D.size() on complete distance sets yields the same (complete) distance set
+     */
+    @Test
+    public void testGenerateNextIsComplete() {
+        init();
+        CSArrayList[] D = CSArrayList.generateDistanceSets(4);
+        Random rand = new Random(42);
+        for (int p = 2; p <= 4; p++) {
+            CSArrayList Dp = new CSArrayList(CSAListType.GenerateNext, D[p - 1], D[p - 2], D[p - 1].size(),
+                    new ArrayList<TupleInt>(), true, false, rand);
+            assert Dp.size() == D[p].size() : "GenerateNext: D[" + p + "] has size " + Dp.size();
+            for (CubeState cs : Dp) assert D[p].contains(cs);
+        }
+    }
+
+    /**
+     * contains and indexOf agree with a linear search after additions, removals and cloning
+     */
+    @Test
+    public void testIndex() {
+        init();
+        Random rand = new Random(42);
+        CSArrayList list = new CSArrayList();
+        ArrayList<CubeState> states = randomStates(rand, 200);
+        for (int k = 0; k < 100; k++) list.add(states.get(k));
+        checkIndex(list, states);
+        CSArrayList copy = (CSArrayList) list.clone();
+        for (int k = 0; k < 30; k++) list.remove(rand.nextInt(list.size()));
+        checkIndex(list, states);
+        checkIndex(copy, states);
+        list.add(0, states.get(150));
+        list.addAll(states.subList(100, 120));
+        checkIndex(list, states);
+    }
+
+    /**
+     * Modifications through a sublist (set, add, remove, sort) keep contains and indexOf correct
+     */
+    @Test
+    public void testSubList() {
+        init();
+        Random rand = new Random(42);
+        ArrayList<CubeState> states = randomStates(rand, 100);
+        CSArrayList list = new CSArrayList();
+        for (int k = 0; k < 50; k++) list.add(states.get(k));
+        checkIndex(list, states);
+        List<CubeState> sub = list.subList(10, 30);
+        for (int k = 0; k < 10; k++) sub.set(rand.nextInt(sub.size()), states.get(50 + k));
+        checkIndex(list, states);
+        sub.add(5, states.get(70));
+        sub.remove(0);
+        sub.subList(2, 4).clear();
+        assert sub.size() == 18 && list.size() == 48 : "sizes " + sub.size() + ", " + list.size();
+        checkIndex(list, states);
+        ListIterator<CubeState> it = sub.listIterator();
+        while (it.hasNext()) { it.next(); it.set(states.get(80 + rand.nextInt(20))); }
+        checkIndex(list, states);
+    }
+
+    /**
+     * For the TRAFO types the packed face colors are only a hash of the state: the generated distance sets
+     * have the same sizes as for the COLOR type
+     */
+    @Test
+    public void testGenerateTrafo() {
+        init();
+        CSArrayList Dprev = new CSArrayList();
+        CSArrayList D = new CSArrayList();
+        D.add(new CubeState2x2(CubeState.Type.TRAFO_P));
+        D.get(0).minTwists = 0;
+        for (int p = 1; p <= 5; p++) {
+            CSArrayList Dnext = CSArrayList.nextDistanceSet(D, Dprev);
+            assert Dnext.size() == CubeConfig.theoCov[p] : "TRAFO_P: D[" + p + "] has size " + Dnext.size();
+            for (int i = 0; i < Dnext.size(); i++) {
+                assert Dnext.indexOf(Dnext.get(i)) == i : "duplicate state in D[" + p + "]";
+                assert Dnext.get(i).minTwists == p;
+            }
+            Dprev = D;
+            D = Dnext;
+        }
+    }
+
+    private ArrayList<CubeState> randomStates(Random rand, int num) {
+        ArrayList<CubeState> states = new ArrayList<>();
+        for (int k = 0; k < num; k++) {
+            CubeState cs = csFactory.makeCubeState();
+            for (int t = 0; t < 4; t++) {
+                switch (rand.nextInt(3)) {
+                    case 0: cs.UTw(1 + rand.nextInt(3)); break;
+                    case 1: cs.LTw(1 + rand.nextInt(3)); break;
+                    case 2: cs.FTw(1 + rand.nextInt(3)); break;
+                }
+            }
+            states.add(cs);
+        }
+        return states;
+    }
+
+    private void checkIndex(CSArrayList list, ArrayList<CubeState> states) {
+        for (CubeState cs : states) {
+            int expected = -1;
+            for (int i = 0; i < list.size() && expected < 0; i++)
+                if (cs.isEqual(list.get(i))) expected = i;
+            assert list.indexOf(cs) == expected : "indexOf differs from linear search";
+            assert list.contains(cs) == (expected >= 0) : "contains differs from linear search";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package games.RubiksCube;
+
+import controllers.TD.ntuple2.ReplayBuffer;
+import games.RubiksCube.CubeConfig.BoardVecType;
+import org.junit.Test;
+import tools.Types;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Check that the states which {@link DAVI3Agent} keeps in its {@link ReplayBuffer} give the same board vector
+ * and last twist after the round trip through the buffer, for every {@link BoardVecType} of the 2x2x2 and
+ * the 3x3x3 cube.
+ */
+public class DAVI3AgentTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testReplayStatesPocket() {
+        checkReplayStates(CubeConfig.CubeType.POCKET, new BoardVecType[]{BoardVecType.CUBESTATE,
+                BoardVecType.CUBEPLUSACTION, BoardVecType.STICKER, BoardVecType.STICKER2});
+    }
+
+    @Test
+    public void testReplayStatesRubiks() {
+        checkReplayStates(CubeConfig.CubeType.RUBIKS, new BoardVecType[]{BoardVecType.CUBESTATE,
+                BoardVecType.CUBEPLUSACTION, BoardVecType.STICKER2});
+    }
+
+    private void checkReplayStates(CubeConfig.CubeType type, BoardVecType[] bvTypes) {
+        CubeConfig.CubeType oldType = CubeConfig.cubeType;
+        BoardVecType oldBvType = CubeConfig.boardVecType;
+        try {
+            init(type);
+            int numActions = (type == CubeConfig.CubeType.POCKET) ? 9 : 18;
+            for (BoardVecType bvt : bvTypes) {
+                CubeConfig.boardVecType = bvt;
+                ReplayBuffer buffer = new ReplayBuffer(8);
+                StateObserverCube[] states = new StateObserverCube[20];
+                for (int k = 0; k < states.length; k++) {
+                    StateObserverCube so = new StateObserverCube();
+                    for (int i = 0; i <= k % 10; i++) so.advance(new Types.ACTIONS(rand.nextInt(numActions)));
+                    states[k] = so;
+                    int slot = buffer.add(DAVI3Agent.packState(so), 0, 0.1 * k, k);
+                    StateObserverCube back = DAVI3Agent.unpackState(buffer.getVector(slot));
+                    CubeState cs = so.getCubeState();
+                    CubeState cb = back.getCubeState();
+                    assert cb.isEqual(cs) : type + ", " + bvt + ": state " + k + " differs";
+                    assert cb.lastTwist == cs.lastTwist && cb.lastTimes == cs.lastTimes
+                            : type + ", " + bvt + ": last twist of state " + k + " differs";
+                    assert Arrays.equals(cb.getBoardVector().bvec, cs.getBoardVector().bvec)
+                            : type + ", " + bvt + ": board vector of state " + k + " differs";
+                }
+                // the buffer (capacity 8) keeps the last 8 states
+                for (int slot = 0; slot < buffer.size(); slot++) {
+                    int k = buffer.getGameNum(slot);
+                    StateObserverCube back = DAVI3Agent.unpackState(buffer.getVector(slot));
+                    assert Arrays.equals(back.getCubeState().getBoardVector().bvec,
+                            states[k].getCubeState().getBoardVector().bvec)
+                            : type + ", " + bvt + ": slot " + slot + " does not hold state " + k;
+                }
+            }
+        } finally {
+            CubeConfig.boardVecType = oldBvType;
+            init(oldType);
+        }
+    }
+
+    private void init(CubeConfig.CubeType type) {
+        CubeConfig.cubeType = type;
+        CubeStateFactory.generateInverseTs();
+        CubeState.generateForwardTs();
+    }
+}
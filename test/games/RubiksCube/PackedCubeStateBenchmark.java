@@ -0,0 +1,95 @@
+package games.RubiksCube;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+/**
+ * Micro-benchmark: twists per second and bytes allocated per twist of {@link PackedCubeState} versus
+ * {@link CubeState2x2} / {@link CubeState3x3}. Both do the same random twist sequences: episodes of
+ * {@link #EPISODE_LENGTH} twists, each starting with a copy of the solved cube (as in training and evaluation,
+ * where each episode starts from a copied start state).
+ * <p>
+ * Usage:
+ * <pre>
+ *    PackedCubeStateBenchmark [ numTwists ] </pre>
+ * (No JMH in this project: we do a warm-up round followed by a timed round. The allocation is measured
+ * with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.)
+ */
+public class PackedCubeStateBenchmark {
+	static final int EPISODE_LENGTH = 15;
+
+	public static void main(String[] args) {
+		int numTwists = (args.length>0) ? Integer.parseInt(args[0]) : 2000000;
+		run(CubeConfig.CubeType.POCKET, 3, numTwists);
+		run(CubeConfig.CubeType.RUBIKS, 6, numTwists);
+	}
+
+	private static void run(CubeConfig.CubeType cubeType, int numFaces, int numTwists) {
+		CubeConfig.cubeType = cubeType;
+		CubeStateFactory.generateInverseTs();
+		CubeState.generateForwardTs();
+		Random rand = new Random(42);
+		int[] actions = new int[numTwists];
+		for (int k=0; k<numTwists; k++) actions[k] = rand.nextInt(3*numFaces);
+
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+		DecimalFormat frm = new DecimalFormat("#0.0");
+
+		long sum = twistCubeState(actions);
+		long bytes0 = mx.getThreadAllocatedBytes(tid);
+		long t0 = System.nanoTime();
+		sum += twistCubeState(actions);
+		long t1 = System.nanoTime();
+		long bytes1 = mx.getThreadAllocatedBytes(tid);
+		System.out.println(cubeType+" CubeState      : "+frm.format(numTwists/((t1-t0)*1e-9))+" twists/sec, "
+				+frm.format((double)(bytes1-bytes0)/numTwists)+" bytes/twist   (checksum "+sum+")");
+
+		sum = twistPacked(cubeType, actions);
+		bytes0 = mx.getThreadAllocatedBytes(tid);
+		t0 = System.nanoTime();
+		sum += twistPacked(cubeType, actions);
+		t1 = System.nanoTime();
+		bytes1 = mx.getThreadAllocatedBytes(tid);
+		System.out.println(cubeType+" PackedCubeState: "+frm.format(numTwists/((t1-t0)*1e-9))+" twists/sec, "
+				+frm.format((double)(bytes1-bytes0)/numTwists)+" bytes/twist   (checksum "+sum+")");
+	}
+
+	private static long twistCubeState(int[] actions) {
+		CubeStateFactory csFactory = new CubeStateFactory();
+		CubeState def = csFactory.makeCubeState();
+		CubeState cs = def;
+		long sum = 0;
+		for (int k=0; k<actions.length; k++) {
+			if (k%EPISODE_LENGTH==0) {
+				sum += cs.fcol[0];
+				cs = csFactory.makeCubeState(def);
+			}
+			int times = actions[k]%3+1;
+			switch(actions[k]/3) {
+			case 0: cs.UTw(times); break;
+			case 1: cs.LTw(times); break;
+			case 2: cs.FTw(times); break;
+			case 3: cs.DTw(times); break;
+			case 4: cs.RTw(times); break;
+			case 5: cs.BTw(times); break;
+			}
+		}
+		return sum;
+	}
+
+	private static long twistPacked(CubeConfig.CubeType cubeType, int[] actions) {
+		PackedCubeState solved = new PackedCubeState(cubeType);
+		PackedCubeState p = new PackedCubeState(solved);
+		long sum = 0;
+		for (int k=0; k<actions.length; k++) {
+			if (k%EPISODE_LENGTH==0) {
+				sum += p.getCorners() & 0x1F;
+				p.set(solved);
+			}
+			p.twist(actions[k]);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,93 @@
+package games.RubiksCube;
+
+import games.RubiksCube.CubeConfig.BoardVecType;
+import games.RubiksCube.CubeState.Twist;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Check that {@link PackedCubeState} and {@link CubeState} agree for random twist sequences on the 2x2x2 and
+ * the 3x3x3 cube, including the conversions to {@link CubeState} and {@link games.BoardVector}.
+ */
+public class PackedCubeStateTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testPocketCube() {
+        init(CubeConfig.CubeType.POCKET);
+        checkTwists(3, new BoardVecType[]{BoardVecType.CUBESTATE, BoardVecType.CUBEPLUSACTION,
+                BoardVecType.STICKER, BoardVecType.STICKER2});
+    }
+
+    @Test
+    public void testRubiksCube() {
+        init(CubeConfig.CubeType.RUBIKS);
+        checkTwists(6, new BoardVecType[]{BoardVecType.CUBESTATE, BoardVecType.CUBEPLUSACTION,
+                BoardVecType.STICKER2});
+        init(CubeConfig.CubeType.POCKET);
+    }
+
+    /**
+     * Four quarter turns of any face give the solved cube again; twist and inverse twist cancel
+     */
+    @Test
+    public void testInverse() {
+        for (CubeConfig.CubeType type : CubeConfig.CubeType.values()) {
+            int numFaces = (type == CubeConfig.CubeType.POCKET) ? 3 : 6;
+            PackedCubeState p = new PackedCubeState(type);
+            for (int f = 0; f < numFaces; f++) {
+                for (int k = 0; k < 4; k++) p.twist(3 * f);
+                assert p.isSolved() : type + ": 4x face " + f + " does not give the solved cube";
+                p.twist(3 * f + 1).twist(3 * f + 1);
+                assert p.isSolved() : type + ": 2x half turn of face " + f + " does not give the solved cube";
+            }
+            for (int a = 0; a < 3 * numFaces; a++)
+                assert !new PackedCubeState(type).twist(a).isSolved() : type + ": action " + a + " does not change the cube";
+        }
+    }
+
+    private void init(CubeConfig.CubeType type) {
+        CubeConfig.cubeType = type;
+        CubeStateFactory.generateInverseTs();
+        CubeState.generateForwardTs();
+    }
+
+    private void checkTwists(int numFaces, BoardVecType[] bvTypes) {
+        CubeStateFactory csFactory = new CubeStateFactory();
+        BoardVecType oldType = CubeConfig.boardVecType;
+        Twist[] twist = {Twist.U, Twist.L, Twist.F, Twist.D, Twist.R, Twist.B};
+        try {
+            for (int run = 0; run < 20; run++) {
+                CubeState cs = csFactory.makeCubeState();
+                PackedCubeState p = new PackedCubeState(CubeConfig.cubeType);
+                PackedCubeState copy = new PackedCubeState(p);
+                for (int k = 0; k < 15; k++) {
+                    int f = rand.nextInt(numFaces);
+                    int times = 1 + rand.nextInt(3);
+                    switch (twist[f]) {
+                        case U: cs.UTw(times); break;
+                        case L: cs.LTw(times); break;
+                        case F: cs.FTw(times); break;
+                        case D: cs.DTw(times); break;
+                        case R: cs.RTw(times); break;
+                        case B: cs.BTw(times); break;
+                    }
+                    p.twist(twist[f], times);
+                    CubeState pcs = p.toCubeState();
+                    assert pcs.isEqual(cs) : "packed and CubeState differ after " + cs.getTwistSeq();
+                    assert new PackedCubeState(cs).equals(p) : "packing CubeState " + cs.getTwistSeq() + " fails";
+                    for (BoardVecType bvt : bvTypes) {
+                        CubeConfig.boardVecType = bvt;
+                        assert Arrays.equals(p.getBoardVector().bvec, cs.getBoardVector().bvec)
+                                : "board vectors " + bvt + " differ after " + cs.getTwistSeq();
+                    }
+                }
+                assert copy.set(p).equals(p) && copy.hashCode() == p.hashCode();
+            }
+        } finally {
+            CubeConfig.boardVecType = oldType;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package games.Sim;
+
+import games.BoardVector;
+import games.StateObsWithBoardVector;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Play random Sim games (2 and 3 players, K_6 to K_12) and check the adjacency bitmasks of
+ * {@link StateObserverSim}: the losing triangle agrees with a scan over all nodes, the available actions are
+ * the empty links, copies are independent and serialized states read back equal. The symmetry vectors of
+ * {@link XNTupleFuncsSim} are node permutations of the board (with and without the permutation tables).
+ */
+public class StateObserverSimTest {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testRandomGames() throws IOException, ClassNotFoundException {
+        Object[][] configs = {{6, 2, "None"}, {6, 3, "None"}, {6, 3, "1-2"}, {9, 2, "None"}, {12, 3, "None"}};
+        int numNodes = ConfigSim.NUM_NODES, numPlayers = ConfigSim.NUM_PLAYERS;
+        String coalition = ConfigSim.COALITION;
+        try {
+            for (Object[] config : configs) {
+                ConfigSim.NUM_NODES = (Integer) config[0];
+                ConfigSim.NUM_PLAYERS = (Integer) config[1];
+                ConfigSim.COALITION = (String) config[2];
+                for (int g = 0; g < 100; g++) {
+                    StateObserverSim so = new StateObserverSim();
+                    StateObserverSim previous = null;
+                    String previousDescr = null;
+                    while (!so.isGameOver()) {
+                        int player = so.getPlayer();
+                        if (rand.nextInt(4) == 0) {
+                            previous = so;
+                            previousDescr = so.stringDescr();
+                            so = so.copy();
+                        }
+                        so.advance(so.getAction(rand.nextInt(so.getNumAvailableActions())));
+                        int[] last = so.getLastNodes();
+                        int third = scanTriangle(so, last[0], last[1], player + 1);
+                        assert so.hasLost(player) == (third >= 0) : "triangle differs on " + so.stringDescr();
+                        if (third >= 0) assert so.getLastNodes()[2] == third;
+                        assert so.isLegalState();
+                        checkActions(so);
+                        if (previous != null)
+                            assert previous.stringDescr().equals(previousDescr) : "copy is not independent";
+                        if (rand.nextInt(10) == 0) {
+                            StateObserverSim so2 = serializeAndRead(so);
+                            assert so2.stringDescr().equals(so.stringDescr()) && so2.hashKey() == so.hashKey();
+                            assert so2.getNumAvailableActions() == so.getNumAvailableActions();
+                        }
+                    }
+                }
+            }
+        } finally {
+            ConfigSim.NUM_NODES = numNodes;
+            ConfigSim.NUM_PLAYERS = numPlayers;
+            ConfigSim.COALITION = coalition;
+        }
+    }
+
+    @Test
+    public void testSymmetryVectors() {
+        int numNodes = ConfigSim.NUM_NODES, numPlayers = ConfigSim.NUM_PLAYERS;
+        try {
+            for (int K : new int[]{5, 6, 8}) {          // K=8: without permutation tables
+                ConfigSim.NUM_NODES = K;
+                ConfigSim.NUM_PLAYERS = 2;
+                XNTupleFuncsSim xnf = new XNTupleFuncsSim(K * (K - 1) / 2, 3, 2);
+                assert (xnf.symLinks != null) == (K <= 7);
+                LinkTableSim links = LinkTableSim.of(K);
+                for (int g = 0; g < 5; g++) {
+                    StateObserverSim so = new StateObserverSim();
+                    while (!so.isGameOver()) {
+                        so.advance(so.getAction(rand.nextInt(so.getNumAvailableActions())));
+                        BoardVector[] sym = xnf.symmetryVectors(new StateObsWithBoardVector(so, xnf), 4);
+                        assert Arrays.equals(sym[0].bvec, xnf.getBoardVector(so).bvec);
+                        for (int i = 1; i < sym.length; i++)
+                            assert isNodePermutation(sym[i].bvec, sym[0].bvec, links) : "no node permutation";
+                    }
+                }
+            }
+        } finally {
+            ConfigSim.NUM_NODES = numNodes;
+            ConfigSim.NUM_PLAYERS = numPlayers;
+        }
+    }
+
+    /**
+     * @return the lowest node which forms a triangle of player {@code pl} (1,2,3) with nodes i and j, -1 if
+     *      there is no such node
+     */
+    private static int scanTriangle(StateObserverSim so, int i, int j, int pl) {
+        for (int k = 0; k < so.getNumNodes(); k++)
+            if (k != i && k != j && so.getLinkFromTo(k, i) == pl && so.getLinkFromTo(k, j) == pl)
+                return k;
+        return -1;
+    }
+
+    private static void checkActions(StateObserverSim so) {
+        String descr = so.stringDescr();
+        int numEmpty = 0;
+        for (int k = 0; k < descr.length(); k++) {
+            if (descr.charAt(k) == '_') {
+                assert so.getAction(numEmpty++).toInt() == k;
+            }
+        }
+        assert numEmpty == so.getNumAvailableActions();
+    }
+
+    private static StateObserverSim serializeAndRead(StateObserverSim so) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(so);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            return (StateObserverSim) ois.readObject();
+        }
+    }
+
+    /**
+     * @return true, if there is a node permutation which maps board {@code bvec} to {@code sym} (brute force)
+     */
+    private static boolean isNodePermutation(int[] sym, int[] bvec, LinkTableSim links) {
+        return findPermutation(sym, bvec, links, new int[links.numNodes], new boolean[links.numNodes], 0);
+    }
+
+    private static boolean findPermutation(int[] sym, int[] bvec, LinkTableSim links, int[] perm, boolean[] used,
+                                           int n) {
+        if (n == perm.length) return true;
+        for (int v = 0; v < perm.length; v++) {
+            if (used[v]) continue;
+            perm[n] = v;
+            boolean fits = true;
+            for (int m = 0; m < n && fits; m++)      // the links between node n and the nodes already placed
+                fits = sym[links.link[m][n]] == bvec[links.link[perm[m]][v]];
+            if (fits) {
+                used[v] = true;
+                if (findPermutation(sym, bvec, links, perm, used, n + 1)) return true;
+                used[v] = false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package games;
+
+import controllers.TD.ntuple2.TDNTuple3Agt;
+import controllers.TD.ntuple4.TDNTuple4Agt;
+import games.TicTacToe.StateObserverTTT;
+import games.TicTacToe.XNTupleFuncsTTT;
+import org.junit.Test;
+import params.ParNT;
+import params.ParOther;
+import params.ParTD;
+import tools.Types;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Write a {@link TrainCheckpoint} in the middle of training, load it and check that training continues from
+ * the checkpoint exactly as the original agent does (same game counter, alpha, epsilon and weights).
+ */
+public class TrainCheckpointTest {
+
+    @Test
+    public void testResume() throws IOException {
+        StateObservation startSO = new StateObserverTTT();
+        ParTD tdPar = new ParTD();
+        tdPar.setAlpha(0.2);
+        tdPar.setAlphaFinal(0.01);
+        tdPar.setEpsilon(0.3);
+        tdPar.setEpsilonFinal(0.0);
+        TDNTuple3Agt pa = new TDNTuple3Agt("TDNT3", tdPar, new ParNT(), new ParOther(), randomTuples(),
+                new XNTupleFuncsTTT(), 1000);
+        pa.setMaxGameNum(1000);
+        pa.rand = new Random(42);
+        for (int k = 0; k < 300; k++) pa.trainAgent(startSO);
+
+        ArrayList<MTrain> mtList = new ArrayList<>();
+        mtList.add(new MTrain(1, 300, 0.5, 0.6, 2000, 2100));
+        File file = File.createTempFile("train", TrainCheckpoint.EXTENSION);
+        try {
+            TrainCheckpoint.Writer writer = new TrainCheckpoint.Writer(file.getPath(), 100);
+            assert writer.isDue(300) && !writer.isDue(350);
+            writer.write(new TrainCheckpoint(pa, 1, mtList, new double[]{0.9}, new double[]{Double.NaN}));
+            writer.close(false);
+
+            TrainCheckpoint cp = TrainCheckpoint.load(file.getPath());
+            TDNTuple3Agt pb = (TDNTuple3Agt) cp.pa;
+            assert cp.run == 1 && cp.mtList.size() == 1 && cp.mtList.get(0).gameNum == 300;
+            assert cp.finalQ[0] == 0.9 && Double.isNaN(cp.finalT[0]);
+            assert pb.getGameNum() == 300 : "gameNum = " + pb.getGameNum();
+
+            // continue the original agent and the agent from the checkpoint:
+            for (int k = 0; k < 200; k++) {
+                pb.trainAgent(startSO);
+                pa.trainAgent(startSO);
+            }
+            assert pb.getAlpha() == pa.getAlpha() && pb.getEpsilon() == pa.getEpsilon();
+            assert pb.getEpsilon() < 0.3 * 0.6 : "epsilon schedule restarted: " + pb.getEpsilon();
+            assert pb.getAlpha() < 0.2 * 0.5 : "alpha schedule restarted: " + pb.getAlpha();
+            StateObservation so = startSO.copy();
+            for (Types.ACTIONS act : so.getAvailableActions()) {
+                StateObservation next = so.copy();
+                next.advance(act);
+                assert pb.getScore(next, so) == pa.getScore(next, so);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * The checkpoint of an {@link controllers.TD.ntuple4.NTuple4Base} agent has to restore alpha, epsilon and the
+     * number of learn actions as well.
+     */
+    @Test
+    public void testResumeNTuple4() throws IOException {
+        StateObservation startSO = new StateObserverTTT();
+        ParTD tdPar = new ParTD();
+        tdPar.setAlpha(0.2);
+        tdPar.setAlphaFinal(0.01);
+        tdPar.setEpsilon(0.3);
+        tdPar.setEpsilonFinal(0.0);
+        TDNTuple4Agt pa = new TDNTuple4Agt("TDNT4", tdPar, new ParNT(), new ParOther(), randomTuples(),
+                new XNTupleFuncsTTT(), 1000);
+        pa.setMaxGameNum(1000);
+        pa.rand = new Random(42);
+        for (int k = 0; k < 300; k++) pa.trainAgent(startSO);
+        assert pa.getNumLrnActions() > 0;
+
+        File file = File.createTempFile("train", TrainCheckpoint.EXTENSION);
+        try {
+            TrainCheckpoint.Writer writer = new TrainCheckpoint.Writer(file.getPath(), 100);
+            writer.write(new TrainCheckpoint(pa, 0, new ArrayList<>(), new double[0], new double[0]));
+            writer.close(false);
+
+            TDNTuple4Agt pb = (TDNTuple4Agt) TrainCheckpoint.load(file.getPath()).pa;
+            assert pb.getGameNum() == pa.getGameNum() : "gameNum = " + pb.getGameNum();
+            assert pb.getAlpha() == pa.getAlpha() && pb.getEpsilon() == pa.getEpsilon();
+            assert pb.getNumLrnActions() == pa.getNumLrnActions()
+                    : "learn actions: " + pb.getNumLrnActions() + " vs. " + pa.getNumLrnActions();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testDelete() throws IOException {
+        File file = File.createTempFile("train", TrainCheckpoint.EXTENSION);
+        TrainCheckpoint.Writer writer = new TrainCheckpoint.Writer(file.getPath(), 10);
+        writer.write(new TrainCheckpoint(null, 2, new ArrayList<>(), new double[2], new double[2]));
+        writer.close(true);
+        assert !file.exists() : "checkpoint not deleted after completed training";
+    }
+
+    private int[][] randomTuples() {
+        Random rand = new Random(42);
+        int[][] nTuples = new int[8][7];
+        for (int[] nTuple : nTuples)
+            for (int m = 0; m < nTuple.length; m++)
+                nTuple[m] = rand.nextInt(9);
+        return nTuples;
+    }
+}
@@ -0,0 +1,88 @@
+package games.ZweiTausendAchtundVierzig;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import tools.Types;
+
+/**
+ * Micro-benchmark for the table-driven 2048 move engine {@link BitBoard2048}: measures moves per second and
+ * bytes allocated per move, once for the raw {@link BitBoard2048#move(long, int)} on a fixed set of boards
+ * from random games and once for complete random games with {@link StateObserver2048#advance(Types.ACTIONS)}
+ * (which includes the random tile and the update of empty tiles and available moves).
+ * <p>
+ * Usage:
+ * <pre>
+ *    BitBoard2048Benchmark [ numGames ] </pre>
+ * (No JMH in this project: we do a simple warm-up phase followed by timed rounds. The allocation is measured
+ * with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.)
+ */
+public class BitBoard2048Benchmark {
+	static final int NUM_BOARDS = 10000;
+	static final int WARMUP_ROUNDS = 20;
+	static final int ROUNDS = 100;
+
+	public static void main(String[] args) {
+		int numGames = (args.length>0) ? Integer.parseInt(args[0]) : 200;
+		long[] boards = randomBoards();
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+		DecimalFormat frm = new DecimalFormat("#0.0");
+
+		long sum = 0;
+		for (int r=0; r<WARMUP_ROUNDS; r++)
+			sum += moveAll(boards);
+		long bytes0 = mx.getThreadAllocatedBytes(tid);
+		long t0 = System.nanoTime();
+		for (int r=0; r<ROUNDS; r++)
+			sum += moveAll(boards);
+		long t1 = System.nanoTime();
+		long bytes1 = mx.getThreadAllocatedBytes(tid);
+		double numMoves = 4.0*ROUNDS*boards.length;
+		System.out.println("BitBoard2048.move        : "+frm.format(numMoves/((t1-t0)*1e-9))+" moves/sec, "
+				+frm.format((bytes1-bytes0)/numMoves)+" bytes/move   (checksum "+sum+")");
+
+		playGames(numGames/10+1, new Random(1));
+		Random rand = new Random(42);
+		bytes0 = mx.getThreadAllocatedBytes(tid);
+		t0 = System.nanoTime();
+		long moves = playGames(numGames, rand);
+		t1 = System.nanoTime();
+		bytes1 = mx.getThreadAllocatedBytes(tid);
+		System.out.println("StateObserver2048.advance: "+frm.format(moves/((t1-t0)*1e-9))+" moves/sec, "
+				+frm.format((double)(bytes1-bytes0)/moves)+" bytes/move   ("+moves+" moves in "+numGames+" games)");
+	}
+
+	private static long moveAll(long[] boards) {
+		long sum = 0;
+		for (long b : boards)
+			for (int m=0; m<4; m++)
+				sum += BitBoard2048.move(b, m) + BitBoard2048.moveScore(b, m);
+		return sum;
+	}
+
+	private static long playGames(int numGames, Random rand) {
+		long moves = 0;
+		for (int g=0; g<numGames; g++) {
+			StateObserver2048 so = new StateObserver2048();
+			while (!so.isGameOver()) {
+				so.advance(so.getAction(rand.nextInt(so.getNumAvailableActions())));
+				moves++;
+			}
+		}
+		return moves;
+	}
+
+	private static long[] randomBoards() {
+		Random rand = new Random(42);
+		long[] boards = new long[NUM_BOARDS];
+		StateObserver2048 so = new StateObserver2048();
+		for (int k=0; k<NUM_BOARDS; k++) {
+			if (so.isGameOver()) so = new StateObserver2048();
+			boards[k] = so.getBoardNum();
+			so.advance(so.getAction(rand.nextInt(so.getNumAvailableActions())));
+		}
+		return boards;
+	}
+}
@@ -0,0 +1,105 @@
+package games.ZweiTausendAchtundVierzig;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Check the table-driven moves of {@link BitBoard2048} against a straightforward tile-by-tile
+ * implementation of the 2048 rules.
+ */
+public class BitBoard2048Test {
+    private final Random rand = new Random(42);
+
+    @Test
+    public void testTranspose() {
+        for (int k = 0; k < 1000; k++) {
+            long b = rand.nextLong();
+            long t = BitBoard2048.transpose(b);
+            for (int r = 0; r < 4; r++)
+                for (int c = 0; c < 4; c++)
+                    assert tile(t, c, r) == tile(b, r, c) : "transpose wrong for " + Long.toHexString(b);
+            assert BitBoard2048.transpose(t) == b;
+        }
+    }
+
+    @Test
+    public void testMoves() {
+        for (int k = 0; k < 20000; k++) {
+            long b = randomBoard();
+            int maxExp = 0;
+            for (int i = 0; i < 16; i++) maxExp = Math.max(maxExp, (int) (b >>> 4 * i) & 0x0F);
+            assert BitBoard2048.maxExponent(b) == maxExp;
+            for (int m = 0; m < 4; m++) {
+                long[] expected = slowMove(b, m);
+                assert BitBoard2048.move(b, m) == expected[0]
+                        : "move " + m + " wrong for " + Long.toHexString(b);
+                assert BitBoard2048.moveScore(b, m) == expected[1]
+                        : "score of move " + m + " wrong for " + Long.toHexString(b);
+            }
+        }
+    }
+
+    // boards with many empty tiles and many equal neighbours, so that all merge patterns occur
+    // (exponents up to 14: merging two 2^15 tiles would overflow the hex digit)
+    private long randomBoard() {
+        long b = 0;
+        for (int i = 0; i < 16; i++) {
+            long exp = rand.nextInt(3) == 0 ? 0 : 1 + rand.nextInt(rand.nextBoolean() ? 3 : 14);
+            b |= exp << 4 * i;
+        }
+        return b;
+    }
+
+    // tile exponent in row r (0: lowest row) and column c (0: rightmost column)
+    private static int tile(long b, int r, int c) {
+        return (int) (b >>> (16 * r + 4 * c)) & 0x0F;
+    }
+
+    /**
+     * @return {board after move m (0: left, 1: up, 2: right, 3: down), score of the move}
+     */
+    private static long[] slowMove(long b, int m) {
+        long result = 0;
+        long score = 0;
+        for (int line = 0; line < 4; line++) {
+            // read the line in the order in which its tiles slide towards the border
+            int[] cells = new int[4];
+            for (int i = 0; i < 4; i++) cells[i] = tile(b, row(m, line, i), col(m, line, i));
+            int[] out = new int[4];
+            int n = 0;
+            boolean merged = false;
+            for (int i = 0; i < 4; i++) {
+                if (cells[i] == 0) continue;
+                if (n > 0 && !merged && out[n - 1] == cells[i]) {
+                    out[n - 1]++;
+                    score += 1L << out[n - 1];
+                    merged = true;
+                } else {
+                    out[n++] = cells[i];
+                    merged = false;
+                }
+            }
+            for (int i = 0; i < 4; i++)
+                result |= (long) out[i] << (16 * row(m, line, i) + 4 * col(m, line, i));
+        }
+        return new long[]{result, score};
+    }
+
+    // the i-th tile of the line, counted from the border towards which move m slides the tiles
+    private static int row(int m, int line, int i) {
+        switch (m) {
+            case 1: return 3 - i;
+            case 3: return i;
+            default: return line;
+        }
+    }
+
+    private static int col(int m, int line, int i) {
+        switch (m) {
+            case 0: return 3 - i;
+            case 2: return i;
+            default: return line;
+        }
+    }
+}
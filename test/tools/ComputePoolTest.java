@@ -0,0 +1,61 @@
+package tools;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Check {@link ComputePool#invokeAll(java.util.Collection)}: results in task order, nested calls from
+ * tasks running in the pool (more nested tasks than workers must not deadlock), and exceptions.
+ */
+public class ComputePoolTest {
+
+    @Test
+    public void testInvokeAll() {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int k = i;
+            tasks.add(() -> k * k);
+        }
+        List<Integer> res = ComputePool.invokeAll(tasks);
+        for (int i = 0; i < 100; i++)
+            assert res.get(i) == i * i : "wrong result for task " + i;
+    }
+
+    @Test
+    public void testNested() {
+        int n = 4 * ComputePool.getParallelism() + 1;
+        List<Callable<Long>> outer = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            outer.add(() -> {
+                List<Callable<Long>> inner = new ArrayList<>();
+                for (int j = 0; j < n; j++) {
+                    long k = j;
+                    inner.add(() -> k);
+                }
+                long sum = 0;
+                for (long v : ComputePool.invokeAll(inner)) sum += v;
+                return sum;
+            });
+        }
+        for (long sum : ComputePool.invokeAll(outer))
+            assert sum == (long) n * (n - 1) / 2 : "wrong nested sum " + sum;
+    }
+
+    @Test
+    public void testException() {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> 1);
+        tasks.add(() -> {
+            throw new IllegalArgumentException("expected");
+        });
+        try {
+            ComputePool.invokeAll(tasks);
+            assert false : "exception not propagated";
+        } catch (RuntimeException e) {
+            assert e.getCause() instanceof IllegalArgumentException : "wrong cause " + e.getCause();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package tools;
+
+import games.CFour.StateObserverC4;
+import games.Hex.StateObserverHex;
+import games.Nim.StateObserverNim;
+import games.Othello.StateObserverOthello;
+import games.Sim.ArenaSim;
+import games.StateObservation;
+import games.TicTacToe.StateObserverTTT;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ *  Check the Zobrist keys {@link StateObservation#hashKey()} of the games which update them incrementally in
+ *  {@code advance}. Uses {@link ValidateStateObsTest#runTestHashKey(StateObservation, int, Random)}.
+ *
+ * @see ValidateStateObsTest
+ * @see TranspositionTable
+ */
+public class ValidateStateObsHashKeyTest {
+    private ValidateStateObsTest vat = new ValidateStateObsTest();
+    private Random rand = new Random(42);
+
+    @Test
+    public void testHashKeyTTT() {
+        assert vat.runTestHashKey(new StateObserverTTT(), 200, rand);
+    }
+
+    @Test
+    public void testHashKeyNim() {
+        assert vat.runTestHashKey(new StateObserverNim(), 200, rand);
+    }
+
+    @Test
+    public void testHashKeySim() {
+        StateObservation sob = new ArenaSim("",false).getGameBoard().getDefaultStartState();
+        assert vat.runTestHashKey(sob, 100, rand);
+    }
+
+    @Test
+    public void testHashKeyHex() {
+        assert vat.runTestHashKey(new StateObserverHex(), 100, rand);
+    }
+
+    @Test
+    public void testHashKeyOthello() {
+        assert vat.runTestHashKey(new StateObserverOthello(), 20, rand);
+    }
+
+    @Test
+    public void testHashKeyC4() {
+        assert vat.runTestHashKey(new StateObserverC4(), 50, rand);
+    }
+}
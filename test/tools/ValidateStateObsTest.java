@@ -6,6 +6,9 @@ import games.StateObservation;
 
 import java.io.FileOutputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
 
 /**
  * Provide tests to validate a StateObservation object. These tests are generally admitted for any StateObservation in any game.
@@ -73,6 +76,38 @@ public class ValidateStateObsTest {
         }
     }
 
+    /**
+     * Check {@link StateObservation#hashKey()} on {@code numEpisodes} random episodes starting from {@code sob}:
+     * The key updated incrementally along an episode has to be the same as the key computed from scratch for 
+     * the same state, and different states (different {@code stringDescr()} or player) should have different keys.
+     * <p>
+     * {@code sob.hashKey()} should not have been called before, otherwise the keys are not computed from scratch.
+     */
+    public boolean runTestHashKey(StateObservation sob, int numEpisodes, Random rand) {
+        HashMap<Long,String> seen = new HashMap<>();
+        for (int e=0; e<numEpisodes; e++) {
+            StateObservation incr = sob.copy();
+            incr.hashKey();             // from now on, incr's key is updated incrementally
+            ArrayList<Types.ACTIONS> moves = new ArrayList<>();
+            while (!incr.isGameOver()) {
+                ArrayList<Types.ACTIONS> acts = incr.getAvailableActions();
+                Types.ACTIONS a = acts.get(rand.nextInt(acts.size()));
+                incr.advance(a);
+                moves.add(a);
+
+                StateObservation fresh = sob.copy();
+                for (Types.ACTIONS m : moves) fresh.advance(m);
+                assert incr.hashKey()==fresh.hashKey() : "incremental hash key differs for "+incr.stringDescr();
+
+                String descr = incr.stringDescr()+"/"+incr.getPlayer();
+                String other = seen.put(incr.hashKey(), descr);
+                assert other==null || other.equals(descr) : "same hash key for "+descr+" and "+other;
+            }
+        }
+        System.out.println("hashKey check ("+sob.getName()+", "+seen.size()+" states) ... OK");
+        return true;
+    }
+
     private boolean checkScoreTuple(ScoreTuple sc, StateObservation sob, boolean verbose) {
         double scMin = sob.getMinGameScore();
         double scMax = sob.getMaxGameScore();